@@ -0,0 +1,144 @@
+package org.infinispan.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.jgroups.JGroupsTransport;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Cache#get(Object)} and {@link Cache#put(Object, Object)} through the whole interceptor chain for
+ * local, replicated and distributed caches.
+ * <p>
+ * Clustered modes start {@link #clusterSize} cache managers in the same JVM connected through the
+ * {@code benchmark-jgroups-loopback.xml} stack, and every operation is invoked on the first node.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CacheBenchmark {
+
+   static final String JGROUPS_CONFIGURATION = "benchmark-jgroups-loopback.xml";
+
+   @Param({"LOCAL", "REPL_SYNC", "DIST_SYNC"})
+   CacheMode cacheMode;
+
+   @Param("3")
+   int clusterSize;
+
+   @Param("1000")
+   int keySpace;
+
+   @Param("100")
+   int valueSize;
+
+   private final List<EmbeddedCacheManager> cacheManagers = new ArrayList<>();
+   private Cache<String, byte[]> cache;
+   private String[] keys;
+   private byte[] value;
+
+   @Setup
+   public void setup() throws InterruptedException {
+      int nodes = cacheMode.isClustered() ? clusterSize : 1;
+      String clusterName = "benchmark-" + System.nanoTime();
+      for (int i = 0; i < nodes; i++) {
+         cacheManagers.add(createCacheManager(clusterName, i));
+      }
+      List<Cache<String, byte[]>> caches = new ArrayList<>(nodes);
+      for (EmbeddedCacheManager cm : cacheManagers) {
+         caches.add(cm.getCache());
+      }
+      if (cacheMode.isClustered()) {
+         waitForRebalance(caches, nodes);
+      }
+      cache = caches.get(0);
+
+      keys = new String[keySpace];
+      value = new byte[valueSize];
+      ThreadLocalRandom.current().nextBytes(value);
+      for (int i = 0; i < keySpace; i++) {
+         keys[i] = "key-" + i;
+         cache.put(keys[i], value);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      // Stop the coordinator last so the remaining nodes do not have to rebalance
+      for (int i = cacheManagers.size() - 1; i >= 0; i--) {
+         cacheManagers.get(i).stop();
+      }
+      cacheManagers.clear();
+   }
+
+   @Benchmark
+   public byte[] get() {
+      return cache.get(randomKey());
+   }
+
+   @Benchmark
+   public byte[] put() {
+      return cache.put(randomKey(), value);
+   }
+
+   private String randomKey() {
+      return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+   }
+
+   private EmbeddedCacheManager createCacheManager(String clusterName, int index) {
+      GlobalConfigurationBuilder global;
+      if (cacheMode.isClustered()) {
+         global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+         global.transport().clusterName(clusterName).nodeName("node-" + index)
+               .addProperty(JGroupsTransport.CONFIGURATION_FILE, JGROUPS_CONFIGURATION);
+      } else {
+         global = new GlobalConfigurationBuilder();
+      }
+      global.globalJmxStatistics().allowDuplicateDomains(true);
+
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.clustering().cacheMode(cacheMode);
+      return new DefaultCacheManager(global.build(), builder.build());
+   }
+
+   private static void waitForRebalance(List<? extends Cache<?, ?>> caches, int expectedMembers) throws InterruptedException {
+      long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+      for (Cache<?, ?> c : caches) {
+         StateTransferManager stm = c.getAdvancedCache().getComponentRegistry().getStateTransferManager();
+         while (true) {
+            CacheTopology topology = stm.getCacheTopology();
+            if (topology != null && topology.getPendingCH() == null && topology.getMembers().size() == expectedMembers)
+               break;
+            if (System.nanoTime() > deadline)
+               throw new IllegalStateException("Timed out waiting for the cluster to form: " + topology);
+            Thread.sleep(10);
+         }
+      }
+   }
+}
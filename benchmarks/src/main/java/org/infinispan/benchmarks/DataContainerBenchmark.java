@@ -0,0 +1,100 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link org.infinispan.container.DefaultDataContainer} directly, bypassing the interceptor chain, for
+ * each eviction strategy.
+ * <p>
+ * The container is obtained from a local cache so that it is wired exactly as in production. With a bounded strategy
+ * the key space is twice the eviction size, so roughly half of the writes evict an entry and half of the reads miss.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DataContainerBenchmark {
+
+   @Param({"NONE", "LRU", "LIRS", "TINY_LFU"})
+   EvictionStrategy evictionStrategy;
+
+   @Param("10000")
+   int evictionSize;
+
+   @Param("100")
+   int valueSize;
+
+   private EmbeddedCacheManager cacheManager;
+   private DataContainer<String, byte[]> container;
+   private String[] keys;
+   private byte[] value;
+   private Metadata metadata;
+
+   @Setup
+   public void setup() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().allowDuplicateDomains(true);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.eviction().strategy(evictionStrategy);
+      if (evictionStrategy.isEnabled()) {
+         builder.eviction().size(evictionSize);
+      }
+      cacheManager = new DefaultCacheManager(global.build(), builder.build());
+      container = cacheManager.<String, byte[]>getCache().getAdvancedCache().getDataContainer();
+
+      keys = new String[evictionSize * 2];
+      value = new byte[valueSize];
+      ThreadLocalRandom.current().nextBytes(value);
+      metadata = new EmbeddedMetadata.Builder().build();
+      for (int i = 0; i < keys.length; i++) {
+         keys[i] = "key-" + i;
+         container.put(keys[i], value, metadata);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public InternalCacheEntry<String, byte[]> get() {
+      return container.get(randomKey());
+   }
+
+   @Benchmark
+   public void put() {
+      container.put(randomKey(), value, metadata);
+   }
+
+   private String randomKey() {
+      return keys[ThreadLocalRandom.current().nextInt(keys.length)];
+   }
+}
@@ -0,0 +1,102 @@
+package org.infinispan.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full {@code objectToByteBuffer}/{@code objectFromByteBuffer} round trip through the
+ * {@link org.infinispan.marshall.core.GlobalMarshaller} for a few representative payloads.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MarshallerBenchmark {
+
+   public enum Payload {
+      STRING, BYTE_ARRAY, MAP, COMMAND
+   }
+
+   @Param({"STRING", "BYTE_ARRAY", "MAP", "COMMAND"})
+   Payload payload;
+
+   @Param("100")
+   int valueSize;
+
+   private EmbeddedCacheManager cacheManager;
+   private StreamingMarshaller marshaller;
+   private Object object;
+
+   @Setup
+   public void setup() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().allowDuplicateDomains(true);
+      cacheManager = new DefaultCacheManager(global.build());
+      // Starting a cache makes sure the marshaller has been started and all the externalizers are registered
+      cacheManager.getCache();
+      marshaller = cacheManager.getGlobalComponentRegistry().getComponent(StreamingMarshaller.class);
+
+      byte[] bytes = new byte[valueSize];
+      ThreadLocalRandom.current().nextBytes(bytes);
+      switch (payload) {
+         case STRING:
+            StringBuilder sb = new StringBuilder(valueSize);
+            for (int i = 0; i < valueSize; i++) {
+               sb.append((char) ('a' + i % 26));
+            }
+            object = sb.toString();
+            break;
+         case BYTE_ARRAY:
+            object = bytes;
+            break;
+         case MAP:
+            Map<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < 10; i++) {
+               map.put("key-" + i, i);
+            }
+            object = map;
+            break;
+         case COMMAND:
+            object = new PutKeyValueCommand("key", bytes, false, null,
+                  new EmbeddedMetadata.Builder().lifespan(60000).build(), 0, null, CommandInvocationId.generateId(null));
+            break;
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public Object roundTrip() throws Exception {
+      byte[] bytes = marshaller.objectToByteBuffer(object);
+      return marshaller.objectFromByteBuffer(bytes);
+   }
+}
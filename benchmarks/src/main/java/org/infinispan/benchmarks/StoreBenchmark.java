@@ -0,0 +1,118 @@
+package org.infinispan.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryFactory;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@code load} and {@code write} on the file based stores, invoked directly on the store instance so that
+ * neither the data container nor the interceptor chain are part of the measurement.
+ * <p>
+ * The stores write into a temporary directory that is removed when the trial ends.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StoreBenchmark {
+
+   public enum StoreType {
+      SINGLE_FILE, SOFT_INDEX
+   }
+
+   @Param({"SINGLE_FILE", "SOFT_INDEX"})
+   StoreType storeType;
+
+   @Param("10000")
+   int keySpace;
+
+   @Param("100")
+   int valueSize;
+
+   private File location;
+   private EmbeddedCacheManager cacheManager;
+   private AdvancedLoadWriteStore<String, byte[]> store;
+   private MarshalledEntry<String, byte[]>[] entries;
+
+   @Setup
+   @SuppressWarnings("unchecked")
+   public void setup() throws IOException {
+      location = Files.createTempDirectory("infinispan-benchmark").toFile();
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().allowDuplicateDomains(true);
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      switch (storeType) {
+         case SINGLE_FILE:
+            builder.persistence().addSingleFileStore().location(location.getPath());
+            break;
+         case SOFT_INDEX:
+            builder.persistence().addStore(SoftIndexFileStoreConfigurationBuilder.class)
+                  .dataLocation(new File(location, "data").getPath())
+                  .indexLocation(new File(location, "index").getPath());
+            break;
+      }
+      cacheManager = new DefaultCacheManager(global.build(), builder.build());
+      PersistenceManager persistenceManager = cacheManager.getCache().getAdvancedCache().getComponentRegistry()
+            .getComponent(PersistenceManager.class);
+      store = persistenceManager.getStores(AdvancedLoadWriteStore.class).iterator().next();
+      MarshalledEntryFactory<String, byte[]> entryFactory = cacheManager.getCache().getAdvancedCache()
+            .getComponentRegistry().getComponent(MarshalledEntryFactory.class);
+
+      entries = new MarshalledEntry[keySpace];
+      for (int i = 0; i < keySpace; i++) {
+         byte[] value = new byte[valueSize];
+         ThreadLocalRandom.current().nextBytes(value);
+         entries[i] = entryFactory.newMarshalledEntry("key-" + i, value, null);
+         store.write(entries[i]);
+      }
+   }
+
+   @TearDown
+   public void tearDown() {
+      cacheManager.stop();
+      Util.recursiveFileRemove(location);
+   }
+
+   @Benchmark
+   public MarshalledEntry<String, byte[]> load() {
+      return store.load(randomEntry().getKey());
+   }
+
+   @Benchmark
+   public void write() {
+      store.write(randomEntry());
+   }
+
+   private MarshalledEntry<String, byte[]> randomEntry() {
+      return entries[ThreadLocalRandom.current().nextInt(entries.length)];
+   }
+}
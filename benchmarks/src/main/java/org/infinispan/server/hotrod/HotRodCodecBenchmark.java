@@ -0,0 +1,177 @@
+package org.infinispan.server.hotrod;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.core.transport.ExtendedByteBuf;
+import org.infinispan.server.core.transport.ExtendedByteBufJava;
+import org.infinispan.server.hotrod.configuration.HotRodServerConfigurationBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Measures decoding of Hot Rod 2.x requests with {@link Decoder2x} and encoding of the matching responses with
+ * {@link Encoder2x}, without any network or cache access.
+ * <p>
+ * Decoding follows the same steps as {@link HotRodDecoder}: the magic, message id and version prefix, the operation
+ * header, the key, the parameters and finally the value. Encoding needs a started {@link HotRodServer} to resolve the
+ * cache configuration, so one is bound to a free port on the loopback interface for the duration of the trial. This
+ * class lives in the server package because the codec classes are package-private.
+ *
+ * @since 9.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HotRodCodecBenchmark {
+
+   private static final byte PUT_REQUEST = 0x01;
+   private static final byte GET_REQUEST = 0x03;
+
+   @Param("16")
+   int keySize;
+
+   @Param("100")
+   int valueSize;
+
+   private EmbeddedCacheManager cacheManager;
+   private HotRodServer server;
+   private final Decoder2x decoder = new Decoder2x();
+   private final Encoder2x encoder = new Encoder2x();
+
+   private ByteBuf getRequest;
+   private ByteBuf putRequest;
+   private ByteBuf out;
+   private Response getResponse;
+   private Response putResponse;
+
+   @Setup
+   public void setup() throws IOException {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      global.globalJmxStatistics().allowDuplicateDomains(true);
+      cacheManager = new DefaultCacheManager(global.build(), new ConfigurationBuilder().build());
+      server = new HotRodServer();
+      server.start(new HotRodServerConfigurationBuilder().host("127.0.0.1").port(freePort()).build(), cacheManager);
+
+      byte[] key = new byte[keySize];
+      byte[] value = new byte[valueSize];
+      ThreadLocalRandom.current().nextBytes(key);
+      ThreadLocalRandom.current().nextBytes(value);
+
+      getRequest = Unpooled.buffer();
+      writeRequestHeader(getRequest, GET_REQUEST);
+      ExtendedByteBuf.writeRangedBytes(key, getRequest);
+
+      putRequest = Unpooled.buffer();
+      writeRequestHeader(putRequest, PUT_REQUEST);
+      ExtendedByteBuf.writeRangedBytes(key, putRequest);
+      // Default lifespan and max idle, so no durations follow
+      putRequest.writeByte((TimeUnitValue.DEFAULT.getCode() << 4) | TimeUnitValue.DEFAULT.getCode());
+      ExtendedByteBuf.writeRangedBytes(value, putRequest);
+
+      out = Unpooled.buffer();
+      getResponse = new GetResponse(Constants.VERSION_25, 1, "", Constants.INTELLIGENCE_BASIC,
+            OperationResponse.GetResponse, OperationStatus.Success, 0, value);
+      putResponse = new ResponseWithPrevious(Constants.VERSION_25, 1, "", Constants.INTELLIGENCE_BASIC,
+            OperationResponse.PutResponse, OperationStatus.Success, 0, Optional.empty());
+   }
+
+   @TearDown
+   public void tearDown() {
+      server.stop();
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public Object decodeGetRequest() throws Exception {
+      return decode(getRequest);
+   }
+
+   @Benchmark
+   public Object decodePutRequest() throws Exception {
+      return decode(putRequest);
+   }
+
+   @Benchmark
+   public ByteBuf encodeGetResponse() {
+      return encode(getResponse);
+   }
+
+   @Benchmark
+   public ByteBuf encodePutResponse() {
+      return encode(putResponse);
+   }
+
+   private Object decode(ByteBuf buffer) throws Exception {
+      buffer.readerIndex(0);
+      buffer.markReaderIndex();
+      HotRodHeader header = new HotRodHeader();
+      if (buffer.readUnsignedByte() != Constants.MAGIC_REQ) {
+         throw new IllegalStateException("Invalid magic");
+      }
+      header.messageId = ExtendedByteBufJava.readMaybeVLong(buffer);
+      header.version = (byte) buffer.readUnsignedByte();
+      buffer.markReaderIndex();
+      if (!decoder.readHeader(buffer, header.version, header.messageId, header)) {
+         throw new IllegalStateException("Incomplete header");
+      }
+      byte[] key = ExtendedByteBufJava.readMaybeRangedBytes(buffer);
+      if (!header.op.requireValue()) {
+         return key;
+      }
+      CacheDecodeContext.RequestParameters params = decoder.readParameters(header, buffer);
+      byte[] value = new byte[params.valueLength];
+      buffer.readBytes(value);
+      return value;
+   }
+
+   private ByteBuf encode(Response response) {
+      out.clear();
+      encoder.writeHeader(response, out, null, server);
+      encoder.writeResponse(response, out, cacheManager, server);
+      return out;
+   }
+
+   private static void writeRequestHeader(ByteBuf buffer, byte opCode) {
+      buffer.writeByte(Constants.MAGIC_REQ);
+      ExtendedByteBuf.writeUnsignedLong(1, buffer);
+      buffer.writeByte(Constants.VERSION_25);
+      buffer.writeByte(opCode);
+      // Default cache
+      ExtendedByteBuf.writeUnsignedInt(0, buffer);
+      // Flags
+      ExtendedByteBuf.writeUnsignedInt(0, buffer);
+      buffer.writeByte(Constants.INTELLIGENCE_BASIC);
+      // Topology id
+      ExtendedByteBuf.writeUnsignedInt(0, buffer);
+   }
+
+   private static int freePort() throws IOException {
+      try (ServerSocket socket = new ServerSocket(0)) {
+         return socket.getLocalPort();
+      }
+   }
+}
@@ -140,6 +140,11 @@ public ConfigurationBuilder tcpKeepAlive(boolean tcpKeepAlive) {
       return builder.tcpKeepAlive(tcpKeepAlive);
    }
 
+   @Override
+   public ConfigurationBuilder pipelining(boolean pipelining) {
+      return builder.pipelining(pipelining);
+   }
+
    @Override
    public ConfigurationBuilder transportFactory(String transportFactory) {
       return builder.transportFactory(transportFactory);
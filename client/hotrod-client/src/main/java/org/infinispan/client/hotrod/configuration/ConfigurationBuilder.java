@@ -63,6 +63,7 @@ public class ConfigurationBuilder implements ConfigurationChildBuilder, Builder<
    private final SecurityConfigurationBuilder security;
    private boolean tcpNoDelay = true;
    private boolean tcpKeepAlive = false;
+   private boolean pipelining = false;
    private Class<? extends TransportFactory> transportFactory = TcpTransportFactory.class;
    private int valueSizeEstimate = ConfigurationProperties.DEFAULT_VALUE_SIZE;
    private int maxRetries = ConfigurationProperties.DEFAULT_MAX_RETRIES;
@@ -250,6 +251,12 @@ public ConfigurationBuilder tcpKeepAlive(boolean keepAlive) {
       return this;
    }
 
+   @Override
+   public ConfigurationBuilder pipelining(boolean pipelining) {
+      this.pipelining = pipelining;
+      return this;
+   }
+
    @Override
    public ConfigurationBuilder transportFactory(String transportFactory) {
       this.transportFactory = Util.loadClass(transportFactory, this.classLoader());
@@ -307,6 +314,7 @@ public ConfigurationBuilder withProperties(Properties properties) {
       this.socketTimeout(typed.getIntProperty(ConfigurationProperties.SO_TIMEOUT, socketTimeout));
       this.tcpNoDelay(typed.getBooleanProperty(ConfigurationProperties.TCP_NO_DELAY, tcpNoDelay));
       this.tcpKeepAlive(typed.getBooleanProperty(ConfigurationProperties.TCP_KEEP_ALIVE, tcpKeepAlive));
+      this.pipelining(typed.getBooleanProperty(ConfigurationProperties.PIPELINING, pipelining));
       if (typed.containsKey(ConfigurationProperties.TRANSPORT_FACTORY)) {
          this.transportFactory(typed.getProperty(ConfigurationProperties.TRANSPORT_FACTORY));
       }
@@ -350,11 +358,11 @@ public Configuration create() {
          .map(ClusterConfigurationBuilder::create).collect(Collectors.toList());
       if (marshaller == null) {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategyClass, balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
-               consistentHashImpl, forceReturnValues, keySizeEstimate, marshallerClass, protocolVersion, servers, socketTimeout, security.create(), tcpNoDelay, tcpKeepAlive, transportFactory,
+               consistentHashImpl, forceReturnValues, keySizeEstimate, marshallerClass, protocolVersion, servers, socketTimeout, security.create(), tcpNoDelay, tcpKeepAlive, pipelining, transportFactory,
                valueSizeEstimate, maxRetries, nearCache.create(), serverClusterConfigs);
       } else {
          return new Configuration(asyncExecutorFactory.create(), balancingStrategyClass, balancingStrategy, classLoader == null ? null : classLoader.get(), connectionPool.create(), connectionTimeout,
-               consistentHashImpl, forceReturnValues, keySizeEstimate, marshaller, protocolVersion, servers, socketTimeout, security.create(), tcpNoDelay, tcpKeepAlive, transportFactory,
+               consistentHashImpl, forceReturnValues, keySizeEstimate, marshaller, protocolVersion, servers, socketTimeout, security.create(), tcpNoDelay, tcpKeepAlive, pipelining, transportFactory,
                valueSizeEstimate, maxRetries, nearCache.create(), serverClusterConfigs);
       }
    }
@@ -395,6 +403,7 @@ public ConfigurationBuilder read(Configuration template) {
       this.security.read(template.security());
       this.tcpNoDelay = template.tcpNoDelay();
       this.tcpKeepAlive = template.tcpKeepAlive();
+      this.pipelining = template.pipelining();
       this.transportFactory = template.transportFactory();
       this.valueSizeEstimate = template.valueSizeEstimate();
       this.maxRetries = template.maxRetries();
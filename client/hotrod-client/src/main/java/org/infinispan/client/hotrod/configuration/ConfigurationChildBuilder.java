@@ -149,6 +149,13 @@ public interface ConfigurationChildBuilder {
     */
    ConfigurationBuilder tcpKeepAlive(boolean keepAlive);
 
+   /**
+    * Sends the requests of asynchronous key operations over a single non-blocking connection per server, without
+    * waiting for previous responses, instead of blocking a thread of the async executor on a pooled connection for
+    * each of them. Not supported together with SSL or authentication. Defaults to disabled
+    */
+   ConfigurationBuilder pipelining(boolean pipelining);
+
    /**
     * Controls which transport to use. Currently only the TcpTransport is supported.
     */
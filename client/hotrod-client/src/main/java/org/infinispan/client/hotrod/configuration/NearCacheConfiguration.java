@@ -4,10 +4,16 @@ public class NearCacheConfiguration {
    // TODO: Consider an option to configure key equivalence function for near cache (e.g. for byte arrays)
    private final NearCacheMode mode;
    private final int maxEntries;
+   private final boolean bloomFilter;
 
    public NearCacheConfiguration(NearCacheMode mode, int maxEntries) {
+      this(mode, maxEntries, false);
+   }
+
+   public NearCacheConfiguration(NearCacheMode mode, int maxEntries, boolean bloomFilter) {
       this.mode = mode;
       this.maxEntries = maxEntries;
+      this.bloomFilter = bloomFilter;
    }
 
    public int maxEntries() {
@@ -18,11 +24,16 @@ public NearCacheMode mode() {
       return mode;
    }
 
+   public boolean bloomFilter() {
+      return bloomFilter;
+   }
+
    @Override
    public String toString() {
       return "NearCacheConfiguration{" +
             "mode=" + mode +
             ", maxEntries=" + maxEntries +
+            ", bloomFilter=" + bloomFilter +
             '}';
    }
 }
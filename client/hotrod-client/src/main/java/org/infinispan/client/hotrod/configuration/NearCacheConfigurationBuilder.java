@@ -10,6 +10,7 @@ public class NearCacheConfigurationBuilder extends AbstractConfigurationChildBui
 
    private NearCacheMode mode = NearCacheMode.DISABLED;
    private Integer maxEntries = null; // undefined
+   private boolean bloomFilter = false;
 
    protected NearCacheConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -25,21 +26,35 @@ public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
       return this;
    }
 
+   /**
+    * Enables a bloom filter of the keys held in the near cache, which the client sends to the server every time
+    * enough new keys have been requested, so that the server only sends the invalidations of keys that might be
+    * cached by the client. Requires {@link NearCacheMode#INVALIDATED} and a positive number of max entries, which
+    * sizes the bloom filter.
+    */
+   public NearCacheConfigurationBuilder bloomFilter(boolean enable) {
+      this.bloomFilter = enable;
+      return this;
+   }
+
    @Override
    public void validate() {
       if (mode.enabled() && maxEntries == null)
          throw log.nearCacheMaxEntriesUndefined();
+      if (bloomFilter && (!mode.invalidated() || maxEntries <= 0))
+         throw log.nearCacheBloomFilterRequiresMaxEntries();
    }
 
    @Override
    public NearCacheConfiguration create() {
-      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries);
+      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries, bloomFilter);
    }
 
    @Override
    public Builder<?> read(NearCacheConfiguration template) {
       mode = template.mode();
       maxEntries = template.maxEntries();
+      bloomFilter = template.bloomFilter();
       return this;
    }
 }
@@ -25,6 +25,7 @@ public class ConfigurationProperties {
    public static final String DEFAULT_EXECUTOR_FACTORY_POOL_SIZE = "infinispan.client.hotrod.default_executor_factory.pool_size";
    public static final String TCP_NO_DELAY = "infinispan.client.hotrod.tcp_no_delay";
    public static final String TCP_KEEP_ALIVE = "infinispan.client.hotrod.tcp_keep_alive";
+   public static final String PIPELINING = "infinispan.client.hotrod.pipelining";
    @Deprecated
    public static final String PING_ON_STARTUP = "infinispan.client.hotrod.ping_on_startup";
    public static final String REQUEST_BALANCING_STRATEGY = "infinispan.client.hotrod.request_balancing_strategy";
@@ -108,6 +109,10 @@ public boolean getTcpKeepAlive() {
       return props.getBooleanProperty(TCP_KEEP_ALIVE, false);
    }
 
+   public boolean getPipelining() {
+      return props.getBooleanProperty(PIPELINING, false);
+   }
+
    public String getRequestBalancingStrategy() {
       return props.getProperty(REQUEST_BALANCING_STRATEGY, RoundRobinBalancingStrategy.class.getName());
    }
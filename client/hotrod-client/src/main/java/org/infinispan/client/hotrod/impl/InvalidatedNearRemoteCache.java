@@ -6,6 +6,7 @@
 import org.infinispan.client.hotrod.Flag;
 import org.infinispan.client.hotrod.RemoteCacheManager;
 import org.infinispan.client.hotrod.VersionedValue;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelFactory;
 import org.infinispan.client.hotrod.near.NearCacheService;
 
 /**
@@ -24,6 +25,12 @@ public InvalidatedNearRemoteCache(RemoteCacheManager rcm, String name, NearCache
       this.nearcache = nearcache;
    }
 
+   @Override
+   protected ChannelFactory pipelinedChannelFactory() {
+      // Asynchronous operations must go through the overridden synchronous ones to keep the near cache consistent
+      return null;
+   }
+
    @Override
    public V get(Object key) {
       VersionedValue<V> versioned = getVersioned((K) key);
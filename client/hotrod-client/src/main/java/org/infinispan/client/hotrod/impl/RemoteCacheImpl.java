@@ -50,6 +50,7 @@
 import org.infinispan.client.hotrod.impl.operations.ReplaceOperation;
 import org.infinispan.client.hotrod.impl.operations.SizeOperation;
 import org.infinispan.client.hotrod.impl.operations.StatsOperation;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelFactory;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.marshall.Marshaller;
@@ -90,10 +91,22 @@ public void init(Marshaller marshaller, ExecutorService executorService, Operati
       this.estimateValueSize = estimateValueSize;
    }
 
+   public ExecutorService getExecutorService() {
+      return executorService;
+   }
+
    public OperationsFactory getOperationsFactory() {
       return operationsFactory;
    }
 
+   /**
+    * @return the factory used to pipeline asynchronous key operations, or {@code null} if they have to block a thread
+    *         of the async executor on a pooled connection
+    */
+   protected ChannelFactory pipelinedChannelFactory() {
+      return operationsFactory.getChannelFactory();
+   }
+
    @Override
    public RemoteCacheManager getRemoteCacheManager() {
       return remoteCacheManager;
@@ -111,6 +124,12 @@ public boolean removeWithVersion(K key, long version) {
    @Override
    public CompletableFuture<Boolean> removeWithVersionAsync(final K key, final long version) {
       assertRemoteCacheManagerIsStarted();
+      ChannelFactory channelFactory = pipelinedChannelFactory();
+      if (channelFactory != null) {
+         RemoveIfUnmodifiedOperation<V> op = operationsFactory.newRemoveIfUnmodifiedOperation(
+            compatKeyIfNeeded(key), obj2bytes(key, true), version);
+         return op.executeAsync(channelFactory, executorService).thenApply(response -> response.getCode().isUpdated());
+      }
       return CompletableFuture.supplyAsync(() -> removeWithVersion(key, version), executorService);
    }
 
@@ -131,6 +150,13 @@ public boolean replaceWithVersion(K key, V newValue, long version, long lifespan
    @Override
    public CompletableFuture<Boolean> replaceWithVersionAsync(final K key, final V newValue, final long version, final int lifespanSeconds, final int maxIdleSeconds) {
       assertRemoteCacheManagerIsStarted();
+      ChannelFactory channelFactory = pipelinedChannelFactory();
+      if (channelFactory != null) {
+         ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(
+            compatKeyIfNeeded(key), obj2bytes(key, true), obj2bytes(newValue, false),
+            lifespanSeconds, TimeUnit.SECONDS, maxIdleSeconds, TimeUnit.SECONDS, version);
+         return op.executeAsync(channelFactory, executorService).thenApply(response -> response.getCode().isUpdated());
+      }
       return CompletableFuture.supplyAsync(() ->
               replaceWithVersion(key, newValue, version, lifespanSeconds, maxIdleSeconds), executorService);
    }
@@ -289,6 +315,12 @@ public V replace(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxI
    @Override
    public CompletableFuture<V> putAsync(final K key, final V value, final long lifespan, final TimeUnit lifespanUnit, final long maxIdle, final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
+      ChannelFactory channelFactory = pipelinedChannelFactory();
+      if (channelFactory != null) {
+         PutOperation<V> op = operationsFactory.newPutKeyValueOperation(compatKeyIfNeeded(key),
+            obj2bytes(key, true), obj2bytes(value, false), lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+         return op.executeAsync(channelFactory, executorService);
+      }
       int flags = operationsFactory.flags();
       return CompletableFuture.supplyAsync(() -> {
          if (flags != 0)
@@ -306,6 +338,12 @@ public CompletableFuture<Void> clearAsync() {
    @Override
    public CompletableFuture<V> putIfAbsentAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
+      ChannelFactory channelFactory = pipelinedChannelFactory();
+      if (channelFactory != null) {
+         PutIfAbsentOperation<V> op = operationsFactory.newPutIfAbsentOperation(compatKeyIfNeeded(key),
+            obj2bytes(key, true), obj2bytes(value, false), lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+         return op.executeAsync(channelFactory, executorService);
+      }
       int flags = operationsFactory.flags();
       return CompletableFuture.supplyAsync(() -> {
          if (flags != 0)
@@ -317,6 +355,11 @@ public CompletableFuture<V> putIfAbsentAsync(final K key,final V value,final lon
    @Override
    public CompletableFuture<V> removeAsync(final Object key) {
       assertRemoteCacheManagerIsStarted();
+      ChannelFactory channelFactory = pipelinedChannelFactory();
+      if (channelFactory != null) {
+         RemoveOperation<V> op = operationsFactory.newRemoveOperation(compatKeyIfNeeded(key), obj2bytes(key, true));
+         return op.executeAsync(channelFactory, executorService);
+      }
       int flags = operationsFactory.flags();
       return CompletableFuture.supplyAsync(() -> {
          if (flags != 0)
@@ -328,6 +371,12 @@ public CompletableFuture<V> removeAsync(final Object key) {
    @Override
    public CompletableFuture<V> replaceAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
+      ChannelFactory channelFactory = pipelinedChannelFactory();
+      if (channelFactory != null) {
+         ReplaceOperation<V> op = operationsFactory.newReplaceOperation(compatKeyIfNeeded(key),
+            obj2bytes(key, true), obj2bytes(value, false), lifespan, lifespanUnit, maxIdle, maxIdleUnit);
+         return op.executeAsync(channelFactory, executorService);
+      }
       int flags = operationsFactory.flags();
       return CompletableFuture.supplyAsync(() -> {
          if (flags != 0)
@@ -446,6 +495,17 @@ public void addClientListener(Object listener, Object[] filterFactoryParams, Obj
       op.execute();
    }
 
+   /**
+    * Adds a client listener whose filter factory parameters are sent to the server as they are, without going
+    * through the marshaller. Only meant for internal listeners using raw data.
+    */
+   public void addRawClientListener(Object listener, byte[][] filterFactoryParams) {
+      assertRemoteCacheManagerIsStarted();
+      AddClientListenerOperation op = operationsFactory.newAddClientListenerOperation(
+            listener, filterFactoryParams, new byte[0][]);
+      op.execute();
+   }
+
    private byte[][] marshallParams(Object[] params) {
       if (params == null)
          return new byte[0][];
@@ -481,6 +541,11 @@ public RemoteCache<K, V> withFlags(Flag... flags) {
    @Override
    public CompletableFuture<V> getAsync(final K key) {
       assertRemoteCacheManagerIsStarted();
+      ChannelFactory channelFactory = pipelinedChannelFactory();
+      if (channelFactory != null) {
+         GetOperation<V> op = operationsFactory.newGetKeyOperation(compatKeyIfNeeded(key), obj2bytes(key, true));
+         return op.executeAsync(channelFactory, executorService);
+      }
       return CompletableFuture.supplyAsync(() -> get(key), executorService);
    }
 
@@ -2,14 +2,21 @@
 
 import java.net.SocketAddress;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.infinispan.client.hotrod.exceptions.RemoteIllegalLifecycleStateException;
+import org.infinispan.client.hotrod.exceptions.RemoteNodeSuspectException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
 import org.infinispan.client.hotrod.impl.VersionedOperationResponse;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelFactory;
+import org.infinispan.client.hotrod.impl.transport.netty.PipelinedOperation;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.jboss.logging.BasicLogger;
 
@@ -22,7 +29,7 @@
  * @since 4.1
  */
 @Immutable
-public abstract class AbstractKeyOperation<T> extends RetryOnFailureOperation<T> {
+public abstract class AbstractKeyOperation<T> extends RetryOnFailureOperation<T> implements PipelinedOperation<T> {
 
    private static final BasicLogger log = LogFactory.getLog(AbstractKeyOperation.class);
 
@@ -45,14 +52,76 @@ protected Transport getTransport(int retryCount, Set<SocketAddress> failedServer
       }
    }
 
-   protected short sendKeyOperation(byte[] key, Transport transport, byte opCode, byte opRespCode) {
-      // 1) write [header][key length][key]
-      HeaderParams params = writeHeader(transport, opCode);
-      transport.writeArray(key);
+   @Override
+   protected T executeOperation(Transport transport) {
+      HeaderParams params = writeRequest(transport);
       transport.flush();
+      return readResponse(transport, params);
+   }
 
-      // 2) now read the header
-      return readHeaderAndValidate(transport, params);
+   /**
+    * Executes the operation over a pipelined channel without blocking the calling thread. Failures are retried with
+    * the same policy as {@link #execute()} and the returned future is completed on the given executor, so neither
+    * retries nor the caller's callbacks run on the channel's event loop.
+    */
+   public CompletableFuture<T> executeAsync(ChannelFactory channelFactory, Executor executor) {
+      CompletableFuture<T> result = new CompletableFuture<>();
+      executeAsync(channelFactory, executor, result, 0, null);
+      return result;
+   }
+
+   private void executeAsync(ChannelFactory channelFactory, Executor executor, CompletableFuture<T> result,
+                             int retryCount, Set<SocketAddress> failedServers) {
+      String currentClusterName = transportFactory.getCurrentClusterName();
+      SocketAddress server;
+      try {
+         server = getServerAddress(retryCount, failedServers);
+      } catch (Throwable t) {
+         result.completeExceptionally(t);
+         return;
+      }
+      channelFactory.send(server, this).whenCompleteAsync((value, throwable) -> {
+         if (throwable == null) {
+            result.complete(value);
+            return;
+         }
+         Set<SocketAddress> failed = failedServers;
+         int nextRetryCount;
+         try {
+            if (throwable instanceof TransportException) {
+               TransportException te = (TransportException) throwable;
+               failed = updateFailedServers(te.getServerAddress(), failed);
+               nextRetryCount = logTransportErrorAndThrowExceptionIfNeeded(retryCount, currentClusterName, te) + 1;
+            } else if (throwable instanceof RemoteIllegalLifecycleStateException) {
+               RemoteIllegalLifecycleStateException e = (RemoteIllegalLifecycleStateException) throwable;
+               failed = updateFailedServers(e.getServerAddress(), failed);
+               nextRetryCount = logTransportErrorAndThrowExceptionIfNeeded(retryCount, currentClusterName, e) + 1;
+            } else if (throwable instanceof RemoteNodeSuspectException) {
+               logErrorAndThrowExceptionIfNeeded(retryCount, (RemoteNodeSuspectException) throwable);
+               nextRetryCount = retryCount + 1;
+            } else {
+               result.completeExceptionally(throwable);
+               return;
+            }
+         } catch (Throwable t) {
+            result.completeExceptionally(t);
+            return;
+         }
+         executeAsync(channelFactory, executor, result, nextRetryCount, failed);
+      }, executor);
+   }
+
+   private SocketAddress getServerAddress(int retryCount, Set<SocketAddress> failedServers) {
+      return transportFactory.getServerAddress(retryCount == 0 ? (key == null ? keyBytes : key) : null, failedServers, cacheName);
+   }
+
+   /**
+    * Writes [header][key length][key] without flushing the transport.
+    */
+   protected HeaderParams writeKeyRequest(Transport transport, byte opCode) {
+      HeaderParams params = writeHeader(transport, opCode);
+      transport.writeArray(keyBytes);
+      return params;
    }
 
    protected T returnPossiblePrevValue(Transport transport, short status) {
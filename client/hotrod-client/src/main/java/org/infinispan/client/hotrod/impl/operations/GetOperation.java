@@ -3,6 +3,7 @@
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
@@ -24,9 +25,14 @@ public GetOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   public V executeOperation(Transport transport) {
+   public HeaderParams writeRequest(Transport transport) {
+      return writeKeyRequest(transport, GET_REQUEST);
+   }
+
+   @Override
+   public V readResponse(Transport transport, HeaderParams params) {
       V result = null;
-      short status = sendKeyOperation(keyBytes, transport, GET_REQUEST, GET_RESPONSE);
+      short status = readHeaderAndValidate(transport, params);
       if (HotRodConstants.isNotExist(status)) {
          result = null;
       } else {
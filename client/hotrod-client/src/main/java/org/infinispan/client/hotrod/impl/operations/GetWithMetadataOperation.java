@@ -5,6 +5,7 @@
 import org.infinispan.client.hotrod.MetadataValue;
 import org.infinispan.client.hotrod.impl.MetadataValueImpl;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
@@ -32,8 +33,13 @@ public GetWithMetadataOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   protected MetadataValue<V> executeOperation(Transport transport) {
-      short status = sendKeyOperation(keyBytes, transport, GET_WITH_METADATA, GET_WITH_METADATA_RESPONSE);
+   public HeaderParams writeRequest(Transport transport) {
+      return writeKeyRequest(transport, GET_WITH_METADATA);
+   }
+
+   @Override
+   public MetadataValue<V> readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
       MetadataValue<V> result = null;
       if (HotRodConstants.isNotExist(status)) {
          result = null;
@@ -16,6 +16,7 @@
 import org.infinispan.client.hotrod.impl.query.RemoteQuery;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelFactory;
 
 import net.jcip.annotations.Immutable;
 
@@ -64,6 +65,10 @@ public ClientListenerNotifier getListenerNotifier() {
       return listenerNotifier;
    }
 
+   public ChannelFactory getChannelFactory() {
+      return transportFactory.getChannelFactory();
+   }
+
    public byte[] getCacheName() {
       return cacheNameBytes;
    }
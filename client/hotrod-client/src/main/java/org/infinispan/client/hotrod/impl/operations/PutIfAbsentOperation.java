@@ -4,6 +4,7 @@
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
@@ -32,8 +33,13 @@ public PutIfAbsentOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   protected V executeOperation(Transport transport) {
-      short status = sendPutOperation(transport, PUT_IF_ABSENT_REQUEST, PUT_IF_ABSENT_RESPONSE);
+   public HeaderParams writeRequest(Transport transport) {
+      return writePutRequest(transport, PUT_IF_ABSENT_REQUEST);
+   }
+
+   @Override
+   public V readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
       V previousValue = null;
       if (HotRodConstants.isNotExecuted(status)) {
          previousValue = returnPossiblePrevValue(transport, status);
@@ -5,6 +5,7 @@
 
 import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
@@ -28,8 +29,13 @@ public PutOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   protected V executeOperation(Transport transport) {
-      short status = sendPutOperation(transport, PUT_REQUEST, PUT_RESPONSE);
+   public HeaderParams writeRequest(Transport transport) {
+      return writePutRequest(transport, PUT_REQUEST);
+   }
+
+   @Override
+   public V readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
       if (!HotRodConstants.isSuccess(status)) {
          throw new InvalidResponseException("Unexpected response status: " + Integer.toHexString(status));
       }
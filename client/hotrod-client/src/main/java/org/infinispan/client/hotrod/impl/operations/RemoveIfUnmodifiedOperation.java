@@ -29,15 +29,18 @@ public RemoveIfUnmodifiedOperation(Codec codec, TransportFactory transportFactor
    }
 
    @Override
-   protected VersionedOperationResponse<V> executeOperation(Transport transport) {
+   public HeaderParams writeRequest(Transport transport) {
       // 1) write header
       HeaderParams params = writeHeader(transport, REMOVE_IF_UNMODIFIED_REQUEST);
 
       //2) write message body
       transport.writeArray(keyBytes);
       transport.writeLong(version);
-      transport.flush();
+      return params;
+   }
 
+   @Override
+   public VersionedOperationResponse<V> readResponse(Transport transport, HeaderParams params) {
       //process response and return
       return returnVersionedOperationResponse(transport, params);
    }
@@ -3,6 +3,7 @@
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
@@ -25,8 +26,13 @@ public RemoveOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   public V executeOperation(Transport transport) {
-      short status = sendKeyOperation(keyBytes, transport, REMOVE_REQUEST, REMOVE_RESPONSE);
+   public HeaderParams writeRequest(Transport transport) {
+      return writeKeyRequest(transport, REMOVE_REQUEST);
+   }
+
+   @Override
+   public V readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
       V result = returnPossiblePrevValue(transport, status);
       if (HotRodConstants.isNotExist(status))
          return null;
@@ -27,7 +27,7 @@ public ReplaceIfUnmodifiedOperation(Codec codec, TransportFactory transportFacto
    }
 
    @Override
-   protected VersionedOperationResponse executeOperation(Transport transport) {
+   public HeaderParams writeRequest(Transport transport) {
       // 1) write header
       HeaderParams params = writeHeader(transport, REPLACE_IF_UNMODIFIED_REQUEST);
 
@@ -36,8 +36,11 @@ protected VersionedOperationResponse executeOperation(Transport transport) {
       codec.writeExpirationParams(transport, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit);
       transport.writeLong(version);
       transport.writeArray(value);
-      transport.flush();
+      return params;
+   }
 
+   @Override
+   public VersionedOperationResponse readResponse(Transport transport, HeaderParams params) {
       return returnVersionedOperationResponse(transport, params);
    }
 }
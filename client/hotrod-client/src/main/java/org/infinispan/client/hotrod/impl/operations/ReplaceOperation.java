@@ -4,6 +4,7 @@
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
 
@@ -26,8 +27,13 @@ public ReplaceOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   protected V executeOperation(Transport transport) {
-      short status = sendPutOperation(transport, REPLACE_REQUEST, REPLACE_RESPONSE);
+   public HeaderParams writeRequest(Transport transport) {
+      return writePutRequest(transport, REPLACE_REQUEST);
+   }
+
+   @Override
+   public V readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
       return returnPossiblePrevValue(transport, status);
    }
 }
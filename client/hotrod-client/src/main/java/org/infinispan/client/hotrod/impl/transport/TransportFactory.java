@@ -14,6 +14,7 @@
 import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
 import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHashFactory;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelFactory;
 import org.infinispan.client.hotrod.impl.transport.tcp.TcpTransportFactory.ClusterSwitchStatus;
 import org.infinispan.commons.marshall.Marshaller;
 
@@ -57,6 +58,19 @@ void updateHashFunction(SocketAddress[][] segmentOwners, int numSegments, short
 
    Transport getTransport(Object key, Set<SocketAddress> failedServers, byte[] cacheName);
 
+   /**
+    * Picks the server a request should be sent to, without borrowing a transport for it: the owner of the key when it
+    * is known and has not failed, otherwise the next server from the cache's balancer.
+    *
+    * @param key the key, or {@code null} to always use the balancer
+    */
+   SocketAddress getServerAddress(Object key, Set<SocketAddress> failedServers, byte[] cacheName);
+
+   /**
+    * @return the factory of pipelined channels, or {@code null} if pipelining is disabled
+    */
+   ChannelFactory getChannelFactory();
+
    boolean isTcpNoDelay();
 
    boolean isTcpKeepAlive();
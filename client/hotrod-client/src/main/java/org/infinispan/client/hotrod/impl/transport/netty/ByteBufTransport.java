@@ -0,0 +1,142 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.net.SocketAddress;
+
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.commons.io.SignedNumeric;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Transport reading from and writing to a {@link ByteBuf}, used to encode and decode pipelined requests. Nothing is
+ * sent over the network by this class: flushing is a no-op and the buffer is handed to the channel by
+ * {@link ChannelFactory}.
+ *
+ * @since 9.0
+ */
+public class ByteBufTransport extends AbstractTransport {
+
+   private final SocketAddress serverAddress;
+   private ByteBuf buf;
+
+   public ByteBufTransport(TransportFactory transportFactory, SocketAddress serverAddress, ByteBuf buf) {
+      super(transportFactory);
+      this.serverAddress = serverAddress;
+      this.buf = buf;
+   }
+
+   void setBuffer(ByteBuf buf) {
+      this.buf = buf;
+   }
+
+   @Override
+   protected void writeBytes(byte[] toAppend) {
+      buf.writeBytes(toAppend);
+   }
+
+   @Override
+   public void writeByte(short toWrite) {
+      buf.writeByte(toWrite);
+   }
+
+   @Override
+   public void writeVInt(int vInt) {
+      writeVInt(buf, vInt);
+   }
+
+   @Override
+   public void writeSignedVInt(int vInt) {
+      writeVInt(buf, SignedNumeric.encode(vInt));
+   }
+
+   @Override
+   public void writeVLong(long l) {
+      while ((l & ~0x7F) != 0) {
+         buf.writeByte((byte) ((l & 0x7f) | 0x80));
+         l >>>= 7;
+      }
+      buf.writeByte((byte) l);
+   }
+
+   @Override
+   public long readVLong() {
+      return readVLong(buf);
+   }
+
+   @Override
+   public int readVInt() {
+      byte b = buf.readByte();
+      int i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = buf.readByte();
+         i |= (b & 0x7F) << shift;
+      }
+      return i;
+   }
+
+   @Override
+   public short readByte() {
+      return buf.readUnsignedByte();
+   }
+
+   @Override
+   public byte[] readByteArray(int size) {
+      byte[] bytes = new byte[size];
+      buf.readBytes(bytes);
+      return bytes;
+   }
+
+   @Override
+   public void flush() {
+      // Nothing to do, the buffer is written to the channel by the caller
+   }
+
+   @Override
+   public void release() {
+      // Nothing to do, the buffer is owned by the channel
+   }
+
+   @Override
+   public byte[] dumpStream() {
+      return new byte[0];
+   }
+
+   @Override
+   public SocketAddress getRemoteSocketAddress() {
+      return serverAddress;
+   }
+
+   @Override
+   public void invalidate() {
+      // Nothing to do, a broken channel is closed by its response decoder
+   }
+
+   @Override
+   public boolean isValid() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "ByteBufTransport{serverAddress=" + serverAddress + "}";
+   }
+
+   static void writeVInt(ByteBuf buf, int i) {
+      while ((i & ~0x7F) != 0) {
+         buf.writeByte((byte) ((i & 0x7f) | 0x80));
+         i >>>= 7;
+      }
+      buf.writeByte((byte) i);
+   }
+
+   static long readVLong(ByteBuf buf) {
+      byte b = buf.readByte();
+      long l = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = buf.readByte();
+         l |= (b & 0x7FL) << shift;
+      }
+      return l;
+   }
+}
@@ -0,0 +1,141 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.configuration.Configuration;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Keeps a single non-blocking channel per server and pipelines requests over it: a request is written as soon as it
+ * is issued, without waiting for the responses of the requests before it, and its response completes the returned
+ * future on the channel's event loop.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public class ChannelFactory {
+
+   private static final Log log = LogFactory.getLog(ChannelFactory.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final TransportFactory transportFactory;
+   private final int soTimeout;
+   private final EventLoopGroup eventLoopGroup;
+   private final Bootstrap bootstrap;
+   private final ConcurrentMap<SocketAddress, ChannelFuture> channels = new ConcurrentHashMap<>();
+
+   public ChannelFactory(TransportFactory transportFactory, Configuration configuration) {
+      this.transportFactory = transportFactory;
+      this.soTimeout = configuration.socketTimeout();
+      this.eventLoopGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("HotRod-client-pipeline", true));
+      this.bootstrap = new Bootstrap()
+            .group(eventLoopGroup)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, configuration.tcpNoDelay())
+            .option(ChannelOption.SO_KEEPALIVE, configuration.tcpKeepAlive())
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, configuration.connectionTimeout());
+   }
+
+   /**
+    * Sends the operation's request to the server, connecting to it first if needed.
+    *
+    * @return a future completed with the operation's result, or with a {@link TransportException} if the connection
+    *         failed or no response was received within the socket timeout
+    */
+   public <T> CompletableFuture<T> send(SocketAddress server, PipelinedOperation<T> operation) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      ChannelFuture channelFuture = getChannel(server);
+      if (channelFuture.isDone()) {
+         send(server, channelFuture, operation, future);
+      } else {
+         channelFuture.addListener(f -> send(server, channelFuture, operation, future));
+      }
+      return future;
+   }
+
+   public void destroy() {
+      for (ChannelFuture channelFuture : channels.values()) {
+         channelFuture.channel().close();
+      }
+      channels.clear();
+      eventLoopGroup.shutdownGracefully(0, soTimeout, TimeUnit.MILLISECONDS);
+   }
+
+   private ChannelFuture getChannel(SocketAddress server) {
+      ChannelFuture channelFuture = channels.get(server);
+      if (channelFuture == null) {
+         ChannelFuture newChannelFuture = bootstrap.clone()
+               .handler(new HotRodResponseDecoder(transportFactory, server))
+               .connect(server);
+         channelFuture = channels.putIfAbsent(server, newChannelFuture);
+         if (channelFuture == null) {
+            if (trace) log.tracef("Opening pipelined channel to %s", server);
+            channelFuture = newChannelFuture;
+            ChannelFuture registered = channelFuture;
+            channelFuture.channel().closeFuture().addListener(f -> channels.remove(server, registered));
+         } else {
+            newChannelFuture.channel().close();
+         }
+      }
+      return channelFuture;
+   }
+
+   private <T> void send(SocketAddress server, ChannelFuture channelFuture, PipelinedOperation<T> operation,
+                         CompletableFuture<T> future) {
+      Channel channel = channelFuture.channel();
+      HotRodResponseDecoder decoder = channelFuture.isSuccess() ? channel.pipeline().get(HotRodResponseDecoder.class) : null;
+      if (decoder == null || !channel.isActive()) {
+         channels.remove(server, channelFuture);
+         Throwable cause = channelFuture.cause();
+         future.completeExceptionally(cause != null ? new TransportException(cause, server)
+               : new TransportException("Connection to server closed", server));
+         return;
+      }
+
+      ByteBuf buf = channel.alloc().buffer();
+      HeaderParams params;
+      try {
+         params = operation.writeRequest(new ByteBufTransport(transportFactory, server, buf));
+      } catch (Throwable t) {
+         buf.release();
+         future.completeExceptionally(t);
+         return;
+      }
+
+      // Register before writing, the response may arrive before writeAndFlush returns
+      long messageId = params.messageId();
+      PendingRequest<T> request = new PendingRequest<>(operation, params, future);
+      decoder.registerRequest(messageId, request);
+      if (soTimeout > 0) {
+         // A timed out request stays registered so that its response is still consumed when it arrives
+         request.setTimeout(channel.eventLoop().schedule(() -> request.completeExceptionally(new TransportException(
+               new SocketTimeoutException("No response received within " + soTimeout + " ms"), server)),
+               soTimeout, TimeUnit.MILLISECONDS));
+      }
+      channel.writeAndFlush(buf).addListener(f -> {
+         if (!f.isSuccess()) {
+            decoder.failRequest(messageId, new TransportException(f.cause(), server));
+         }
+      });
+   }
+}
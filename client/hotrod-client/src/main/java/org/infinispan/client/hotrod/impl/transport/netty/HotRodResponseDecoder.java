@@ -0,0 +1,107 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.net.SocketAddress;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.ReplayingDecoder;
+
+/**
+ * Decodes the responses received on a pipelined channel and completes the matching {@link PendingRequest}s.
+ * <p>
+ * Hot Rod responses are not length-prefixed, so the message id is peeked to find the request and the request's
+ * operation then parses the rest of the response. Any failure that leaves the stream in an unknown state fails every
+ * pending request on the channel and closes it.
+ *
+ * @since 9.0
+ */
+class HotRodResponseDecoder extends ReplayingDecoder<Void> {
+
+   private static final Log log = LogFactory.getLog(HotRodResponseDecoder.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final ConcurrentMap<Long, PendingRequest<?>> pendingRequests = new ConcurrentHashMap<>();
+   private final SocketAddress server;
+   private final ByteBufTransport transport;
+
+   HotRodResponseDecoder(TransportFactory transportFactory, SocketAddress server) {
+      this.server = server;
+      this.transport = new ByteBufTransport(transportFactory, server, null);
+   }
+
+   void registerRequest(long messageId, PendingRequest<?> request) {
+      pendingRequests.put(messageId, request);
+   }
+
+   void failRequest(long messageId, Throwable t) {
+      PendingRequest<?> request = pendingRequests.remove(messageId);
+      if (request != null) {
+         request.completeExceptionally(t);
+      }
+   }
+
+   @Override
+   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+      int start = in.readerIndex();
+      // Skip the magic, it is validated when the operation reads the header
+      in.skipBytes(1);
+      long messageId = ByteBufTransport.readVLong(in);
+      in.readerIndex(start);
+
+      PendingRequest<?> request = pendingRequests.get(messageId);
+      if (request == null) {
+         throw new InvalidResponseException(String.format(
+               "Received a response for unknown messageId=%d from %s", messageId, server));
+      }
+      transport.setBuffer(in);
+      try {
+         request.readResponse(transport);
+      } catch (InvalidResponseException | TransportException e) {
+         throw e;
+      } catch (HotRodClientException e) {
+         // Error responses are read completely before the exception is thrown, the channel is still usable
+         request.completeExceptionally(e);
+      }
+      pendingRequests.remove(messageId);
+      if (trace) log.tracef("Completed messageId=%d from %s", messageId, server);
+   }
+
+   @Override
+   public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+      try {
+         super.channelInactive(ctx);
+      } finally {
+         failAll(new TransportException("Connection to server closed", server));
+      }
+   }
+
+   @Override
+   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      if (cause instanceof DecoderException && cause.getCause() != null) {
+         cause = cause.getCause();
+      }
+      log.closingPipelinedChannel(server, cause);
+      failAll(cause instanceof TransportException ? cause : new TransportException(cause, server));
+      ctx.close();
+   }
+
+   private void failAll(Throwable t) {
+      for (Iterator<PendingRequest<?>> it = pendingRequests.values().iterator(); it.hasNext(); ) {
+         PendingRequest<?> request = it.next();
+         it.remove();
+         request.completeExceptionally(t);
+      }
+   }
+}
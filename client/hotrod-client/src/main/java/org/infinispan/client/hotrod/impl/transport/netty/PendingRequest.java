@@ -0,0 +1,52 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * A request that has been written to a pipelined channel and is waiting for its response.
+ *
+ * @since 9.0
+ */
+class PendingRequest<T> {
+   private final PipelinedOperation<T> operation;
+   private final HeaderParams params;
+   private final CompletableFuture<T> future;
+   private volatile ScheduledFuture<?> timeout;
+
+   PendingRequest(PipelinedOperation<T> operation, HeaderParams params, CompletableFuture<T> future) {
+      this.operation = operation;
+      this.params = params;
+      this.future = future;
+   }
+
+   void setTimeout(ScheduledFuture<?> timeout) {
+      this.timeout = timeout;
+   }
+
+   /**
+    * Reads the response and completes the request with it. Even if the request has already timed out the response
+    * must be read, so that the next one can be decoded.
+    */
+   void readResponse(Transport transport) {
+      T value = operation.readResponse(transport, params);
+      cancelTimeout();
+      future.complete(value);
+   }
+
+   void completeExceptionally(Throwable t) {
+      cancelTimeout();
+      future.completeExceptionally(t);
+   }
+
+   private void cancelTimeout() {
+      ScheduledFuture<?> timeout = this.timeout;
+      if (timeout != null) {
+         timeout.cancel(false);
+      }
+   }
+}
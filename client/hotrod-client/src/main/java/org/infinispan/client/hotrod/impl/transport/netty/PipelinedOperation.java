@@ -0,0 +1,25 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+
+/**
+ * An operation whose request and response can be handled separately, so that several of them can be in flight on the
+ * same channel at once.
+ *
+ * @since 9.0
+ */
+public interface PipelinedOperation<T> {
+
+   /**
+    * Writes the whole request, header included, to the transport. The transport is not flushed.
+    *
+    * @return the parameters of the written header, used to correlate and validate the response
+    */
+   HeaderParams writeRequest(Transport transport);
+
+   /**
+    * Reads the whole response, header included, from the transport.
+    */
+   T readResponse(Transport transport, HeaderParams params);
+}
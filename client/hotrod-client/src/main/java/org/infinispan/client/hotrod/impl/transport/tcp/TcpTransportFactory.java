@@ -31,6 +31,7 @@
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.impl.transport.netty.ChannelFactory;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.equivalence.AnyEquivalence;
@@ -77,6 +78,7 @@ public class TcpTransportFactory implements TransportFactory {
    private volatile SSLContext sslContext;
    private volatile String sniHostName;
    private volatile ClientListenerNotifier listenerNotifier;
+   private volatile ChannelFactory channelFactory;
    @GuardedBy("lock")
    private volatile TopologyInfo topologyInfo;
 
@@ -152,6 +154,13 @@ public void start(Codec codec, Configuration configuration, AtomicInteger defaul
          createAndPreparePool(poolFactory);
          balancers = CollectionFactory.makeMap(ByteArrayEquivalence.INSTANCE, AnyEquivalence.getInstance());
          addBalancer(RemoteCacheManager.cacheNameBytes());
+         if (configuration.pipelining()) {
+            if (sslContext != null || configuration.security().authentication().enabled()) {
+               log.pipeliningNotSupported();
+            } else {
+               channelFactory = new ChannelFactory(this, configuration);
+            }
+         }
 
          pingServersIgnoreException();
       }
@@ -207,6 +216,10 @@ private void createAndPreparePool(PropsKeyedObjectPoolFactory<SocketAddress, Tcp
    @Override
    public void destroy() {
       synchronized (lock) {
+         if (channelFactory != null) {
+            channelFactory.destroy();
+            channelFactory = null;
+         }
          connectionPool.clear();
          try {
             connectionPool.close();
@@ -278,13 +291,24 @@ public SocketAddress getSocketAddress(Object key, byte[] cacheName) {
    }
 
    public Transport getTransport(Object key, Set<SocketAddress> failedServers, byte[] cacheName) {
-      SocketAddress server;
+      return borrowTransportFromPool(getServerAddress(key, failedServers, cacheName));
+   }
+
+   @Override
+   public SocketAddress getServerAddress(Object key, Set<SocketAddress> failedServers, byte[] cacheName) {
       synchronized (lock) {
+         if (key == null) {
+            return getNextServer(failedServers, cacheName);
+         }
          Optional<SocketAddress> hashAwareServer = topologyInfo.getHashAwareServer(key, cacheName);
          Optional<SocketAddress> filtered = hashAwareServer.filter(a -> failedServers == null || !failedServers.contains(a));
-         server = filtered.orElse(getNextServer(failedServers, cacheName));
+         return filtered.orElse(getNextServer(failedServers, cacheName));
       }
-      return borrowTransportFromPool(server);
+   }
+
+   @Override
+   public ChannelFactory getChannelFactory() {
+      return channelFactory;
    }
 
    @Override
@@ -249,4 +249,19 @@ public interface Log extends BasicLogger {
    @Message(value = "Classpath does not look correct. Make sure you are not mixing uber and jars", id = 4065)
    void warnAboutUberJarDuplicates();
 
+   @LogMessage(level = WARN)
+   @Message(value = "Pipelining is not supported together with SSL or authentication, asynchronous operations will use the connection pool", id = 4066)
+   void pipeliningNotSupported();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Closing pipelined channel to %s after an unexpected error", id = 4067)
+   void closingPipelinedChannel(SocketAddress server, @Cause Throwable t);
+
+   @Message(value = "The near cache bloom filter requires the invalidated mode and a positive number of max entries", id = 4068)
+   CacheConfigurationException nearCacheBloomFilterRequiresMaxEntries();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Unable to update the near cache bloom filter of cache '%s'", id = 4069)
+   void unableToUpdateNearCacheBloomFilter(String cacheName, @Cause Throwable t);
+
 }
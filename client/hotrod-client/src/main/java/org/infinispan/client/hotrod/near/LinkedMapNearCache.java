@@ -5,6 +5,7 @@
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 import org.infinispan.client.hotrod.VersionedValue;
 import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
@@ -84,6 +85,18 @@ public void clear() {
       }
    }
 
+   @Override
+   public void forEachKey(Consumer<? super K> action) {
+      // Reads update the access order, so iterating requires the write lock
+      Lock lock = rwlock.writeLock();
+      try {
+         lock.lock();
+         cache.keySet().forEach(action);
+      } finally {
+         lock.unlock();
+      }
+   }
+
    public static <K, V> NearCache<K, V> create(final NearCacheConfiguration config) {
       return new LinkedMapNearCache<K, V>(
             new LinkedHashMap<K, VersionedValue<V>>(1 << 4, 0.75f, true) {
@@ -1,6 +1,17 @@
 package org.infinispan.client.hotrod.near;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 import org.infinispan.client.hotrod.RemoteCache;
 import org.infinispan.client.hotrod.VersionedValue;
@@ -16,15 +27,25 @@
 import org.infinispan.client.hotrod.event.ClientCacheEntryRemovedEvent;
 import org.infinispan.client.hotrod.event.ClientCacheFailoverEvent;
 import org.infinispan.client.hotrod.event.ClientListenerNotifier;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.impl.RemoteCacheImpl;
 import org.infinispan.client.hotrod.impl.VersionedValueImpl;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.BloomFilter;
 import org.infinispan.commons.util.Util;
 
 /**
  * Near cache service, manages the lifecycle of the near cache.
+ * <p>
+ * When the bloom filter is enabled, the listener is registered with a server side filter only accepting the events of
+ * the keys in a bloom filter computed by the client, and a value is only cached if its key is in the bloom filter the
+ * server currently uses. The keys requested from the server which are not in that bloom filter are tracked, and once
+ * there are enough of them, a new bloom filter of the cached and requested keys is sent to the server by registering
+ * a new listener and then removing the previous one. The update runs in the asynchronous executor of the client, as
+ * registering a listener waits for the server.
  *
  * @since 7.1
  */
@@ -34,21 +55,44 @@
 
    private final NearCacheConfiguration config;
    private final ClientListenerNotifier listenerNotifier;
-   private Object listener;
-   private byte[] listenerId;
+   private volatile Object listener;
+   private volatile byte[] listenerId;
    private NearCache<K, V> cache;
 
+   // Only used when the bloom filter is enabled
+   private final ReadWriteLock bloomFilterLock = new ReentrantReadWriteLock();
+   private final AtomicBoolean updatingBloomFilter = new AtomicBoolean();
+   private final Set<K> requestedKeys = ConcurrentHashMap.newKeySet();
+   private RemoteCacheImpl<K, V> remote;
+   private Marshaller marshaller;
+   private ExecutorService executor;
+   private volatile boolean stopped;
+   // The bloom filter used by the server
+   private volatile BloomFilter bloomFilter;
+   // The bloom filter being sent to the server, if any
+   private volatile BloomFilter nextBloomFilter;
+
    protected NearCacheService(NearCacheConfiguration config, ClientListenerNotifier listenerNotifier) {
       this.config = config;
       this.listenerNotifier = listenerNotifier;
    }
 
-   public void start(RemoteCache<K, V> remote) {
+   public void start(RemoteCacheImpl<K, V> remote) {
       // Create near cache
       cache = createNearCache(config);
-      // Add a listener that updates the near cache
-      listener = createListener(remote);
-      remote.addClientListener(listener);
+      if (config.bloomFilter()) {
+         this.remote = remote;
+         this.marshaller = remote.getRemoteCacheManager().getMarshaller();
+         this.executor = remote.getExecutorService();
+         // Nothing is cached until the first keys are requested
+         bloomFilter = BloomFilter.create(0);
+         listener = new BloomFilterNearCacheListener<K, V>(this);
+         remote.addRawClientListener(listener, new byte[][]{bloomFilter.toBytes()});
+      } else {
+         // Add a listener that updates the near cache
+         listener = createListener(remote);
+         remote.addClientListener(listener);
+      }
       // Get the listener ID for faster listener connected lookups
       listenerId = listenerNotifier.findListenerId(listener);
    }
@@ -63,6 +107,7 @@ public void stop(RemoteCache<K, V> remote) {
       if (trace)
          log.tracef("Stop near cache, remove underlying listener id %s", Util.printArray(listenerId));
 
+      stopped = true;
       // Remove listener
       remote.removeClientListener(listener);
       // Empty cache
@@ -91,6 +136,11 @@ public void put(K key, VersionedValue<V> value) {
 
    @Override
    public void putIfAbsent(K key, VersionedValue<V> value) {
+      if (config.bloomFilter()) {
+         putIfAbsentInBloomFilter(key, value);
+         return;
+      }
+
       cache.putIfAbsent(key, value);
 
       if (trace)
@@ -130,6 +180,114 @@ public void clear() {
       if (trace) log.tracef("Cleared near cache (listenerId=%s)", Util.printArray(listenerId));
    }
 
+   @Override
+   public void forEachKey(Consumer<? super K> action) {
+      cache.forEachKey(action);
+   }
+
+   private void putIfAbsentInBloomFilter(K key, VersionedValue<V> value) {
+      byte[] keyBytes = keyToBytes(key);
+      boolean cached;
+      Lock lock = bloomFilterLock.readLock();
+      lock.lock();
+      try {
+         // The server must send the invalidations of the key with the current bloom filter and with the next one
+         BloomFilter next = nextBloomFilter;
+         cached = bloomFilter.mightContain(keyBytes) && (next == null || next.mightContain(keyBytes));
+         if (cached)
+            cache.putIfAbsent(key, value);
+         else
+            requestedKeys.add(key);
+      } finally {
+         lock.unlock();
+      }
+
+      if (trace)
+         log.tracef("Conditionally put key=%s and value=%s if absent in near cache, key in bloom filter? %b (listenerId=%s)",
+               key, value, cached, Util.printArray(listenerId));
+
+      if (!cached && requestedKeys.size() >= bloomFilterUpdateThreshold()
+            && updatingBloomFilter.compareAndSet(false, true)) {
+         try {
+            executor.execute(() -> {
+               try {
+                  updateBloomFilter();
+               } finally {
+                  updatingBloomFilter.set(false);
+               }
+            });
+         } catch (RejectedExecutionException e) {
+            // The client is stopping
+            updatingBloomFilter.set(false);
+         }
+      }
+   }
+
+   boolean isUpdatingBloomFilter() {
+      return updatingBloomFilter.get();
+   }
+
+   private int bloomFilterUpdateThreshold() {
+      return Math.max(1, config.maxEntries() / 8);
+   }
+
+   private void updateBloomFilter() {
+      if (stopped)
+         return;
+
+      BloomFilter filter = BloomFilter.create(config.maxEntries() + bloomFilterUpdateThreshold());
+      List<K> keys = new ArrayList<>(requestedKeys);
+      Lock lock = bloomFilterLock.writeLock();
+      lock.lock();
+      try {
+         // No value can be cached while collecting the keys, afterwards they must be in the new bloom filter too
+         cache.forEachKey(k -> filter.add(keyToBytes(k)));
+         keys.forEach(k -> filter.add(keyToBytes(k)));
+         nextBloomFilter = filter;
+      } finally {
+         lock.unlock();
+      }
+
+      Object previousListener = listener;
+      Object newListener = new BloomFilterNearCacheListener<K, V>(this);
+      try {
+         remote.addRawClientListener(newListener, new byte[][]{filter.toBytes()});
+      } catch (HotRodClientException e) {
+         // The previous listener still covers every cached key
+         nextBloomFilter = null;
+         log.unableToUpdateNearCacheBloomFilter(remote.getName(), e);
+         return;
+      }
+      if (stopped) {
+         // Stopping removed the previous listener only
+         remote.removeClientListener(newListener);
+         return;
+      }
+      bloomFilter = filter;
+      nextBloomFilter = null;
+      listener = newListener;
+      listenerId = listenerNotifier.findListenerId(newListener);
+      requestedKeys.removeAll(keys);
+
+      if (trace)
+         log.tracef("Updated near cache bloom filter with %d requested keys (listenerId=%s)",
+               keys.size(), Util.printArray(listenerId));
+
+      try {
+         remote.removeClientListener(previousListener);
+      } catch (HotRodClientException e) {
+         log.unableToUpdateNearCacheBloomFilter(remote.getName(), e);
+      }
+   }
+
+   private byte[] keyToBytes(K key) {
+      try {
+         return marshaller.objectToByteBuffer(key);
+      } catch (Exception e) {
+         throw new HotRodClientException("Unable to marshall object of type [" + key.getClass().getName() + "]", e);
+      }
+   }
+
    private boolean isConnected() {
       return listenerNotifier.isListenerConnected(listenerId);
    }
@@ -175,6 +333,17 @@ private void invalidate(K key) {
       }
    }
 
+   /**
+    * An invalidation listener whose events are filtered by the server with the bloom filter of the near cache keys,
+    * sent in its binary form as the only filter parameter.
+    */
+   @ClientListener(filterFactoryName = "___near-cache-bloom-filter", useRawData = true)
+   private static class BloomFilterNearCacheListener<K, V> extends InvalidatedNearCacheListener<K, V> {
+      private BloomFilterNearCacheListener(NearCache<K, V> cache) {
+         super(cache);
+      }
+   }
+
    /**
     * An near cache listener that eagerly populates the near cache as cache
     * entries are created/modified in the server. It uses a converter in order
@@ -0,0 +1,47 @@
+package org.infinispan.client.hotrod;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.test.InternalRemoteCacheManager;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "client.hotrod.PipelinedRemoteAsyncAPITest")
+public class PipelinedRemoteAsyncAPITest extends RemoteAsyncAPITest {
+
+   private static final int NUM_OPERATIONS = 1000;
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.forceReturnValues(isForceReturnValuesViaConfiguration());
+      builder.pipelining(true);
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      return new InternalRemoteCacheManager(builder.build());
+   }
+
+   public void testManyConcurrentOperations() throws Exception {
+      assertNotNull(((InternalRemoteCacheManager) remoteCacheManager).getTransportFactory().getChannelFactory());
+
+      List<CompletableFuture<String>> puts = new ArrayList<>(NUM_OPERATIONS);
+      for (int i = 0; i < NUM_OPERATIONS; i++) {
+         puts.add(remote().putAsync("k" + i, "v" + i));
+      }
+      CompletableFuture.allOf(puts.toArray(new CompletableFuture[NUM_OPERATIONS])).get(10, TimeUnit.SECONDS);
+
+      List<CompletableFuture<String>> gets = new ArrayList<>(NUM_OPERATIONS);
+      for (int i = 0; i < NUM_OPERATIONS; i++) {
+         gets.add(remote().getAsync("k" + i));
+      }
+      for (int i = 0; i < NUM_OPERATIONS; i++) {
+         assertEquals("v" + i, gets.get(i).get(10, TimeUnit.SECONDS));
+      }
+   }
+
+}
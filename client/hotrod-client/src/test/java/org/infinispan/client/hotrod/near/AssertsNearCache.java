@@ -16,6 +16,7 @@
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.infinispan.Cache;
 import org.infinispan.client.hotrod.RemoteCache;
@@ -31,9 +32,12 @@
    final BlockingQueue<MockEvent> events;
    final RemoteCacheManager manager;
    final NearCacheMode nearCacheMode;
+   final AtomicReference<MockNearCacheService<K, V>> service;
 
-   private AssertsNearCache(RemoteCacheManager manager, Cache<byte[], ?> server, BlockingQueue<MockEvent> events) {
+   private AssertsNearCache(RemoteCacheManager manager, Cache<byte[], ?> server, BlockingQueue<MockEvent> events,
+                            AtomicReference<MockNearCacheService<K, V>> service) {
       this.manager = manager;
+      this.service = service;
       this.remote = manager.getCache();
       this.server = server;
       this.events = events;
@@ -42,14 +46,20 @@ private AssertsNearCache(RemoteCacheManager manager, Cache<byte[], ?> server, Bl
 
    static <K, V> AssertsNearCache<K, V> create(Cache<byte[], ?> server, ConfigurationBuilder builder) {
       final BlockingQueue<MockEvent> events = new ArrayBlockingQueue<>(128);
+      final AtomicReference<MockNearCacheService<K, V>> service = new AtomicReference<>();
       RemoteCacheManager manager = new RemoteCacheManager(builder.build()) {
          @Override
          protected NearCacheService<K, V> createNearCacheService(NearCacheConfiguration cfg) {
-            return new MockNearCacheService<K, V>(cfg, events, listenerNotifier);
+            service.set(new MockNearCacheService<K, V>(cfg, events, listenerNotifier));
+            return service.get();
          }
       };
 
-      return new AssertsNearCache<>(manager, server, events);
+      return new AssertsNearCache<>(manager, server, events, service);
+   }
+
+   boolean isUpdatingBloomFilter() {
+      return service.get().isUpdatingBloomFilter();
    }
 
    AssertsNearCache<K, V> get(K key, V expected) {
@@ -129,6 +139,11 @@ final AssertsNearCache<K, V> expectNearRemove(K key, AssertsNearCache<K, V>... a
       return this;
    }
 
+   AssertsNearCache<K, V> expectNearRemoteRemove(K key) {
+      expectRemoteNearRemoveInClient(this, key);
+      return this;
+   }
+
    @SafeVarargs
    final AssertsNearCache<K, V> expectNearClear(AssertsNearCache<K, V>... affected) {
       expectNearClearInClient(this);
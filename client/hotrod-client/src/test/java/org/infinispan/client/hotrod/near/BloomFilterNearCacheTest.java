@@ -0,0 +1,98 @@
+package org.infinispan.client.hotrod.near;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.infinispan.commons.CacheConfigurationException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the near cache sending a bloom filter of its keys to the server.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "client.hotrod.near.BloomFilterNearCacheTest")
+public class BloomFilterNearCacheTest extends SingleHotRodServerTest {
+
+   AssertsNearCache<Integer, String> assertClient;
+   RemoteCacheManager writerManager;
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      // The bloom filter is updated as soon as a key is not in it
+      builder.nearCache().mode(NearCacheMode.INVALIDATED).maxEntries(8).bloomFilter(true);
+      assertClient = AssertsNearCache.create(this.<byte[], Object>cache(), builder);
+      return assertClient.manager;
+   }
+
+   @AfterMethod(alwaysRun = true)
+   void killWriter() {
+      HotRodClientTestingUtil.killRemoteCacheManager(writerManager);
+      writerManager = null;
+   }
+
+   public void testOnlyKeysInBloomFilterAreInvalidated() {
+      RemoteCache<Integer, String> writer = writer();
+      writer.put(1, "v1");
+      writer.put(2, "v2");
+
+      assertClient.expectNoNearEvents();
+      // The key is not in the bloom filter yet, so it is not cached but the bloom filter is updated
+      assertClient.get(1, "v1").expectNearGetNull(1);
+      waitForBloomFilterUpdate();
+      assertClient.get(1, "v1").expectNearGetNull(1).expectNearPutIfAbsent(1, "v1");
+      assertClient.get(1, "v1").expectNearGetValue(1, "v1");
+
+      // Events are received in order, so the invalidation of key 2 would be received first
+      writer.put(2, "v2-2");
+      writer.put(1, "v1-2");
+      assertClient.expectNearRemoteRemove(1);
+      assertClient.get(1, "v1-2").expectNearGetNull(1).expectNearPutIfAbsent(1, "v1-2");
+      assertClient.expectNoNearEvents();
+   }
+
+   public void testBloomFilterKeepsCachedKeys() {
+      RemoteCache<Integer, String> writer = writer();
+      writer.put(3, "v3");
+      writer.put(4, "v4");
+
+      assertClient.get(3, "v3").expectNearGetNull(3);
+      waitForBloomFilterUpdate();
+      assertClient.get(3, "v3").expectNearGetNull(3).expectNearPutIfAbsent(3, "v3");
+      // Updating the bloom filter for key 4 must not stop the invalidations of key 3
+      assertClient.get(4, "v4").expectNearGetNull(4);
+      waitForBloomFilterUpdate();
+      assertClient.get(4, "v4").expectNearGetNull(4).expectNearPutIfAbsent(4, "v4");
+
+      writer.put(3, "v3-2");
+      assertClient.expectNearRemoteRemove(3);
+      writer.put(4, "v4-2");
+      assertClient.expectNearRemoteRemove(4);
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class, expectedExceptionsMessageRegExp = "ISPN004068: .*")
+   public void testBloomFilterRequiresMaxEntries() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      builder.nearCache().mode(NearCacheMode.INVALIDATED).maxEntries(-1).bloomFilter(true);
+      builder.build();
+   }
+
+   private void waitForBloomFilterUpdate() {
+      // The bloom filter is updated asynchronously
+      eventually(() -> !assertClient.isUpdatingBloomFilter());
+   }
+
+   private RemoteCache<Integer, String> writer() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      writerManager = new RemoteCacheManager(builder.build());
+      return writerManager.getCache();
+   }
+}
@@ -0,0 +1,61 @@
+package org.infinispan.client.hotrod.near;
+
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.HotRodClientTestingUtil;
+import org.infinispan.client.hotrod.test.MultiHotRodServersTest;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the bloom filter of the near cache keys also filters the events of keys owned by other servers.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "client.hotrod.near.ClusterBloomFilterNearCacheTest")
+public class ClusterBloomFilterNearCacheTest extends MultiHotRodServersTest {
+
+   AssertsNearCache<Integer, String> assertClient;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1);
+      createHotRodServers(2, hotRodCacheConfiguration(builder));
+   }
+
+   @Override
+   protected RemoteCacheManager createClient(int i) {
+      if (i != 0)
+         return super.createClient(i);
+
+      // Only connected to the first server, which forwards the events of the other one
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder =
+            createHotRodClientConfigurationBuilder(server(0).getPort());
+      clientBuilder.nearCache().mode(NearCacheMode.INVALIDATED).maxEntries(8).bloomFilter(true);
+      assertClient = AssertsNearCache.create(this.<byte[], Object>cache(0), clientBuilder);
+      return assertClient.manager;
+   }
+
+   public void testRemoteKeysFilteredByBloomFilter() {
+      Integer key0 = HotRodClientTestingUtil.getIntKeyForServer(server(0));
+      Integer key1 = HotRodClientTestingUtil.getIntKeyForServer(server(1));
+      RemoteCache<Integer, String> writer = client(1).getCache();
+      writer.put(key0, "v0");
+      writer.put(key1, "v1");
+
+      assertClient.get(key1, "v1").expectNearGetNull(key1);
+      // The bloom filter is updated asynchronously
+      eventually(() -> !assertClient.isUpdatingBloomFilter());
+      assertClient.get(key1, "v1").expectNearGetNull(key1).expectNearPutIfAbsent(key1, "v1");
+
+      writer.put(key0, "v0-2");
+      writer.put(key1, "v1-2");
+      assertClient.expectNearRemoteRemove(key1);
+      assertClient.expectNoNearEvents();
+   }
+}
@@ -0,0 +1,108 @@
+package org.infinispan.commons.util;
+
+import java.util.Arrays;
+
+import org.infinispan.commons.hash.MurmurHash3;
+
+/**
+ * A bloom filter over byte array keys, with a compact binary form so that it can be built on one side of a connection
+ * and evaluated on the other.
+ * <p>
+ * The bit positions of a key are derived by double hashing the two halves of its 128-bit MurmurHash3 hash, so both
+ * sides compute the same positions as long as they see the same key bytes. The binary form is one byte holding the
+ * number of hash functions followed by the bit set, 8 bytes per word in big-endian order.
+ * <p>
+ * Adding keys is not thread safe, the filter is meant to be built once and then only queried.
+ *
+ * @since 9.0
+ */
+public final class BloomFilter {
+   private static final int SEED = 9001;
+
+   private final long[] words;
+   private final int hashCount;
+
+   private BloomFilter(long[] words, int hashCount) {
+      this.words = words;
+      this.hashCount = hashCount;
+   }
+
+   /**
+    * Creates an empty filter sized for the given number of keys, using 8 bits and 4 hash functions per key, for a
+    * false positive rate of about 2.5% once the filter is full.
+    */
+   public static BloomFilter create(int expectedKeys) {
+      int wordCount = Math.max(1, (Math.max(expectedKeys, 1) * 8 + 63) >>> 6);
+      return new BloomFilter(new long[wordCount], 4);
+   }
+
+   public static BloomFilter fromBytes(byte[] bytes) {
+      if (bytes.length < 9 || (bytes.length - 1) % 8 != 0 || bytes[0] <= 0)
+         throw new IllegalArgumentException("Invalid bloom filter of " + bytes.length + " bytes");
+
+      long[] words = new long[(bytes.length - 1) / 8];
+      int offset = 1;
+      for (int i = 0; i < words.length; i++) {
+         long word = 0;
+         for (int j = 0; j < 8; j++) {
+            word = (word << 8) | (bytes[offset++] & 0xFF);
+         }
+         words[i] = word;
+      }
+      return new BloomFilter(words, bytes[0]);
+   }
+
+   public void add(byte[] key) {
+      long[] hash = MurmurHash3.MurmurHash3_x64_128(key, SEED);
+      long bitCount = (long) words.length << 6;
+      for (int i = 0; i < hashCount; i++) {
+         long bit = Math.floorMod(hash[0] + i * hash[1], bitCount);
+         words[(int) (bit >>> 6)] |= 1L << bit;
+      }
+   }
+
+   /**
+    * @return {@code false} if the key was never added to the filter, {@code true} if it was or, with a low
+    * probability, if it was not.
+    */
+   public boolean mightContain(byte[] key) {
+      long[] hash = MurmurHash3.MurmurHash3_x64_128(key, SEED);
+      long bitCount = (long) words.length << 6;
+      for (int i = 0; i < hashCount; i++) {
+         long bit = Math.floorMod(hash[0] + i * hash[1], bitCount);
+         if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0)
+            return false;
+      }
+      return true;
+   }
+
+   public byte[] toBytes() {
+      byte[] bytes = new byte[1 + words.length * 8];
+      bytes[0] = (byte) hashCount;
+      int offset = 1;
+      for (long word : words) {
+         for (int shift = 56; shift >= 0; shift -= 8) {
+            bytes[offset++] = (byte) (word >>> shift);
+         }
+      }
+      return bytes;
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      BloomFilter that = (BloomFilter) o;
+      return hashCount == that.hashCount && Arrays.equals(words, that.words);
+   }
+
+   @Override
+   public int hashCode() {
+      return 31 * hashCount + Arrays.hashCode(words);
+   }
+
+   @Override
+   public String toString() {
+      return "BloomFilter{bits=" + (words.length << 6) + ", hashCount=" + hashCount + "}";
+   }
+}
@@ -41,6 +41,7 @@
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
@@ -749,6 +750,521 @@ public void resize(long newSize) {
       }
    }
 
+   /**
+    * Frequency sketch used by {@link TinyLFUEvictionPolicy} to estimate how often a key was accessed recently. It is
+    * a count-min sketch with four 4-bit counters per key, packed sixteen to a {@code long}. Once the number of
+    * increments reaches ten times the table length all the counters are halved, so that the popularity of keys that
+    * are no longer accessed decays over time.
+    * <p>
+    * This class is not thread safe, access has to be guarded by the owning policy's lock.
+    */
+   static final class FrequencySketch {
+      static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+            0xcbf29ce484222325L };
+      static final long RESET_MASK = 0x7777777777777777L;
+      static final long ONE_MASK = 0x1111111111111111L;
+      static final int MAXIMUM_CAPACITY = 1 << 22;
+
+      long[] table;
+      int tableMask;
+      int sampleSize;
+      int size;
+
+      FrequencySketch(long capacity) {
+         ensureCapacity(capacity);
+      }
+
+      /**
+       * Grows the sketch so that it can track about {@code capacity} keys. Growing discards the frequencies collected
+       * so far.
+       */
+      void ensureCapacity(long capacity) {
+         int length = (int) Math.min(Math.max(capacity, 16), MAXIMUM_CAPACITY);
+         if (table != null && table.length >= length) {
+            return;
+         }
+         table = new long[tableSizeFor(length)];
+         tableMask = table.length - 1;
+         sampleSize = 10 * table.length;
+         size = 0;
+      }
+
+      int frequency(int hash) {
+         int frequency = 15;
+         for (int i = 0; i < SEEDS.length; ++i) {
+            long h = indexHash(hash, i);
+            int count = (int) ((table[(int) h & tableMask] >>> counterOffset(h)) & 0xfL);
+            frequency = Math.min(frequency, count);
+         }
+         return frequency;
+      }
+
+      void increment(int hash) {
+         boolean added = false;
+         for (int i = 0; i < SEEDS.length; ++i) {
+            long h = indexHash(hash, i);
+            int index = (int) h & tableMask;
+            int offset = counterOffset(h);
+            long mask = 0xfL << offset;
+            if ((table[index] & mask) != mask) {
+               table[index] += 1L << offset;
+               added = true;
+            }
+         }
+         if (added && ++size == sampleSize) {
+            reset();
+         }
+      }
+
+      private void reset() {
+         int odd = 0;
+         for (int i = 0; i < table.length; ++i) {
+            odd += Long.bitCount(table[i] & ONE_MASK);
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+         }
+         size = (size - (odd >>> 2)) >>> 1;
+      }
+
+      private static long indexHash(int hash, int i) {
+         long h = (hash + SEEDS[i]) * SEEDS[i];
+         return h + (h >>> 32);
+      }
+
+      private static int counterOffset(long h) {
+         // Each long holds 16 counters of 4 bits each
+         return ((int) (h >>> 40) & 0xf) << 2;
+      }
+   }
+
+   enum TinyLFUQueue {
+      WINDOW, PROBATION, PROTECTED
+   }
+
+   static final class TinyLFUNode<K, V> implements EvictionEntry<K, V> {
+      // The next few variables are to always be protected by the policy lock
+      final Node<K, V> attachedNode;
+      TinyLFUNode<K, V> prev;
+      TinyLFUNode<K, V> next;
+      TinyLFUQueue queue;
+      long weight;
+      boolean removed;
+
+      TinyLFUNode(Node<K, V> attachedNode) {
+         this.attachedNode = attachedNode;
+      }
+
+      @Override
+      public K getKey() {
+         return attachedNode.key;
+      }
+   }
+
+   /**
+    * Intrusive doubly linked list of {@link TinyLFUNode}s, ordered from the least to the most recently used. Also
+    * keeps track of the total weight of the nodes it contains.
+    */
+   static final class TinyLFUDeque<K, V> {
+      TinyLFUNode<K, V> head;
+      TinyLFUNode<K, V> tail;
+      long weight;
+
+      boolean isEmpty() {
+         return head == null;
+      }
+
+      void linkLast(TinyLFUNode<K, V> node) {
+         node.prev = tail;
+         node.next = null;
+         if (tail == null) {
+            head = node;
+         } else {
+            tail.next = node;
+         }
+         tail = node;
+         weight += node.weight;
+      }
+
+      void unlink(TinyLFUNode<K, V> node) {
+         if (node.prev == null) {
+            head = node.next;
+         } else {
+            node.prev.next = node.next;
+         }
+         if (node.next == null) {
+            tail = node.prev;
+         } else {
+            node.next.prev = node.prev;
+         }
+         node.prev = null;
+         node.next = null;
+         weight -= node.weight;
+      }
+
+      void moveToLast(TinyLFUNode<K, V> node) {
+         if (tail != node) {
+            unlink(node);
+            linkLast(node);
+         }
+      }
+   }
+
+   /**
+    * Window TinyLFU eviction policy.
+    * <p>
+    * New entries are admitted into a small LRU window (1% of the capacity). When the window overflows its least
+    * recently used entry becomes a candidate for the main space, which is a segmented LRU made of a probation and a
+    * protected (80% of the main space) area. If the main space is full the candidate has to compete with the least
+    * recently used entry of the probation area, and only the one that was accessed more frequently according to a
+    * {@link FrequencySketch} survives. This keeps scans and one-hit wonders from flushing the frequently used entries,
+    * while the window still gives recently added entries a chance to build up their frequency.
+    * <p>
+    * All the queues and the sketch are guarded by a single lock. Writes always acquire it, as they already hold the
+    * lock of their bin. Reads only try to acquire it and otherwise record the access in a ring buffer which is drained
+    * by the next thread holding the lock, so that concurrent readers do not contend on it.
+    */
+   static final class TinyLFUEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
+      static final double WINDOW_PERCENTAGE = 0.01;
+      static final double PROTECTED_PERCENTAGE = 0.8;
+      static final int READ_BUFFER_SIZE = 128;
+      static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+      static final int READ_BUFFER_DRAIN_THRESHOLD = READ_BUFFER_SIZE / 2;
+
+      final BoundedEquivalentConcurrentHashMapV8<K, V> map;
+      final EntrySizeCalculator<? super K, ? super V> sizeCalculator;
+      final boolean countingMemory;
+      final ReentrantLock lock = new ReentrantLock();
+      final TinyLFUDeque<K, V> window = new TinyLFUDeque<>();
+      final TinyLFUDeque<K, V> probation = new TinyLFUDeque<>();
+      final TinyLFUDeque<K, V> protectedDeque = new TinyLFUDeque<>();
+      final FrequencySketch sketch;
+      final AtomicReferenceArray<TinyLFUNode<K, V>> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+      final AtomicLong readBufferTail = new AtomicLong();
+      // Only written while holding the lock
+      volatile long readBufferHead;
+      volatile long currentSize;
+      volatile long maxSize;
+      long maxWindowSize;
+      long maxProtectedSize;
+      long entries;
+
+      TinyLFUEvictionPolicy(BoundedEquivalentConcurrentHashMapV8<K, V> map, long maxSize,
+            EntrySizeCalculator<? super K, ? super V> sizeCalculator, boolean countingMemory) {
+         this.map = map;
+         this.sizeCalculator = sizeCalculator;
+         this.countingMemory = countingMemory;
+         // When counting memory we don't know how many entries fit, so the sketch grows with the number of entries
+         this.sketch = new FrequencySketch(countingMemory ? 0 : maxSize);
+         setMaxSize(maxSize);
+         if (countingMemory) {
+            sun.misc.Unsafe unsafe = getUnsafe();
+            // The policy itself, its 3 deques, the sketch and the read buffer
+            long policySize = 6 * roundUpToNearest8(unsafe.ADDRESS_SIZE + unsafe.ARRAY_OBJECT_INDEX_SCALE);
+            // The references between them and the longs
+            policySize += unsafe.ARRAY_OBJECT_INDEX_SCALE * 16 + 8 * 12;
+            policySize += roundUpToNearest8(unsafe.arrayBaseOffset(long[].class) + 8L * sketch.table.length);
+            policySize += roundUpToNearest8(unsafe.arrayBaseOffset(Object[].class) +
+                  (long) unsafe.ARRAY_OBJECT_INDEX_SCALE * READ_BUFFER_SIZE);
+            // Same approximation of the map itself as the LRU policy
+            long mapSize = unsafe.ADDRESS_SIZE + unsafe.ARRAY_OBJECT_INDEX_SCALE;
+            mapSize += LRUEvictionPolicy.NODE_ARRAY_BASE_OFFSET * 2;
+            mapSize += 8 * 2 + 4 * 3;
+            mapSize += unsafe.arrayBaseOffset(CounterCell[].class);
+            mapSize += unsafe.ADDRESS_SIZE * 8;
+            currentSize = roundUpToNearest8(policySize) + roundUpToNearest8(mapSize);
+         }
+      }
+
+      private void setMaxSize(long maxSize) {
+         this.maxSize = maxSize;
+         this.maxWindowSize = Math.max(1, (long) (maxSize * WINDOW_PERCENTAGE));
+         this.maxProtectedSize = (long) ((maxSize - maxWindowSize) * PROTECTED_PERCENTAGE);
+      }
+
+      @Override
+      public Node<K, V> createNewEntry(K key, int hash, Node<K, V> next, V value,
+            EvictionEntry<K, V> evictionEntry) {
+         Node<K, V> node = new Node<K, V>(hash, map.nodeEq, key, value, next);
+         if (evictionEntry == null) {
+            node.lazySetEviction(new TinyLFUNode<>(node));
+         } else {
+            node.lazySetEviction(evictionEntry);
+         }
+         return node;
+      }
+
+      @Override
+      public TreeNode<K, V> createNewEntry(K key, int hash, TreeNode<K, V> next,
+            TreeNode<K, V> parent, V value, EvictionEntry<K, V> evictionEntry) {
+         TreeNode<K, V> treeNode;
+         if (evictionEntry == null) {
+            treeNode = new TreeNode<>(hash, map.nodeEq, key, value, next, parent, null);
+            treeNode.lazySetEviction(new TinyLFUNode<>(treeNode));
+         } else {
+            treeNode = new TreeNode<>(hash, map.nodeEq, key, value, next, parent, evictionEntry);
+         }
+         return treeNode;
+      }
+
+      @Override
+      public void onEntryMiss(Node<K, V> e, V value) {
+         TinyLFUNode<K, V> node = (TinyLFUNode<K, V>) e.eviction;
+         lock.lock();
+         try {
+            drainReadBuffer();
+            if (!node.removed && node.queue == null) {
+               node.weight = sizeCalculator.calculateSize(e.key, value);
+               node.queue = TinyLFUQueue.WINDOW;
+               window.linkLast(node);
+               currentSize += node.weight;
+               sketch.increment(e.hash);
+               if (++entries > sketch.table.length && countingMemory) {
+                  sketch.ensureCapacity(entries);
+               }
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+
+      @Override
+      public void onEntryHitRead(Node<K, V> e, V value) {
+         TinyLFUNode<K, V> node = (TinyLFUNode<K, V>) e.eviction;
+         if (lock.tryLock()) {
+            try {
+               drainReadBuffer();
+               onAccess(node);
+            } finally {
+               lock.unlock();
+            }
+            return;
+         }
+         while (true) {
+            long tail = readBufferTail.get();
+            if (tail - readBufferHead >= READ_BUFFER_SIZE) {
+               // The buffer is full, help draining it instead of dropping the access
+               lock.lock();
+               try {
+                  drainReadBuffer();
+                  onAccess(node);
+               } finally {
+                  lock.unlock();
+               }
+               return;
+            }
+            if (readBufferTail.compareAndSet(tail, tail + 1)) {
+               readBuffer.lazySet((int) tail & READ_BUFFER_MASK, node);
+               return;
+            }
+         }
+      }
+
+      @Override
+      public void onEntryHitWrite(Node<K, V> e, V value) {
+         TinyLFUNode<K, V> node = (TinyLFUNode<K, V>) e.eviction;
+         lock.lock();
+         try {
+            drainReadBuffer();
+            if (node.queue != null) {
+               long weight = sizeCalculator.calculateSize(e.key, value);
+               long difference = weight - node.weight;
+               if (difference != 0) {
+                  dequeFor(node.queue).weight += difference;
+                  node.weight = weight;
+                  currentSize += difference;
+               }
+            }
+            onAccess(node);
+         } finally {
+            lock.unlock();
+         }
+      }
+
+      @Override
+      public void onEntryRemove(Node<K, V> e) {
+         TinyLFUNode<K, V> node = (TinyLFUNode<K, V>) e.eviction;
+         lock.lock();
+         try {
+            // This is just in case if there are concurrent removes for the same key
+            if (!node.removed) {
+               node.removed = true;
+               if (node.queue != null) {
+                  remove(node);
+               }
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+
+      @Override
+      public Collection<Node<K, V>> findIfEntriesNeedEvicting() {
+         if (currentSize <= maxSize && window.weight <= maxWindowSize &&
+               readBufferTail.get() - readBufferHead < READ_BUFFER_DRAIN_THRESHOLD) {
+            return Collections.emptyList();
+         }
+         List<Node<K, V>> victims;
+         lock.lock();
+         try {
+            drainReadBuffer();
+            victims = evict();
+         } finally {
+            lock.unlock();
+         }
+         if (victims.isEmpty()) {
+            return victims;
+         }
+         // The nodes are already accounted for and marked as removed, so the map must be updated outside of the lock
+         // as the bin lock is always acquired before this policy's one
+         List<Node<K, V>> evictedEntries = new ArrayList<>(victims.size());
+         for (Node<K, V> node : victims) {
+            if (map.replaceNode(node.key, null, null, true) != null) {
+               evictedEntries.add(node);
+            }
+         }
+         return evictedEntries;
+      }
+
+      @Override
+      public void onResize(long oldSize, long newSize) {
+         if (countingMemory && newSize > oldSize) {
+            lock.lock();
+            try {
+               // Need to increment the overall size
+               currentSize += (newSize - oldSize) * LRUEvictionPolicy.NODE_ARRAY_OFFSET;
+            } finally {
+               lock.unlock();
+            }
+         }
+      }
+
+      @Override
+      public void resize(long newSize) {
+         lock.lock();
+         try {
+            setMaxSize(newSize);
+            if (!countingMemory) {
+               sketch.ensureCapacity(newSize);
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+
+      private TinyLFUDeque<K, V> dequeFor(TinyLFUQueue queue) {
+         switch (queue) {
+            case WINDOW:
+               return window;
+            case PROBATION:
+               return probation;
+            default:
+               return protectedDeque;
+         }
+      }
+
+      private void remove(TinyLFUNode<K, V> node) {
+         dequeFor(node.queue).unlink(node);
+         node.queue = null;
+         currentSize -= node.weight;
+         entries--;
+      }
+
+      private void drainReadBuffer() {
+         long head = readBufferHead;
+         long tail = readBufferTail.get();
+         while (head < tail) {
+            int index = (int) head & READ_BUFFER_MASK;
+            TinyLFUNode<K, V> node = readBuffer.get(index);
+            if (node == null) {
+               // The slot was reserved but the reader hasn't published the node yet
+               break;
+            }
+            readBuffer.lazySet(index, null);
+            onAccess(node);
+            head++;
+         }
+         readBufferHead = head;
+      }
+
+      private void onAccess(TinyLFUNode<K, V> node) {
+         if (node.removed || node.queue == null) {
+            // The entry was removed or onEntryMiss hasn't ran yet
+            return;
+         }
+         sketch.increment(node.attachedNode.hash);
+         switch (node.queue) {
+            case WINDOW:
+               window.moveToLast(node);
+               break;
+            case PROBATION:
+               // A second access in the main space promotes the entry
+               probation.unlink(node);
+               node.queue = TinyLFUQueue.PROTECTED;
+               protectedDeque.linkLast(node);
+               while (protectedDeque.weight > maxProtectedSize && protectedDeque.head != node) {
+                  TinyLFUNode<K, V> demoted = protectedDeque.head;
+                  protectedDeque.unlink(demoted);
+                  demoted.queue = TinyLFUQueue.PROBATION;
+                  probation.linkLast(demoted);
+               }
+               break;
+            case PROTECTED:
+               protectedDeque.moveToLast(node);
+               break;
+         }
+      }
+
+      private List<Node<K, V>> evict() {
+         // Move the overflow of the window into the probation space, the moved nodes are candidates for admission.
+         // We always keep the most recently added node in the window, so it can't be evicted straight away.
+         TinyLFUNode<K, V> firstCandidate = null;
+         while (window.weight > maxWindowSize && window.head != window.tail) {
+            TinyLFUNode<K, V> candidate = window.head;
+            window.unlink(candidate);
+            candidate.queue = TinyLFUQueue.PROBATION;
+            probation.linkLast(candidate);
+            if (firstCandidate == null) {
+               firstCandidate = candidate;
+            }
+         }
+         if (currentSize <= maxSize) {
+            return Collections.emptyList();
+         }
+         List<Node<K, V>> victims = new ArrayList<>();
+         TinyLFUNode<K, V> candidate = firstCandidate;
+         while (currentSize > maxSize) {
+            TinyLFUNode<K, V> victim = probation.head;
+            TinyLFUNode<K, V> evicted;
+            if (candidate != null && candidate.queue != TinyLFUQueue.PROBATION) {
+               // The candidate was evicted as a victim already, so there are no candidates left
+               candidate = null;
+            }
+            if (victim == null) {
+               // Nothing left in probation, fall back to the protected and then the window space
+               evicted = protectedDeque.isEmpty() ? window.head : protectedDeque.head;
+               if (evicted == null) {
+                  break;
+               }
+            } else if (candidate == null || candidate == victim) {
+               evicted = victim;
+               candidate = null;
+            } else {
+               TinyLFUNode<K, V> nextCandidate = candidate.next;
+               if (candidate.weight > maxSize ||
+                     sketch.frequency(candidate.attachedNode.hash) <= sketch.frequency(victim.attachedNode.hash)) {
+                  evicted = candidate;
+               } else {
+                  evicted = victim;
+               }
+               candidate = nextCandidate;
+            }
+            evicted.removed = true;
+            remove(evicted);
+            victims.add(evicted.attachedNode);
+         }
+         return victims;
+      }
+   }
+
    enum Recency {
       HIR_RESIDENT, LIR_RESIDENT, HIR_NONRESIDENT, EVICTING, EVICTED, REMOVED
    }
@@ -1622,6 +2138,19 @@ public <K, V> EvictionPolicy<K, V> make(BoundedEquivalentConcurrentHashMapV8<K,
             }
             return new LIRSEvictionPolicy<K, V>(map, capacity);
          }
+      },
+      TINY_LFU {
+         @Override
+         public <K, V> EvictionPolicy<K, V> make(BoundedEquivalentConcurrentHashMapV8<K, V> map,
+               EntrySizeCalculator<? super K, ? super V> sizeCalculator, long capacity) {
+            if (sizeCalculator == null) {
+               return new TinyLFUEvictionPolicy<K, V>(map, capacity,
+                     SingleEntrySizeCalculator.SINGLETON, false);
+            } else {
+               return new TinyLFUEvictionPolicy<K, V>(map, capacity,
+                     new NodeSizeCalculatorWrapper<K, V>(sizeCalculator), true);
+            }
+         }
       };
 
       abstract <K, V> EvictionPolicy<K, V> make(
@@ -0,0 +1,69 @@
+package org.infinispan.commons.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link BloomFilter}
+ *
+ * @since 9.0
+ */
+public class BloomFilterTest {
+
+   @Test
+   public void testAddedKeysMatch() {
+      BloomFilter filter = BloomFilter.create(1000);
+      for (int i = 0; i < 1000; i++) {
+         filter.add(key("key" + i));
+      }
+      for (int i = 0; i < 1000; i++) {
+         assertTrue(filter.mightContain(key("key" + i)));
+      }
+   }
+
+   @Test
+   public void testFalsePositiveRate() {
+      BloomFilter filter = BloomFilter.create(1000);
+      for (int i = 0; i < 1000; i++) {
+         filter.add(key("key" + i));
+      }
+      int falsePositives = 0;
+      for (int i = 0; i < 10000; i++) {
+         if (filter.mightContain(key("other" + i)))
+            falsePositives++;
+      }
+      assertTrue("Too many false positives: " + falsePositives, falsePositives < 500);
+   }
+
+   @Test
+   public void testEmptyFilter() {
+      BloomFilter filter = BloomFilter.create(0);
+      assertFalse(filter.mightContain(key("key")));
+      assertFalse(filter.mightContain(new byte[0]));
+   }
+
+   @Test
+   public void testBinaryForm() {
+      BloomFilter filter = BloomFilter.create(100);
+      filter.add(key("a"));
+      filter.add(key("b"));
+      BloomFilter copy = BloomFilter.fromBytes(filter.toBytes());
+      assertEquals(filter, copy);
+      assertTrue(copy.mightContain(key("a")));
+      assertTrue(copy.mightContain(key("b")));
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void testInvalidBinaryForm() {
+      BloomFilter.fromBytes(new byte[]{4, 0, 0});
+   }
+
+   private static byte[] key(String s) {
+      return s.getBytes(StandardCharsets.UTF_8);
+   }
+}
@@ -35,6 +35,7 @@
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.SizeCommand;
+import org.infinispan.commands.remote.BackupWriteBatchCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
@@ -50,6 +51,7 @@
 import org.infinispan.commands.tx.VersionedPrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -284,6 +286,15 @@ public interface CommandsFactory {
     */
    SingleRpcCommand buildSingleRpcCommand(ReplicableCommand call);
 
+   /**
+    * Builds a BackupWriteBatchCommand "envelope" containing several independent write commands that a primary owner
+    * replicates to the same backup owners
+    * @param commands the write commands, in the order in which they must be applied
+    * @param topologyId the topology id of all the write commands
+    * @return a BackupWriteBatchCommand
+    */
+   BackupWriteBatchCommand buildBackupWriteBatchCommand(List<DataWriteCommand> commands, int topologyId);
+
    /**
     * Builds a ClusteredGetCommand, which is a remote lookup command
     * @param key key to look up
@@ -37,6 +37,7 @@
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.SizeCommand;
+import org.infinispan.commands.remote.BackupWriteBatchCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
@@ -57,6 +58,7 @@
 import org.infinispan.commands.tx.totalorder.TotalOrderVersionedPrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.InvalidateL1Command;
@@ -325,6 +327,11 @@ public SingleRpcCommand buildSingleRpcCommand(ReplicableCommand call) {
       return new SingleRpcCommand(cacheName, call);
    }
 
+   @Override
+   public BackupWriteBatchCommand buildBackupWriteBatchCommand(List<DataWriteCommand> commands, int topologyId) {
+      return new BackupWriteBatchCommand(cacheName, commands, topologyId);
+   }
+
    @Override
    public ClusteredGetCommand buildClusteredGetCommand(Object key, long flagsBitSet) {
       return new ClusteredGetCommand(key, cacheName, flagsBitSet, configuration.dataContainer().keyEquivalence());
@@ -355,6 +362,15 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
             if (src.getCommand() != null)
                initializeReplicableCommand(src.getCommand(), false);
 
+            break;
+         case BackupWriteBatchCommand.COMMAND_ID:
+            BackupWriteBatchCommand bwbc = (BackupWriteBatchCommand) c;
+            bwbc.init(interceptorChain, icf);
+            if (bwbc.getCommands() != null) {
+               for (DataWriteCommand command : bwbc.getCommands()) {
+                  initializeReplicableCommand(command, false);
+               }
+            }
             break;
          case InvalidateCommand.COMMAND_ID:
             InvalidateCommand ic = (InvalidateCommand) c;
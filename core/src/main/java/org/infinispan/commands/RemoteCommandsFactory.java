@@ -17,6 +17,7 @@
 import org.infinispan.commands.read.DistributedExecuteCommand;
 import org.infinispan.commands.read.GetCacheEntryCommand;
 import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commands.remote.BackupWriteBatchCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
@@ -246,6 +247,9 @@ public CacheRpcCommand fromStream(byte id, byte type, ByteString cacheName) {
             case SingleRpcCommand.COMMAND_ID:
                command = new SingleRpcCommand(cacheName);
                break;
+            case BackupWriteBatchCommand.COMMAND_ID:
+               command = new BackupWriteBatchCommand(cacheName);
+               break;
             case ClusteredGetCommand.COMMAND_ID:
                command = new ClusteredGetCommand(cacheName);
                break;
@@ -0,0 +1,125 @@
+package org.infinispan.commands.remote;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.commands.TopologyAffectedCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.remoting.responses.ExceptionResponse;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.util.ByteString;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Carries several independent write commands that a primary owner replicates to the same backup owners.
+ * <p>
+ * The commands are applied in the order in which they were added and a failure of one of them does not prevent the
+ * others from being applied. The result is an array with one {@link Response} per command, either a
+ * {@link SuccessfulResponse} with the command's return value or an {@link ExceptionResponse}.
+ *
+ * @since 9.0
+ */
+public class BackupWriteBatchCommand extends BaseRpcInvokingCommand implements TopologyAffectedCommand {
+   public static final byte COMMAND_ID = 64;
+
+   private static final Log log = LogFactory.getLog(BackupWriteBatchCommand.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private List<DataWriteCommand> commands;
+   private int topologyId = -1;
+
+   private BackupWriteBatchCommand() {
+      super(null); // For command id uniqueness test
+   }
+
+   public BackupWriteBatchCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public BackupWriteBatchCommand(ByteString cacheName, List<DataWriteCommand> commands, int topologyId) {
+      super(cacheName);
+      this.commands = commands;
+      this.topologyId = topologyId;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      Response[] responses = new Response[commands.size()];
+      for (int i = 0; i < responses.length; i++) {
+         DataWriteCommand command = commands.get(i);
+         try {
+            responses[i] = SuccessfulResponse.create(processVisitableCommand(command));
+         } catch (Exception e) {
+            if (trace) log.tracef(e, "Exception applying batched backup write %s", command);
+            responses[i] = new ExceptionResponse(e);
+         } catch (Throwable t) {
+            if (trace) log.tracef(t, "Exception applying batched backup write %s", command);
+            responses[i] = new ExceptionResponse(new CacheException(t));
+         }
+      }
+      return responses;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      MarshallUtil.marshallCollection(commands, output);
+      output.writeInt(topologyId);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      commands = MarshallUtil.unmarshallCollection(input, ArrayList::new);
+      topologyId = input.readInt();
+   }
+
+   public List<DataWriteCommand> getCommands() {
+      return commands;
+   }
+
+   @Override
+   public int getTopologyId() {
+      return topologyId;
+   }
+
+   @Override
+   public void setTopologyId(int topologyId) {
+      this.topologyId = topologyId;
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public boolean canBlock() {
+      for (DataWriteCommand command : commands) {
+         if (command.canBlock()) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   @Override
+   public String toString() {
+      return "BackupWriteBatchCommand{" +
+            "cacheName=" + cacheName +
+            ", topologyId=" + topologyId +
+            ", commands=" + commands +
+            '}';
+   }
+}
@@ -55,6 +55,7 @@ public class PrepareCommand extends AbstractTransactionBoundaryCommand implement
    protected RecoveryManager recoveryManager;
    private transient boolean replayEntryWrapping  = false;
    protected boolean retriedCommand;
+   protected boolean singleOwnerCommit;
 
    private static final WriteCommand[] EMPTY_WRITE_COMMAND_ARRAY = new WriteCommand[0];
 
@@ -195,6 +196,7 @@ public void writeTo(ObjectOutput output) throws IOException {
       super.writeTo(output); //global tx
       output.writeBoolean(onePhaseCommit);
       output.writeBoolean(retriedCommand);
+      output.writeBoolean(singleOwnerCommit);
       MarshallUtil.marshallArray(modifications, output);
    }
 
@@ -203,6 +205,7 @@ public void readFrom(ObjectInput input) throws IOException, ClassNotFoundExcepti
       super.readFrom(input);
       onePhaseCommit = input.readBoolean();
       retriedCommand = input.readBoolean();
+      singleOwnerCommit = input.readBoolean();
       modifications = MarshallUtil.unmarshallArray(input, WriteCommand[]::new);
    }
 
@@ -211,6 +214,7 @@ public PrepareCommand copy() {
       copy.globalTx = globalTx;
       copy.modifications = modifications == null ? null : modifications.clone();
       copy.onePhaseCommit = onePhaseCommit;
+      copy.singleOwnerCommit = singleOwnerCommit;
       return copy;
    }
 
@@ -220,6 +224,7 @@ public String toString() {
             "modifications=" + (modifications == null ? null : Arrays.asList(modifications)) +
             ", onePhaseCommit=" + onePhaseCommit +
             ", retried=" + retriedCommand +
+            ", singleOwnerCommit=" + singleOwnerCommit +
             ", " + super.toString();
    }
 
@@ -263,4 +268,19 @@ public boolean isRetriedCommand() {
    public void setRetriedCommand(boolean retriedCommand) {
       this.retriedCommand = retriedCommand;
    }
+
+   /**
+    * @return true if this one phase commit is only sent to the primary owner of all the modified keys, which commits it
+    * while holding the locks and then forwards it to the backup owners.
+    */
+   public boolean isSingleOwnerCommit() {
+      return singleOwnerCommit;
+   }
+
+   /**
+    * @see #isSingleOwnerCommit()
+    */
+   public void setSingleOwnerCommit(boolean singleOwnerCommit) {
+      this.singleOwnerCommit = singleOwnerCommit;
+   }
 }
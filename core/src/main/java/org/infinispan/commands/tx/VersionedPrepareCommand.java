@@ -72,6 +72,7 @@ public String toString() {
             "modifications=" + (modifications == null ? null : Arrays.asList(modifications)) +
             ", onePhaseCommit=" + onePhaseCommit +
             ", retried=" + retriedCommand +
+            ", singleOwnerCommit=" + singleOwnerCommit +
             ", versionsSeen=" + versionsSeen +
             ", gtx=" + globalTx +
             ", cacheName='" + cacheName + '\'' +
@@ -31,11 +31,15 @@ static AttributeSet attributeDefinitionSet() {
    private final AttributeSet attributes;
    private final TakeOfflineConfiguration takeOfflineConfiguration;
    private final XSiteStateTransferConfiguration xSiteStateTransferConfiguration ;
+   private final BackupQueueConfiguration backupQueueConfiguration;
 
-   public BackupConfiguration(AttributeSet attributes, TakeOfflineConfiguration takeOfflineConfiguration, XSiteStateTransferConfiguration xSiteStateTransferConfiguration) {
+   public BackupConfiguration(AttributeSet attributes, TakeOfflineConfiguration takeOfflineConfiguration,
+                              XSiteStateTransferConfiguration xSiteStateTransferConfiguration,
+                              BackupQueueConfiguration backupQueueConfiguration) {
       this.attributes = attributes.checkProtection();
       this.takeOfflineConfiguration = takeOfflineConfiguration;
       this.xSiteStateTransferConfiguration = xSiteStateTransferConfiguration;
+      this.backupQueueConfiguration = backupQueueConfiguration;
       this.site = attributes.attribute(SITE);
       this.strategy = attributes.attribute(STRATEGY);
       this.replicationTimeout = attributes.attribute(REPLICATION_TIMEOUT);
@@ -107,6 +111,10 @@ public XSiteStateTransferConfiguration stateTransfer() {
       return xSiteStateTransferConfiguration;
    }
 
+   public BackupQueueConfiguration queue() {
+      return backupQueueConfiguration;
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -114,7 +122,8 @@ public AttributeSet attributes() {
    @Override
    public String toString() {
       return "BackupConfiguration [attributes=" + attributes + ", takeOfflineConfiguration=" + takeOfflineConfiguration
-            + ", xSiteStateTransferConfiguration=" + xSiteStateTransferConfiguration + "]";
+            + ", xSiteStateTransferConfiguration=" + xSiteStateTransferConfiguration
+            + ", backupQueueConfiguration=" + backupQueueConfiguration + "]";
    }
 
    @Override
@@ -141,6 +150,11 @@ public boolean equals(Object obj) {
             return false;
       } else if (!xSiteStateTransferConfiguration.equals(other.xSiteStateTransferConfiguration))
          return false;
+      if (backupQueueConfiguration == null) {
+         if (other.backupQueueConfiguration != null)
+            return false;
+      } else if (!backupQueueConfiguration.equals(other.backupQueueConfiguration))
+         return false;
       return true;
    }
 
@@ -152,6 +166,7 @@ public int hashCode() {
       result = prime * result + ((takeOfflineConfiguration == null) ? 0 : takeOfflineConfiguration.hashCode());
       result = prime * result
             + ((xSiteStateTransferConfiguration == null) ? 0 : xSiteStateTransferConfiguration.hashCode());
+      result = prime * result + ((backupQueueConfiguration == null) ? 0 : backupQueueConfiguration.hashCode());
       return result;
    }
 }
@@ -26,12 +26,14 @@ public class BackupConfigurationBuilder extends AbstractConfigurationChildBuilde
    private final AttributeSet attributes;
    private XSiteStateTransferConfigurationBuilder stateTransferBuilder;
    private TakeOfflineConfigurationBuilder takeOfflineBuilder;
+   private BackupQueueConfigurationBuilder queueBuilder;
 
    public BackupConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
       attributes = BackupConfiguration.attributeDefinitionSet();
       takeOfflineBuilder = new TakeOfflineConfigurationBuilder(builder, this);
       stateTransferBuilder = new XSiteStateTransferConfigurationBuilder(builder, this);
+      queueBuilder = new BackupQueueConfigurationBuilder(builder, this);
    }
 
    /**
@@ -124,10 +126,18 @@ public XSiteStateTransferConfigurationBuilder stateTransfer() {
       return this.stateTransferBuilder;
    }
 
+   /**
+    * Configures the queue used to batch the modifications sent to an asynchronous backup site.
+    */
+   public BackupQueueConfigurationBuilder queue() {
+      return this.queueBuilder;
+   }
+
    @Override
    public void validate() {
       takeOfflineBuilder.validate();
       stateTransferBuilder.validate();
+      queueBuilder.validate();
       if (attributes.attribute(SITE).get() == null)
          throw log.backupMissingSite();
       if (attributes.attribute(FAILURE_POLICY).get() == BackupFailurePolicy.CUSTOM && (attributes.attribute(FAILURE_POLICY_CLASS).get() == null)) {
@@ -142,11 +152,13 @@ public void validate() {
    public void validate(GlobalConfiguration globalConfig) {
       takeOfflineBuilder.validate(globalConfig);
       stateTransferBuilder.validate(globalConfig);
+      queueBuilder.validate(globalConfig);
    }
 
    @Override
    public BackupConfiguration create() {
-      return new BackupConfiguration(attributes.protect(), takeOfflineBuilder.create(), stateTransferBuilder.create());
+      return new BackupConfiguration(attributes.protect(), takeOfflineBuilder.create(), stateTransferBuilder.create(),
+                                     queueBuilder.create());
    }
 
    @Override
@@ -154,6 +166,7 @@ public BackupConfigurationBuilder read(BackupConfiguration template) {
       attributes.read(template.attributes());
       takeOfflineBuilder.read(template.takeOffline());
       stateTransferBuilder.read(template.stateTransfer());
+      queueBuilder.read(template.queue());
       return this;
    }
 
@@ -0,0 +1,96 @@
+package org.infinispan.configuration.cache;
+
+import org.infinispan.commons.configuration.attributes.Attribute;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+
+/**
+ * Configures the queue used to batch the modifications sent to an asynchronous backup site.
+ *
+ * @since 9.0
+ */
+public class BackupQueueConfiguration {
+   public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder("enabled", false).immutable().build();
+   public static final AttributeDefinition<Integer> MAX_BATCH_SIZE = AttributeDefinition.builder("maxBatchSize", 1000).immutable().xmlName("max-batch-size").build();
+   public static final AttributeDefinition<Long> FLUSH_INTERVAL = AttributeDefinition.builder("flushInterval", 100l).immutable().xmlName("flush-interval").build();
+   public static final AttributeDefinition<Integer> MAX_SIZE = AttributeDefinition.builder("maxSize", 100000).immutable().xmlName("max-size").build();
+   static AttributeSet attributeDefinitionSet() {
+      return new AttributeSet(BackupQueueConfiguration.class, ENABLED, MAX_BATCH_SIZE, FLUSH_INTERVAL, MAX_SIZE);
+   }
+
+   private final Attribute<Boolean> enabled;
+   private final Attribute<Integer> maxBatchSize;
+   private final Attribute<Long> flushInterval;
+   private final Attribute<Integer> maxSize;
+   private final AttributeSet attributes;
+
+   public BackupQueueConfiguration(AttributeSet attributes) {
+      this.attributes = attributes.checkProtection();
+      enabled = attributes.attribute(ENABLED);
+      maxBatchSize = attributes.attribute(MAX_BATCH_SIZE);
+      flushInterval = attributes.attribute(FLUSH_INTERVAL);
+      maxSize = attributes.attribute(MAX_SIZE);
+   }
+
+   /**
+    * @see BackupQueueConfigurationBuilder#enabled(boolean)
+    */
+   public boolean enabled() {
+      return enabled.get();
+   }
+
+   /**
+    * @see BackupQueueConfigurationBuilder#maxBatchSize(int)
+    */
+   public int maxBatchSize() {
+      return maxBatchSize.get();
+   }
+
+   /**
+    * @see BackupQueueConfigurationBuilder#flushInterval(long)
+    */
+   public long flushInterval() {
+      return flushInterval.get();
+   }
+
+   /**
+    * @see BackupQueueConfigurationBuilder#maxSize(int)
+    */
+   public int maxSize() {
+      return maxSize.get();
+   }
+
+   public AttributeSet attributes() {
+      return attributes;
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj)
+         return true;
+      if (obj == null)
+         return false;
+      if (getClass() != obj.getClass())
+         return false;
+      BackupQueueConfiguration other = (BackupQueueConfiguration) obj;
+      if (attributes == null) {
+         if (other.attributes != null)
+            return false;
+      } else if (!attributes.equals(other.attributes))
+         return false;
+      return true;
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + ((attributes == null) ? 0 : attributes.hashCode());
+      return result;
+   }
+
+   @Override
+   public String toString() {
+      return "BackupQueueConfiguration [attributes=" + attributes + "]";
+   }
+}
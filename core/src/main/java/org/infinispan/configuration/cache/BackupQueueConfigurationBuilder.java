@@ -0,0 +1,108 @@
+package org.infinispan.configuration.cache;
+
+import static org.infinispan.configuration.cache.BackupQueueConfiguration.ENABLED;
+import static org.infinispan.configuration.cache.BackupQueueConfiguration.FLUSH_INTERVAL;
+import static org.infinispan.configuration.cache.BackupQueueConfiguration.MAX_BATCH_SIZE;
+import static org.infinispan.configuration.cache.BackupQueueConfiguration.MAX_SIZE;
+
+import java.lang.invoke.MethodHandles;
+
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Configures the queue used to batch the modifications sent to an asynchronous backup site.
+ *
+ * @since 9.0
+ */
+public class BackupQueueConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<BackupQueueConfiguration> {
+
+   private static final Log log = LogFactory.getLog(MethodHandles.lookup().lookupClass(), Log.class);
+   private final AttributeSet attributes;
+   private final BackupConfigurationBuilder backupConfigurationBuilder;
+
+   public BackupQueueConfigurationBuilder(ConfigurationBuilder builder, BackupConfigurationBuilder backupConfigurationBuilder) {
+      super(builder);
+      this.attributes = BackupQueueConfiguration.attributeDefinitionSet();
+      this.backupConfigurationBuilder = backupConfigurationBuilder;
+   }
+
+   /**
+    * If true, the modifications are not sent to the backup site as soon as they are applied locally. They are
+    * collected in a queue, which only keeps the last modification of each key, and sent in batches. While the site is
+    * offline the modifications keep being collected, and they are sent once the site is back online. Only applies to
+    * asynchronous backups. Defaults to false.
+    */
+   public BackupQueueConfigurationBuilder enabled(boolean enabled) {
+      attributes.attribute(ENABLED).set(enabled);
+      return this;
+   }
+
+   /**
+    * The maximum number of modifications sent to the backup site in a single batch. Reaching it also triggers sending
+    * the queued modifications before the flush interval expires. Defaults to 1000.
+    */
+   public BackupQueueConfigurationBuilder maxBatchSize(int maxBatchSize) {
+      attributes.attribute(MAX_BATCH_SIZE).set(maxBatchSize);
+      return this;
+   }
+
+   /**
+    * The interval, in milliseconds, at which the queued modifications are sent to the backup site. Defaults to 100.
+    */
+   public BackupQueueConfigurationBuilder flushInterval(long flushInterval) {
+      attributes.attribute(FLUSH_INTERVAL).set(flushInterval);
+      return this;
+   }
+
+   /**
+    * The maximum number of modifications waiting in the queue. When the queue grows beyond it, for instance because
+    * the site has been unreachable for too long, the queued modifications are discarded and the site is taken offline.
+    * The site must then be brought back online and receive a state transfer. Defaults to 100000.
+    */
+   public BackupQueueConfigurationBuilder maxSize(int maxSize) {
+      attributes.attribute(MAX_SIZE).set(maxSize);
+      return this;
+   }
+
+   public BackupConfigurationBuilder backup() {
+      return backupConfigurationBuilder;
+   }
+
+   @Override
+   public void validate() {
+      if (!attributes.attribute(ENABLED).get())
+         return;
+      if (backupConfigurationBuilder.strategy() == BackupConfiguration.BackupStrategy.SYNC)
+         throw log.backupQueueSyncBackup();
+      if (attributes.attribute(MAX_BATCH_SIZE).get() <= 0)
+         throw log.invalidBackupQueueMaxBatchSize(attributes.attribute(MAX_BATCH_SIZE).get());
+      if (attributes.attribute(FLUSH_INTERVAL).get() <= 0)
+         throw log.invalidBackupQueueFlushInterval(attributes.attribute(FLUSH_INTERVAL).get());
+      if (attributes.attribute(MAX_SIZE).get() < attributes.attribute(MAX_BATCH_SIZE).get())
+         throw log.invalidBackupQueueMaxSize(attributes.attribute(MAX_SIZE).get(), attributes.attribute(MAX_BATCH_SIZE).get());
+   }
+
+   @Override
+   public void validate(GlobalConfiguration globalConfig) {
+   }
+
+   @Override
+   public BackupQueueConfiguration create() {
+      return new BackupQueueConfiguration(attributes.protect());
+   }
+
+   @Override
+   public BackupQueueConfigurationBuilder read(BackupQueueConfiguration template) {
+      this.attributes.read(template.attributes());
+      return this;
+   }
+
+   @Override
+   public String toString() {
+      return this.getClass().getSimpleName() + attributes;
+   }
+}
@@ -26,6 +26,13 @@ public static boolean isOnePhaseCommit(Configuration cfg) {
             cfg.transaction().lockingMode() == LockingMode.PESSIMISTIC;
    }
 
+   public static boolean isOnePhaseSingleOwnerCommit(Configuration cfg) {
+      CacheMode cacheMode = cfg.clustering().cacheMode();
+      return cfg.transaction().use1PcForSingleOwnerTransactions() &&
+            (cacheMode.isDistributed() || cacheMode.isReplicated()) && !isOnePhaseCommit(cfg) &&
+            !cfg.transaction().transactionProtocol().isTotalOrder() && !cfg.transaction().recovery().enabled();
+   }
+
    public static boolean isOnePhaseTotalOrderCommit(Configuration cfg) {
       return cfg.transaction().transactionProtocol().isTotalOrder() && !isVersioningEnabled(cfg);
    }
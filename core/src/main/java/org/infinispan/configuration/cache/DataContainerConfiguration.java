@@ -21,21 +21,29 @@ public class DataContainerConfiguration extends AbstractTypedPropertiesConfigura
          .<Equivalence>builder("keyEquivalence", AnyEquivalence.getInstance()).copier(IdentityAttributeCopier.INSTANCE).immutable().build();
    public static final AttributeDefinition<Equivalence> VALUE_EQUIVALENCE = AttributeDefinition
          .<Equivalence>builder("valueEquivalence", AnyEquivalence.getInstance()).copier(IdentityAttributeCopier.INSTANCE).immutable().build();
+   public static final AttributeDefinition<StorageType> STORAGE_TYPE = AttributeDefinition
+         .builder("storageType", StorageType.OBJECT).xmlName("storage").immutable().build();
+   public static final AttributeDefinition<Integer> ADDRESS_COUNT = AttributeDefinition
+         .builder("addressCount", 1 << 20).immutable().build();
 
    static public AttributeSet attributeDefinitionSet() {
       return new AttributeSet(DataContainerConfiguration.class, AbstractTypedPropertiesConfiguration.attributeSet(),
-            DATA_CONTAINER, KEY_EQUIVALENCE, VALUE_EQUIVALENCE);
+            DATA_CONTAINER, KEY_EQUIVALENCE, VALUE_EQUIVALENCE, STORAGE_TYPE, ADDRESS_COUNT);
    }
 
    private final Attribute<DataContainer> dataContainer;
    private final Attribute<Equivalence> keyEquivalence;
    private final Attribute<Equivalence> valueEquivalence;
+   private final Attribute<StorageType> storageType;
+   private final Attribute<Integer> addressCount;
 
    DataContainerConfiguration(AttributeSet attributes) {
       super(attributes);
       dataContainer = attributes.attribute(DATA_CONTAINER);
       keyEquivalence = attributes.attribute(KEY_EQUIVALENCE);
       valueEquivalence = attributes.attribute(VALUE_EQUIVALENCE);
+      storageType = attributes.attribute(STORAGE_TYPE);
+      addressCount = attributes.attribute(ADDRESS_COUNT);
    }
 
    /**
@@ -58,6 +66,21 @@ public <V> Equivalence<V> valueEquivalence() {
       return valueEquivalence.get();
    }
 
+   /**
+    * Where the entries of the cache are stored, see {@link StorageType}
+    */
+   public StorageType storageType() {
+      return storageType.get();
+   }
+
+   /**
+    * Number of hash buckets allocated in native memory by the off-heap container. Only used when {@link #storageType()}
+    * is {@link StorageType#OFF_HEAP}.
+    */
+   public int addressCount() {
+      return addressCount.get();
+   }
+
    public AttributeSet attributes() {
       return attributes;
    }
@@ -1,12 +1,15 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.commons.configuration.AbstractTypedPropertiesConfiguration.PROPERTIES;
+import static org.infinispan.configuration.cache.DataContainerConfiguration.ADDRESS_COUNT;
 import static org.infinispan.configuration.cache.DataContainerConfiguration.DATA_CONTAINER;
 import static org.infinispan.configuration.cache.DataContainerConfiguration.KEY_EQUIVALENCE;
+import static org.infinispan.configuration.cache.DataContainerConfiguration.STORAGE_TYPE;
 import static org.infinispan.configuration.cache.DataContainerConfiguration.VALUE_EQUIVALENCE;
 
 import java.util.Properties;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.equivalence.Equivalence;
@@ -95,8 +98,42 @@ public <V> DataContainerConfigurationBuilder valueEquivalence(Equivalence<V> val
       return this;
    }
 
+   /**
+    * Selects where the entries are stored. With {@link StorageType#OFF_HEAP} keys, values and metadata are marshalled
+    * into native memory so that they are not subject to garbage collection. Eviction and expiration work as with
+    * {@link StorageType#OBJECT}, however the off-heap container always evicts entries in LRU order.
+    *
+    * @param storageType the storage type
+    * @return this configuration builder
+    */
+   public DataContainerConfigurationBuilder storageType(StorageType storageType) {
+      attributes.attribute(STORAGE_TYPE).set(storageType);
+      return this;
+   }
+
+   /**
+    * Sets how many hash buckets the off-heap container allocates. Every bucket uses 8 bytes of native memory and more
+    * buckets mean shorter collision chains. Ignored unless {@link #storageType(StorageType)} is
+    * {@link StorageType#OFF_HEAP}.
+    *
+    * @param addressCount the number of buckets
+    * @return this configuration builder
+    */
+   public DataContainerConfigurationBuilder addressCount(int addressCount) {
+      attributes.attribute(ADDRESS_COUNT).set(addressCount);
+      return this;
+   }
+
    @Override
    public void validate() {
+      if (attributes.attribute(STORAGE_TYPE).get() == StorageType.OFF_HEAP) {
+         if (attributes.attribute(DATA_CONTAINER).get() != null) {
+            throw new CacheConfigurationException("A custom data container cannot be used with OFF_HEAP storage");
+         }
+         if (attributes.attribute(ADDRESS_COUNT).get() <= 0) {
+            throw new CacheConfigurationException("The off-heap address count must be greater than zero");
+         }
+      }
    }
 
    @Override
@@ -38,7 +38,7 @@ static AttributeSet attributeDefinitionSet() {
    }
 
    /**
-    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS' and 'NONE' (to disable
+    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS', 'TINY_LFU' and 'NONE' (to disable
     * eviction).
     */
    public EvictionStrategy strategy() {
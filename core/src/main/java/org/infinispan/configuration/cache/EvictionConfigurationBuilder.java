@@ -30,7 +30,7 @@ public class EvictionConfigurationBuilder extends AbstractConfigurationChildBuil
    }
 
    /**
-    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS' and 'NONE' (to disable
+    * Eviction strategy. Available options are 'UNORDERED', 'LRU', 'LIRS', 'TINY_LFU' and 'NONE' (to disable
     * eviction).
     *
     * @param evictionStrategy
@@ -28,10 +28,11 @@ public class HashConfiguration {
    public static final AttributeDefinition<KeyPartitioner> KEY_PARTITIONER = AttributeDefinition
          .builder("keyPartitioner", new HashFunctionPartitioner(), KeyPartitioner.class)
          .copier(SimpleInstanceAttributeCopier.INSTANCE).immutable().build();
+   public static final AttributeDefinition<Long> BACKUP_BATCH_WINDOW = AttributeDefinition.builder("backupBatchWindow", 0L).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(HashConfiguration.class, CONSISTENT_HASH_FACTORY, HASH, NUM_OWNERS,
-            NUM_SEGMENTS, CAPACITY_FACTOR, KEY_PARTITIONER);
+            NUM_SEGMENTS, CAPACITY_FACTOR, KEY_PARTITIONER, BACKUP_BATCH_WINDOW);
    }
 
    private final Attribute<ConsistentHashFactory> consistentHashFactory;
@@ -40,6 +41,7 @@ static AttributeSet attributeDefinitionSet() {
    private final Attribute<Integer> numSegments;
    private final Attribute<Float> capacityFactor;
    private final Attribute<KeyPartitioner> keyPartitioner;
+   private final Attribute<Long> backupBatchWindow;
 
    private final GroupsConfiguration groupsConfiguration;
    private final StateTransferConfiguration stateTransferConfiguration;
@@ -56,6 +58,7 @@ static AttributeSet attributeDefinitionSet() {
       numSegments = attributes.attribute(NUM_SEGMENTS);
       capacityFactor = attributes.attribute(CAPACITY_FACTOR);
       keyPartitioner = attributes.attribute(KEY_PARTITIONER);
+      backupBatchWindow = attributes.attribute(BACKUP_BATCH_WINDOW);
    }
 
    /**
@@ -144,6 +147,14 @@ public KeyPartitioner keyPartitioner() {
       return keyPartitioner.get();
    }
 
+   /**
+    * The time, in microseconds, during which a primary owner collects the synchronous non-transactional writes going
+    * to the same backup owners, so that they are replicated with a single RPC. {@code 0} disables batching.
+    */
+   public long backupBatchWindow() {
+      return backupBatchWindow.get();
+   }
+
    /**
     * Configuration for various grouper definitions. See the user guide for more information.
     */
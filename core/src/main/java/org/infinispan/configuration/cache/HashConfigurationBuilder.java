@@ -1,5 +1,6 @@
 package org.infinispan.configuration.cache;
 
+import static org.infinispan.configuration.cache.HashConfiguration.BACKUP_BATCH_WINDOW;
 import static org.infinispan.configuration.cache.HashConfiguration.CAPACITY_FACTOR;
 import static org.infinispan.configuration.cache.HashConfiguration.CONSISTENT_HASH_FACTORY;
 import static org.infinispan.configuration.cache.HashConfiguration.HASH;
@@ -7,6 +8,8 @@
 import static org.infinispan.configuration.cache.HashConfiguration.NUM_OWNERS;
 import static org.infinispan.configuration.cache.HashConfiguration.NUM_SEGMENTS;
 
+import java.util.concurrent.TimeUnit;
+
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.commons.configuration.attributes.AttributeSet;
 import org.infinispan.commons.hash.Hash;
@@ -179,6 +182,27 @@ public HashConfigurationBuilder keyPartitioner(KeyPartitioner keyPartitioner) {
       return this;
    }
 
+   /**
+    * Enables the batching of backup writes in non-transactional synchronous distributed caches. A primary owner
+    * collects the writes going to the same backup owners during this time window and replicates them with a single
+    * RPC, preserving their order and their individual results. Writes to the same key are never batched together, as
+    * the primary owner holds the key lock until the backups have applied the previous write.
+    *
+    * @param backupBatchWindow the time window, in microseconds. {@code 0}, the default, disables batching.
+    */
+   public HashConfigurationBuilder backupBatchWindow(long backupBatchWindow) {
+      if (backupBatchWindow < 0) throw new IllegalArgumentException("backupBatchWindow must not be negative");
+      attributes.attribute(BACKUP_BATCH_WINDOW).set(backupBatchWindow);
+      return this;
+   }
+
+   /**
+    * Same as {@link #backupBatchWindow(long)}, but with a custom time unit.
+    */
+   public HashConfigurationBuilder backupBatchWindow(long backupBatchWindow, TimeUnit unit) {
+      return backupBatchWindow(unit.toMicros(backupBatchWindow));
+   }
+
    public GroupsConfigurationBuilder groups() {
       return groupsConfigurationBuilder;
    }
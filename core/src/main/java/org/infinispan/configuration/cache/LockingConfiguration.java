@@ -18,16 +18,18 @@ public class LockingConfiguration {
    public static final AttributeDefinition<IsolationLevel> ISOLATION_LEVEL  = AttributeDefinition.builder("isolationLevel", IsolationLevel.READ_COMMITTED).xmlName("isolation").immutable().build();
    public static final AttributeDefinition<Long> LOCK_ACQUISITION_TIMEOUT  = AttributeDefinition.builder("lockAcquisitionTimeout", TimeUnit.SECONDS.toMillis(10)).xmlName("acquire-timeout").build();
    public static final AttributeDefinition<Boolean> USE_LOCK_STRIPING = AttributeDefinition.builder("striping", false).immutable().build();
+   public static final AttributeDefinition<Boolean> USE_LOCK_POOLING = AttributeDefinition.builder("pooling", false).immutable().build();
    public static final AttributeDefinition<Boolean> WRITE_SKEW_CHECK = AttributeDefinition.builder("writeSkewCheck", false).xmlName("write-skew").immutable().build();
 
    static final AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(LockingConfiguration.class, CONCURRENCY_LEVEL, ISOLATION_LEVEL, LOCK_ACQUISITION_TIMEOUT, USE_LOCK_STRIPING, WRITE_SKEW_CHECK);
+      return new AttributeSet(LockingConfiguration.class, CONCURRENCY_LEVEL, ISOLATION_LEVEL, LOCK_ACQUISITION_TIMEOUT, USE_LOCK_STRIPING, USE_LOCK_POOLING, WRITE_SKEW_CHECK);
    }
 
    private final Attribute<Integer> concurrencyLevel;
    private final Attribute<IsolationLevel> isolationLevel;
    private final Attribute<Long> lockAcquisitionTimeout;
    private final Attribute<Boolean> useLockStriping;
+   private final Attribute<Boolean> useLockPooling;
    private final Attribute<Boolean> writeSkewCheck;
 
    private final AttributeSet attributes;
@@ -39,6 +41,7 @@ static final AttributeSet attributeDefinitionSet() {
       isolationLevel = attributes.attribute(ISOLATION_LEVEL);
       lockAcquisitionTimeout = attributes.attribute(LOCK_ACQUISITION_TIMEOUT);
       useLockStriping = attributes.attribute(USE_LOCK_STRIPING);
+      useLockPooling = attributes.attribute(USE_LOCK_POOLING);
       writeSkewCheck = attributes.attribute(WRITE_SKEW_CHECK);
    }
 
@@ -94,6 +97,16 @@ public boolean useLockStriping() {
       return useLockStriping.get();
    }
 
+   /**
+    * If true, the locks of the entries are pooled and reused instead of being created and discarded for every
+    * locked entry, and an uncontended lock is acquired and released with a single compare-and-swap. The full lock,
+    * with its queue of waiting lock owners, is only created while other lock owners wait for it. Ignored when lock
+    * striping is enabled.
+    */
+   public boolean useLockPooling() {
+      return useLockPooling.get();
+   }
+
    /**
     * This setting is only applicable in the case of REPEATABLE_READ. When write skew check is set
     * to false, if the writer at commit time discovers that the working entry and the underlying
@@ -3,6 +3,7 @@
 import static org.infinispan.configuration.cache.LockingConfiguration.CONCURRENCY_LEVEL;
 import static org.infinispan.configuration.cache.LockingConfiguration.ISOLATION_LEVEL;
 import static org.infinispan.configuration.cache.LockingConfiguration.LOCK_ACQUISITION_TIMEOUT;
+import static org.infinispan.configuration.cache.LockingConfiguration.USE_LOCK_POOLING;
 import static org.infinispan.configuration.cache.LockingConfiguration.USE_LOCK_STRIPING;
 import static org.infinispan.configuration.cache.LockingConfiguration.WRITE_SKEW_CHECK;
 
@@ -93,6 +94,17 @@ public LockingConfigurationBuilder useLockStriping(boolean b) {
       return this;
    }
 
+   /**
+    * If true, the locks of the entries are pooled and reused instead of being created and discarded for every
+    * locked entry, and an uncontended lock is acquired and released with a single compare-and-swap. The full lock,
+    * with its queue of waiting lock owners, is only created while other lock owners wait for it. Ignored when lock
+    * striping is enabled.
+    */
+   public LockingConfigurationBuilder useLockPooling(boolean b) {
+      attributes.attribute(USE_LOCK_POOLING).set(b);
+      return this;
+   }
+
    /**
     * This setting is only applicable in the case of REPEATABLE_READ. When write skew check is set
     * to false, if the writer at commit time discovers that the working entry and the underlying
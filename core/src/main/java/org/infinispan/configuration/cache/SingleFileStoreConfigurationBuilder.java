@@ -3,6 +3,7 @@
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOCATION;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_ENTRIES;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.SEGMENTED;
 
 import org.infinispan.commons.configuration.Builder;
 /**
@@ -67,6 +68,21 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * If true, the store keeps a separate file and in-memory index for each segment of the cache, as defined by
+    * {@link HashConfigurationBuilder#numSegments(int)}, so that writes and compaction of different segments don't
+    * block each other, and the entries of a segment that is no longer owned can be dropped by deleting its file.
+    *
+    * The store keeps one open file per segment. Changing the number of segments of the cache requires purging the
+    * store, as the existing entries would be looked up in the wrong file.
+    *
+    * Defaults to false.
+    */
+   public SingleFileStoreConfigurationBuilder segmented(boolean segmented) {
+      attributes.attribute(SEGMENTED).set(segmented);
+      return this;
+   }
+
    @Override
    public SingleFileStoreConfiguration create() {
       return new SingleFileStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
@@ -17,15 +17,20 @@ public class StateTransferConfiguration {
    public static final AttributeDefinition<Boolean> FETCH_IN_MEMORY_STATE = AttributeDefinition.builder("fetchInMemoryState", true).xmlName("enabled").immutable().build();
    public static final AttributeDefinition<Long> TIMEOUT = AttributeDefinition.builder("timeout", TimeUnit.MINUTES.toMillis(4)).immutable().build();
    public static final AttributeDefinition<Integer> CHUNK_SIZE = AttributeDefinition.builder("chunkSize", 512).immutable().build();
+   public static final AttributeDefinition<Long> CHUNK_SIZE_BYTES = AttributeDefinition.builder("chunkSizeBytes", 0L).immutable().build();
+   public static final AttributeDefinition<Integer> CHUNK_CREDITS = AttributeDefinition.builder("chunkCredits", 1).immutable().build();
 
    static final AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(StoreAsBinaryConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER);
+      return new AttributeSet(StoreAsBinaryConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, CHUNK_SIZE_BYTES,
+            CHUNK_CREDITS, AWAIT_INITIAL_TRANSFER);
    }
 
    private final Attribute<Boolean> awaitInitialTransfer;
    private final Attribute<Boolean> fetchInMemoryState;
    private final Attribute<Long> timeout;
    private final Attribute<Integer> chunkSize;
+   private final Attribute<Long> chunkSizeBytes;
+   private final Attribute<Integer> chunkCredits;
    private final AttributeSet attributes;
 
    StateTransferConfiguration(AttributeSet attributes) {
@@ -34,6 +39,8 @@ static final AttributeSet attributeDefinitionSet() {
       fetchInMemoryState = attributes.attribute(FETCH_IN_MEMORY_STATE);
       timeout = attributes.attribute(TIMEOUT);
       chunkSize = attributes.attribute(CHUNK_SIZE);
+      chunkSizeBytes = attributes.attribute(CHUNK_SIZE_BYTES);
+      chunkCredits = attributes.attribute(CHUNK_CREDITS);
    }
 
    /**
@@ -73,6 +80,23 @@ public int chunkSize() {
       return chunkSize.get();
    }
 
+   /**
+    * The maximum estimated size, in bytes, of the cache entries sent in a single state transfer chunk. A chunk is sent
+    * as soon as it reaches either {@link #chunkSize()} entries or this size. The default value of 0 limits chunks by
+    * entry count only.
+    */
+   public long chunkSizeBytes() {
+      return chunkSizeBytes.get();
+   }
+
+   /**
+    * The number of chunks that a node receiving state allows each source node to send before the previous ones
+    * have been applied. The default value of 1 means that every chunk waits for the previous one to be applied.
+    */
+   public int chunkCredits() {
+      return chunkCredits.get();
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
@@ -1,7 +1,9 @@
 package org.infinispan.configuration.cache;
 
 import static org.infinispan.configuration.cache.StateTransferConfiguration.AWAIT_INITIAL_TRANSFER;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_CREDITS;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_SIZE;
+import static org.infinispan.configuration.cache.StateTransferConfiguration.CHUNK_SIZE_BYTES;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.FETCH_IN_MEMORY_STATE;
 import static org.infinispan.configuration.cache.StateTransferConfiguration.TIMEOUT;
 
@@ -67,6 +69,26 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * The maximum estimated size, in bytes, of the cache entries sent in a single state transfer chunk. A chunk is sent
+    * as soon as it reaches either {@link #chunkSize(int)} entries or this size. The default value of 0 limits chunks by
+    * entry count only.
+    */
+   public StateTransferConfigurationBuilder chunkSizeBytes(long bytes) {
+      attributes.attribute(CHUNK_SIZE_BYTES).set(bytes);
+      return this;
+   }
+
+   /**
+    * The number of chunks that a node receiving state allows each source node to send before the previous ones
+    * have been applied. Higher values keep the network busy while the receiver applies state, at the cost of more
+    * memory on the receiver. The default value of 1 means that every chunk waits for the previous one to be applied.
+    */
+   public StateTransferConfigurationBuilder chunkCredits(int credits) {
+      attributes.attribute(CHUNK_CREDITS).set(credits);
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
@@ -89,6 +111,12 @@ public void validate() {
       if (attributes.attribute(CHUNK_SIZE).get() <= 0) {
          throw new CacheConfigurationException("chunkSize can not be <= 0");
       }
+      if (attributes.attribute(CHUNK_SIZE_BYTES).get() < 0) {
+         throw new CacheConfigurationException("chunkSizeBytes can not be < 0");
+      }
+      if (attributes.attribute(CHUNK_CREDITS).get() <= 0) {
+         throw new CacheConfigurationException("chunkCredits can not be <= 0");
+      }
 
       if (clustering().cacheMode().isInvalidation()) {
          Attribute<Boolean> fetchAttribute = attributes.attribute(FETCH_IN_MEMORY_STATE);
@@ -0,0 +1,18 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Where the data container keeps its entries.
+ *
+ * @since 9.0
+ */
+public enum StorageType {
+   /**
+    * Entries are stored on the Java heap as {@link org.infinispan.container.entries.InternalCacheEntry} instances.
+    */
+   OBJECT,
+   /**
+    * Keys, values and metadata are marshalled and stored in native memory outside of the Java heap. Keys are compared
+    * using their marshalled form and entries are only materialised on the heap for the duration of an invocation.
+    */
+   OFF_HEAP
+}
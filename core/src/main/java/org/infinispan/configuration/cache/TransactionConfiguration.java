@@ -33,6 +33,7 @@ public class TransactionConfiguration {
    public static final AttributeDefinition<Boolean> USE_EAGER_LOCKING = AttributeDefinition.builder("eager-locking", false).autoPersist(false).build();
    public static final AttributeDefinition<Boolean> USE_SYNCHRONIZATION = AttributeDefinition.builder("synchronization", false).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Boolean> USE_1_PC_FOR_AUTO_COMMIT_TRANSACTIONS = AttributeDefinition.builder("single-phase-auto-commit", false).build();
+   public static final AttributeDefinition<Boolean> USE_1_PC_FOR_SINGLE_OWNER_TRANSACTIONS = AttributeDefinition.builder("single-phase-single-owner", false).immutable().autoPersist(false).build();
    public static final AttributeDefinition<Long> REAPER_WAKE_UP_INTERVAL = AttributeDefinition.builder("reaper-wake-up-interval", 30000l).immutable().xmlName("reaper-interval").build();
    public static final AttributeDefinition<Long> COMPLETED_TX_TIMEOUT = AttributeDefinition.builder("complete-timeout", 60000l).immutable().build();
    public static final AttributeDefinition<TransactionProtocol> TRANSACTION_PROTOCOL = AttributeDefinition.builder("transaction-protocol", TransactionProtocol.DEFAULT).immutable().xmlName("protocol").build();
@@ -40,7 +41,7 @@ public class TransactionConfiguration {
    static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(TransactionConfiguration.class, AUTO_COMMIT, CACHE_STOP_TIMEOUT, EAGER_LOCKING_SINGLE_NODE, LOCKING_MODE, SYNC_COMMIT_PHASE, SYNC_ROLLBACK_PHASE,
             TRANSACTION_MANAGER_LOOKUP, TRANSACTION_SYNCHRONIZATION_REGISTRY_LOOKUP, TRANSACTION_MODE, USE_EAGER_LOCKING, USE_SYNCHRONIZATION, USE_1_PC_FOR_AUTO_COMMIT_TRANSACTIONS,
-            REAPER_WAKE_UP_INTERVAL, COMPLETED_TX_TIMEOUT, TRANSACTION_PROTOCOL, NOTIFICATIONS);
+            USE_1_PC_FOR_SINGLE_OWNER_TRANSACTIONS, REAPER_WAKE_UP_INTERVAL, COMPLETED_TX_TIMEOUT, TRANSACTION_PROTOCOL, NOTIFICATIONS);
    }
 
    private final Attribute<Boolean> autoCommit;
@@ -55,6 +56,7 @@ static AttributeSet attributeDefinitionSet() {
    private final Attribute<Boolean> useEagerLocking;
    private final Attribute<Boolean> useSynchronization;
    private final Attribute<Boolean> use1PcForAutoCommitTransactions;
+   private final Attribute<Boolean> use1PcForSingleOwnerTransactions;
    private final Attribute<Long> reaperWakeUpInterval;
    private final Attribute<Long> completedTxTimeout;
    private final Attribute<TransactionProtocol> transactionProtocol;
@@ -76,6 +78,7 @@ static AttributeSet attributeDefinitionSet() {
       useEagerLocking = attributes.attribute(USE_EAGER_LOCKING);
       useSynchronization = attributes.attribute(USE_SYNCHRONIZATION);
       use1PcForAutoCommitTransactions = attributes.attribute(USE_1_PC_FOR_AUTO_COMMIT_TRANSACTIONS);
+      use1PcForSingleOwnerTransactions = attributes.attribute(USE_1_PC_FOR_SINGLE_OWNER_TRANSACTIONS);
       reaperWakeUpInterval = attributes.attribute(REAPER_WAKE_UP_INTERVAL);
       completedTxTimeout = attributes.attribute(COMPLETED_TX_TIMEOUT);
       transactionProtocol = attributes.attribute(TRANSACTION_PROTOCOL);
@@ -296,6 +299,13 @@ public boolean use1PcForAutoCommitTransactions() {
       return use1PcForAutoCommitTransactions.get();
    }
 
+   /**
+    * @see TransactionConfigurationBuilder#use1PcForSingleOwnerTransactions(boolean)
+    */
+   public boolean use1PcForSingleOwnerTransactions() {
+      return use1PcForSingleOwnerTransactions.get();
+   }
+
    /**
     * @return the transaction protocol in use (2PC or Total Order)
     */
@@ -14,6 +14,7 @@
 import static org.infinispan.configuration.cache.TransactionConfiguration.TRANSACTION_PROTOCOL;
 import static org.infinispan.configuration.cache.TransactionConfiguration.TRANSACTION_SYNCHRONIZATION_REGISTRY_LOOKUP;
 import static org.infinispan.configuration.cache.TransactionConfiguration.USE_1_PC_FOR_AUTO_COMMIT_TRANSACTIONS;
+import static org.infinispan.configuration.cache.TransactionConfiguration.USE_1_PC_FOR_SINGLE_OWNER_TRANSACTIONS;
 import static org.infinispan.configuration.cache.TransactionConfiguration.USE_EAGER_LOCKING;
 import static org.infinispan.configuration.cache.TransactionConfiguration.USE_SYNCHRONIZATION;
 
@@ -253,6 +254,23 @@ public TransactionConfigurationBuilder use1PcForAutoCommitTransactions(boolean b
       return this;
    }
 
+   /**
+    * With optimistic locking, a transaction whose modified keys all have the same primary owner can be committed with
+    * one combined prepare-and-commit RPC to that owner instead of the two RPC rounds of a 2 Phase Commit (2PC). The
+    * primary owner acquires the locks, performs the write skew check if enabled, commits the transaction and applies it
+    * on the backup owners before releasing the locks, so conflicting transactions are applied in the same order on all
+    * the owners. Transactions touching keys of several primary owners, or started on a backup owner, keep using 2PC.
+    * <p/>
+    * The cache is committed when it is prepared, so this only applies when the cache is the only participant in the
+    * transaction: auto-commit transactions, and transactions that the transaction manager commits in one phase.
+    * <p/>
+    * Has no effect with pessimistic locking, asynchronous caches, total order or recovery. Defaults to false.
+    */
+   public TransactionConfigurationBuilder use1PcForSingleOwnerTransactions(boolean b) {
+      attributes.attribute(USE_1_PC_FOR_SINGLE_OWNER_TRANSACTIONS).set(b);
+      return this;
+   }
+
    /**
     *The time interval (millis) at which the thread that cleans up transaction completion information kicks in. Defaults to 30000.
     */
@@ -15,6 +15,7 @@ public enum Attribute {
     // KEEP THESE IN ALPHABETICAL ORDER!
 
     ACQUIRE_TIMEOUT("acquire-timeout"),
+    ADDRESS_COUNT("address-count"),
     AFTER("after"),
     ALIASES("aliases"),
     ALLOW_DUPLICATE_DOMAINS("duplicate-domains"),
@@ -25,10 +26,13 @@ public enum Attribute {
     AUTO_COMMIT("auto-commit"),
     AUTO_CONFIG("auto-config"),
     AWAIT_INITIAL_TRANSFER("await-initial-transfer"),
+    BACKUP_BATCH_WINDOW("backup-batch-window"),
     BACKUP_FAILURE_POLICY("failure-policy"),
     BEFORE("before"),
     CAPACITY_FACTOR("capacity"),
+    CHUNK_CREDITS("chunk-credits"),
     CHUNK_SIZE("chunk-size"),
+    CHUNK_SIZE_BYTES("chunk-size-bytes"),
     CLASS("class"),
     CLUSTER("cluster"),
     COMPLETED_TX_TIMEOUT("complete-timeout"),
@@ -45,6 +49,7 @@ public enum Attribute {
     EXPIRATION_EXECUTOR("expiration-executor"),
     FAILURE_POLICY_CLASS("failure-policy-class"),
     FETCH_STATE("fetch-state"),
+    FLUSH_INTERVAL("flush-interval"),
     @Deprecated
     FLUSH_LOCK_TIMEOUT("flush-lock-timeout"),
     GROUP_NAME("group-name"),
@@ -69,9 +74,11 @@ public enum Attribute {
     MACHINE_ID("machine"),
     MAPPER("mapper"),
     MARSHALLER_CLASS("marshaller"),
+    MAX_BATCH_SIZE("max-batch-size"),
     MAX_ENTRIES("max-entries"),
     MAX_IDLE("max-idle"),
     MAX_RETRIES("max-retries"),
+    MAX_SIZE("max-size"),
     MAX_THREADS("max-threads"),
     MBEAN_SERVER_LOOKUP("mbean-server-lookup"),
     MODE("mode"),
@@ -87,6 +94,7 @@ public enum Attribute {
     PASSIVATION("passivation"),
     PERMISSIONS("permissions"),
     PERSISTENCE_EXECUTOR("persistence-executor"),
+    POOLING("pooling"),
     POSITION("position"),
     PRELOAD("preload"),
     PRIORITY("priority"),
@@ -123,6 +131,7 @@ public enum Attribute {
     STATISTICS_AVAILABLE("statistics-available"),
     START("start"),
     STATE_TRANSFER_EXECUTOR("state-transfer-executor"),
+    STORAGE("storage"),
     STORE_KEYS_AS_BINARY("keys"),
     STORE_VALUES_AS_BINARY("values"),
     STRATEGY("strategy"),
@@ -151,6 +160,7 @@ public enum Attribute {
     WAIT_TIME("wait-time"),
     WRITE_SKEW_CHECK("write-skew"),
     FRAGMENTATION_FACTOR("fragmentation-factor"),
+    SEGMENTED("segmented"),
     ;
 
     private final String name;
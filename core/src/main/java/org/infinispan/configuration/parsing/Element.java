@@ -20,6 +20,7 @@ public enum Element {
     BACKUP("backup"),
     BACKUPS("backups"),
     BACKUP_FOR("backup-for"),
+    BACKUP_QUEUE("backup-queue"),
     BLOCKING_BOUNDED_QUEUE_THREAD_POOL("blocking-bounded-queue-thread-pool"),
     CACHE_CONTAINER("cache-container"),
     CACHED_THREAD_POOL("cached-thread-pool"),
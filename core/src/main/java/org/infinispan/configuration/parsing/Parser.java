@@ -47,6 +47,7 @@
 import org.infinispan.configuration.cache.PartitionHandlingConfigurationBuilder;
 import org.infinispan.configuration.cache.SecurityConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.cache.StoreConfigurationBuilder;
 import org.infinispan.configuration.cache.VersioningScheme;
 import org.infinispan.configuration.global.GlobalAuthorizationConfigurationBuilder;
@@ -1087,6 +1088,8 @@ private void parseTransport(XMLExtendedStreamReader reader, ConfigurationBuilder
                break;
             case FRAGMENTATION_FACTOR:
                break;
+            case SEGMENTED:
+               break;
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1312,6 +1315,10 @@ private void parseBackup(XMLExtendedStreamReader reader, ConfigurationBuilder bu
                this.parseXSiteStateTransfer(reader, backup);
                break;
             }
+            case BACKUP_QUEUE: {
+               this.parseBackupQueue(reader, backup);
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedElement(reader);
             }
@@ -1340,6 +1347,35 @@ private void parseTakeOffline(XMLExtendedStreamReader reader, BackupConfiguratio
       ParseUtils.requireNoContent(reader);
    }
 
+   private void parseBackupQueue(XMLExtendedStreamReader reader, BackupConfigurationBuilder backup) throws XMLStreamException {
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+         String value = replaceProperties(reader.getAttributeValue(i));
+         Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+         switch (attribute) {
+            case ENABLED: {
+               backup.queue().enabled(Boolean.parseBoolean(value));
+               break;
+            }
+            case MAX_BATCH_SIZE: {
+               backup.queue().maxBatchSize(Integer.parseInt(value));
+               break;
+            }
+            case FLUSH_INTERVAL: {
+               backup.queue().flushInterval(Long.parseLong(value));
+               break;
+            }
+            case MAX_SIZE: {
+               backup.queue().maxSize(Integer.parseInt(value));
+               break;
+            }
+            default: {
+               throw ParseUtils.unexpectedAttribute(reader, i);
+            }
+         }
+      }
+      ParseUtils.requireNoContent(reader);
+   }
+
    private void parseXSiteStateTransfer(XMLExtendedStreamReader reader, BackupConfigurationBuilder backup) throws XMLStreamException {
       for (int i = 0; i < reader.getAttributeCount(); i++) {
          String value = replaceProperties(reader.getAttributeValue(i));
@@ -1516,6 +1552,12 @@ private void parseDataContainer(final XMLExtendedStreamReader reader, final Conf
             case VALUE_EQUIVALENCE:
                builder.dataContainer().valueEquivalence(Util.<Equivalence>getInstance(value, holder.getClassLoader()));
                break;
+            case STORAGE:
+               builder.dataContainer().storageType(StorageType.valueOf(value));
+               break;
+            case ADDRESS_COUNT:
+               builder.dataContainer().addressCount(Integer.parseInt(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1652,6 +1694,10 @@ protected void parseLocking(XMLExtendedStreamReader reader, ConfigurationBuilder
                builder.locking().useLockStriping(Boolean.parseBoolean(value));
                break;
             }
+            case POOLING: {
+               builder.locking().useLockPooling(Boolean.parseBoolean(value));
+               break;
+            }
             case ACQUIRE_TIMEOUT: {
                builder.locking().lockAcquisitionTimeout(Long.parseLong(value));
                break;
@@ -1919,6 +1965,14 @@ private void parseStateTransfer(XMLExtendedStreamReader reader, ConfigurationBui
                builder.clustering().stateTransfer().chunkSize(Integer.parseInt(value));
                break;
             }
+            case CHUNK_SIZE_BYTES: {
+               builder.clustering().stateTransfer().chunkSizeBytes(Long.parseLong(value));
+               break;
+            }
+            case CHUNK_CREDITS: {
+               builder.clustering().stateTransfer().chunkCredits(Integer.parseInt(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1974,6 +2028,10 @@ private void parseDistributedCache(XMLExtendedStreamReader reader, Configuration
                }
                break;
             }
+            case BACKUP_BATCH_WINDOW: {
+               builder.clustering().hash().backupBatchWindow(Long.parseLong(value));
+               break;
+            }
             default: {
                this.parseClusteredCacheAttribute(reader, i, attribute, value, builder, baseCacheMode);
             }
@@ -2127,6 +2185,10 @@ protected void parseFileStore(XMLExtendedStreamReader reader, ConfigurationBuild
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case SEGMENTED: {
+               storeBuilder.segmented(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
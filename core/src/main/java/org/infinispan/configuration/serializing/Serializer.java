@@ -26,6 +26,7 @@
 import org.infinispan.configuration.cache.AbstractStoreConfiguration;
 import org.infinispan.configuration.cache.AuthorizationConfiguration;
 import org.infinispan.configuration.cache.BackupConfiguration;
+import org.infinispan.configuration.cache.BackupQueueConfiguration;
 import org.infinispan.configuration.cache.ClusterLoaderConfiguration;
 import org.infinispan.configuration.cache.ClusteringConfiguration;
 import org.infinispan.configuration.cache.Configuration;
@@ -408,6 +409,8 @@ private void writeDataContainer(XMLExtendedStreamWriter writer, Configuration co
          attributes.write(writer, DataContainerConfiguration.DATA_CONTAINER, Attribute.CLASS);
          attributes.write(writer, DataContainerConfiguration.KEY_EQUIVALENCE, Attribute.KEY_EQUIVALENCE);
          attributes.write(writer, DataContainerConfiguration.VALUE_EQUIVALENCE, Attribute.VALUE_EQUIVALENCE);
+         attributes.write(writer, DataContainerConfiguration.STORAGE_TYPE, Attribute.STORAGE);
+         attributes.write(writer, DataContainerConfiguration.ADDRESS_COUNT, Attribute.ADDRESS_COUNT);
          writeTypedProperties(writer, dataContainer.properties());
          writer.writeEndElement();
       }
@@ -489,6 +492,15 @@ private void writeBackup(XMLExtendedStreamWriter writer, Configuration configura
                takeOffline.write(writer, TakeOfflineConfiguration.MIN_TIME_TO_WAIT, Attribute.TAKE_BACKUP_OFFLINE_MIN_WAIT);
                writer.writeEndElement();
             }
+            AttributeSet queue = backup.queue().attributes();
+            if (queue.isModified()) {
+               writer.writeStartElement(Element.BACKUP_QUEUE);
+               queue.write(writer, BackupQueueConfiguration.ENABLED, Attribute.ENABLED);
+               queue.write(writer, BackupQueueConfiguration.MAX_BATCH_SIZE, Attribute.MAX_BATCH_SIZE);
+               queue.write(writer, BackupQueueConfiguration.FLUSH_INTERVAL, Attribute.FLUSH_INTERVAL);
+               queue.write(writer, BackupQueueConfiguration.MAX_SIZE, Attribute.MAX_SIZE);
+               writer.writeEndElement();
+            }
             writer.writeEndElement();
          }
          writer.writeEndElement();
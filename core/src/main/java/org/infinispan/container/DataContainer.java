@@ -189,6 +189,20 @@
     */
    Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired();
 
+   /**
+    * Returns the entries that may have expired by the given time, for use by the expiration reaper. The entries are not
+    * removed from the container, the caller must still check {@link InternalCacheEntry#isExpired(long)} and expire them.
+    * <p>
+    * Containers that keep an index of the entries by expiration time only return the entries that are due. An entry that
+    * is returned but still in the container when the iteration completes is returned again by the next call. By
+    * default this is the same as {@link #iteratorIncludingExpired()}.
+    * @param currentTimeMillis the current wall clock time
+    * @return iterator that returns the entries that may have expired
+    */
+   default Iterator<InternalCacheEntry<K, V>> expirationCandidates(long currentTimeMillis) {
+      return iteratorIncludingExpired();
+   }
+
    interface ComputeAction<K, V> {
 
       /**
@@ -26,6 +26,8 @@
 import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
 import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.EvictionListener;
 import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ExpirationConfiguration;
 import org.infinispan.container.entries.CacheEntrySizeCalculator;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.MarshalledValueEntrySizeCalculator;
@@ -74,6 +76,7 @@
    private TimeService timeService;
    private CacheNotifier cacheNotifier;
    private ExpirationManager<K, V> expirationManager;
+   private ExpirationIndex<K, V> expirationIndex;
 
    public DefaultDataContainer(int concurrencyLevel) {
       // If no comparing implementations passed, could fallback on JDK CHM
@@ -113,6 +116,9 @@ protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
                throw new IllegalArgumentException("Memory based approximation eviction cannot be used with LIRS!");
             }
             break;
+         case TINY_LFU:
+            eviction = Eviction.TINY_LFU;
+            break;
          default:
             throw new IllegalArgumentException("No such eviction strategy " + strategy);
       }
@@ -140,8 +146,9 @@ protected DefaultDataContainer(int concurrencyLevel, long thresholdSize,
       }
 
       EntrySizeCalculator<K, InternalCacheEntry<K, V>> calc = new CacheEntrySizeCalculator<>(sizeCalculator);
+      Eviction eviction = strategy == EvictionStrategy.TINY_LFU ? Eviction.TINY_LFU : Eviction.LRU;
 
-      entries = new BoundedEquivalentConcurrentHashMapV8<>(thresholdSize, Eviction.LRU, evictionListener, keyEquivalence,
+      entries = new BoundedEquivalentConcurrentHashMapV8<>(thresholdSize, eviction, evictionListener, keyEquivalence,
               AnyEquivalence.getInstance(), calc);
    }
 
@@ -159,6 +166,15 @@ public void initialize(EvictionManager evictionManager, PassivationManager passi
       this.expirationManager = expirationManager;
    }
 
+   @Inject
+   public void injectConfiguration(Configuration configuration, TimeService timeService) {
+      // Without the reaper nothing would ever drain the index
+      ExpirationConfiguration expiration = configuration.expiration();
+      if (expirationIndex == null && expiration.reaperEnabled() && expiration.wakeUpInterval() > 0) {
+         expirationIndex = new ExpirationIndex<>(timeService.wallClockTime());
+      }
+   }
+
    public static <K, V> DefaultDataContainer<K, V> boundedDataContainer(int concurrencyLevel, long maxEntries,
             EvictionStrategy strategy, EvictionThreadPolicy thredPolicy,
             Equivalence<? super K> keyEquivalence, EvictionType thresholdPolicy) {
@@ -233,6 +249,7 @@ public void put(K k, V v, Metadata metadata) {
 
       entries.compute(copy.getKey(), (key, entry) -> {
          activator.onUpdate(key, entry == null);
+         updateExpirationIndex(entry, copy);
          return copy;
       });
    }
@@ -252,6 +269,7 @@ public InternalCacheEntry<K, V> remove(Object k) {
       final InternalCacheEntry<K,V>[] reference = new InternalCacheEntry[1];
       entries.compute((K) k, (key, entry) -> {
          activator.onRemove(key, entry == null);
+         updateExpirationIndex(entry, null);
          reference[0] = entry;
          return null;
       });
@@ -295,6 +313,9 @@ public int sizeIncludingExpired() {
    public void clear() {
       log.tracef("Clearing data container");
       entries.clear();
+      if (expirationIndex != null) {
+         expirationIndex.clear();
+      }
    }
 
    @Override
@@ -322,6 +343,7 @@ public void purgeExpired() {
    public void evict(K key) {
       entries.computeIfPresent(key, (o, entry) -> {
          passivator.passivate(entry);
+         updateExpirationIndex(entry, null);
          return null;
       });
    }
@@ -334,9 +356,11 @@ public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
             return oldEntry;
          } else if (newEntry == null) {
             activator.onRemove(k, false);
+            updateExpirationIndex(oldEntry, null);
             return null;
          }
          activator.onUpdate(k, oldEntry == null);
+         updateExpirationIndex(oldEntry, newEntry);
          if (trace)
             log.tracef("Store %s in container", newEntry);
          return newEntry;
@@ -353,10 +377,33 @@ public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
       return new EntryIterator(entries.values().iterator(), true);
    }
 
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> expirationCandidates(long currentTimeMillis) {
+      if (expirationIndex == null) {
+         return iteratorIncludingExpired();
+      }
+      return expirationIndex.drain(currentTimeMillis, e -> peek(e.getKey()) == e);
+   }
+
+   private void updateExpirationIndex(InternalCacheEntry<K, V> oldEntry, InternalCacheEntry<K, V> newEntry) {
+      if (expirationIndex == null) {
+         return;
+      }
+      if (oldEntry != null && oldEntry != newEntry && oldEntry.canExpire()) {
+         expirationIndex.remove(oldEntry);
+      }
+      if (newEntry != null && newEntry.canExpire()) {
+         expirationIndex.add(newEntry);
+      }
+   }
+
    private final class DefaultEvictionListener implements EvictionListener<K, InternalCacheEntry<K, V>> {
 
       @Override
       public void onEntryEviction(Map<K, InternalCacheEntry<K, V>> evicted) {
+         if (expirationIndex != null) {
+            evicted.values().forEach(e -> updateExpirationIndex(e, null));
+         }
          evictionManager.onEntryEviction(evicted);
       }
 
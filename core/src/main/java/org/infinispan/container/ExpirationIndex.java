@@ -0,0 +1,206 @@
+package org.infinispan.container;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * Index of the mortal entries of a data container by expiration time, so that the expiration reaper only has to visit
+ * the entries that are due instead of the whole container.
+ * <p>
+ * The index is a hierarchical timer wheel with sparse buckets: an entry expiring less than {@link #WHEEL_SIZE}
+ * milliseconds after the last reaper run goes into a bucket of one millisecond, an entry expiring less than
+ * {@code WHEEL_SIZE^2} milliseconds after it into a bucket of {@code WHEEL_SIZE} milliseconds, and so on up to
+ * {@link #LEVELS} levels. Only the non-empty buckets exist, ordered by their start time. When the reaper reaches a
+ * coarse bucket its entries are cascaded into finer buckets, so every entry is moved at most {@code LEVELS - 1} times
+ * before it expires, and the number of buckets stays small regardless of the number of entries.
+ * <p>
+ * The expiration time of an entry with max idle changes every time it is accessed, but accessing it does not move it
+ * in the index: when its bucket is reached and it is not expired any more, it is moved to the bucket matching its
+ * current expiration time. Updates that reuse the same entry instance are handled the same way. Entries that were
+ * replaced or removed from the container in the meantime are simply dropped. Expired entries that are still in the
+ * container after the caller processed them, e.g. because removing them failed, are added back once the drain is
+ * complete, so that the next drain returns them again.
+ *
+ * @since 9.0
+ */
+final class ExpirationIndex<K, V> {
+
+   static final int WHEEL_SIZE = 64;
+   static final int LEVELS = 4;
+   private static final int WHEEL_BITS = Integer.numberOfTrailingZeros(WHEEL_SIZE);
+
+   /**
+    * The buckets are ordered by start time and then by level, the key is {@code (start << 2) | level}.
+    */
+   private final ConcurrentNavigableMap<Long, Bucket<K, V>> buckets = new ConcurrentSkipListMap<>();
+   private volatile long lastDrainTime;
+
+   ExpirationIndex(long currentTimeMillis) {
+      this.lastDrainTime = currentTimeMillis;
+   }
+
+   /**
+    * Adds the entry to the index, if it can expire.
+    */
+   void add(InternalCacheEntry<K, V> entry) {
+      long expiryTime = entry.getExpiryTime();
+      if (expiryTime < 0) {
+         return;
+      }
+      long reference = lastDrainTime;
+      int level = 0;
+      long delta = expiryTime - reference;
+      while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+         level++;
+      }
+      Long bucketKey = bucketKey(expiryTime, level);
+      while (!buckets.computeIfAbsent(bucketKey, k -> new Bucket<>()).add(entry)) {
+         // The bucket was drained concurrently, a new one will be created
+      }
+   }
+
+   /**
+    * Removes the entry from the index. The entry is only found if its expiration time did not change after it was
+    * added, otherwise it stays in the index until its bucket is drained.
+    */
+   void remove(InternalCacheEntry<K, V> entry) {
+      long expiryTime = entry.getExpiryTime();
+      if (expiryTime < 0) {
+         return;
+      }
+      for (int level = 0; level < LEVELS; level++) {
+         Bucket<K, V> bucket = buckets.get(bucketKey(expiryTime, level));
+         if (bucket != null && bucket.remove(entry)) {
+            return;
+         }
+      }
+   }
+
+   void clear() {
+      buckets.clear();
+   }
+
+   /**
+    * Removes from the index and returns the entries that expired before the given time.
+    * <p>
+    * The buckets are drained lazily while iterating. {@code current} must return {@code true} if the entry is still the
+    * one stored in the container, otherwise the entry is dropped. Entries that are still current but not expired are
+    * moved to the bucket matching their current expiration time. The returned entries that are still current when the
+    * next entry is requested are added back to the index when the iteration completes.
+    */
+   Iterator<InternalCacheEntry<K, V>> drain(long currentTimeMillis, Predicate<InternalCacheEntry<K, V>> current) {
+      lastDrainTime = currentTimeMillis;
+      return new DrainIterator(currentTimeMillis, current);
+   }
+
+   private static Long bucketKey(long expiryTime, int level) {
+      long start = expiryTime >>> (WHEEL_BITS * level) << (WHEEL_BITS * level);
+      return (start << 2) | level;
+   }
+
+   private class DrainIterator implements Iterator<InternalCacheEntry<K, V>> {
+      private final long currentTimeMillis;
+      private final Predicate<InternalCacheEntry<K, V>> current;
+      private final long lastBucketKey;
+      private Iterator<InternalCacheEntry<K, V>> bucketIterator = Collections.emptyIterator();
+      private InternalCacheEntry<K, V> next;
+      private InternalCacheEntry<K, V> lastReturned;
+      // Expired entries the caller did not remove, only added back at the end so that they are not returned again
+      private final List<InternalCacheEntry<K, V>> notRemoved = new ArrayList<>();
+
+      DrainIterator(long currentTimeMillis, Predicate<InternalCacheEntry<K, V>> current) {
+         this.currentTimeMillis = currentTimeMillis;
+         this.current = current;
+         // Only the buckets starting before the current time
+         this.lastBucketKey = currentTimeMillis << 2;
+      }
+
+      private InternalCacheEntry<K, V> getNext() {
+         if (lastReturned != null) {
+            if (current.test(lastReturned)) {
+               notRemoved.add(lastReturned);
+            }
+            lastReturned = null;
+         }
+         while (true) {
+            while (bucketIterator.hasNext()) {
+               InternalCacheEntry<K, V> entry = bucketIterator.next();
+               if (!current.test(entry)) {
+                  continue;
+               }
+               if (entry.isExpired(currentTimeMillis)) {
+                  return entry;
+               }
+               // Touched, updated in place or just cascading from a coarser bucket
+               add(entry);
+            }
+            Map.Entry<Long, Bucket<K, V>> first = buckets.firstEntry();
+            if (first == null || first.getKey() >= lastBucketKey) {
+               notRemoved.forEach(ExpirationIndex.this::add);
+               notRemoved.clear();
+               return null;
+            }
+            if (buckets.remove(first.getKey(), first.getValue())) {
+               bucketIterator = first.getValue().close().iterator();
+            }
+            // Otherwise it was drained by a concurrent run, try the next one
+         }
+      }
+
+      @Override
+      public boolean hasNext() {
+         if (next == null) {
+            next = getNext();
+         }
+         return next != null;
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         InternalCacheEntry<K, V> toReturn = next;
+         next = null;
+         lastReturned = toReturn;
+         return toReturn;
+      }
+   }
+
+   private static final class Bucket<K, V> {
+      private final Set<InternalCacheEntry<K, V>> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+      private boolean closed;
+
+      synchronized boolean add(InternalCacheEntry<K, V> entry) {
+         if (closed) {
+            return false;
+         }
+         entries.add(entry);
+         return true;
+      }
+
+      synchronized boolean remove(InternalCacheEntry<K, V> entry) {
+         if (closed) {
+            // The entries are being drained, which drops the entries that are not in the container any more
+            return entries.contains(entry);
+         }
+         return entries.remove(entry);
+      }
+
+      synchronized Set<InternalCacheEntry<K, V>> close() {
+         closed = true;
+         return entries;
+      }
+   }
+}
@@ -12,6 +12,9 @@
 import org.infinispan.container.entries.TransientCacheValue;
 import org.infinispan.container.entries.TransientMortalCacheEntry;
 import org.infinispan.container.entries.TransientMortalCacheValue;
+import org.infinispan.container.entries.metadata.CompactImmortalCacheEntry;
+import org.infinispan.container.entries.metadata.CompactMetadataHelper;
+import org.infinispan.container.entries.metadata.CompactTransientMortalCacheEntry;
 import org.infinispan.container.entries.metadata.L1MetadataInternalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataImmortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataImmortalCacheValue;
@@ -23,6 +26,7 @@
 import org.infinispan.container.entries.metadata.MetadataTransientMortalCacheValue;
 import org.infinispan.container.versioning.EntryVersion;
 import org.infinispan.container.versioning.EntryVersionsMap;
+import org.infinispan.container.versioning.NumericVersion;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.factories.annotations.Inject;
@@ -55,6 +59,10 @@ public InternalCacheEntry create(Object key, Object value, Metadata metadata) {
          if (lifespan < 0 && maxIdle > -1) return new TransientCacheEntry(key, value, maxIdle, timeService.wallClockTime());
          return new TransientMortalCacheEntry(key, value, maxIdle, lifespan, timeService.wallClockTime());
       } else {
+         if (CompactMetadataHelper.isCompactable(metadata)) {
+            long ctm = timeService.wallClockTime();
+            return createCompact(key, value, metadata, ctm, ctm);
+         }
          if (lifespan < 0 && maxIdle < 0) return new MetadataImmortalCacheEntry(key, value, metadata);
          if (lifespan > -1 && maxIdle < 0) return new MetadataMortalCacheEntry(key, value, metadata, timeService.wallClockTime());
          if (lifespan < 0 && maxIdle > -1) return new MetadataTransientCacheEntry(key, value, metadata, timeService.wallClockTime());
@@ -85,6 +93,7 @@ public InternalCacheEntry create(Object key, Object value, EntryVersion version,
          // If no metadata passed, assumed embedded metadata
          Metadata metadata = new EmbeddedMetadata.Builder()
                .lifespan(lifespan).maxIdle(maxIdle).version(version).build();
+         if (version instanceof NumericVersion) return createCompact(key, value, metadata, lastUsed, created);
          if (lifespan < 0 && maxIdle < 0) return new MetadataImmortalCacheEntry(key, value, metadata);
          if (lifespan > -1 && maxIdle < 0) return new MetadataMortalCacheEntry(key, value, metadata, created);
          if (lifespan < 0 && maxIdle > -1) return new MetadataTransientCacheEntry(key, value, metadata, lastUsed);
@@ -101,6 +110,7 @@ public InternalCacheEntry create(Object key, Object value, Metadata metadata, lo
          return new TransientMortalCacheEntry(key, value, maxIdle, lifespan, lastUsed, created);
       } else {
          // Metadata to store, take lifespan and maxIdle settings from it
+         if (CompactMetadataHelper.isCompactable(metadata)) return createCompact(key, value, metadata, lastUsed, created);
          long metaLifespan = metadata.lifespan();
          long metaMaxIdle = metadata.maxIdle();
          if (metaLifespan < 0 && metaMaxIdle < 0) return new MetadataImmortalCacheEntry(key, value, metadata);
@@ -138,6 +148,10 @@ public InternalCacheEntry create(Object key, Object value, Metadata metadata, lo
          return new TransientMortalCacheEntry(key, value, maxIdle, lifespan, timeService.wallClockTime());
       } else {
          // Metadata to store, take lifespan and maxIdle settings from it
+         if (CompactMetadataHelper.isCompactable(metadata)) {
+            long ctm = timeService.wallClockTime();
+            return createCompact(key, value, metadata, ctm, ctm);
+         }
          long metaLifespan = metadata.lifespan();
          long metaMaxIdle = metadata.maxIdle();
          if (metaLifespan < 0 && metaMaxIdle < 0) return new MetadataImmortalCacheEntry(key, value, metadata);
@@ -150,7 +164,9 @@ public InternalCacheEntry create(Object key, Object value, Metadata metadata, lo
 
    @Override
    public InternalCacheEntry update(InternalCacheEntry ice, Metadata metadata) {
-      if (!isStoreMetadata(metadata, ice))
+      if (isEntryCompact(ice))
+         return updateCompactEntry(ice, metadata);
+      else if (!isStoreMetadata(metadata, ice))
          return updateMetadataUnawareEntry(ice, metadata.lifespan(), metadata.maxIdle());
       else
          return updateMetadataAwareEntry(ice, metadata);
@@ -360,6 +376,43 @@ private InternalCacheEntry updateMetadataAwareEntry(InternalCacheEntry ice, Meta
       return ice;
    }
 
+   private InternalCacheEntry updateCompactEntry(InternalCacheEntry ice, Metadata metadata) {
+      if (!CompactMetadataHelper.isCompactable(metadata)) {
+         return create(ice.getKey(), ice.getValue(), metadata);
+      }
+      long lifespan = metadata.lifespan();
+      long maxIdle = metadata.maxIdle();
+      if (lifespan < 0 && maxIdle < 0) {
+         if (ice instanceof CompactImmortalCacheEntry) {
+            ice.setMetadata(metadata);
+            return ice;
+         }
+         return new CompactImmortalCacheEntry(ice.getKey(), ice.getValue(), metadata);
+      } else if (ice instanceof CompactImmortalCacheEntry) {
+         long ctm = timeService.wallClockTime();
+         return new CompactTransientMortalCacheEntry(ice.getKey(), ice.getValue(), metadata, ctm, ctm);
+      }
+      // Restart the lifespan or max idle period if it was not set before, as a new entry would do
+      boolean wasMortal = ice.getLifespan() > -1;
+      boolean wasTransient = ice.getMaxIdle() > -1;
+      ice.setMetadata(metadata);
+      if (!wasMortal && lifespan > -1) {
+         ice.reincarnate(timeService.wallClockTime());
+      }
+      if (!wasTransient && maxIdle > -1) {
+         ice.touch(timeService.wallClockTime());
+      }
+      return ice;
+   }
+
+   /**
+    * Creates an entry storing the numeric versioned embedded metadata in primitive fields.
+    */
+   private InternalCacheEntry createCompact(Object key, Object value, Metadata metadata, long lastUsed, long created) {
+      if (metadata.lifespan() < 0 && metadata.maxIdle() < 0) return new CompactImmortalCacheEntry(key, value, metadata);
+      return new CompactTransientMortalCacheEntry(key, value, metadata, lastUsed, created);
+   }
+
    /**
     * Indicates whether the entire metadata object needs to be stored or not.
     *
@@ -379,6 +432,11 @@ private boolean isStoreMetadata(Metadata metadata, InternalCacheEntry ice) {
    }
 
 
+   private boolean isEntryCompact(InternalCacheEntry ice) {
+      return ice instanceof CompactImmortalCacheEntry
+            || ice instanceof CompactTransientMortalCacheEntry;
+   }
+
    private boolean isEntryMetadataAware(InternalCacheEntry ice) {
       return ice instanceof MetadataImmortalCacheEntry
             || ice instanceof MetadataMortalCacheEntry
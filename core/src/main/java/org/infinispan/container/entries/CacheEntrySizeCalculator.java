@@ -2,6 +2,8 @@
 
 import org.infinispan.commons.util.concurrent.jdk8backported.AbstractEntrySizeCalculatorHelper;
 import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
+import org.infinispan.container.entries.metadata.CompactImmortalCacheEntry;
+import org.infinispan.container.entries.metadata.CompactTransientMortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataImmortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataMortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataTransientCacheEntry;
@@ -37,6 +39,14 @@ public long calculateSize(K key, InternalCacheEntry<K, V> ice) {
       boolean mortalEntry;
       boolean transientEntry;
       boolean metadataAware;
+      // Compact entries inline the version, lifespan and max idle instead of referencing a metadata instance
+      if (ice instanceof CompactImmortalCacheEntry) {
+         iceSize += 8;
+         return objSize + roundUpToNearest8(iceSize);
+      } else if (ice instanceof CompactTransientMortalCacheEntry) {
+         iceSize += 40;
+         return objSize + roundUpToNearest8(iceSize);
+      }
       // We want to put immortal entries first as they are very common.  Also MetadataImmortalCacheEntry extends
       // ImmortalCacheEntry so it has to come before
       if (ice instanceof MetadataImmortalCacheEntry) {
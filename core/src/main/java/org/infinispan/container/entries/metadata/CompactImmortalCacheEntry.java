@@ -0,0 +1,183 @@
+package org.infinispan.container.entries.metadata;
+
+import static org.infinispan.commons.util.Util.toStr;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Set;
+
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.AbstractInternalCacheEntry;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.marshall.core.Ids;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * A form of {@link MetadataImmortalCacheEntry} for numeric versioned embedded metadata, which stores the version as
+ * a primitive field instead of referencing a {@link Metadata} instance.
+ * <p>
+ * The metadata is rebuilt every time {@link #getMetadata()} is invoked.
+ *
+ * @since 9.0
+ */
+public class CompactImmortalCacheEntry extends AbstractInternalCacheEntry implements MetadataAware {
+
+   protected Object value;
+   protected long version;
+
+   public CompactImmortalCacheEntry(Object key, Object value, Metadata metadata) {
+      this(key, value, CompactMetadataHelper.version(metadata));
+   }
+
+   public CompactImmortalCacheEntry(Object key, Object value, long version) {
+      super(key);
+      this.value = value;
+      this.version = version;
+   }
+
+   @Override
+   public Object getValue() {
+      return value;
+   }
+
+   @Override
+   public Object setValue(Object value) {
+      return this.value = value;
+   }
+
+   @Override
+   public final boolean isExpired(long now) {
+      return false;
+   }
+
+   @Override
+   public final boolean isExpired() {
+      return false;
+   }
+
+   @Override
+   public final boolean canExpire() {
+      return false;
+   }
+
+   @Override
+   public final long getCreated() {
+      return -1;
+   }
+
+   @Override
+   public final long getLastUsed() {
+      return -1;
+   }
+
+   @Override
+   public final long getLifespan() {
+      return -1;
+   }
+
+   @Override
+   public final long getMaxIdle() {
+      return -1;
+   }
+
+   @Override
+   public final long getExpiryTime() {
+      return -1;
+   }
+
+   @Override
+   public final void touch() {
+      // no-op
+   }
+
+   @Override
+   public final void touch(long currentTimeMillis) {
+      // no-op
+   }
+
+   @Override
+   public final void reincarnate() {
+      // no-op
+   }
+
+   @Override
+   public void reincarnate(long now) {
+      // no-op
+   }
+
+   @Override
+   public InternalCacheValue toInternalCacheValue() {
+      return new MetadataImmortalCacheValue(value, getMetadata());
+   }
+
+   @Override
+   public Metadata getMetadata() {
+      return CompactMetadataHelper.toMetadata(-1, -1, version);
+   }
+
+   @Override
+   public void setMetadata(Metadata metadata) {
+      CompactMetadataHelper.checkCompactable(metadata);
+      this.version = CompactMetadataHelper.version(metadata);
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+
+      CompactImmortalCacheEntry that = (CompactImmortalCacheEntry) o;
+
+      if (key != null ? !key.equals(that.key) : that.key != null) return false;
+      if (value != null ? !value.equals(that.value) : that.value != null) return false;
+      return version == that.version;
+   }
+
+   @Override
+   public int hashCode() {
+      int result = key != null ? key.hashCode() : 0;
+      result = 31 * result + (value != null ? value.hashCode() : 0);
+      result = 31 * result + (int) (version ^ (version >>> 32));
+      return result;
+   }
+
+   @Override
+   public CompactImmortalCacheEntry clone() {
+      return (CompactImmortalCacheEntry) super.clone();
+   }
+
+   @Override
+   public String toString() {
+      return String.format("CompactImmortalCacheEntry{key=%s, value=%s, version=%s}",
+            toStr(key), toStr(value), version);
+   }
+
+   public static class Externalizer extends AbstractExternalizer<CompactImmortalCacheEntry> {
+      @Override
+      public void writeObject(ObjectOutput output, CompactImmortalCacheEntry ice) throws IOException {
+         output.writeObject(ice.key);
+         output.writeObject(ice.value);
+         output.writeLong(ice.version);
+      }
+
+      @Override
+      public CompactImmortalCacheEntry readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         Object k = input.readObject();
+         Object v = input.readObject();
+         long version = input.readLong();
+         return new CompactImmortalCacheEntry(k, v, version);
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.COMPACT_IMMORTAL_ENTRY;
+      }
+
+      @Override
+      public Set<Class<? extends CompactImmortalCacheEntry>> getTypeClasses() {
+         return Util.<Class<? extends CompactImmortalCacheEntry>>asSet(CompactImmortalCacheEntry.class);
+      }
+   }
+}
@@ -0,0 +1,46 @@
+package org.infinispan.container.entries.metadata;
+
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * Converts between {@link EmbeddedMetadata} instances versioned with a {@link NumericVersion} and the primitive fields
+ * stored by the compact cache entries.
+ *
+ * @since 9.0
+ */
+public final class CompactMetadataHelper {
+
+   private CompactMetadataHelper() {
+   }
+
+   /**
+    * @return {@code true} if the metadata can be stored in primitive fields and rebuilt on demand without loss.
+    */
+   public static boolean isCompactable(Metadata metadata) {
+      return metadata instanceof EmbeddedMetadata && metadata.version() instanceof NumericVersion;
+   }
+
+   public static long version(Metadata metadata) {
+      return ((NumericVersion) metadata.version()).getVersion();
+   }
+
+   public static Metadata toMetadata(long lifespan, long maxIdle, long version) {
+      EmbeddedMetadata.Builder builder = new EmbeddedMetadata.Builder();
+      if (lifespan > -1) {
+         builder.lifespan(lifespan);
+      }
+      if (maxIdle > -1) {
+         builder.maxIdle(maxIdle);
+      }
+      return builder.version(new NumericVersion(version)).build();
+   }
+
+   static void checkCompactable(Metadata metadata) {
+      if (!isCompactable(metadata)) {
+         throw new IllegalStateException(
+               "Only numeric versioned embedded metadata can be set on compact entries. They need to be recreated via the entry factory.");
+      }
+   }
+}
@@ -0,0 +1,224 @@
+package org.infinispan.container.entries.metadata;
+
+import static java.lang.Math.min;
+import static org.infinispan.commons.util.Util.toStr;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Set;
+
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.entries.AbstractInternalCacheEntry;
+import org.infinispan.container.entries.ExpiryHelper;
+import org.infinispan.container.entries.InternalCacheValue;
+import org.infinispan.marshall.core.Ids;
+import org.infinispan.metadata.Metadata;
+
+/**
+ * A form of {@link MetadataMortalCacheEntry}, {@link MetadataTransientCacheEntry} and {@link
+ * MetadataTransientMortalCacheEntry} for numeric versioned embedded metadata, which stores the lifespan, max idle and
+ * version as primitive fields instead of referencing a {@link Metadata} instance.
+ * <p>
+ * The metadata is rebuilt every time {@link #getMetadata()} is invoked.
+ *
+ * @since 9.0
+ */
+public class CompactTransientMortalCacheEntry extends AbstractInternalCacheEntry implements MetadataAware {
+
+   protected Object value;
+   protected long lifespan;
+   protected long maxIdle;
+   protected long version;
+   protected long created;
+   protected long lastUsed;
+
+   public CompactTransientMortalCacheEntry(Object key, Object value, Metadata metadata, long now) {
+      this(key, value, metadata, now, now);
+   }
+
+   public CompactTransientMortalCacheEntry(Object key, Object value, Metadata metadata, long lastUsed, long created) {
+      this(key, value, metadata.lifespan(), metadata.maxIdle(), CompactMetadataHelper.version(metadata), lastUsed,
+            created);
+   }
+
+   public CompactTransientMortalCacheEntry(Object key, Object value, long lifespan, long maxIdle, long version,
+                                           long lastUsed, long created) {
+      super(key);
+      this.value = value;
+      this.lifespan = lifespan;
+      this.maxIdle = maxIdle;
+      this.version = version;
+      this.lastUsed = lastUsed;
+      this.created = created;
+   }
+
+   @Override
+   public Object getValue() {
+      return value;
+   }
+
+   @Override
+   public Object setValue(Object value) {
+      return this.value = value;
+   }
+
+   @Override
+   public boolean isExpired(long now) {
+      return ExpiryHelper.isExpiredTransientMortal(maxIdle, lastUsed, lifespan, created, now);
+   }
+
+   @Override
+   public boolean isExpired() {
+      return isExpired(System.currentTimeMillis());
+   }
+
+   @Override
+   public final boolean canExpire() {
+      return true;
+   }
+
+   @Override
+   public long getCreated() {
+      return lifespan > -1 ? created : -1;
+   }
+
+   @Override
+   public long getLastUsed() {
+      return maxIdle > -1 ? lastUsed : -1;
+   }
+
+   @Override
+   public long getLifespan() {
+      return lifespan;
+   }
+
+   @Override
+   public long getMaxIdle() {
+      return maxIdle;
+   }
+
+   @Override
+   public final long getExpiryTime() {
+      long lset = lifespan > -1 ? created + lifespan : -1;
+      long muet = maxIdle > -1 ? lastUsed + maxIdle : -1;
+      if (lset == -1) return muet;
+      if (muet == -1) return lset;
+      return min(lset, muet);
+   }
+
+   @Override
+   public final void touch() {
+      lastUsed = System.currentTimeMillis();
+   }
+
+   @Override
+   public final void touch(long currentTimeMillis) {
+      lastUsed = currentTimeMillis;
+   }
+
+   @Override
+   public final void reincarnate() {
+      reincarnate(System.currentTimeMillis());
+   }
+
+   @Override
+   public void reincarnate(long now) {
+      created = now;
+   }
+
+   @Override
+   public InternalCacheValue toInternalCacheValue() {
+      return new MetadataTransientMortalCacheValue(value, getMetadata(), created, lastUsed);
+   }
+
+   @Override
+   public Metadata getMetadata() {
+      return CompactMetadataHelper.toMetadata(lifespan, maxIdle, version);
+   }
+
+   @Override
+   public void setMetadata(Metadata metadata) {
+      CompactMetadataHelper.checkCompactable(metadata);
+      this.lifespan = metadata.lifespan();
+      this.maxIdle = metadata.maxIdle();
+      this.version = CompactMetadataHelper.version(metadata);
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+
+      CompactTransientMortalCacheEntry that = (CompactTransientMortalCacheEntry) o;
+
+      if (key != null ? !key.equals(that.key) : that.key != null) return false;
+      if (value != null ? !value.equals(that.value) : that.value != null) return false;
+      if (created != that.created) return false;
+      if (lastUsed != that.lastUsed) return false;
+      if (lifespan != that.lifespan) return false;
+      if (maxIdle != that.maxIdle) return false;
+      return version == that.version;
+   }
+
+   @Override
+   public int hashCode() {
+      int result = key != null ? key.hashCode() : 0;
+      result = 31 * result + (value != null ? value.hashCode() : 0);
+      result = 31 * result + (int) (created ^ (created >>> 32));
+      result = 31 * result + (int) (lastUsed ^ (lastUsed >>> 32));
+      result = 31 * result + (int) (lifespan ^ (lifespan >>> 32));
+      result = 31 * result + (int) (maxIdle ^ (maxIdle >>> 32));
+      result = 31 * result + (int) (version ^ (version >>> 32));
+      return result;
+   }
+
+   @Override
+   public CompactTransientMortalCacheEntry clone() {
+      return (CompactTransientMortalCacheEntry) super.clone();
+   }
+
+   @Override
+   public String toString() {
+      return String.format("CompactTransientMortalCacheEntry{key=%s, value=%s, lifespan=%s, maxIdle=%s, version=%s}",
+            toStr(key), toStr(value), lifespan, maxIdle, version);
+   }
+
+   public static class Externalizer extends AbstractExternalizer<CompactTransientMortalCacheEntry> {
+      @Override
+      public void writeObject(ObjectOutput output, CompactTransientMortalCacheEntry ice) throws IOException {
+         output.writeObject(ice.key);
+         output.writeObject(ice.value);
+         // lifespan and max idle could be negative so should not use unsigned longs
+         output.writeLong(ice.lifespan);
+         output.writeLong(ice.maxIdle);
+         output.writeLong(ice.version);
+         UnsignedNumeric.writeUnsignedLong(output, ice.created);
+         UnsignedNumeric.writeUnsignedLong(output, ice.lastUsed);
+      }
+
+      @Override
+      public CompactTransientMortalCacheEntry readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         Object k = input.readObject();
+         Object v = input.readObject();
+         long lifespan = input.readLong();
+         long maxIdle = input.readLong();
+         long version = input.readLong();
+         long created = UnsignedNumeric.readUnsignedLong(input);
+         long lastUsed = UnsignedNumeric.readUnsignedLong(input);
+         return new CompactTransientMortalCacheEntry(k, v, lifespan, maxIdle, version, lastUsed, created);
+      }
+
+      @Override
+      public Integer getId() {
+         return Ids.COMPACT_TRANSIENT_MORTAL_ENTRY;
+      }
+
+      @Override
+      public Set<Class<? extends CompactTransientMortalCacheEntry>> getTypeClasses() {
+         return Util.<Class<? extends CompactTransientMortalCacheEntry>>asSet(CompactTransientMortalCacheEntry.class);
+      }
+   }
+}
@@ -0,0 +1,905 @@
+package org.infinispan.container.offheap;
+
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.ExpiryHelper;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.L1Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Data container that keeps keys, values and metadata in native memory, outside of the Java heap.
+ * <p>
+ * Entries are marshalled with the cache marshaller and copied into a single native block each. Blocks are chained
+ * from a fixed size array of hash buckets, which also lives in native memory, and buckets are guarded by a striped
+ * set of read/write locks. {@link InternalCacheEntry} instances are only created while an entry is being read, so the
+ * heap never holds more than the entries currently involved in an invocation.
+ * <p>
+ * Keys are compared using their marshalled form. When the container is bounded the entries are also linked in an
+ * access ordered list and the least recently used entries are evicted once the number of entries
+ * ({@link EvictionType#COUNT}) or the amount of native memory used by them ({@link EvictionType#MEMORY}) exceeds the
+ * configured size.
+ * <p>
+ * Since every read materialises a new instance, changes made to a returned entry are not reflected in the container
+ * unless the entry is written back via {@link #put(Object, Object, Metadata)} or {@link #compute(Object, ComputeAction)}.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public class OffHeapDataContainer<K, V> implements DataContainer<K, V> {
+
+   private static final Log log = LogFactory.getLog(OffHeapDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   // Layout of an entry block
+   private static final int NEXT_OFFSET = 0;
+   private static final int LRU_PREVIOUS_OFFSET = 8;
+   private static final int LRU_NEXT_OFFSET = 16;
+   private static final int HASH_OFFSET = 24;
+   private static final int FLAGS_OFFSET = 28;
+   private static final int CREATED_OFFSET = 32;
+   private static final int LAST_USED_OFFSET = 40;
+   private static final int LIFESPAN_OFFSET = 48;
+   private static final int MAX_IDLE_OFFSET = 56;
+   private static final int KEY_LENGTH_OFFSET = 64;
+   private static final int VALUE_LENGTH_OFFSET = 68;
+   private static final int METADATA_LENGTH_OFFSET = 72;
+   private static final int HEADER_LENGTH = 76;
+
+   private static final int FLAG_L1 = 1;
+
+   private final OffHeapMemory memory = new OffHeapMemory();
+   private final MurmurHash3 hashFunction = MurmurHash3.getInstance();
+   private final int addressCount;
+   private final ReadWriteLock[] locks;
+   private final EvictionType evictionType;
+   private final boolean bounded;
+   private final AtomicLong count = new AtomicLong();
+   private final AtomicLong usedBytes = new AtomicLong();
+   private final Lock lruLock = new ReentrantLock();
+   // Both guarded by lruLock
+   private long lruHead;
+   private long lruTail;
+   private volatile long maxSize;
+   private volatile long bucketsAddress;
+
+   private StreamingMarshaller marshaller;
+   private InternalEntryFactory entryFactory;
+   private EvictionManager evictionManager;
+   private PassivationManager passivator;
+   private ActivationManager activator;
+   private TimeService timeService;
+   private ExpirationManager<K, V> expirationManager;
+
+   protected OffHeapDataContainer(int addressCount, int concurrencyLevel, long maxSize, EvictionType evictionType) {
+      this.addressCount = roundUpToPowerOfTwo(addressCount);
+      int lockCount = Math.min(roundUpToPowerOfTwo(concurrencyLevel), this.addressCount);
+      this.locks = new ReadWriteLock[lockCount];
+      for (int i = 0; i < lockCount; ++i) {
+         locks[i] = new ReentrantReadWriteLock();
+      }
+      this.maxSize = maxSize;
+      this.bounded = maxSize >= 0;
+      this.evictionType = evictionType;
+   }
+
+   public static <K, V> OffHeapDataContainer<K, V> boundedDataContainer(int addressCount, int concurrencyLevel,
+         long maxSize, EvictionType evictionType) {
+      return new OffHeapDataContainer<>(addressCount, concurrencyLevel, maxSize, evictionType);
+   }
+
+   public static <K, V> OffHeapDataContainer<K, V> unBoundedDataContainer(int addressCount, int concurrencyLevel) {
+      return new OffHeapDataContainer<>(addressCount, concurrencyLevel, -1, EvictionType.COUNT);
+   }
+
+   @Inject
+   public void initialize(StreamingMarshaller marshaller, EvictionManager evictionManager,
+                          PassivationManager passivator, InternalEntryFactory entryFactory,
+                          ActivationManager activator, TimeService timeService,
+                          ExpirationManager<K, V> expirationManager) {
+      this.marshaller = marshaller;
+      this.evictionManager = evictionManager;
+      this.passivator = passivator;
+      this.entryFactory = entryFactory;
+      this.activator = activator;
+      this.timeService = timeService;
+      this.expirationManager = expirationManager;
+   }
+
+   @Start
+   public void allocate() {
+      if (bucketsAddress == 0) {
+         bucketsAddress = memory.allocateZeroed(((long) addressCount) << 3);
+      }
+   }
+
+   @Stop(priority = 1000)
+   public void deallocate() {
+      if (bucketsAddress != 0) {
+         clear();
+         memory.free(bucketsAddress, ((long) addressCount) << 3);
+         bucketsAddress = 0;
+         if (memory.getAllocatedBytes() != 0) {
+            log.debugf("Off-heap container still has %d bytes allocated after being stopped", memory.getAllocatedBytes());
+         }
+      }
+   }
+
+   /**
+    * @return how many bytes of native memory are currently allocated, including the bucket array
+    */
+   public long getAllocatedBytes() {
+      return memory.getAllocatedBytes();
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = hashFunction.hash(keyBytes);
+      InternalCacheEntry<K, V> e;
+      boolean expired = false;
+      long currentTimeMillis = 0;
+      Lock lock = lockFor(hash).readLock();
+      lock.lock();
+      try {
+         long address = find(bucketSlot(hash), keyBytes, hash);
+         if (address == 0) {
+            return null;
+         }
+         if (canExpire(address)) {
+            currentTimeMillis = timeService.wallClockTime();
+            if (isExpired(address, currentTimeMillis)) {
+               expired = true;
+            } else {
+               memory.putLong(address + LAST_USED_OFFSET, currentTimeMillis);
+            }
+         }
+         if (bounded && !expired) {
+            moveToLruTail(address);
+         }
+         e = toEntry(address);
+      } finally {
+         lock.unlock();
+      }
+      if (expired) {
+         expirationManager.handleInMemoryExpiration(e, currentTimeMillis);
+         return null;
+      }
+      return e;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = hashFunction.hash(keyBytes);
+      Lock lock = lockFor(hash).readLock();
+      lock.lock();
+      try {
+         long address = find(bucketSlot(hash), keyBytes, hash);
+         return address == 0 ? null : toEntry(address);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public void put(K k, V v, Metadata metadata) {
+      boolean l1Entry = false;
+      if (metadata instanceof L1Metadata) {
+         metadata = ((L1Metadata) metadata).metadata();
+         l1Entry = true;
+      }
+      if (trace) {
+         log.tracef("Store key=%s, value=%s, metadata=%s in off-heap container", Util.toStr(k), Util.toStr(v), metadata);
+      }
+      long now = timeService.wallClockTime();
+      long lifespan = metadata != null ? metadata.lifespan() : -1;
+      long maxIdle = metadata != null ? metadata.maxIdle() : -1;
+      byte[] keyBytes = marshall(k);
+      int hash = hashFunction.hash(keyBytes);
+      long newAddress = allocateEntry(keyBytes, hash, marshall(v), marshall(metadata), l1Entry ? FLAG_L1 : 0,
+            now, now, lifespan, maxIdle);
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         long slot = bucketSlot(hash);
+         long oldAddress = find(slot, keyBytes, hash);
+         activator.onUpdate(k, oldAddress == 0);
+         replace(slot, oldAddress, newAddress);
+      } finally {
+         lock.unlock();
+      }
+      ensureSize();
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = hashFunction.hash(keyBytes);
+      Lock lock = lockFor(hash).readLock();
+      lock.lock();
+      try {
+         long address = find(bucketSlot(hash), keyBytes, hash);
+         return address != 0 && !(canExpire(address) && isExpired(address, timeService.wallClockTime()));
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object k) {
+      byte[] keyBytes = marshall(k);
+      int hash = hashFunction.hash(keyBytes);
+      InternalCacheEntry<K, V> e = null;
+      boolean expired = false;
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         long slot = bucketSlot(hash);
+         long address = find(slot, keyBytes, hash);
+         activator.onRemove(k, address == 0);
+         if (address != 0) {
+            expired = canExpire(address) && isExpired(address, timeService.wallClockTime());
+            e = toEntry(address);
+            unlink(slot, address);
+         }
+      } finally {
+         lock.unlock();
+      }
+      return expired ? null : e;
+   }
+
+   @Override
+   public int size() {
+      return (int) Math.min(countEntries(false), Integer.MAX_VALUE);
+   }
+
+   @Override
+   public int sizeIncludingExpired() {
+      return (int) Math.min(count.get(), Integer.MAX_VALUE);
+   }
+
+   @Override
+   public void clear() {
+      log.tracef("Clearing off-heap data container");
+      if (bucketsAddress == 0) {
+         return;
+      }
+      for (int bucket = 0; bucket < addressCount; ++bucket) {
+         long slot = bucketsAddress + (((long) bucket) << 3);
+         Lock lock = locks[bucket & (locks.length - 1)].writeLock();
+         lock.lock();
+         try {
+            long address = memory.getLong(slot);
+            memory.putLong(slot, 0);
+            while (address != 0) {
+               long next = memory.getLong(address + NEXT_OFFSET);
+               release(address);
+               address = next;
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return new KeySet();
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new Values();
+   }
+
+   @Override
+   public Set<InternalCacheEntry<K, V>> entrySet() {
+      return new EntrySet();
+   }
+
+   @Override
+   public void purgeExpired() {
+      expirationManager.processExpiration();
+   }
+
+   @Override
+   public void evict(K key) {
+      byte[] keyBytes = marshall(key);
+      evict(keyBytes, hashFunction.hash(keyBytes));
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
+      byte[] keyBytes = marshall(key);
+      int hash = hashFunction.hash(keyBytes);
+      InternalCacheEntry<K, V> newEntry;
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         long slot = bucketSlot(hash);
+         long address = find(slot, keyBytes, hash);
+         InternalCacheEntry<K, V> oldEntry = address == 0 ? null : toEntry(address);
+         newEntry = action.compute(key, oldEntry, entryFactory);
+         if (newEntry == oldEntry) {
+            if (oldEntry != null) {
+               // The action may have updated the materialised entry in place, so write it back if it differs
+               writeBackIfChanged(slot, address, keyBytes, hash, oldEntry);
+            }
+            return oldEntry;
+         } else if (newEntry == null) {
+            activator.onRemove(key, false);
+            unlink(slot, address);
+            return null;
+         }
+         activator.onUpdate(key, oldEntry == null);
+         if (trace)
+            log.tracef("Store %s in off-heap container", newEntry);
+         replace(slot, address, allocateEntry(keyBytes, hash, newEntry));
+      } finally {
+         lock.unlock();
+      }
+      ensureSize();
+      return newEntry;
+   }
+
+   @Override
+   public void executeTask(KeyFilter<? super K> filter, BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (Iterator<InternalCacheEntry<K, V>> it = iteratorIncludingExpired(); it.hasNext(); ) {
+         InternalCacheEntry<K, V> entry = it.next();
+         if (filter.accept(entry.getKey())) {
+            action.accept(entry.getKey(), entry);
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public void executeTask(KeyValueFilter<? super K, ? super V> filter, BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (Iterator<InternalCacheEntry<K, V>> it = iteratorIncludingExpired(); it.hasNext(); ) {
+         InternalCacheEntry<K, V> entry = it.next();
+         if (filter.accept(entry.getKey(), entry.getValue(), entry.getMetadata())) {
+            action.accept(entry.getKey(), entry);
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator(false);
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
+      return new EntryIterator(true);
+   }
+
+   @Override
+   public void resize(long newSize) {
+      if (!bounded) {
+         throw log.cannotResizeUnboundedContainer();
+      }
+      maxSize = newSize;
+      ensureSize();
+   }
+
+   @Override
+   public long capacity() {
+      if (!bounded) {
+         throw new UnsupportedOperationException();
+      }
+      return maxSize;
+   }
+
+   private void ensureSize() {
+      if (!bounded) {
+         return;
+      }
+      while ((evictionType == EvictionType.MEMORY ? usedBytes.get() : count.get()) > maxSize) {
+         byte[] keyBytes;
+         int hash;
+         lruLock.lock();
+         try {
+            if (lruHead == 0) {
+               return;
+            }
+            keyBytes = readKey(lruHead);
+            hash = memory.getInt(lruHead + HASH_OFFSET);
+         } finally {
+            lruLock.unlock();
+         }
+         // The entry may have been removed or moved since we released the LRU lock, in which case we just retry
+         evict(keyBytes, hash);
+      }
+   }
+
+   private void evict(byte[] keyBytes, int hash) {
+      InternalCacheEntry<K, V> evicted;
+      Lock lock = lockFor(hash).writeLock();
+      lock.lock();
+      try {
+         long slot = bucketSlot(hash);
+         long address = find(slot, keyBytes, hash);
+         if (address == 0) {
+            return;
+         }
+         evicted = toEntry(address);
+         passivator.passivate(evicted);
+         unlink(slot, address);
+      } finally {
+         lock.unlock();
+      }
+      if (evictionManager != null) {
+         evictionManager.onEntryEviction(Collections.singletonMap(evicted.getKey(), evicted));
+      }
+   }
+
+   private void writeBackIfChanged(long slot, long address, byte[] keyBytes, int hash, InternalCacheEntry<K, V> entry) {
+      byte[] valueBytes = marshall(entry.getValue());
+      byte[] metadataBytes = marshall(entry.getMetadata());
+      if (memory.getLong(address + CREATED_OFFSET) == entry.getCreated()
+            && memory.getLong(address + LAST_USED_OFFSET) == entry.getLastUsed()
+            && sameBytes(address + HEADER_LENGTH + keyBytes.length, memory.getInt(address + VALUE_LENGTH_OFFSET), valueBytes)
+            && sameBytes(address + HEADER_LENGTH + keyBytes.length + Math.max(0, memory.getInt(address + VALUE_LENGTH_OFFSET)),
+                  memory.getInt(address + METADATA_LENGTH_OFFSET), metadataBytes)) {
+         return;
+      }
+      replace(slot, address, allocateEntry(keyBytes, hash, valueBytes, metadataBytes, entry.isL1Entry() ? FLAG_L1 : 0,
+            entry.getCreated(), entry.getLastUsed(), entry.getLifespan(), entry.getMaxIdle()));
+   }
+
+   private boolean sameBytes(long address, int length, byte[] bytes) {
+      if (bytes == null) {
+         return length < 0;
+      }
+      return length == bytes.length && memory.equalBytes(address, bytes);
+   }
+
+   private long countEntries(boolean includeExpired) {
+      if (includeExpired) {
+         return count.get();
+      }
+      long now = timeService.wallClockTime();
+      long size = 0;
+      for (int bucket = 0; bucket < addressCount; ++bucket) {
+         Lock lock = locks[bucket & (locks.length - 1)].readLock();
+         lock.lock();
+         try {
+            long address = memory.getLong(bucketsAddress + (((long) bucket) << 3));
+            while (address != 0) {
+               if (!canExpire(address) || !isExpired(address, now)) {
+                  size++;
+               }
+               address = memory.getLong(address + NEXT_OFFSET);
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+      return size;
+   }
+
+   private ReadWriteLock lockFor(int hash) {
+      return locks[spread(hash) & (locks.length - 1)];
+   }
+
+   private long bucketSlot(int hash) {
+      return bucketsAddress + (((long) (spread(hash) & (addressCount - 1))) << 3);
+   }
+
+   private long find(long slot, byte[] keyBytes, int hash) {
+      long address = memory.getLong(slot);
+      while (address != 0) {
+         if (memory.getInt(address + HASH_OFFSET) == hash && memory.getInt(address + KEY_LENGTH_OFFSET) == keyBytes.length
+               && memory.equalBytes(address + HEADER_LENGTH, keyBytes)) {
+            return address;
+         }
+         address = memory.getLong(address + NEXT_OFFSET);
+      }
+      return 0;
+   }
+
+   /**
+    * Replaces {@code oldAddress} with {@code newAddress} in the chain of the bucket, or adds {@code newAddress} to it
+    * if {@code oldAddress} is 0. The old block is released. Must be invoked holding the write lock of the bucket.
+    */
+   private void replace(long slot, long oldAddress, long newAddress) {
+      if (oldAddress == 0) {
+         memory.putLong(newAddress + NEXT_OFFSET, memory.getLong(slot));
+         memory.putLong(slot, newAddress);
+      } else {
+         memory.putLong(newAddress + NEXT_OFFSET, memory.getLong(oldAddress + NEXT_OFFSET));
+         relink(slot, oldAddress, newAddress);
+         release(oldAddress);
+      }
+      count.incrementAndGet();
+      usedBytes.addAndGet(entrySize(newAddress));
+      if (bounded) {
+         lruLock.lock();
+         try {
+            appendToLru(newAddress);
+         } finally {
+            lruLock.unlock();
+         }
+      }
+   }
+
+   /**
+    * Removes {@code address} from the chain of the bucket and releases it. Must be invoked holding the write lock of
+    * the bucket.
+    */
+   private void unlink(long slot, long address) {
+      relink(slot, address, memory.getLong(address + NEXT_OFFSET));
+      release(address);
+   }
+
+   private void relink(long slot, long address, long replacement) {
+      long current = memory.getLong(slot);
+      if (current == address) {
+         memory.putLong(slot, replacement);
+         return;
+      }
+      while (current != 0) {
+         long next = memory.getLong(current + NEXT_OFFSET);
+         if (next == address) {
+            memory.putLong(current + NEXT_OFFSET, replacement);
+            return;
+         }
+         current = next;
+      }
+      throw new IllegalStateException("Entry not found in its bucket");
+   }
+
+   /**
+    * Removes the block from the LRU list and frees its memory. The block must already be unreachable from its bucket.
+    */
+   private void release(long address) {
+      if (bounded) {
+         lruLock.lock();
+         try {
+            removeFromLru(address);
+         } finally {
+            lruLock.unlock();
+         }
+      }
+      long size = entrySize(address);
+      count.decrementAndGet();
+      usedBytes.addAndGet(-size);
+      memory.free(address, size);
+   }
+
+   // Must hold lruLock
+   private void appendToLru(long address) {
+      memory.putLong(address + LRU_PREVIOUS_OFFSET, lruTail);
+      memory.putLong(address + LRU_NEXT_OFFSET, 0);
+      if (lruTail == 0) {
+         lruHead = address;
+      } else {
+         memory.putLong(lruTail + LRU_NEXT_OFFSET, address);
+      }
+      lruTail = address;
+   }
+
+   // Must hold lruLock
+   private void removeFromLru(long address) {
+      long previous = memory.getLong(address + LRU_PREVIOUS_OFFSET);
+      long next = memory.getLong(address + LRU_NEXT_OFFSET);
+      if (previous == 0) {
+         lruHead = next;
+      } else {
+         memory.putLong(previous + LRU_NEXT_OFFSET, next);
+      }
+      if (next == 0) {
+         lruTail = previous;
+      } else {
+         memory.putLong(next + LRU_PREVIOUS_OFFSET, previous);
+      }
+   }
+
+   private void moveToLruTail(long address) {
+      lruLock.lock();
+      try {
+         if (lruTail != address) {
+            removeFromLru(address);
+            appendToLru(address);
+         }
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   private long allocateEntry(byte[] keyBytes, int hash, InternalCacheEntry<K, V> entry) {
+      return allocateEntry(keyBytes, hash, marshall(entry.getValue()), marshall(entry.getMetadata()),
+            entry.isL1Entry() ? FLAG_L1 : 0, entry.getCreated(), entry.getLastUsed(), entry.getLifespan(),
+            entry.getMaxIdle());
+   }
+
+   private long allocateEntry(byte[] keyBytes, int hash, byte[] valueBytes, byte[] metadataBytes, int flags,
+                              long created, long lastUsed, long lifespan, long maxIdle) {
+      int valueLength = valueBytes == null ? -1 : valueBytes.length;
+      int metadataLength = metadataBytes == null ? -1 : metadataBytes.length;
+      long size = HEADER_LENGTH + keyBytes.length + Math.max(0, valueLength) + Math.max(0, metadataLength);
+      long address = memory.allocate(size);
+      memory.putLong(address + NEXT_OFFSET, 0);
+      memory.putLong(address + LRU_PREVIOUS_OFFSET, 0);
+      memory.putLong(address + LRU_NEXT_OFFSET, 0);
+      memory.putInt(address + HASH_OFFSET, hash);
+      memory.putInt(address + FLAGS_OFFSET, flags);
+      memory.putLong(address + CREATED_OFFSET, created);
+      memory.putLong(address + LAST_USED_OFFSET, lastUsed);
+      memory.putLong(address + LIFESPAN_OFFSET, lifespan);
+      memory.putLong(address + MAX_IDLE_OFFSET, maxIdle);
+      memory.putInt(address + KEY_LENGTH_OFFSET, keyBytes.length);
+      memory.putInt(address + VALUE_LENGTH_OFFSET, valueLength);
+      memory.putInt(address + METADATA_LENGTH_OFFSET, metadataLength);
+      long offset = address + HEADER_LENGTH;
+      memory.putBytes(offset, keyBytes);
+      offset += keyBytes.length;
+      if (valueBytes != null) {
+         memory.putBytes(offset, valueBytes);
+         offset += valueBytes.length;
+      }
+      if (metadataBytes != null) {
+         memory.putBytes(offset, metadataBytes);
+      }
+      return address;
+   }
+
+   private long entrySize(long address) {
+      return HEADER_LENGTH + memory.getInt(address + KEY_LENGTH_OFFSET)
+            + Math.max(0, memory.getInt(address + VALUE_LENGTH_OFFSET))
+            + Math.max(0, memory.getInt(address + METADATA_LENGTH_OFFSET));
+   }
+
+   private boolean canExpire(long address) {
+      return memory.getLong(address + LIFESPAN_OFFSET) > -1 || memory.getLong(address + MAX_IDLE_OFFSET) > -1;
+   }
+
+   private boolean isExpired(long address, long now) {
+      return ExpiryHelper.isExpiredTransientMortal(memory.getLong(address + MAX_IDLE_OFFSET),
+            memory.getLong(address + LAST_USED_OFFSET), memory.getLong(address + LIFESPAN_OFFSET),
+            memory.getLong(address + CREATED_OFFSET), now);
+   }
+
+   private byte[] readKey(long address) {
+      return memory.getBytes(address + HEADER_LENGTH, memory.getInt(address + KEY_LENGTH_OFFSET));
+   }
+
+   @SuppressWarnings("unchecked")
+   private InternalCacheEntry<K, V> toEntry(long address) {
+      int keyLength = memory.getInt(address + KEY_LENGTH_OFFSET);
+      int valueLength = memory.getInt(address + VALUE_LENGTH_OFFSET);
+      int metadataLength = memory.getInt(address + METADATA_LENGTH_OFFSET);
+      long offset = address + HEADER_LENGTH;
+      K key = (K) unmarshall(offset, keyLength);
+      offset += keyLength;
+      V value = (V) unmarshall(offset, valueLength);
+      offset += Math.max(0, valueLength);
+      Metadata metadata = (Metadata) unmarshall(offset, metadataLength);
+      long created = memory.getLong(address + CREATED_OFFSET);
+      if ((memory.getInt(address + FLAGS_OFFSET) & FLAG_L1) != 0) {
+         InternalCacheEntry<K, V> l1Entry = entryFactory.createL1(key, value, metadata);
+         l1Entry.reincarnate(created);
+         return l1Entry;
+      }
+      return entryFactory.create(key, value, metadata, created, memory.getLong(address + LIFESPAN_OFFSET),
+            memory.getLong(address + LAST_USED_OFFSET), memory.getLong(address + MAX_IDLE_OFFSET));
+   }
+
+   private byte[] marshall(Object o) {
+      if (o == null) {
+         return null;
+      }
+      try {
+         return marshaller.objectToByteBuffer(o);
+      } catch (IOException e) {
+         throw new CacheException("Unable to marshall " + Util.toStr(o) + " for the off-heap container", e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+   }
+
+   private Object unmarshall(long address, int length) {
+      if (length < 0) {
+         return null;
+      }
+      try {
+         return marshaller.objectFromByteBuffer(memory.getBytes(address, length));
+      } catch (IOException | ClassNotFoundException e) {
+         throw new CacheException("Unable to unmarshall entry from the off-heap container", e);
+      }
+   }
+
+   private static int spread(int hash) {
+      return hash ^ (hash >>> 16);
+   }
+
+   private static int roundUpToPowerOfTwo(int value) {
+      if (value <= 1) {
+         return 1;
+      }
+      int highest = Integer.highestOneBit(value);
+      return highest == value ? value : highest << 1;
+   }
+
+   /**
+    * Iterates the buckets one at a time, materialising all the entries of a bucket while holding its read lock.
+    */
+   private class EntryIterator implements Iterator<InternalCacheEntry<K, V>> {
+      private final boolean includeExpired;
+      private final ArrayDeque<InternalCacheEntry<K, V>> bucketEntries = new ArrayDeque<>();
+      private int nextBucket;
+
+      EntryIterator(boolean includeExpired) {
+         this.includeExpired = includeExpired;
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (bucketEntries.isEmpty() && nextBucket < addressCount && bucketsAddress != 0) {
+            readBucket(nextBucket++);
+         }
+         return !bucketEntries.isEmpty();
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         return bucketEntries.poll();
+      }
+
+      private void readBucket(int bucket) {
+         long now = includeExpired ? 0 : timeService.wallClockTime();
+         Lock lock = locks[bucket & (locks.length - 1)].readLock();
+         lock.lock();
+         try {
+            long address = memory.getLong(bucketsAddress + (((long) bucket) << 3));
+            while (address != 0) {
+               if (includeExpired || !canExpire(address) || !isExpired(address, now)) {
+                  bucketEntries.add(toEntry(address));
+               }
+               address = memory.getLong(address + NEXT_OFFSET);
+            }
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   private class MappingIterator<E> implements Iterator<E> {
+      private final Iterator<InternalCacheEntry<K, V>> it = new EntryIterator(true);
+      private final Function<InternalCacheEntry<K, V>, E> function;
+
+      MappingIterator(Function<InternalCacheEntry<K, V>, E> function) {
+         this.function = function;
+      }
+
+      @Override
+      public boolean hasNext() {
+         return it.hasNext();
+      }
+
+      @Override
+      public E next() {
+         return function.apply(it.next());
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class KeySet extends AbstractSet<K> {
+      @Override
+      public Iterator<K> iterator() {
+         return new MappingIterator<>(InternalCacheEntry::getKey);
+      }
+
+      @Override
+      public boolean contains(Object o) {
+         return peek(o) != null;
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class EntrySet extends AbstractSet<InternalCacheEntry<K, V>> {
+      @Override
+      public boolean contains(Object o) {
+         if (!(o instanceof Map.Entry)) {
+            return false;
+         }
+         Map.Entry e = (Map.Entry) o;
+         InternalCacheEntry ice = peek(e.getKey());
+         return ice != null && ice.getValue().equals(e.getValue());
+      }
+
+      @Override
+      public Iterator<InternalCacheEntry<K, V>> iterator() {
+         return new MappingIterator<>(CoreImmutables::immutableInternalCacheEntry);
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Collection
+    */
+   private class Values extends AbstractCollection<V> {
+      @Override
+      public Iterator<V> iterator() {
+         return new MappingIterator<>(InternalCacheEntry::getValue);
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+}
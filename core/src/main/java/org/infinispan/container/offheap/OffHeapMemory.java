@@ -0,0 +1,132 @@
+package org.infinispan.container.offheap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import sun.misc.Unsafe;
+
+/**
+ * Thin wrapper around {@link Unsafe} that allocates, frees and accesses native memory on behalf of the off-heap data
+ * container. Every instance keeps track of how many bytes it has currently allocated so that leaks can be detected
+ * when the owning container is stopped.
+ *
+ * @since 9.0
+ */
+public class OffHeapMemory {
+   private static final Unsafe UNSAFE = getUnsafe();
+   private static final long BYTE_ARRAY_BASE_OFFSET = UNSAFE.arrayBaseOffset(byte[].class);
+
+   private final AtomicLong allocated = new AtomicLong();
+
+   /**
+    * Allocates a block of native memory. The contents of the block are undefined.
+    * @param size how many bytes to allocate
+    * @return the address of the block
+    */
+   public long allocate(long size) {
+      long address = UNSAFE.allocateMemory(size);
+      allocated.addAndGet(size);
+      return address;
+   }
+
+   /**
+    * Allocates a block of native memory initialised to zero.
+    * @param size how many bytes to allocate
+    * @return the address of the block
+    */
+   public long allocateZeroed(long size) {
+      long address = allocate(size);
+      UNSAFE.setMemory(address, size, (byte) 0);
+      return address;
+   }
+
+   /**
+    * Releases a block previously returned by {@link #allocate(long)}.
+    * @param address the address of the block
+    * @param size the size the block was allocated with
+    */
+   public void free(long address, long size) {
+      UNSAFE.freeMemory(address);
+      allocated.addAndGet(-size);
+   }
+
+   /**
+    * @return how many bytes are currently allocated by this instance
+    */
+   public long getAllocatedBytes() {
+      return allocated.get();
+   }
+
+   public long getLong(long address) {
+      return UNSAFE.getLong(address);
+   }
+
+   public void putLong(long address, long value) {
+      UNSAFE.putLong(address, value);
+   }
+
+   public int getInt(long address) {
+      return UNSAFE.getInt(address);
+   }
+
+   public void putInt(long address, int value) {
+      UNSAFE.putInt(address, value);
+   }
+
+   /**
+    * Copies {@code length} bytes starting at {@code address} into a new array.
+    */
+   public byte[] getBytes(long address, int length) {
+      byte[] bytes = new byte[length];
+      UNSAFE.copyMemory(null, address, bytes, BYTE_ARRAY_BASE_OFFSET, length);
+      return bytes;
+   }
+
+   /**
+    * Copies the whole array into native memory starting at {@code address}.
+    */
+   public void putBytes(long address, byte[] bytes) {
+      UNSAFE.copyMemory(bytes, BYTE_ARRAY_BASE_OFFSET, null, address, bytes.length);
+   }
+
+   /**
+    * Compares the native memory starting at {@code address} with the given array, without copying it to the heap.
+    */
+   public boolean equalBytes(long address, byte[] bytes) {
+      int i = 0;
+      int length = bytes.length;
+      for (; i + 8 <= length; i += 8) {
+         if (UNSAFE.getLong(address + i) != UNSAFE.getLong(bytes, BYTE_ARRAY_BASE_OFFSET + i)) {
+            return false;
+         }
+      }
+      for (; i < length; i++) {
+         if (UNSAFE.getByte(address + i) != bytes[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static Unsafe getUnsafe() {
+      try {
+         return Unsafe.getUnsafe();
+      } catch (SecurityException tryReflectionInstead) {}
+      try {
+         return java.security.AccessController.doPrivileged
+               (new java.security.PrivilegedExceptionAction<Unsafe>() {
+                  public Unsafe run() throws Exception {
+                     Class<Unsafe> k = Unsafe.class;
+                     for (java.lang.reflect.Field f : k.getDeclaredFields()) {
+                        f.setAccessible(true);
+                        Object x = f.get(null);
+                        if (k.isInstance(x))
+                           return k.cast(x);
+                     }
+                     throw new NoSuchFieldError("the Unsafe");
+                  }});
+      } catch (java.security.PrivilegedActionException e) {
+         throw new RuntimeException("Could not initialize intrinsics",
+               e.getCause());
+      }
+   }
+}
@@ -17,6 +17,11 @@ public enum EvictionStrategy {
    FIFO,
    LRU,
    LIRS,
+   /**
+    * Window TinyLFU: recently added entries go through a small LRU window and are only admitted into the main space
+    * if they were accessed more frequently than the entry they would replace, which makes the cache scan resistant.
+    */
+   TINY_LFU,
    MANUAL;
 
    public boolean isEnabled() {
@@ -2,12 +2,9 @@
 
 import static org.infinispan.commons.util.Util.toStr;
 
-import java.util.Iterator;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
 
 import org.infinispan.AdvancedCache;
-import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.factories.KnownComponentNames;
@@ -50,37 +47,11 @@ public void inject(AdvancedCache<K, V> cache,
    }
 
    @Override
-   public void processExpiration() {
-      long start = 0;
-      if (!Thread.currentThread().isInterrupted()) {
-         try {
-            if (trace) {
-               log.trace("Purging data container of expired entries");
-               start = timeService.time();
-            }
-            long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
-               InternalCacheEntry<K, V> e = purgeCandidates.next();
-               if (e.canExpire()) {
-                  if (ExpiryHelper.isExpiredMortal(e.getLifespan(), e.getCreated(), currentTimeMillis)) {
-                     handleLifespanExpireEntry(e, true);
-                  } else if (ExpiryHelper.isExpiredTransient(e.getMaxIdle(), e.getLastUsed(), currentTimeMillis)) {
-                     super.handleInMemoryExpiration(e, currentTimeMillis);
-                  }
-               }
-            }
-            if (trace) {
-               log.tracef("Purging data container completed in %s",
-                       Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
-            }
-         } catch (Exception e) {
-            log.exceptionPurgingDataContainer(e);
-         }
-      }
-
-      if (!Thread.currentThread().isInterrupted()) {
-         persistenceManager.purgeExpired();
+   protected void expireEntry(InternalCacheEntry<K, V> entry, long currentTime) {
+      if (ExpiryHelper.isExpiredMortal(entry.getLifespan(), entry.getCreated(), currentTime)) {
+         handleLifespanExpireEntry(entry, true);
+      } else {
+         super.handleInMemoryExpiration(entry, currentTime);
       }
    }
 
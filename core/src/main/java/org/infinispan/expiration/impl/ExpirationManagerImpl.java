@@ -1,6 +1,7 @@
 package org.infinispan.expiration.impl;
 
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -18,6 +19,9 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
@@ -29,6 +33,7 @@
 import net.jcip.annotations.ThreadSafe;
 
 @ThreadSafe
+@MBean(objectName = "ExpirationManager", description = "Component that removes the expired entries from the data container")
 public class ExpirationManagerImpl<K, V> implements ExpirationManager<K, V> {
    protected static final Log log = LogFactory.getLog(ExpirationManagerImpl.class);
    protected static final boolean trace = log.isTraceEnabled();
@@ -52,6 +57,9 @@
     */
    protected ConcurrentMap<K, Object> expiring;
 
+   private volatile long entriesExpiredLastRun;
+   private volatile long reaperLag;
+
    @Inject
    public void initialize(@ComponentName(KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR)
          ScheduledExecutorService executor, Cache<K, V> cache, Configuration cfg, DataContainer<K, V> dataContainer,
@@ -104,13 +112,24 @@ public void processExpiration() {
                start = timeService.time();
             }
             long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
+            long expired = 0;
+            long maxLag = 0;
+            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.expirationCandidates(currentTimeMillis);
                  purgeCandidates.hasNext();) {
                InternalCacheEntry<K, V> e = purgeCandidates.next();
                if (e.isExpired(currentTimeMillis)) {
-                  handleInMemoryExpiration(e, currentTimeMillis);
+                  maxLag = Math.max(maxLag, currentTimeMillis - e.getExpiryTime());
+                  expired++;
+                  try {
+                     expireEntry(e, currentTimeMillis);
+                  } catch (Exception ex) {
+                     // Carry on with the other entries, this one is returned again by the next run
+                     log.exceptionPurgingDataContainer(ex);
+                  }
                }
             }
+            entriesExpiredLastRun = expired;
+            reaperLag = maxLag;
             if (trace) {
                log.tracef("Purging data container completed in %s",
                           Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
@@ -125,6 +144,30 @@ public void processExpiration() {
       }
    }
 
+   /**
+    * Invoked by {@link #processExpiration()} for every expired entry found in the data container.
+    */
+   protected void expireEntry(InternalCacheEntry<K, V> entry, long currentTime) {
+      handleInMemoryExpiration(entry, currentTime);
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries found in the data container by the last run of the expiration reaper",
+         displayName = "Entries expired by the last run"
+   )
+   public long getEntriesExpiredLastRun() {
+      return entriesExpiredLastRun;
+   }
+
+   @ManagedAttribute(
+         description = "Maximum delay between the expiration time of an entry and its removal by the last run of the expiration reaper",
+         displayName = "Expiration reaper lag",
+         units = Units.MILLISECONDS
+   )
+   public long getReaperLag() {
+      return reaperLag;
+   }
+
    @Override
    public boolean isEnabled() {
       return enabled;
@@ -133,10 +176,10 @@ public boolean isEnabled() {
    @Override
    public void handleInMemoryExpiration(InternalCacheEntry<K, V> entry, long currentTime) {
       dataContainer.compute(entry.getKey(), ((k, oldEntry, factory) -> {
-         if (entry == oldEntry) {
-            synchronized (entry) {
-               if (entry.isExpired(currentTime)) {
-                  deleteFromStoresAndNotify(k, entry.getValue(), entry.getMetadata());
+         if (isSameEntry(entry, oldEntry)) {
+            synchronized (oldEntry) {
+               if (oldEntry.isExpired(currentTime)) {
+                  deleteFromStoresAndNotify(k, oldEntry.getValue(), oldEntry.getMetadata());
                }
             }
             return null;
@@ -145,6 +188,18 @@ public void handleInMemoryExpiration(InternalCacheEntry<K, V> entry, long curren
       }));
    }
 
+   /**
+    * Containers that materialise a new instance on every read (e.g. the off-heap one) never return the same instance
+    * twice, so in that case the entry is considered the same if it still has the same timestamps and value.
+    */
+   private boolean isSameEntry(InternalCacheEntry<K, V> entry, InternalCacheEntry<K, V> oldEntry) {
+      if (entry == oldEntry) {
+         return true;
+      }
+      return oldEntry != null && entry.getCreated() == oldEntry.getCreated()
+            && entry.getLastUsed() == oldEntry.getLastUsed() && Objects.deepEquals(entry.getValue(), oldEntry.getValue());
+   }
+
    @Override
    public void handleInStoreExpiration(K key) {
       // Note since this is invoked without the actual key lock it is entirely possible for a remove to occur
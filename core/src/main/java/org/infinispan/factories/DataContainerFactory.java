@@ -4,10 +4,12 @@
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
 import org.infinispan.configuration.cache.EvictionConfiguration;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.DefaultDataContainer;
 import org.infinispan.container.entries.MarshalledValueEntrySizeCalculator;
 import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
+import org.infinispan.container.offheap.OffHeapDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
@@ -28,6 +30,8 @@ public class DataContainerFactory extends AbstractNamedCacheComponentFactory imp
    public <T> T construct(Class<T> componentType) {
       if (configuration.dataContainer().dataContainer() != null) {
          return (T) configuration.dataContainer().dataContainer();
+      } else if (configuration.dataContainer().storageType() == StorageType.OFF_HEAP) {
+         return (T) constructOffHeapContainer();
       } else {
          EvictionStrategy st = configuration.eviction().strategy();
          int level = configuration.locking().concurrencyLevel();
@@ -49,6 +53,7 @@ public <T> T construct(Class<T> componentType) {
                      level, keyEquivalence);
             case UNORDERED:
             case LRU:
+            case TINY_LFU:
 
                if (configuration.eviction().type() == EvictionType.MEMORY) {
                   EntrySizeCalculator esc;
@@ -79,4 +84,20 @@ public <T> T construct(Class<T> componentType) {
          return (T) dataContainer;
       }
    }
+
+   private DataContainer constructOffHeapContainer() {
+      int level = configuration.locking().concurrencyLevel();
+      int addressCount = configuration.dataContainer().addressCount();
+      long thresholdSize = configuration.eviction().size();
+      if (thresholdSize < 0 || !configuration.eviction().strategy().isEnabled()) {
+         return OffHeapDataContainer.unBoundedDataContainer(addressCount, level);
+      }
+      // The off-heap container only keeps an LRU ordering, so every enabled strategy is mapped to it
+      OffHeapDataContainer dataContainer = OffHeapDataContainer.boundedDataContainer(addressCount, level,
+            thresholdSize, configuration.eviction().type());
+      configuration.eviction().attributes().attribute(EvictionConfiguration.SIZE).addListener((newSize, old) -> {
+         dataContainer.resize(newSize.get());
+      });
+      return dataContainer;
+   }
 }
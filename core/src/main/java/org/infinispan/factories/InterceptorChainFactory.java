@@ -23,6 +23,7 @@
 import org.infinispan.interceptors.distribution.L1NonTxInterceptor;
 import org.infinispan.interceptors.distribution.L1TxInterceptor;
 import org.infinispan.interceptors.distribution.NonTxDistributionInterceptor;
+import org.infinispan.interceptors.distribution.SingleOwnerCommitInterceptor;
 import org.infinispan.interceptors.distribution.TxDistributionInterceptor;
 import org.infinispan.interceptors.distribution.VersionedDistributionInterceptor;
 import org.infinispan.interceptors.impl.ActivationInterceptor;
@@ -226,6 +227,11 @@ public AsyncInterceptorChain buildInterceptorChain() {
          }
       }
 
+      // The primary owner must still hold the locks when it commits on the backup owners, after the write skew check
+      if (transactionMode.isTransactional() && Configurations.isOnePhaseSingleOwnerCommit(configuration)) {
+         interceptorChain.appendInterceptor(createInterceptor(new SingleOwnerCommitInterceptor(), SingleOwnerCommitInterceptor.class), false);
+      }
+
       // This needs to be added after the locking interceptor (for tx caches) but before the wrapping interceptor.
       if (configuration.clustering().l1().enabled()) {
          interceptorChain.appendInterceptor(createInterceptor(new L1LastChanceInterceptor(), L1LastChanceInterceptor.class), false);
@@ -3,6 +3,7 @@
 import org.infinispan.factories.annotations.DefaultFactoryFor;
 import org.infinispan.util.concurrent.locks.impl.LockContainer;
 import org.infinispan.util.concurrent.locks.impl.PerKeyLockContainer;
+import org.infinispan.util.concurrent.locks.impl.PooledLockContainer;
 import org.infinispan.util.concurrent.locks.impl.StripedLockContainer;
 
 /**
@@ -17,8 +18,12 @@ public class LockContainerFactory extends AbstractNamedCacheComponentFactory imp
    @SuppressWarnings("unchecked")
    @Override
    public <T> T construct(Class<T> componentType) {
-      return (T) (configuration.locking().useLockStriping() ?
-                        new StripedLockContainer(configuration.locking().concurrencyLevel(), configuration.dataContainer().keyEquivalence()) :
-                        new PerKeyLockContainer(configuration.locking().concurrencyLevel(), configuration.dataContainer().keyEquivalence()));
+      int concurrencyLevel = configuration.locking().concurrencyLevel();
+      if (configuration.locking().useLockStriping()) {
+         return (T) new StripedLockContainer(concurrencyLevel, configuration.dataContainer().keyEquivalence());
+      } else if (configuration.locking().useLockPooling()) {
+         return (T) new PooledLockContainer(concurrencyLevel, configuration.dataContainer().keyEquivalence());
+      }
+      return (T) new PerKeyLockContainer(concurrencyLevel, configuration.dataContainer().keyEquivalence());
    }
 }
@@ -0,0 +1,197 @@
+package org.infinispan.interceptors.distribution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.remote.BackupWriteBatchCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commons.CacheException;
+import org.infinispan.partitionhandling.AvailabilityException;
+import org.infinispan.remoting.responses.ExceptionResponse;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.OutdatedTopologyException;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Coalesces the synchronous backup writes that a primary owner replicates to the same set of backup owners into a
+ * single {@link BackupWriteBatchCommand}.
+ * <p>
+ * The first writer to find no open batch for its owners and topology becomes the batch leader: it waits for the
+ * configured window (or until the batch is full) and then sends the batch, while the other writers just append their
+ * commands and wait for the leader's RPC to complete. Every writer still holds the lock on its key on the primary
+ * owner until its own backup write is acknowledged, so writes to the same key are never reordered on the backups.
+ *
+ * @since 9.0
+ */
+class BackupWriteBatcher {
+   private static final Log log = LogFactory.getLog(BackupWriteBatcher.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   static final int MAX_BATCH_SIZE = 128;
+
+   private final ConcurrentMap<BatchKey, Batch> openBatches = new ConcurrentHashMap<>();
+   private final RpcManager rpcManager;
+   private final CommandsFactory commandsFactory;
+   private final StateTransferManager stateTransferManager;
+   private final long windowNanos;
+
+   BackupWriteBatcher(RpcManager rpcManager, CommandsFactory commandsFactory, StateTransferManager stateTransferManager,
+                      long windowMicros) {
+      this.rpcManager = rpcManager;
+      this.commandsFactory = commandsFactory;
+      this.stateTransferManager = stateTransferManager;
+      this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+   }
+
+   /**
+    * Replicates the command to the given backup owners, possibly together with other commands, and waits for the
+    * acknowledgements. Exceptions are reported in the same way as {@link RpcManager#invokeRemotely}.
+    */
+   void invokeRemotely(List<Address> recipients, DataWriteCommand command, RpcOptions rpcOptions) {
+      if (command.getTopologyId() == -1) {
+         command.setTopologyId(stateTransferManager.getCacheTopology().getTopologyId());
+      }
+      BatchKey key = new BatchKey(recipients, command.getTopologyId());
+      while (true) {
+         Batch batch = openBatches.get(key);
+         if (batch == null) {
+            Batch newBatch = new Batch(Thread.currentThread());
+            newBatch.add(command);
+            if (openBatches.putIfAbsent(key, newBatch) == null) {
+               lead(key, newBatch, recipients, rpcOptions);
+               newBatch.await(0);
+               return;
+            }
+         } else {
+            int index = batch.add(command);
+            if (index >= 0) {
+               if (index + 1 >= MAX_BATCH_SIZE) {
+                  // Let the following writers start a new batch and wake up the leader
+                  openBatches.remove(key, batch);
+                  LockSupport.unpark(batch.leader);
+               }
+               batch.await(index);
+               return;
+            }
+            // The batch was already closed by its leader, try again with a new one
+         }
+      }
+   }
+
+   private void lead(BatchKey key, Batch batch, List<Address> recipients, RpcOptions rpcOptions) {
+      long deadline = System.nanoTime() + windowNanos;
+      long remaining = windowNanos;
+      while (remaining > 0 && batch.size() < MAX_BATCH_SIZE && !Thread.currentThread().isInterrupted()) {
+         LockSupport.parkNanos(this, remaining);
+         remaining = deadline - System.nanoTime();
+      }
+      openBatches.remove(key, batch);
+      List<DataWriteCommand> commands = batch.close();
+      try {
+         Map<Address, Response> responses;
+         if (commands.size() == 1) {
+            responses = rpcManager.invokeRemotely(recipients, commands.get(0), rpcOptions);
+         } else {
+            if (trace) log.tracef("Replicating %d batched backup writes to %s", commands.size(), recipients);
+            BackupWriteBatchCommand batchCommand = commandsFactory.buildBackupWriteBatchCommand(commands, key.topologyId);
+            responses = rpcManager.invokeRemotely(recipients, batchCommand, rpcOptions);
+         }
+         batch.result.complete(responses);
+      } catch (Throwable t) {
+         batch.result.completeExceptionally(t);
+      }
+   }
+
+   private static final class Batch {
+      final Thread leader;
+      final CompletableFuture<Map<Address, Response>> result = new CompletableFuture<>();
+      private final List<DataWriteCommand> commands = new ArrayList<>();
+      private boolean closed;
+
+      Batch(Thread leader) {
+         this.leader = leader;
+      }
+
+      synchronized int add(DataWriteCommand command) {
+         if (closed) {
+            return -1;
+         }
+         commands.add(command);
+         return commands.size() - 1;
+      }
+
+      synchronized int size() {
+         return commands.size();
+      }
+
+      synchronized List<DataWriteCommand> close() {
+         closed = true;
+         return commands;
+      }
+
+      void await(int index) {
+         Map<Address, Response> responses;
+         try {
+            responses = result.join();
+         } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new CacheException(cause);
+         }
+         if (commands.size() == 1) {
+            // Sent as a plain command, the RPC manager already checked the responses
+            return;
+         }
+         for (Map.Entry<Address, Response> entry : responses.entrySet()) {
+            Response response = entry.getValue();
+            if (!(response instanceof SuccessfulResponse)) {
+               continue;
+            }
+            Response commandResponse = ((Response[]) ((SuccessfulResponse) response).getResponseValue())[index];
+            if (commandResponse instanceof ExceptionResponse) {
+               Exception e = ((ExceptionResponse) commandResponse).getException();
+               if (e instanceof AvailabilityException || e instanceof OutdatedTopologyException) throw (CacheException) e;
+               throw log.remoteException(entry.getKey(), e);
+            }
+         }
+      }
+   }
+
+   private static final class BatchKey {
+      final List<Address> recipients;
+      final int topologyId;
+
+      BatchKey(List<Address> recipients, int topologyId) {
+         this.recipients = recipients;
+         this.topologyId = topologyId;
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o) return true;
+         if (o == null || getClass() != o.getClass()) return false;
+         BatchKey batchKey = (BatchKey) o;
+         return topologyId == batchKey.topologyId && recipients.equals(batchKey.recipients);
+      }
+
+      @Override
+      public int hashCode() {
+         return 31 * recipients.hashCode() + topologyId;
+      }
+   }
+}
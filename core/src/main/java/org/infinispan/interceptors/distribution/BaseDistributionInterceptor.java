@@ -31,6 +31,7 @@
 import org.infinispan.commands.write.ValueMatcher;
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.container.EntryFactory;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
@@ -84,6 +85,7 @@ public abstract class BaseDistributionInterceptor extends ClusteringInterceptor
    protected RemoteValueRetrievedListener rvrl;
    protected boolean isL1Enabled;
    private GroupManager groupManager;
+   private BackupWriteBatcher backupWriteBatcher;
 
    private static final Log log = LogFactory.getLog(BaseDistributionInterceptor.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -107,6 +109,11 @@ public void injectDependencies(DistributionManager distributionManager, Clusteri
    public void configure() {
       // Can't rely on the super injectConfiguration() to be called before our injectDependencies() method2
       isL1Enabled = cacheConfiguration.clustering().l1().enabled();
+      long backupBatchWindow = cacheConfiguration.clustering().hash().backupBatchWindow();
+      if (backupBatchWindow > 0 && cacheConfiguration.clustering().cacheMode() == CacheMode.DIST_SYNC &&
+            !cacheConfiguration.transaction().transactionMode().isTransactional()) {
+         backupWriteBatcher = new BackupWriteBatcher(rpcManager, cf, stateTransferManager, backupBatchWindow);
+      }
    }
 
    @Override
@@ -371,8 +378,7 @@ private BasicInvocationStage invokeRemotelyIfNeeded(InvocationContext ctx, DataW
             // Ignore the previous value on the backup owners
             command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
             try {
-               rpcManager.invokeRemotely(recipients, command, determineRpcOptionsForBackupReplication(rpcManager,
-                  isSync, recipients));
+               replicateToBackups(recipients, command, isSync);
             } finally {
                // Switch to the retry policy, in case the primary owner changed and the write already succeeded on the new primary
                command.setValueMatcher(valueMatcher.matcherForRetry());
@@ -394,8 +400,7 @@ private BasicInvocationStage invokeRemotelyIfNeeded(InvocationContext ctx, DataW
                // Ignore the previous value on the backup owners
                command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
                try {
-                  rpcManager.invokeRemotely(recipients, command, determineRpcOptionsForBackupReplication(rpcManager,
-                                                                                                         isSync, recipients));
+                  replicateToBackups(recipients, command, isSync);
                } finally {
                   // Switch to the retry policy, in case the primary owner changed and the write already succeeded on the new primary
                   command.setValueMatcher(valueMatcher.matcherForRetry());
@@ -422,6 +427,15 @@ private BasicInvocationStage invokeRemotelyIfNeeded(InvocationContext ctx, DataW
       }
    }
 
+   private void replicateToBackups(List<Address> recipients, DataWriteCommand command, boolean isSync) {
+      RpcOptions rpcOptions = determineRpcOptionsForBackupReplication(rpcManager, isSync, recipients);
+      if (isSync && backupWriteBatcher != null) {
+         backupWriteBatcher.invokeRemotely(recipients, command, rpcOptions);
+      } else {
+         rpcManager.invokeRemotely(recipients, command, rpcOptions);
+      }
+   }
+
    private RpcOptions determineRpcOptionsForBackupReplication(RpcManager rpc, boolean isSync, List<Address> recipients) {
       RpcOptions options;
       if (isSync) {
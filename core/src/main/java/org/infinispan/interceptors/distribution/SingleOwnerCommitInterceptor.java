@@ -0,0 +1,118 @@
+package org.infinispan.interceptors.distribution;
+
+import static java.lang.String.format;
+import static org.infinispan.util.DeltaCompositeKeyUtil.filterDeltaCompositeKeys;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.tx.VersionedPrepareCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.CacheException;
+import org.infinispan.configuration.cache.Configurations;
+import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.interceptors.BasicInvocationStage;
+import org.infinispan.interceptors.impl.BaseRpcInterceptor;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.UnsureResponse;
+import org.infinispan.remoting.rpc.ResponseMode;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.concurrent.locks.LockUtil;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Commits the transactions whose modified keys all have the same primary owner in one phase.
+ * <p>
+ * The originator sends the one phase {@link PrepareCommand} only to the primary owner. The primary owner acquires the
+ * locks, performs the write skew check and commits the transaction, and then applies the modifications on the backup
+ * owners before releasing the locks. Conflicting transactions are therefore applied in the same order on all the
+ * owners.
+ *
+ * @since 9.0
+ */
+public class SingleOwnerCommitInterceptor extends BaseRpcInterceptor {
+
+   private static final Log log = LogFactory.getLog(SingleOwnerCommitInterceptor.class);
+
+   private CommandsFactory commandsFactory;
+   private ClusteringDependentLogic cdl;
+
+   private boolean versioned;
+   private RpcOptions backupRpcOptions;
+
+   @Override
+   protected Log getLog() {
+      return log;
+   }
+
+   @Inject
+   public void injectDependencies(CommandsFactory commandsFactory, ClusteringDependentLogic cdl) {
+      this.commandsFactory = commandsFactory;
+      this.cdl = cdl;
+   }
+
+   @Start
+   public void start() {
+      versioned = Configurations.isVersioningEnabled(cacheConfiguration);
+      backupRpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE)
+            .build();
+   }
+
+   @Override
+   public BasicInvocationStage visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) throws Throwable {
+      if (!command.isSingleOwnerCommit()) {
+         return invokeNext(ctx, command);
+      }
+      Collection<Object> keys = filterDeltaCompositeKeys(command.getAffectedKeys());
+      Address primaryOwner = LockUtil.getSingleLockOwner(keys, cdl);
+      if (ctx.isOriginLocal()) {
+         if (primaryOwner == null) {
+            // The topology changed since the transaction was prepared. Nothing was committed yet, but the command
+            // cannot be turned into a 2PC prepare any more.
+            throw new CacheException(format("The keys modified by transaction %s no longer have the same primary owner",
+                  ctx.getGlobalTransaction()));
+         }
+      } else if (!rpcManager.getAddress().equals(primaryOwner) || rpcManager.getTopologyId() != command.getTopologyId()) {
+         // Make the originator retry with the new topology before acquiring anything
+         if (trace) log.tracef("Not the primary owner of %s in topology %d", keys, command.getTopologyId());
+         return returnWith(UnsureResponse.INSTANCE);
+      }
+      if (!rpcManager.getAddress().equals(primaryOwner)) {
+         return invokeNext(ctx, command);
+      }
+      return invokeNext(ctx, command).thenAccept((rCtx, rCommand, rv) ->
+            commitOnBackupOwners((TxInvocationContext) rCtx, (PrepareCommand) rCommand, keys));
+   }
+
+   private void commitOnBackupOwners(TxInvocationContext<?> ctx, PrepareCommand command, Collection<Object> keys) {
+      int topologyId = rpcManager.getTopologyId();
+      List<WriteCommand> modifications = Arrays.asList(command.getModifications());
+      PrepareCommand backupCommand;
+      if (versioned) {
+         VersionedPrepareCommand versionedCommand =
+               commandsFactory.buildVersionedPrepareCommand(ctx.getGlobalTransaction(), modifications, true);
+         // The backup owners do not check for write skews, they apply the versions seen in a one phase commit
+         versionedCommand.setVersionsSeen(ctx.getCacheTransaction().getUpdatedEntryVersions());
+         backupCommand = versionedCommand;
+      } else {
+         backupCommand = commandsFactory.buildPrepareCommand(ctx.getGlobalTransaction(), modifications, true);
+      }
+      backupCommand.setTopologyId(topologyId);
+      if (trace) log.tracef("Committing %s on the backup owners of %s", ctx.getGlobalTransaction(), keys);
+      // A backup owner that left does not need the modifications, and a new backup owner receives them from this node
+      // through state transfer, as they are already committed here.
+      rpcManager.invokeRemotely(cdl.getOwners(keys), backupCommand, backupRpcOptions);
+      if (!ctx.isOriginLocal() && topologyId > command.getTopologyId()) {
+         // All the owners in the new topology have the modifications, the originator must not retry the commit
+         command.setTopologyId(topologyId);
+      }
+   }
+}
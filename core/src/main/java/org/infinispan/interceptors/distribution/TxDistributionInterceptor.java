@@ -6,6 +6,7 @@
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
@@ -50,6 +51,7 @@
 import org.infinispan.statetransfer.OutdatedTopologyException;
 import org.infinispan.transaction.impl.LocalTransaction;
 import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.util.concurrent.locks.LockUtil;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -172,8 +174,19 @@ public BasicInvocationStage visitPrepareCommand(TxInvocationContext ctx, Prepare
       return invokeNext(ctx, command).thenAccept((rCtx, rCommand, rv) -> {
          if (shouldInvokeRemoteTxCommand(ctx)) {
             TxInvocationContext<LocalTransaction> localTxCtx = (TxInvocationContext<LocalTransaction>) rCtx;
-            Collection<Address> recipients = cdl.getOwners(getAffectedKeysFromContext(localTxCtx));
-            prepareOnAffectedNodes(localTxCtx, (PrepareCommand) rCommand, recipients);
+            PrepareCommand prepareCommand = (PrepareCommand) rCommand;
+            Collection<Address> recipients;
+            if (prepareCommand.isSingleOwnerCommit()) {
+               // The primary owner applies the modifications on the backup owners
+               Address primaryOwner = LockUtil.getSingleLockOwner(getAffectedKeysFromContext(localTxCtx), cdl);
+               if (primaryOwner == null) {
+                  throw new OutdatedTopologyException("The modified keys no longer have the same primary owner");
+               }
+               recipients = Collections.singletonList(primaryOwner);
+            } else {
+               recipients = cdl.getOwners(getAffectedKeysFromContext(localTxCtx));
+            }
+            prepareOnAffectedNodes(localTxCtx, prepareCommand, recipients);
             localTxCtx.getCacheTransaction().locksAcquired(
                   recipients == null ? dm.getWriteConsistentHash().getMembers() : recipients);
          }
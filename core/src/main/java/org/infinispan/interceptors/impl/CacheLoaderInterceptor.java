@@ -3,8 +3,11 @@
 import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
 import static org.infinispan.persistence.PersistenceUtil.convert;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.concurrent.ExecutorService;
@@ -153,10 +156,7 @@ public BasicInvocationStage visitGetCacheEntryCommand(InvocationContext ctx,
    @Override
    public BasicInvocationStage visitGetAllCommand(InvocationContext ctx, GetAllCommand command)
          throws Throwable {
-      for (Object key : command.getKeys()) {
-         loadIfNeeded(ctx, key, command);
-      }
-      return invokeNext(ctx, command);
+      return visitManyDataCommand(ctx, command, command.getKeys());
    }
 
    @Override
@@ -185,9 +185,7 @@ public BasicInvocationStage visitReplaceCommand(InvocationContext ctx, ReplaceCo
 
    private <T extends FlagAffectedCommand> BasicInvocationStage visitManyDataCommand(InvocationContext ctx, T command, Collection<?> keys)
          throws Throwable {
-      for (Object key : keys) {
-         loadIfNeeded(ctx, key, command);
-      }
+      loadAllIfNeeded(ctx, keys, command);
       return invokeNext(ctx, command);
    }
 
@@ -336,11 +334,62 @@ protected final Boolean loadIfNeeded(final InvocationContext ctx, Object key, fi
       return loadInContext(ctx, key, cmd);
    }
 
+   /**
+    * Loads the entries of several keys, like {@link #loadIfNeeded(InvocationContext, Object, FlagAffectedCommand)}, but
+    * with a single lookup in each cache loader for all the keys which are not in the data container. The loaded
+    * entries are still stored in the data container and notified one key at a time.
+    */
+   protected final void loadAllIfNeeded(final InvocationContext ctx, Collection<?> keys, final FlagAffectedCommand cmd) {
+      List<Object> toLoad = new ArrayList<>(keys.size());
+      for (Object key : keys) {
+         if (!skipLoad(cmd, key, ctx)) {
+            toLoad.add(key);
+         }
+      }
+      if (toLoad.size() <= 1) {
+         for (Object key : toLoad) {
+            loadInContext(ctx, key, cmd);
+         }
+         return;
+      }
+
+      List<Object> missing = new ArrayList<>(toLoad.size());
+      long now = timeService.wallClockTime();
+      for (Object key : toLoad) {
+         InternalCacheEntry<K, V> entry = dataContainer.peek(key);
+         if (entry != null && (!entry.canExpire() || !entry.isExpired(now))) {
+            wrapLoadedEntry(ctx, key, entry, null, cmd);
+         } else {
+            missing.add(key);
+         }
+      }
+      if (missing.isEmpty()) {
+         return;
+      }
+
+      Map<Object, MarshalledEntry> loaded = PersistenceUtil.loadAndCheckExpiration(persistenceManager, missing, ctx,
+                                                                                   timeService);
+      AtomicReference<Boolean> isLoaded = new AtomicReference<>();
+      for (Object key : missing) {
+         // Goes through the data container even for the misses, so an expired entry is removed like with a single key
+         InternalCacheEntry<K, V> entry = PersistenceUtil.storeInDataContainer(dataContainer, (K) key,
+                                                                               loaded.get(key), timeService,
+                                                                               isLoaded);
+         wrapLoadedEntry(ctx, key, entry, isLoaded.get(), cmd);
+      }
+   }
+
    private Boolean loadInContext(InvocationContext ctx, Object key, FlagAffectedCommand cmd) {
       final AtomicReference<Boolean> isLoaded = new AtomicReference<>();
       InternalCacheEntry<K, V> entry = PersistenceUtil.loadAndStoreInDataContainer(dataContainer, persistenceManager, (K) key,
                                                                              ctx, timeService, isLoaded);
       Boolean isLoadedValue = isLoaded.get();
+      wrapLoadedEntry(ctx, key, entry, isLoadedValue, cmd);
+      return isLoadedValue;
+   }
+
+   private void wrapLoadedEntry(InvocationContext ctx, Object key, InternalCacheEntry<K, V> entry,
+                                Boolean isLoadedValue, FlagAffectedCommand cmd) {
       if (trace) {
          log.tracef("Entry was loaded? %s", isLoadedValue);
       }
@@ -366,7 +415,6 @@ private Boolean loadInContext(InvocationContext ctx, Object key, FlagAffectedCom
             sendNotification(key, value, false, ctx, cmd);
          }
       }
-      return isLoadedValue;
    }
 
    private boolean skipLoad(FlagAffectedCommand cmd, Object key, InvocationContext ctx) {
@@ -508,6 +556,10 @@ public WrappedEntrySet(EntrySetCommand command, CacheSet<CacheEntry<K, V>> entry
 
       @Override
       public CloseableIterator<CacheEntry<K, V>> iterator() {
+         return iterator(null);
+      }
+
+      private CloseableIterator<CacheEntry<K, V>> iterator(Set<Integer> segments) {
          CloseableIterator<CacheEntry<K, V>> iterator = Closeables.iterator(entrySet.stream());
          Set<K> seenKeys =
                new EquivalentHashSet<K>(cache.getAdvancedCache().getDataContainer().size(), keyEquivalence);
@@ -515,7 +567,7 @@ public CloseableIterator<CacheEntry<K, V>> iterator() {
          return new DistinctKeyDoubleEntryCloseableIterator<>(iterator, new CloseableSuppliedIterator<>(
 
                // TODO: how to pass in key filter...
-               new PersistenceManagerCloseableSupplier<>(executorService, persistenceManager, iceFactory,
+               new PersistenceManagerCloseableSupplier<>(executorService, persistenceManager, iceFactory, segments,
                      new CollectionKeyFilter<>(seenKeys), 10, TimeUnit.SECONDS, 2048)), e -> e.getKey(),
                seenKeys);
       }
@@ -525,6 +577,11 @@ public CloseableSpliterator<CacheEntry<K, V>> spliterator() {
          return spliteratorFromIterator(iterator());
       }
 
+      @Override
+      protected CloseableSpliterator<CacheEntry<K, V>> spliterator(Set<Integer> segments) {
+         return spliteratorFromIterator(iterator(segments));
+      }
+
       private <E> CloseableSpliterator<E> spliteratorFromIterator(CloseableIterator<E> iterator) {
          return new IteratorAsSpliterator.Builder<>(iterator)
                .setCharacteristics(Spliterator.CONCURRENT | Spliterator.DISTINCT | Spliterator.NONNULL).get();
@@ -551,6 +608,10 @@ public WrappedKeySet(KeySetCommand command, CacheSet<K> keySet) {
 
       @Override
       public CloseableIterator<K> iterator() {
+         return iterator(null);
+      }
+
+      private CloseableIterator<K> iterator(Set<Integer> segments) {
          CloseableIterator<K> iterator = Closeables.iterator(keySet.stream());
          Set<K> seenKeys = new EquivalentHashSet<K>(cache.getAdvancedCache().getDataContainer().size(),
                keyEquivalence);
@@ -558,7 +619,7 @@ public CloseableIterator<K> iterator() {
          return new DistinctKeyDoubleEntryCloseableIterator<>(iterator, new CloseableSuppliedIterator<>(new SupplierFunction<>(
                new PersistenceManagerCloseableSupplier<>(executorService, persistenceManager,
                      // TODO: how to pass in key filter...
-                     iceFactory, new CollectionKeyFilter<>(seenKeys), 10, TimeUnit.SECONDS, 2048))),
+                     iceFactory, segments, new CollectionKeyFilter<>(seenKeys), 10, TimeUnit.SECONDS, 2048))),
                Function.identity(), seenKeys);
       }
 
@@ -567,6 +628,11 @@ public CloseableSpliterator<K> spliterator() {
          return spliteratorFromIterator(iterator());
       }
 
+      @Override
+      protected CloseableSpliterator<K> spliterator(Set<Integer> segments) {
+         return spliteratorFromIterator(iterator(segments));
+      }
+
       private <E> CloseableSpliterator<E> spliteratorFromIterator(CloseableIterator<E> iterator) {
          return new IteratorAsSpliterator.Builder<>(iterator).setCharacteristics(
                Spliterator.CONCURRENT | Spliterator.DISTINCT | Spliterator.NONNULL).get();
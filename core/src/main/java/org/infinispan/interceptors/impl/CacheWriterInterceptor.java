@@ -4,6 +4,7 @@
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -58,6 +59,7 @@
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
@@ -218,11 +220,13 @@ public BasicInvocationStage visitPutMapCommand(InvocationContext ctx, PutMapComm
             return;
 
          Map<Object, Object> map = putMapCommand.getMap();
+         List<Object> keys = new ArrayList<>(map.size());
          for (Object key : map.keySet()) {
             if (isProperWriter(rCtx, putMapCommand, key)) {
-               storeEntry(rCtx, key, putMapCommand);
+               keys.add(key);
             }
          }
+         storeEntries(rCtx, keys, putMapCommand);
          if (getStatisticsEnabled())
             cacheStores.getAndAdd(map.size());
       });
@@ -418,8 +422,14 @@ public Object visitReplaceCommand(InvocationContext ctx, ReplaceCommand command)
       @Override
       public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
          Map<Object, Object> map = command.getMap();
-         for (Object key : map.keySet())
-            visitSingleStore(ctx, command, key);
+         List<Object> keys = new ArrayList<>(map.size());
+         for (Object key : map.keySet()) {
+            if (isProperWriter(ctx, command, key)) {
+               if (generateStatistics) putCount++;
+               keys.add(key);
+            }
+         }
+         storeEntries(ctx, keys, command);
          return null;
       }
 
@@ -474,6 +484,31 @@ void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command)
       if (trace) getLog().tracef("Stored entry %s under key %s", sv, key);
    }
 
+   /**
+    * Writes the given keys to the stores as batches, one for the entries that must skip shared stores and one for the
+    * rest, instead of issuing one store write per key.
+    */
+   void storeEntries(InvocationContext ctx, Collection<Object> keys, FlagAffectedCommand command) {
+      if (keys.isEmpty())
+         return;
+      List<MarshalledEntry> privateEntries = new ArrayList<>();
+      List<MarshalledEntry> allEntries = new ArrayList<>(keys.size());
+      for (Object key : keys) {
+         InternalCacheValue sv = getStoredValue(key, ctx);
+         MarshalledEntry entry = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
+         if (skipSharedStores(ctx, key, command)) {
+            privateEntries.add(entry);
+         } else {
+            allEntries.add(entry);
+         }
+      }
+      if (!privateEntries.isEmpty())
+         persistenceManager.writeBatchToAllNonTxStores(privateEntries, PRIVATE);
+      if (!allEntries.isEmpty())
+         persistenceManager.writeBatchToAllNonTxStores(allEntries, BOTH);
+      if (trace) getLog().tracef("Stored %d entries as a batch", keys.size());
+   }
+
    protected boolean skipSharedStores(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return !ctx.isOriginLocal() || command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE);
    }
@@ -57,6 +57,7 @@
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.partitionhandling.impl.PartitionHandlingManager;
 import org.infinispan.remoting.rpc.RpcManager;
 import org.infinispan.remoting.transport.Address;
@@ -91,6 +92,8 @@
    private final AtomicLong prepares = new AtomicLong(0);
    private final AtomicLong commits = new AtomicLong(0);
    private final AtomicLong rollbacks = new AtomicLong(0);
+   private final AtomicLong localWritePrepares = new AtomicLong(0);
+   private final AtomicLong singleOwnerOnePhaseCommits = new AtomicLong(0);
 
    private RpcManager rpcManager;
    private CommandsFactory commandsFactory;
@@ -154,6 +157,11 @@ private InvocationStage handlePrepareCommand(TxInvocationContext ctx, PrepareCom
          if (ctx.getCacheTransaction().hasModification(ClearCommand.class)) {
             throw new IllegalStateException("No ClearCommand is allowed in Transaction.");
          }
+         LocalTransaction localTransaction = (LocalTransaction) ctx.getCacheTransaction();
+         if (this.statisticsEnabled && !localTransaction.isReadOnly()) {
+            localWritePrepares.incrementAndGet();
+            if (localTransaction.isOnePhaseCommitOnPrepare()) singleOwnerOnePhaseCommits.incrementAndGet();
+         }
          return invokeNext(ctx, command);
       }
    }
@@ -451,6 +459,8 @@ public void resetStatistics() {
       prepares.set(0);
       commits.set(0);
       rollbacks.set(0);
+      localWritePrepares.set(0);
+      singleOwnerOnePhaseCommits.set(0);
    }
 
    @ManagedAttribute(
@@ -492,6 +502,27 @@ public long getRollbacks() {
       return rollbacks.get();
    }
 
+   @ManagedAttribute(
+         description = "Number of local transactions committed in one phase because all their modified keys have the same primary owner",
+         displayName = "Single owner one phase commits",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.SUMMARY
+   )
+   public long getSingleOwnerOnePhaseCommits() {
+      return singleOwnerOnePhaseCommits.get();
+   }
+
+   @ManagedAttribute(
+         description = "Share of the local transactions with modifications committed in one phase because all their modified keys have the same primary owner",
+         displayName = "Single owner one phase commit ratio",
+         units = Units.PERCENTAGE,
+         displayType = DisplayType.SUMMARY
+   )
+   public double getSingleOwnerOnePhaseCommitRatio() {
+      long total = localWritePrepares.get();
+      return total == 0 ? 0 : (double) singleOwnerOnePhaseCommits.get() / total;
+   }
+
    private BasicInvocationStage verifyRemoteTransaction(BasicInvocationStage stage, RemoteTxInvocationContext ctx,
          AbstractTransactionBoundaryCommand command) throws Throwable {
       final GlobalTransaction globalTransaction = command.getGlobalTransaction();
@@ -67,8 +67,14 @@ public BasicInvocationStage visitPrepareCommand(TxInvocationContext ctx, Prepare
 
          boolean onePhaseCommit = ((PrepareCommand) rCommand).isOnePhaseCommit();
          if (onePhaseCommit) {
-            txInvocationContext.getCacheTransaction()
-                  .setUpdatedEntryVersions(versionedPrepareCommand.getVersionsSeen());
+            // The primary owner generated new versions during the write skew check, and the originator received
+            // them in the responses. The backup owners apply the versions seen, which are the new versions when
+            // the primary owner forwards a single owner commit.
+            EntryVersionsMap updatedVersions = txInvocationContext.getCacheTransaction().getUpdatedEntryVersions();
+            if (updatedVersions == null || updatedVersions.isEmpty()) {
+               txInvocationContext.getCacheTransaction()
+                     .setUpdatedEntryVersions(versionedPrepareCommand.getVersionsSeen());
+            }
          }
 
          if (onePhaseCommit) {
@@ -81,7 +81,12 @@ public BasicInvocationStage visitPrepareCommand(TxInvocationContext ctx, Prepare
          return invokeNext(ctx, command);
       }
       return invokeNext(ctx, command).handle((rCtx, rCommand, rv, t) -> {
-         releaseLockOnTxCompletion(((TxInvocationContext) rCtx));
+         if (rCtx.isOriginLocal()) {
+            releaseLockOnTxCompletion(((TxInvocationContext) rCtx));
+         } else {
+            // The originator does not send a TxCompletionNotificationCommand after an optimistic 1PC
+            lockManager.unlockAll(rCtx);
+         }
       });
 
    }
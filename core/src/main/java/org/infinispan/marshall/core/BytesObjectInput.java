@@ -0,0 +1,213 @@
+package org.infinispan.marshall.core;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.Marshaller;
+
+/**
+ * An {@link ObjectInput} reading the internal wire format of the {@link GlobalMarshaller}, as written by
+ * {@link BytesObjectOutput}, straight from a byte array.
+ *
+ * @since 9.0
+ */
+public final class BytesObjectInput implements ObjectInput {
+   private final ExternalizerTable externalizerTable;
+   private final Marshaller userMarshaller;
+   private final byte[] bytes;
+   private final int limit;
+   private int pos;
+
+   BytesObjectInput(byte[] bytes, int offset, int length, ExternalizerTable externalizerTable,
+                    Marshaller userMarshaller) {
+      this.externalizerTable = externalizerTable;
+      this.userMarshaller = userMarshaller;
+      this.bytes = bytes;
+      this.pos = offset;
+      this.limit = offset + length;
+   }
+
+   @Override
+   public Object readObject() throws ClassNotFoundException, IOException {
+      int tag = readUnsignedByte();
+      switch (tag) {
+         case BytesObjectOutput.NULL:
+            return null;
+         case BytesObjectOutput.INTERNAL:
+            return externalizerTable.readObject(this);
+         case BytesObjectOutput.USER:
+            int length = readLength();
+            Object obj = userMarshaller.objectFromByteBuffer(bytes, pos, length);
+            pos += length;
+            return obj;
+         case BytesObjectOutput.STRING:
+            length = readLength();
+            String s = new String(bytes, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+         case BytesObjectOutput.BYTE_ARRAY:
+            byte[] array = new byte[readLength()];
+            readFully(array);
+            return array;
+         case BytesObjectOutput.BOOLEAN:
+            return readBoolean();
+         case BytesObjectOutput.INTEGER:
+            return readInt();
+         case BytesObjectOutput.LONG:
+            return readLong();
+         default:
+            throw new StreamCorruptedException("Unknown object tag: " + tag);
+      }
+   }
+
+   private int readLength() throws IOException {
+      int length = UnsignedNumeric.readUnsignedInt(this);
+      checkAvailable(length);
+      return length;
+   }
+
+   @Override
+   public int read() {
+      return pos < limit ? bytes[pos++] & 0xFF : -1;
+   }
+
+   @Override
+   public int read(byte[] b) {
+      return read(b, 0, b.length);
+   }
+
+   @Override
+   public int read(byte[] b, int off, int len) {
+      if (len == 0)
+         return 0;
+      if (pos >= limit)
+         return -1;
+      int count = Math.min(len, limit - pos);
+      System.arraycopy(bytes, pos, b, off, count);
+      pos += count;
+      return count;
+   }
+
+   @Override
+   public long skip(long n) {
+      long count = Math.max(0, Math.min(n, limit - pos));
+      pos += count;
+      return count;
+   }
+
+   @Override
+   public int available() {
+      return limit - pos;
+   }
+
+   @Override
+   public void close() {
+      // Nothing to close
+   }
+
+   @Override
+   public void readFully(byte[] b) throws IOException {
+      readFully(b, 0, b.length);
+   }
+
+   @Override
+   public void readFully(byte[] b, int off, int len) throws IOException {
+      checkAvailable(len);
+      System.arraycopy(bytes, pos, b, off, len);
+      pos += len;
+   }
+
+   @Override
+   public int skipBytes(int n) {
+      return (int) skip(n);
+   }
+
+   @Override
+   public boolean readBoolean() throws IOException {
+      return readUnsignedByte() != 0;
+   }
+
+   @Override
+   public byte readByte() throws IOException {
+      checkAvailable(1);
+      return bytes[pos++];
+   }
+
+   @Override
+   public int readUnsignedByte() throws IOException {
+      checkAvailable(1);
+      return bytes[pos++] & 0xFF;
+   }
+
+   @Override
+   public short readShort() throws IOException {
+      return (short) readUnsignedShort();
+   }
+
+   @Override
+   public int readUnsignedShort() throws IOException {
+      checkAvailable(2);
+      return ((bytes[pos++] & 0xFF) << 8) | (bytes[pos++] & 0xFF);
+   }
+
+   @Override
+   public char readChar() throws IOException {
+      return (char) readUnsignedShort();
+   }
+
+   @Override
+   public int readInt() throws IOException {
+      checkAvailable(4);
+      return ((bytes[pos++] & 0xFF) << 24) | ((bytes[pos++] & 0xFF) << 16) | ((bytes[pos++] & 0xFF) << 8)
+            | (bytes[pos++] & 0xFF);
+   }
+
+   @Override
+   public long readLong() throws IOException {
+      return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+   }
+
+   @Override
+   public float readFloat() throws IOException {
+      return Float.intBitsToFloat(readInt());
+   }
+
+   @Override
+   public double readDouble() throws IOException {
+      return Double.longBitsToDouble(readLong());
+   }
+
+   @Override
+   public String readLine() {
+      if (pos >= limit)
+         return null;
+      StringBuilder sb = new StringBuilder();
+      while (pos < limit) {
+         int c = bytes[pos++] & 0xFF;
+         if (c == '\n')
+            break;
+         if (c == '\r') {
+            if (pos < limit && bytes[pos] == '\n')
+               pos++;
+            break;
+         }
+         sb.append((char) c);
+      }
+      return sb.toString();
+   }
+
+   @Override
+   public String readUTF() throws IOException {
+      return DataInputStream.readUTF(this);
+   }
+
+   private void checkAvailable(int len) throws EOFException {
+      if (len > limit - pos)
+         throw new EOFException();
+   }
+}
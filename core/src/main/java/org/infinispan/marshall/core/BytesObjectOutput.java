@@ -0,0 +1,235 @@
+package org.infinispan.marshall.core;
+
+import java.io.IOException;
+import java.io.ObjectOutput;
+import java.io.UTFDataFormatException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.commons.io.ByteBufferImpl;
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.Marshaller;
+import org.jboss.marshalling.TraceInformation;
+
+/**
+ * An {@link ObjectOutput} writing the internal wire format of the {@link GlobalMarshaller} into a growable byte array.
+ * <p>
+ * Objects with an externalizer registered in the {@link ExternalizerTable}, and the most common JDK types, are written
+ * as a tag followed by their content, without any class descriptor or reference table. Any other object is marshalled
+ * on its own by the user marshaller and written as a length prefixed byte array. Object references are not shared, so
+ * an object written twice is read back as two equal instances.
+ *
+ * @since 9.0
+ */
+public final class BytesObjectOutput implements ObjectOutput {
+   static final int NULL = 0;
+   static final int INTERNAL = 1;
+   static final int USER = 2;
+   static final int STRING = 3;
+   static final int BYTE_ARRAY = 4;
+   static final int BOOLEAN = 5;
+   static final int INTEGER = 6;
+   static final int LONG = 7;
+
+   private final ExternalizerTable externalizerTable;
+   private final Marshaller userMarshaller;
+   private byte[] bytes;
+   private int pos;
+
+   BytesObjectOutput(int estimatedSize, ExternalizerTable externalizerTable, Marshaller userMarshaller) {
+      this.externalizerTable = externalizerTable;
+      this.userMarshaller = userMarshaller;
+      this.bytes = new byte[Math.max(estimatedSize, 16)];
+   }
+
+   @Override
+   public void writeObject(Object obj) throws IOException {
+      if (obj == null) {
+         write(NULL);
+         return;
+      }
+
+      Class<?> clazz = obj.getClass();
+      if (clazz == String.class) {
+         write(STRING);
+         writeRangedBytes(((String) obj).getBytes(StandardCharsets.UTF_8));
+      } else if (clazz == byte[].class) {
+         write(BYTE_ARRAY);
+         writeRangedBytes((byte[]) obj);
+      } else if (clazz == Boolean.class) {
+         write(BOOLEAN);
+         writeBoolean((Boolean) obj);
+      } else if (clazz == Integer.class) {
+         write(INTEGER);
+         writeInt((Integer) obj);
+      } else if (clazz == Long.class) {
+         write(LONG);
+         writeLong((Long) obj);
+      } else {
+         ExternalizerTable.ExternalizerAdapter adapter = externalizerTable.getExternalizerAdapter(obj);
+         if (adapter != null) {
+            write(INTERNAL);
+            try {
+               adapter.writeObject(this, obj);
+            } catch (IOException e) {
+               // Keep track of the enclosing objects, like JBoss Marshalling does
+               TraceInformation.addObjectInformation(e, obj);
+               throw e;
+            }
+         } else {
+            write(USER);
+            try {
+               ByteBuffer buf = userMarshaller.objectToBuffer(obj);
+               UnsignedNumeric.writeUnsignedInt(this, buf.getLength());
+               write(buf.getBuf(), buf.getOffset(), buf.getLength());
+            } catch (InterruptedException e) {
+               // The global marshaller unwraps it
+               throw new IOException(e);
+            }
+         }
+      }
+   }
+
+   private void writeRangedBytes(byte[] b) throws IOException {
+      UnsignedNumeric.writeUnsignedInt(this, b.length);
+      write(b, 0, b.length);
+   }
+
+   @Override
+   public void write(int b) {
+      ensureCapacity(1);
+      bytes[pos++] = (byte) b;
+   }
+
+   @Override
+   public void write(byte[] b) {
+      write(b, 0, b.length);
+   }
+
+   @Override
+   public void write(byte[] b, int off, int len) {
+      ensureCapacity(len);
+      System.arraycopy(b, off, bytes, pos, len);
+      pos += len;
+   }
+
+   @Override
+   public void writeBoolean(boolean v) {
+      write(v ? 1 : 0);
+   }
+
+   @Override
+   public void writeByte(int v) {
+      write(v);
+   }
+
+   @Override
+   public void writeShort(int v) {
+      ensureCapacity(2);
+      bytes[pos++] = (byte) (v >> 8);
+      bytes[pos++] = (byte) v;
+   }
+
+   @Override
+   public void writeChar(int v) {
+      writeShort(v);
+   }
+
+   @Override
+   public void writeInt(int v) {
+      ensureCapacity(4);
+      bytes[pos++] = (byte) (v >> 24);
+      bytes[pos++] = (byte) (v >> 16);
+      bytes[pos++] = (byte) (v >> 8);
+      bytes[pos++] = (byte) v;
+   }
+
+   @Override
+   public void writeLong(long v) {
+      writeInt((int) (v >> 32));
+      writeInt((int) v);
+   }
+
+   @Override
+   public void writeFloat(float v) {
+      writeInt(Float.floatToIntBits(v));
+   }
+
+   @Override
+   public void writeDouble(double v) {
+      writeLong(Double.doubleToLongBits(v));
+   }
+
+   @Override
+   public void writeBytes(String s) {
+      int len = s.length();
+      ensureCapacity(len);
+      for (int i = 0; i < len; i++) {
+         bytes[pos++] = (byte) s.charAt(i);
+      }
+   }
+
+   @Override
+   public void writeChars(String s) {
+      int len = s.length();
+      for (int i = 0; i < len; i++) {
+         writeChar(s.charAt(i));
+      }
+   }
+
+   @Override
+   public void writeUTF(String s) throws IOException {
+      // Same modified UTF-8 encoding as DataOutputStream.writeUTF
+      int len = s.length();
+      int utfLength = 0;
+      for (int i = 0; i < len; i++) {
+         char c = s.charAt(i);
+         if (c >= 0x0001 && c <= 0x007F) {
+            utfLength++;
+         } else if (c > 0x07FF) {
+            utfLength += 3;
+         } else {
+            utfLength += 2;
+         }
+      }
+      if (utfLength > 65535)
+         throw new UTFDataFormatException("Encoded string too long: " + utfLength + " bytes");
+
+      writeShort(utfLength);
+      ensureCapacity(utfLength);
+      for (int i = 0; i < len; i++) {
+         char c = s.charAt(i);
+         if (c >= 0x0001 && c <= 0x007F) {
+            bytes[pos++] = (byte) c;
+         } else if (c > 0x07FF) {
+            bytes[pos++] = (byte) (0xE0 | ((c >> 12) & 0x0F));
+            bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+         } else {
+            bytes[pos++] = (byte) (0xC0 | ((c >> 6) & 0x1F));
+            bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+         }
+      }
+   }
+
+   @Override
+   public void flush() {
+      // Nothing to flush
+   }
+
+   @Override
+   public void close() {
+      // Nothing to close
+   }
+
+   ByteBuffer toByteBuffer() {
+      return new ByteBufferImpl(bytes, 0, pos);
+   }
+
+   private void ensureCapacity(int len) {
+      if (pos + len > bytes.length) {
+         bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, pos + len));
+      }
+   }
+}
@@ -1,6 +1,8 @@
 package org.infinispan.marshall.core;
 
 import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -35,6 +37,8 @@
 import org.infinispan.container.entries.TransientCacheValue;
 import org.infinispan.container.entries.TransientMortalCacheEntry;
 import org.infinispan.container.entries.TransientMortalCacheValue;
+import org.infinispan.container.entries.metadata.CompactImmortalCacheEntry;
+import org.infinispan.container.entries.metadata.CompactTransientMortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataImmortalCacheEntry;
 import org.infinispan.container.entries.metadata.MetadataImmortalCacheValue;
 import org.infinispan.container.entries.metadata.MetadataMortalCacheEntry;
@@ -209,6 +213,10 @@ public Writer getObjectWriter(Object o) throws IOException {
 
    @Override
    public Object readObject(Unmarshaller input) throws IOException, ClassNotFoundException {
+      return readObject((ObjectInput) input);
+   }
+
+   Object readObject(ObjectInput input) throws IOException, ClassNotFoundException {
       int readerIndex = input.readUnsignedByte();
       int foreignId = -1;
       if (readerIndex == Ids.MAX_ID) {
@@ -251,6 +259,14 @@ public Externalizer getExternalizer(Object o) {
       return null;
    }
 
+   ExternalizerAdapter getExternalizerAdapter(Object o) throws IOException {
+      Class<?> clazz = o.getClass();
+      if (!started) {
+         throw log.externalizerTableStopped(clazz.getName());
+      }
+      return writers.get(clazz);
+   }
+
    boolean isMarshallableCandidate(Object o) {
       return writers.containsKey(o.getClass());
    }
@@ -307,6 +323,8 @@ private void loadInternalMarshallables() {
       addInternalExternalizer(new MetadataMortalCacheEntry.Externalizer());
       addInternalExternalizer(new MetadataTransientCacheEntry.Externalizer());
       addInternalExternalizer(new MetadataTransientMortalCacheEntry.Externalizer());
+      addInternalExternalizer(new CompactImmortalCacheEntry.Externalizer());
+      addInternalExternalizer(new CompactTransientMortalCacheEntry.Externalizer());
       addInternalExternalizer(new MetadataImmortalCacheValue.Externalizer());
       addInternalExternalizer(new MetadataMortalCacheValue.Externalizer());
       addInternalExternalizer(new MetadataTransientCacheValue.Externalizer());
@@ -484,12 +502,16 @@ static class ExternalizerAdapter implements Writer {
          this.externalizer = (AdvancedExternalizer<Object>) externalizer;
       }
 
-      public Object readObject(Unmarshaller input) throws IOException, ClassNotFoundException {
+      public Object readObject(ObjectInput input) throws IOException, ClassNotFoundException {
          return externalizer.readObject(input);
       }
 
       @Override
       public void writeObject(Marshaller output, Object object) throws IOException {
+         writeObject((ObjectOutput) output, object);
+      }
+
+      void writeObject(ObjectOutput output, Object object) throws IOException {
          output.write(id);
          externalizer.writeObject(output, object);
       }
@@ -536,7 +558,7 @@ int getExternalizerId() {
       }
 
       @Override
-      public void writeObject(Marshaller output, Object object) throws IOException {
+      void writeObject(ObjectOutput output, Object object) throws IOException {
          output.write(id);
          // Write as an unsigned, variable length, integer to safe space
          UnsignedNumeric.writeUnsignedInt(output, foreignId);
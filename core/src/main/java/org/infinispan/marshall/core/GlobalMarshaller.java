@@ -26,6 +26,11 @@
  * A globally-scoped marshaller. This is needed so that the transport layer
  * can unmarshall requests even before it's known which cache's marshaller can
  * do the job.
+ * <p>
+ * Internal types, i.e. types with an externalizer in the {@link ExternalizerTable}
+ * such as commands, responses and cache entries, are marshalled to byte buffers
+ * with an internal wire format, see {@link BytesObjectOutput}, which bypasses
+ * JBoss Marshalling for everything but the user objects they contain.
  *
  * @author Galder Zamarreño
  * @since 5.0
@@ -36,6 +41,12 @@ public class GlobalMarshaller extends AbstractMarshaller implements StreamingMar
    private static final Log log = LogFactory.getLog(GlobalMarshaller.class);
    private final boolean trace = log.isTraceEnabled();
 
+   /**
+    * First byte of the buffers written with the internal wire format. JBoss Marshalling streams start with the
+    * protocol version instead, which is never this value.
+    */
+   static final byte INTERNAL_FORMAT = (byte) 0xFE;
+
    private JBossMarshaller defaultMarshaller;
 
    private ExternalizerTable extTable;
@@ -62,10 +73,22 @@ public void stop() {
 
    @Override
    protected ByteBuffer objectToBuffer(Object obj, int estimatedSize) throws IOException, InterruptedException {
-      ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream(estimatedSize);
-      ObjectOutput out = startObjectOutput(baos, false, estimatedSize);
       try {
-         defaultMarshaller.objectToObjectStream(obj, out);
+         if (obj != null && extTable.isMarshallableCandidate(obj)) {
+            BytesObjectOutput out = new BytesObjectOutput(estimatedSize, extTable, defaultMarshaller);
+            out.writeByte(INTERNAL_FORMAT);
+            out.writeObject(obj);
+            return out.toByteBuffer();
+         }
+
+         ExposedByteArrayOutputStream baos = new ExposedByteArrayOutputStream(estimatedSize);
+         ObjectOutput out = startObjectOutput(baos, false, estimatedSize);
+         try {
+            defaultMarshaller.objectToObjectStream(obj, out);
+         } finally {
+            finishObjectOutput(out);
+         }
+         return new ByteBufferImpl(baos.getRawBuffer(), 0, baos.size());
       } catch (java.io.NotSerializableException nse) {
          if (log.isDebugEnabled()) log.debug("Object is not serializable", nse);
          throw new NotSerializableException(nse.getMessage(), nse.getCause());
@@ -77,14 +100,14 @@ protected ByteBuffer objectToBuffer(Object obj, int estimatedSize) throws IOExce
             log.errorMarshallingObject(ioe, obj);
             throw ioe;
          }
-      } finally {
-         finishObjectOutput(out);
       }
-      return new ByteBufferImpl(baos.getRawBuffer(), 0, baos.size());
    }
 
    @Override
    public Object objectFromByteBuffer(byte[] bytes, int offset, int len) throws IOException, ClassNotFoundException {
+      if (len > 0 && bytes[offset] == INTERNAL_FORMAT) {
+         return new BytesObjectInput(bytes, offset + 1, len - 1, extTable, defaultMarshaller).readObject();
+      }
       return defaultMarshaller.objectFromByteBuffer(bytes, offset, len);
    }
 
@@ -180,4 +180,7 @@ public interface Ids extends org.infinispan.commons.marshall.Ids {
 
    int READ_ONLY_SNAPSHOT_VIEW = 169;
    int NO_VALUE_READ_ONLY_VIEW = 170;
+
+   int COMPACT_IMMORTAL_ENTRY = 171;
+   int COMPACT_TRANSIENT_MORTAL_ENTRY = 172;
 }
@@ -12,6 +12,7 @@
 import org.infinispan.commands.RemoveCacheCommand;
 import org.infinispan.commands.control.LockControlCommand;
 import org.infinispan.commands.read.DistributedExecuteCommand;
+import org.infinispan.commands.remote.BackupWriteBatchCommand;
 import org.infinispan.commands.remote.CacheRpcCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
@@ -37,6 +38,8 @@
 import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.Util;
 import org.infinispan.factories.GlobalComponentRegistry;
+import org.infinispan.marshall.core.BytesObjectInput;
+import org.infinispan.marshall.core.BytesObjectOutput;
 import org.infinispan.marshall.core.Ids;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
@@ -75,7 +78,7 @@ public Set<Class<? extends CacheRpcCommand>> getTypeClasses() {
       Set<Class<? extends CacheRpcCommand>> coreCommands = Util.asSet(DistributedExecuteCommand.class,
                LockControlCommand.class,
                StateRequestCommand.class, StateResponseCommand.class, ClusteredGetCommand.class,
-               SingleRpcCommand.class, CommitCommand.class,
+               SingleRpcCommand.class, BackupWriteBatchCommand.class, CommitCommand.class,
                PrepareCommand.class, RollbackCommand.class, RemoveCacheCommand.class,
                TxCompletionNotificationCommand.class, GetInDoubtTransactionsCommand.class,
                GetInDoubtTxInfoCommand.class, CompleteTransactionCommand.class,
@@ -105,6 +108,11 @@ public void writeObject(ObjectOutput output, CacheRpcCommand command) throws IOE
    }
 
    private void marshallParameters(CacheRpcCommand cmd, StreamingMarshaller marshaller, ObjectOutput oo) throws IOException {
+      if (oo instanceof BytesObjectOutput) {
+         // The internal wire format doesn't need a nested stream
+         cmdExt.writeCommandParameters(oo, cmd);
+         return;
+      }
       BufferSizePredictor sizePredictor = marshaller.getBufferSizePredictor(cmd);
       int estimatedSize = sizePredictor.nextSize(cmd);
       ObjectOutput paramsOutput = marshaller.startObjectOutput(convertObjectOutput(oo), true, estimatedSize);
@@ -122,6 +130,12 @@ public CacheRpcCommand readObject(ObjectInput input) throws IOException, ClassNo
       byte methodId = (byte) input.readShort();
       ByteString cacheName = ByteString.readObject(input);
 
+      if (input instanceof BytesObjectInput) {
+         CacheRpcCommand cacheRpcCommand = cmdExt.fromStream(methodId, type, cacheName);
+         cmdExt.readCommandParameters(input, cacheRpcCommand);
+         return cacheRpcCommand;
+      }
+
       //create the object input
       ObjectInput paramsInput = globalMarshaller.startObjectInput(convertInputStream(input), true);
       CacheRpcCommand cacheRpcCommand;
@@ -35,6 +35,8 @@
  * made in a <i>separate</i> thread, which will not cause any blocking on the caller or network thread.  The separate
  * thread is taken from a pool, which can be configured using {@link org.infinispan.config.GlobalConfiguration#setAsyncListenerExecutorProperties(java.util.Properties)}
  * and {@link org.infinispan.config.GlobalConfiguration#setAsyncListenerExecutorFactoryClass(String)}.
+ * The events of an asynchronous listener with a {@link #queueSize()} wait in a bounded queue of their own and are
+ * delivered in order, see also {@link #overflow()} and {@link #batchSize()}.
  * <p/>
  * <b>Summary of Notification Annotations</b> <table border="1" cellpadding="1" cellspacing="1" summary="Summary of
  * notification annotations"> <tr> <th bgcolor="#CCCCFF" align="left">Annotation</th> <th bgcolor="#CCCCFF"
@@ -243,6 +245,38 @@
 
    Observation observation() default Observation.BOTH;
 
+   /**
+    * The maximum number of events queued for an asynchronous listener, i.e. one with {@link #sync()} set to
+    * <tt>false</tt>. With a positive queue size the listener has its own queue, and its events are delivered in the
+    * order they were queued by at most one thread at a time, so the listener sees all the events for a given key in
+    * order. What happens when the queue is full is controlled by {@link #overflow()}.
+    * <p>
+    * By default the queue size is 0 and the listener has no queue: each event is handed to the asynchronous
+    * notification executor as soon as it is raised, without any bound or ordering guarantee. Ignored for synchronous
+    * listeners.
+    * @return the capacity of the event queue of the listener, or 0 for no queue
+    * @since 9.0
+    */
+   int queueSize() default 0;
+
+   /**
+    * The action taken when an event is raised while the queue of an asynchronous listener is full. Ignored for
+    * synchronous listeners and listeners without a {@link #queueSize()}.
+    * @return the overflow policy of the listener
+    * @since 9.0
+    */
+   Overflow overflow() default Overflow.BLOCK;
+
+   /**
+    * The maximum number of events delivered by a single callback to an asynchronous listener. Only the methods with
+    * a {@link java.util.List} (or {@link java.util.Collection}) parameter receive batches; consecutive queued events
+    * for such a method are passed to it together, in order. Other methods always receive the events one by one.
+    * Only asynchronous listeners with a {@link #queueSize()} may declare such methods.
+    * @return the maximum number of events per callback
+    * @since 9.0
+    */
+   int batchSize() default 1;
+
 
    enum Observation {
       PRE() {
@@ -266,4 +300,24 @@ public boolean shouldInvoke(boolean pre) {
 
       public abstract boolean shouldInvoke(boolean pre);
    }
+
+   /**
+    * Policy applied when the event queue of an asynchronous listener is full.
+    * @since 9.0
+    */
+   enum Overflow {
+      /**
+       * The thread raising the event waits until the listener has caught up. Notification threads, which might be
+       * the ones that have to deliver the queued events, never wait and exceed the queue size instead.
+       */
+      BLOCK,
+      /**
+       * The oldest queued event is discarded to make room for the new one.
+       */
+      DISCARD_OLDEST,
+      /**
+       * The new event is discarded.
+       */
+      DISCARD_NEWEST
+   }
 }
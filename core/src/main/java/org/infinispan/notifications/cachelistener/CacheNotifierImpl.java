@@ -66,6 +66,10 @@
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.AsyncInterceptorChain;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Parameter;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.Listener;
@@ -119,6 +123,7 @@
 import org.infinispan.notifications.cachelistener.filter.IndexedFilter;
 import org.infinispan.notifications.cachelistener.filter.KeyFilterAsCacheEventFilter;
 import org.infinispan.notifications.impl.AbstractListenerImpl;
+import org.infinispan.notifications.impl.ListenerDeliveryQueue;
 import org.infinispan.notifications.impl.ListenerInvocation;
 import org.infinispan.partitionhandling.AvailabilityMode;
 import org.infinispan.remoting.transport.Address;
@@ -137,6 +142,7 @@
  * @author anistor@redhat.com
  * @since 4.0
  */
+@MBean(objectName = "CacheNotifier", description = "Component that delivers the cache events to the registered listeners")
 public final class CacheNotifierImpl<K, V> extends AbstractListenerImpl<Event<K, V>, CacheEntryListenerInvocation<K, V>>
       implements ClusterCacheNotifier<K, V> {
 
@@ -286,6 +292,35 @@ protected Log getLog() {
       return log;
    }
 
+   @ManagedAttribute(description = "Names of the asynchronous listeners, each with its own event queue", displayName = "Asynchronous listeners")
+   public String[] getAsyncListeners() {
+      return deliveryQueues.values().stream().map(ListenerDeliveryQueue::getName).toArray(String[]::new);
+   }
+
+   @ManagedOperation(description = "Number of events waiting to be delivered to an asynchronous listener, -1 if the listener is unknown", displayName = "Listener queue depth")
+   public int getListenerQueueDepth(@Parameter(name = "listener", description = "Name of the asynchronous listener") String listener) {
+      ListenerDeliveryQueue queue = getDeliveryQueue(listener);
+      return queue == null ? -1 : queue.getQueueDepth();
+   }
+
+   @ManagedOperation(description = "Time in milliseconds the last event delivered to an asynchronous listener spent in its queue, -1 if the listener is unknown", displayName = "Listener delivery lag")
+   public long getListenerDeliveryLag(@Parameter(name = "listener", description = "Name of the asynchronous listener") String listener) {
+      ListenerDeliveryQueue queue = getDeliveryQueue(listener);
+      return queue == null ? -1 : queue.getLastDeliveryLag();
+   }
+
+   @ManagedOperation(description = "Longest time in milliseconds an event spent in the queue of an asynchronous listener, -1 if the listener is unknown", displayName = "Listener maximum delivery lag")
+   public long getListenerMaxDeliveryLag(@Parameter(name = "listener", description = "Name of the asynchronous listener") String listener) {
+      ListenerDeliveryQueue queue = getDeliveryQueue(listener);
+      return queue == null ? -1 : queue.getMaxDeliveryLag();
+   }
+
+   @ManagedOperation(description = "Number of events discarded because the queue of an asynchronous listener was full, -1 if the listener is unknown", displayName = "Listener discarded events")
+   public long getListenerDiscardedEvents(@Parameter(name = "listener", description = "Name of the asynchronous listener") String listener) {
+      ListenerDeliveryQueue queue = getDeliveryQueue(listener);
+      return queue == null ? -1 : queue.getDiscardedEvents();
+   }
+
    @Override
    public void setTypeConverter(TypeConverter typeConverter) {
       this.typeConverter = typeConverter;
@@ -1077,7 +1112,7 @@ public CacheInvocationBuilder setObservation(Listener.Observation observation) {
       @Override
       public CacheEntryListenerInvocation<K, V> build() {
          ListenerInvocation<Event<K, V>> invocation = new ListenerInvocationImpl(target, method, sync, classLoader,
-                                                                                 subject);
+                                                                                 subject, deliveryQueue);
 
          wireFilterAndConverterDependencies(filter, converter);
 
@@ -8,12 +8,16 @@
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 
 import javax.security.auth.Subject;
@@ -44,6 +48,11 @@
 
    protected final Map<Class<? extends Annotation>, List<L>> listenersMap = new HashMap<>(16, 0.99f);
 
+   /**
+    * The event queues of the asynchronous listeners, shared by all the methods of a listener
+    */
+   protected final ConcurrentMap<Object, ListenerDeliveryQueue> deliveryQueues = new ConcurrentHashMap<>();
+
    protected abstract class AbstractInvocationBuilder {
       protected Object target;
       protected Method method;
@@ -51,6 +60,7 @@ protected abstract class AbstractInvocationBuilder {
       protected boolean sync;
       protected ClassLoader classLoader;
       protected Subject subject;
+      protected ListenerDeliveryQueue deliveryQueue;
 
       public Object getTarget() {
          return target;
@@ -77,6 +87,10 @@ public Subject getSubject() {
          return subject;
       }
 
+      public ListenerDeliveryQueue getDeliveryQueue() {
+         return deliveryQueue;
+      }
+
       public AbstractInvocationBuilder setTarget(Object target) {
          this.target = target;
          return this;
@@ -102,6 +116,11 @@ public AbstractInvocationBuilder setSubject(Subject subject) {
          return this;
       }
 
+      public AbstractInvocationBuilder setDeliveryQueue(ListenerDeliveryQueue deliveryQueue) {
+         this.deliveryQueue = deliveryQueue;
+         return this;
+      }
+
       public abstract L build();
 
    }
@@ -129,6 +148,10 @@ public void stop() {
       for (List<L> list : listenersMap.values()) {
          if (list != null) list.clear();
       }
+      for (ListenerDeliveryQueue queue : deliveryQueues.values()) {
+         queue.stop();
+      }
+      deliveryQueues.clear();
 
       if (syncProcessor != null) syncProcessor.shutdownNow();
    }
@@ -147,6 +170,8 @@ public void removeListener(Object listener) {
       for (Class<? extends Annotation> annotation :
             getAllowedMethodAnnotations(testListenerClassValidity(listener.getClass())).keySet())
          removeListenerInvocation(annotation, listener);
+      // The events already queued are still delivered
+      deliveryQueues.remove(listener);
    }
 
    protected Set<L> removeListenerInvocation(Class<? extends Annotation> annotation, Object listener) {
@@ -167,6 +192,16 @@ public Set<Object> getListeners() {
       return Collections.unmodifiableSet(result);
    }
 
+   /**
+    * @return the event queue of the asynchronous listener with the given name, or {@code null} if there is none
+    */
+   protected ListenerDeliveryQueue getDeliveryQueue(String listenerName) {
+      for (ListenerDeliveryQueue queue : deliveryQueues.values()) {
+         if (queue.getName().equals(listenerName)) return queue;
+      }
+      return null;
+   }
+
    /**
     * Loops through all valid methods on the object passed in, and caches the relevant methods as {@link
     * ListenerInvocation} for invocation by reflection.
@@ -183,7 +218,14 @@ protected boolean validateAndAddListenerInvocations(Object listener, AbstractInv
       builder.setTarget(listener);
       builder.setSubject(Security.getSubject());
       builder.setSync(l.sync());
+      if (l.queueSize() < 0)
+         throw new IncorrectListenerException("The queue size of listener " + listener.getClass().getName() + " must not be negative");
+      if (l.batchSize() < 1)
+         throw new IncorrectListenerException("The batch size of listener " + listener.getClass().getName() + " must be greater than 0");
+      boolean queued = !l.sync() && l.queueSize() > 0;
       Map<Class<? extends Annotation>, Class<?>> allowedListeners = getAllowedMethodAnnotations(l);
+      // validate all the methods first, so that an invalid listener does not leave a queue behind
+      Map<Method, List<Class<? extends Annotation>>> listenerMethods = new LinkedHashMap<>();
       // now try all methods on the listener for anything that we like.  Note that only PUBLIC methods are scanned.
       for (Method m : listener.getClass().getMethods()) {
          // Skip bridge methods as we don't want to count them as well.
@@ -193,27 +235,36 @@ protected boolean validateAndAddListenerInvocations(Object listener, AbstractInv
                final Class<? extends Annotation> annotationClass = annotationEntry.getKey();
                if (m.isAnnotationPresent(annotationClass)) {
                   final Class<?> eventClass = annotationEntry.getValue();
-                  testListenerMethodValidity(m, eventClass, annotationClass.getName());
-
-                  if (System.getSecurityManager() == null) {
-                     m.setAccessible(true);
-                  } else {
-                     AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
-                        m.setAccessible(true);
-                        return null;
-                     });
-                  }
-
-                  builder.setMethod(m);
-                  builder.setAnnotation(annotationClass);
-                  L invocation = builder.build();
-                  getListenerCollectionForAnnotation(annotationClass).add(invocation);
-                  foundMethods = true;
+                  testListenerMethodValidity(m, eventClass, annotationClass.getName(), queued);
+                  listenerMethods.computeIfAbsent(m, k -> new ArrayList<>()).add(annotationClass);
                }
             }
          }
       }
 
+      builder.setDeliveryQueue(queued && !listenerMethods.isEmpty() ? deliveryQueues.computeIfAbsent(listener,
+            k -> new ListenerDeliveryQueue(k.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(k)),
+                  l.queueSize(), l.overflow(), l.batchSize(), asyncProcessor)) : null);
+      for (Map.Entry<Method, List<Class<? extends Annotation>>> methodEntry : listenerMethods.entrySet()) {
+         Method m = methodEntry.getKey();
+         if (System.getSecurityManager() == null) {
+            m.setAccessible(true);
+         } else {
+            AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+               m.setAccessible(true);
+               return null;
+            });
+         }
+
+         for (Class<? extends Annotation> annotationClass : methodEntry.getValue()) {
+            builder.setMethod(m);
+            builder.setAnnotation(annotationClass);
+            L invocation = builder.build();
+            getListenerCollectionForAnnotation(annotationClass).add(invocation);
+            foundMethods = true;
+         }
+      }
+
       if (!foundMethods)
          getLog().noAnnotateMethodsFoundInListener(listener.getClass());
       return foundMethods;
@@ -233,12 +284,25 @@ protected static Listener testListenerClassValidity(Class<?> listenerClass) {
    }
 
    protected static void testListenerMethodValidity(Method m, Class<?> allowedParameter, String annotationName) {
-      if (m.getParameterTypes().length != 1 || !m.getParameterTypes()[0].isAssignableFrom(allowedParameter))
+      testListenerMethodValidity(m, allowedParameter, annotationName, false);
+   }
+
+   /**
+    * Same as {@link #testListenerMethodValidity(Method, Class, String)}, but methods of asynchronous listeners may
+    * also receive batches of events.
+    */
+   protected static void testListenerMethodValidity(Method m, Class<?> allowedParameter, String annotationName, boolean allowBatch) {
+      if (m.getParameterTypes().length != 1 || !(m.getParameterTypes()[0].isAssignableFrom(allowedParameter) ||
+            allowBatch && isBatchParameter(m.getParameterTypes()[0])))
          throw new IncorrectListenerException("Methods annotated with " + annotationName + " must accept exactly one parameter, of assignable from type " + allowedParameter.getName());
       if (!m.getReturnType().equals(void.class))
          throw new IncorrectListenerException("Methods annotated with " + annotationName + " should have a return type of void.");
    }
 
+   private static boolean isBatchParameter(Class<?> parameterType) {
+      return parameterType != Object.class && parameterType.isAssignableFrom(List.class);
+   }
+
    protected abstract Transaction suspendIfNeeded();
 
    protected abstract void resumeIfNeeded(Transaction transaction);
@@ -247,79 +311,92 @@ protected static void testListenerMethodValidity(Method m, Class<?> allowedParam
     * Class that encapsulates a valid invocation for a given registered listener - containing a reference to the method
     * to be invoked as well as the target object.
     */
-   protected class ListenerInvocationImpl<A> implements ListenerInvocation<A> {
+   protected class ListenerInvocationImpl<A> implements ListenerInvocation<A>, ListenerDeliveryQueue.Delivery {
       public final Object target;
       public final Method method;
       public final boolean sync;
       public final WeakReference<ClassLoader> classLoader;
       public final Subject subject;
+      private final ListenerDeliveryQueue deliveryQueue;
+      private final boolean batching;
 
       public ListenerInvocationImpl(Object target, Method method, boolean sync, ClassLoader classLoader, Subject subject) {
+         this(target, method, sync, classLoader, subject, null);
+      }
+
+      public ListenerInvocationImpl(Object target, Method method, boolean sync, ClassLoader classLoader, Subject subject,
+                                    ListenerDeliveryQueue deliveryQueue) {
          this.target = target;
          this.method = method;
          this.sync = sync;
          this.classLoader = new WeakReference<ClassLoader>(classLoader);
          this.subject = subject;
+         this.deliveryQueue = deliveryQueue;
+         this.batching = deliveryQueue != null && isBatchParameter(method.getParameterTypes()[0]);
       }
 
       @Override
       public void invoke(final A event) {
-         Runnable r = new Runnable() {
-
-            @Override
-            public void run() {
-               ClassLoader contextClassLoader = null;
-               Transaction transaction = suspendIfNeeded();
-               if (classLoader.get() != null) {
-                  contextClassLoader = SecurityActions.setContextClassLoader(classLoader.get());
-               }
+         if (sync)
+            syncProcessor.execute(() -> deliver(event));
+         else if (deliveryQueue != null)
+            deliveryQueue.offer(this, event);
+         else
+            asyncProcessor.execute(() -> deliver(event));
+      }
+
+      @Override
+      public boolean isBatching() {
+         return batching;
+      }
+
+      @Override
+      public void deliver(Object eventOrEvents) {
+         ClassLoader contextClassLoader = null;
+         Transaction transaction = suspendIfNeeded();
+         if (classLoader.get() != null) {
+            contextClassLoader = SecurityActions.setContextClassLoader(classLoader.get());
+         }
+         try {
+            if (subject != null) {
                try {
-                  if (subject != null) {
-                     try {
-                        Security.doAs(subject, new PrivilegedExceptionAction<Void>() {
-                           @Override
-                           public Void run() throws Exception {
-                              method.invoke(target, event);
-                              return null;
-                           }
-                        });
-                     } catch (PrivilegedActionException e) {
-                        Throwable cause = e.getCause();
-                        if (cause instanceof InvocationTargetException) {
-                           throw (InvocationTargetException)cause;
-                        } else if (cause instanceof IllegalAccessException) {
-                           throw (IllegalAccessException)cause;
-                        } else {
-                           throw new InvocationTargetException(cause);
-                        }
+                  Security.doAs(subject, new PrivilegedExceptionAction<Void>() {
+                     @Override
+                     public Void run() throws Exception {
+                        method.invoke(target, eventOrEvents);
+                        return null;
                      }
+                  });
+               } catch (PrivilegedActionException e) {
+                  Throwable cause = e.getCause();
+                  if (cause instanceof InvocationTargetException) {
+                     throw (InvocationTargetException)cause;
+                  } else if (cause instanceof IllegalAccessException) {
+                     throw (IllegalAccessException)cause;
                   } else {
-                     method.invoke(target, event);
-                  }
-               } catch (InvocationTargetException exception) {
-                  Throwable cause = getRealException(exception);
-                  if (sync) {
-                     throw getLog().exceptionInvokingListener(
-                           cause.getClass().getName(), method, target, cause);
-                  } else {
-                     getLog().unableToInvokeListenerMethod(method, target, cause);
-                  }
-               } catch (IllegalAccessException exception) {
-                  getLog().unableToInvokeListenerMethodAndRemoveListener(method, target, exception);
-                  removeListener(target);
-               } finally {
-                  if (classLoader.get() != null) {
-                     SecurityActions.setContextClassLoader(contextClassLoader);
+                     throw new InvocationTargetException(cause);
                   }
-                  resumeIfNeeded(transaction);
                }
+            } else {
+               method.invoke(target, eventOrEvents);
             }
-         };
-
-         if (sync)
-            syncProcessor.execute(r);
-         else
-            asyncProcessor.execute(r);
+         } catch (InvocationTargetException exception) {
+            Throwable cause = getRealException(exception);
+            if (sync) {
+               throw getLog().exceptionInvokingListener(
+                     cause.getClass().getName(), method, target, cause);
+            } else {
+               getLog().unableToInvokeListenerMethod(method, target, cause);
+            }
+         } catch (IllegalAccessException exception) {
+            getLog().unableToInvokeListenerMethodAndRemoveListener(method, target, exception);
+            removeListener(target);
+         } finally {
+            if (classLoader.get() != null) {
+               SecurityActions.setContextClassLoader(contextClassLoader);
+            }
+            resumeIfNeeded(transaction);
+         }
       }
 
       @Override
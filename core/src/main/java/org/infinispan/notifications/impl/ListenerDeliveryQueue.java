@@ -0,0 +1,320 @@
+package org.infinispan.notifications.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.infinispan.notifications.Listener;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Bounded ring buffer holding the events of an asynchronous listener until they are delivered.
+ * <p>
+ * The events are delivered in the order they were queued, by at most one notification thread at a time: a drain task
+ * is submitted to the notification executor when the first event is queued and runs until the queue is empty. To be
+ * fair with the other listeners sharing the executor, the task re-submits itself after
+ * {@link #MAX_EVENTS_PER_RUN} events.
+ *
+ * @since 9.0
+ */
+public final class ListenerDeliveryQueue {
+   private static final Log log = LogFactory.getLog(ListenerDeliveryQueue.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   static final int MAX_EVENTS_PER_RUN = 1024;
+
+   /**
+    * Set while the current thread delivers events, a thread which may have to drain a queue must never wait for it.
+    */
+   private static final ThreadLocal<Boolean> delivering = new ThreadLocal<>();
+
+   /**
+    * The invocation of a listener method for one event, or for a list of events when it is batching.
+    */
+   interface Delivery {
+      boolean isBatching();
+
+      void deliver(Object eventOrEvents);
+   }
+
+   private final String name;
+   private final int capacity;
+   private final Listener.Overflow overflow;
+   private final int batchSize;
+   private final Executor executor;
+   private final Runnable drainTask = this::drain;
+
+   private final ReentrantLock lock = new ReentrantLock();
+   private final Condition notFull = lock.newCondition();
+   // The ring buffer, only exceeds the capacity when a notification thread can't wait for room
+   private Delivery[] deliveries;
+   private Object[] events;
+   private long[] timestamps;
+   private int head;
+   private int size;
+   private boolean scheduled;
+   private boolean stopped;
+   private boolean discarding;
+   private long discarded;
+
+   // Only written by the delivering thread
+   private volatile long delivered;
+   private volatile long lastLag;
+   private volatile long maxLag;
+
+   public ListenerDeliveryQueue(String name, int capacity, Listener.Overflow overflow, int batchSize,
+                                Executor executor) {
+      if (capacity < 1)
+         throw new IllegalArgumentException("The queue size of listener " + name + " must be greater than 0");
+      this.name = name;
+      this.capacity = capacity;
+      this.overflow = overflow;
+      this.batchSize = Math.max(1, batchSize);
+      this.executor = executor;
+      int initialCapacity = Math.min(capacity, 16);
+      this.deliveries = new Delivery[initialCapacity];
+      this.events = new Object[initialCapacity];
+      this.timestamps = new long[initialCapacity];
+   }
+
+   /**
+    * Queues an event for the given delivery, applying the overflow policy if the queue is full.
+    */
+   void offer(Delivery delivery, Object event) {
+      boolean schedule = false;
+      lock.lock();
+      try {
+         while (size >= capacity && !stopped) {
+            if (overflow == Listener.Overflow.DISCARD_NEWEST) {
+               discard();
+               return;
+            } else if (overflow == Listener.Overflow.DISCARD_OLDEST) {
+               discard();
+               removeHead();
+            } else if (delivering.get() != null) {
+               break;
+            } else {
+               try {
+                  notFull.await();
+               } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  discard();
+                  return;
+               }
+            }
+         }
+         if (stopped) {
+            return;
+         }
+         if (size == deliveries.length) {
+            grow();
+         }
+         int tail = index(size);
+         deliveries[tail] = delivery;
+         events[tail] = event;
+         timestamps[tail] = System.nanoTime();
+         size++;
+         if (size < capacity) {
+            discarding = false;
+         }
+         if (!scheduled) {
+            scheduled = schedule = true;
+         }
+      } finally {
+         lock.unlock();
+      }
+      if (schedule) {
+         submit();
+      }
+   }
+
+   /**
+    * Discards the queued events and stops accepting new ones.
+    */
+   void stop() {
+      lock.lock();
+      try {
+         stopped = true;
+         clear();
+         notFull.signalAll();
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   public String getName() {
+      return name;
+   }
+
+   public int getQueueDepth() {
+      lock.lock();
+      try {
+         return size;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   public long getDiscardedEvents() {
+      lock.lock();
+      try {
+         return discarded;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   public long getDeliveredEvents() {
+      return delivered;
+   }
+
+   /**
+    * @return the time, in milliseconds, the last delivered event spent in the queue
+    */
+   public long getLastDeliveryLag() {
+      return TimeUnit.NANOSECONDS.toMillis(lastLag);
+   }
+
+   /**
+    * @return the longest time, in milliseconds, an event spent in the queue
+    */
+   public long getMaxDeliveryLag() {
+      return TimeUnit.NANOSECONDS.toMillis(maxLag);
+   }
+
+   private void submit() {
+      try {
+         executor.execute(drainTask);
+      } catch (RejectedExecutionException e) {
+         log.unexpectedErrorInAsyncProcessor(e);
+         lock.lock();
+         try {
+            clear();
+            scheduled = false;
+            notFull.signalAll();
+         } finally {
+            lock.unlock();
+         }
+      }
+   }
+
+   private void drain() {
+      Boolean wasDelivering = delivering.get();
+      delivering.set(Boolean.TRUE);
+      try {
+         int count = 0;
+         while (true) {
+            Delivery delivery;
+            Object eventOrEvents;
+            long timestamp;
+            int taken;
+            lock.lock();
+            try {
+               if (size == 0 || stopped) {
+                  scheduled = false;
+                  return;
+               }
+               if (count >= MAX_EVENTS_PER_RUN) {
+                  // Still scheduled, let the tasks of the other listeners run first
+                  break;
+               }
+               delivery = deliveries[head];
+               timestamp = timestamps[head];
+               if (delivery.isBatching()) {
+                  List<Object> batch = new ArrayList<>(Math.min(batchSize, size));
+                  do {
+                     batch.add(events[head]);
+                     removeHead();
+                  } while (size > 0 && batch.size() < batchSize && deliveries[head] == delivery);
+                  eventOrEvents = batch;
+                  taken = batch.size();
+               } else {
+                  eventOrEvents = events[head];
+                  removeHead();
+                  taken = 1;
+               }
+               notFull.signalAll();
+            } finally {
+               lock.unlock();
+            }
+            long lag = System.nanoTime() - timestamp;
+            lastLag = lag;
+            if (lag > maxLag) {
+               maxLag = lag;
+            }
+            try {
+               delivery.deliver(eventOrEvents);
+            } catch (Throwable t) {
+               log.unexpectedErrorInAsyncProcessor(t);
+            }
+            delivered += taken;
+            count += taken;
+         }
+      } finally {
+         delivering.set(wasDelivering);
+      }
+      submit();
+   }
+
+   private void discard() {
+      discarded++;
+      if (!discarding) {
+         discarding = true;
+         log.listenerQueueFull(name, overflow);
+      } else if (trace) {
+         log.tracef("Discarding event of listener %s", name);
+      }
+   }
+
+   private int index(int offset) {
+      int i = head + offset;
+      return i < deliveries.length ? i : i - deliveries.length;
+   }
+
+   private void removeHead() {
+      deliveries[head] = null;
+      events[head] = null;
+      head = index(1);
+      size--;
+   }
+
+   private void clear() {
+      while (size > 0) {
+         removeHead();
+      }
+      head = 0;
+   }
+
+   private void grow() {
+      int length = deliveries.length;
+      int newLength = size < capacity ? Math.min(capacity, length << 1) : length << 1;
+      Delivery[] newDeliveries = new Delivery[newLength];
+      Object[] newEvents = new Object[newLength];
+      long[] newTimestamps = new long[newLength];
+      for (int i = 0; i < size; i++) {
+         int j = index(i);
+         newDeliveries[i] = deliveries[j];
+         newEvents[i] = events[j];
+         newTimestamps[i] = timestamps[j];
+      }
+      deliveries = newDeliveries;
+      events = newEvents;
+      timestamps = newTimestamps;
+      head = 0;
+   }
+
+   @Override
+   public String toString() {
+      return "ListenerDeliveryQueue{" +
+            "name='" + name + '\'' +
+            ", capacity=" + capacity +
+            ", overflow=" + overflow +
+            ", batchSize=" + batchSize +
+            '}';
+   }
+}
@@ -1,16 +1,22 @@
 package org.infinispan.persistence;
 
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.entries.InternalCacheValue;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.InternalMetadata;
@@ -18,6 +24,7 @@
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.SegmentedAdvancedCacheLoader;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
@@ -36,6 +43,38 @@ public static KeyFilter notNull(KeyFilter filter) {
       return filter == null ? KeyFilter.ACCEPT_ALL_FILTER : filter;
    }
 
+   /**
+    * @return a filter accepting the keys mapped to one of the given segments and accepted by the given filter.
+    */
+   public static <K> KeyFilter<K> segmentFilter(KeyFilter<? super K> filter, Set<Integer> segments,
+                                                KeyPartitioner keyPartitioner) {
+      BitSet bitSet = new BitSet();
+      segments.forEach(bitSet::set);
+      if (filter == null) {
+         return key -> bitSet.get(keyPartitioner.getSegment(key));
+      }
+      return key -> bitSet.get(keyPartitioner.getSegment(key)) && filter.accept(key);
+   }
+
+   /**
+    * Iterates over the entries of the given segments. A {@link SegmentedAdvancedCacheLoader} skips the other segments
+    * up front, any other loader reads all the keys and the ones of the other segments are filtered out.
+    *
+    * @param segments       the segments to process, or {@code null} to process all the entries
+    * @param keyPartitioner maps the keys to segments, or {@code null} if the cache is not segmented
+    */
+   public static <K, V> void process(AdvancedCacheLoader<K, V> acl, Set<Integer> segments, KeyPartitioner keyPartitioner,
+                                     KeyFilter<? super K> filter, AdvancedCacheLoader.CacheLoaderTask<K, V> task,
+                                     Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      if (segments == null || keyPartitioner == null) {
+         acl.process(filter, task, executor, fetchValue, fetchMetadata);
+      } else if (acl instanceof SegmentedAdvancedCacheLoader) {
+         ((SegmentedAdvancedCacheLoader<K, V>) acl).process(segments, filter, task, executor, fetchValue, fetchMetadata);
+      } else {
+         acl.process(segmentFilter(filter, segments, keyPartitioner), task, executor, fetchValue, fetchMetadata);
+      }
+   }
+
    public static <K, V> int count(AdvancedCacheLoader<K, V> acl, KeyFilter<? super K> filter) {
       final AtomicInteger result = new AtomicInteger(0);
       acl.process(filter, new AdvancedCacheLoader.CacheLoaderTask<K, V>() {
@@ -88,6 +127,43 @@ public static InternalMetadata internalMetadata(InternalCacheValue icv) {
    public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataContainer<K, V> dataContainer, final PersistenceManager persistenceManager,
                                                          K key, final InvocationContext ctx, final TimeService timeService,
                                                          final AtomicReference<Boolean> isLoaded) {
+      return computeLoaded(dataContainer, key, k -> loadAndCheckExpiration(persistenceManager, k, ctx, timeService),
+                           timeService, isLoaded);
+   }
+
+   public static MarshalledEntry loadAndCheckExpiration(PersistenceManager persistenceManager, Object key,
+                                                        InvocationContext context, TimeService timeService) {
+      final MarshalledEntry loaded = persistenceManager.loadFromAllStores(key, context);
+      if (trace) {
+         log.tracef("Loaded %s for key %s from persistence.", loaded, key);
+      }
+      if (loaded == null) {
+         return null;
+      }
+      InternalMetadata metadata = loaded.getMetadata();
+      if (metadata != null && metadata.isExpired(timeService.wallClockTime())) {
+         return null;
+      }
+      return loaded;
+   }
+
+   /**
+    * Stores an entry loaded by {@link #loadAndCheckExpiration(PersistenceManager, Collection, InvocationContext,
+    * TimeService)} in the data container, like {@link #loadAndStoreInDataContainer(DataContainer, PersistenceManager,
+    * Object, InvocationContext, TimeService, AtomicReference)} does. If the entry wasn't found, {@code loaded} is
+    * {@code null} and an expired entry for the key is removed from the data container.
+    */
+   public static <K, V> InternalCacheEntry<K, V> storeInDataContainer(DataContainer<K, V> dataContainer, K key,
+                                                                      MarshalledEntry<K, V> loaded,
+                                                                      TimeService timeService,
+                                                                      AtomicReference<Boolean> isLoaded) {
+      return computeLoaded(dataContainer, key, k -> loaded, timeService, isLoaded);
+   }
+
+   private static <K, V> InternalCacheEntry<K, V> computeLoaded(DataContainer<K, V> dataContainer, K key,
+                                                                Function<K, MarshalledEntry> loader,
+                                                                TimeService timeService,
+                                                                AtomicReference<Boolean> isLoaded) {
       return dataContainer.compute(key, (k, oldEntry, factory) -> {
          //under the lock, check if the entry exists in the DataContainer
          if (oldEntry != null && (!oldEntry.canExpire() || !oldEntry.isExpired(timeService.wallClockTime()))) {
@@ -95,7 +171,7 @@ public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataCon
             return oldEntry; //no changes in container
          }
 
-         MarshalledEntry loaded = loadAndCheckExpiration(persistenceManager, k, ctx, timeService);
+         MarshalledEntry loaded = loader.apply(k);
          if (loaded == null) {
             isLoaded.set(Boolean.FALSE); //not loaded
             return null; //no changed in container
@@ -108,19 +184,15 @@ public static <K, V> InternalCacheEntry<K,V> loadAndStoreInDataContainer(DataCon
       });
    }
 
-   public static MarshalledEntry loadAndCheckExpiration(PersistenceManager persistenceManager, Object key,
-                                                        InvocationContext context, TimeService timeService) {
-      final MarshalledEntry loaded = persistenceManager.loadFromAllStores(key, context);
+   public static Map<Object, MarshalledEntry> loadAndCheckExpiration(PersistenceManager persistenceManager,
+                                                                    Collection<?> keys, InvocationContext context,
+                                                                    TimeService timeService) {
+      Map<Object, MarshalledEntry> loaded = persistenceManager.loadAllFromAllStores(keys, context);
       if (trace) {
-         log.tracef("Loaded %s for key %s from persistence.", loaded, key);
-      }
-      if (loaded == null) {
-         return null;
-      }
-      InternalMetadata metadata = loaded.getMetadata();
-      if (metadata != null && metadata.isExpired(timeService.wallClockTime())) {
-         return null;
+         log.tracef("Loaded %s entries for %s keys from persistence.", loaded.size(), keys.size());
       }
+      long now = timeService.wallClockTime();
+      loaded.values().removeIf(entry -> entry.getMetadata() != null && entry.getMetadata().isExpired(now));
       return loaded;
    }
 
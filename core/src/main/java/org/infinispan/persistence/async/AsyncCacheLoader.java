@@ -1,5 +1,9 @@
 package org.infinispan.persistence.async;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -45,6 +49,25 @@ public MarshalledEntry load(Object key) {
       return super.load(key);
    }
 
+   @Override
+   public Map<Object, MarshalledEntry> loadAll(Set keys) {
+      State current = state.get();
+      Map<Object, MarshalledEntry> entries = new HashMap<>();
+      Set<Object> notModified = new HashSet<>();
+      for (Object key : (Set<Object>) keys) {
+         Modification mod = current.get(key);
+         if (mod == null) {
+            notModified.add(key);
+         } else if (mod.getType() == Modification.Type.STORE) {
+            entries.put(key, ((Store) mod).getStoredValue());
+         }
+      }
+      if (!notModified.isEmpty()) {
+         entries.putAll(super.loadAll(notModified));
+      }
+      return entries;
+   }
+
 
    @Override
    public boolean contains(Object key) {
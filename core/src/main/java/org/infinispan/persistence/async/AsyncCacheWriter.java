@@ -151,19 +151,47 @@ public boolean delete(Object key) {
       return true;
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      List<Modification> mods = new ArrayList<>();
+      for (Object entry : entries) {
+         MarshalledEntry me = (MarshalledEntry) entry;
+         mods.add(new Store(me.getKey(), me));
+      }
+      putAll(mods);
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      List<Modification> mods = new ArrayList<>();
+      for (Object key : keys) {
+         mods.add(new Remove(key));
+      }
+      putAll(mods);
+   }
+
    protected void applyModificationsSync(List<Modification> mods) throws PersistenceException {
+      // Coalesced modifications are handed to the delegate as two batches, so that stores which can group
+      // several writes into a single round trip get the opportunity to do so
+      List<MarshalledEntry> toWrite = new ArrayList<>(mods.size());
+      List<Object> toDelete = new ArrayList<>();
       for (Modification m : mods) {
          switch (m.getType()) {
             case STORE:
-               actual.write(((Store) m).getStoredValue());
+               toWrite.add(((Store) m).getStoredValue());
                break;
             case REMOVE:
-               actual.delete(((Remove) m).getKey());
+               toDelete.add(((Remove) m).getKey());
                break;
             default:
                throw new IllegalArgumentException("Unknown modification type " + m.getType());
          }
       }
+      // The modifications were coalesced by key, so the relative order of writes and deletes does not matter
+      if (!toWrite.isEmpty())
+         actual.writeBatch(toWrite);
+      if (!toDelete.isEmpty())
+         actual.deleteBatch(toDelete);
    }
 
 
@@ -190,6 +218,24 @@ private void put(Modification mod, int count) {
       }
    }
 
+   private void putAll(List<Modification> mods) {
+      if (mods.isEmpty())
+         return;
+      stateLock.writeLock(mods.size());
+      try {
+         if (trace)
+            log.tracef("Queue %d modifications", mods.size());
+
+         assertNotStopped();
+         State s = state.get();
+         for (Modification mod : mods) {
+            s.put(mod);
+         }
+      } finally {
+         stateLock.writeUnlock();
+      }
+   }
+
    public AtomicReference<State> getState() {
       return state;
    }
@@ -9,9 +9,11 @@
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
@@ -25,7 +27,9 @@
 import org.infinispan.commons.equivalence.EquivalentLinkedHashMap;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.configuration.cache.HashConfiguration;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
@@ -34,6 +38,8 @@
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedCacheLoader;
+import org.infinispan.persistence.spi.SegmentedAdvancedCacheWriter;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
@@ -60,6 +66,13 @@
  * data loss, and data can be recomputed or re-queried from the original data
  * source.
  * <p/>
+ * When {@link SingleFileStoreConfiguration#segmented()} is enabled, the store keeps one file and one index per cache
+ * segment instead, in <tt>&lt;location&gt;/&lt;cache name&gt;/&lt;segment&gt;.dat</tt>, and uses the cache's
+ * {@link KeyPartitioner} to map keys to files. Writes, deletes and compaction of different segments then never
+ * contend with each other, all the entries of a segment can be dropped at once with {@link #clear(Set)} and
+ * iterating over some segments only reads their files.
+ * The maximum number of entries, if configured, is split evenly between the segments.
+ * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
  * of individual cache entries.
  *
@@ -68,7 +81,8 @@
  * @since 6.0
  */
 @ConfiguredBy(SingleFileStoreConfiguration.class)
-public class SingleFileStore<K, V> implements AdvancedLoadWriteStore<K, V> {
+public class SingleFileStore<K, V> implements AdvancedLoadWriteStore<K, V>, SegmentedAdvancedCacheLoader<K, V>,
+      SegmentedAdvancedCacheWriter<K, V> {
    private static final Log log = LogFactory.getLog(SingleFileStore.class);
    private static final boolean trace = log.isTraceEnabled();
 
@@ -77,19 +91,17 @@
    private static final int KEYLEN_POS = 4;
    private static final int KEY_POS = 4 + 4 + 4 + 4 + 8;
    private static final int SMALLEST_ENTRY_SIZE = 128;
+   private static final int MAX_BATCH_WRITE_SIZE = 4 * 1024 * 1024;
 
    private SingleFileStoreConfiguration configuration;
 
    protected InitializationContext ctx;
 
-   private FileChannel channel;
-   private Map<K, FileEntry> entries;
-   private SortedSet<FileEntry> freeList;
-   private long filePos = MAGIC.length;
-   private File file;
+   // A single segment, unless the store is segmented
+   private List<FileSegment> segments;
+   private KeyPartitioner keyPartitioner;
+   private int maxEntriesPerSegment;
    private float fragmentationFactor = .75f;
-   // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
-   private ReadWriteLock resizeLock = new ReentrantReadWriteLock();
    private TimeService timeService;
 
    @Override
@@ -102,35 +114,32 @@ public void init(InitializationContext ctx) {
    @Override
    public void start() {
       try {
-         // open the data file
+         // Initialize the fragmentation factor
+         fragmentationFactor = configuration.fragmentationFactor();
+
          String location = configuration.location();
          if (location == null || location.trim().length() == 0)
             location = "Infinispan-SingleFileStore";
 
-         file = new File(location, ctx.getCache().getName() + ".dat");
-         if (!file.exists()) {
-            File dir = file.getParentFile();
-            if (!dir.mkdirs() && !dir.exists()) {
-               throw log.directoryCannotBeCreated(dir.getAbsolutePath());
+         String cacheName = ctx.getCache().getName();
+         if (configuration.segmented()) {
+            keyPartitioner = resolveKeyPartitioner();
+            File dir = new File(location, cacheName);
+            int numSegments = ctx.getCache().getCacheConfiguration().clustering().hash().numSegments();
+            segments = new ArrayList<>(numSegments);
+            for (int i = 0; i < numSegments; i++) {
+               segments.add(new FileSegment(new File(dir, i + ".dat")));
             }
+         } else {
+            segments = Collections.singletonList(new FileSegment(new File(location, cacheName + ".dat")));
          }
-         channel = new RandomAccessFile(file, "rw").getChannel();
 
-         // initialize data structures
-         entries = newEntryMap();
-         freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
+         int maxEntries = configuration.maxEntries();
+         maxEntriesPerSegment = maxEntries > 0 ? Math.max(1, (maxEntries + segments.size() - 1) / segments.size()) : -1;
 
-         // check file format and read persistent state if enabled for the cache
-         byte[] header = new byte[MAGIC.length];
-         if (channel.read(ByteBuffer.wrap(header), 0) == MAGIC.length && Arrays.equals(MAGIC, header)) {
-            rebuildIndex();
-            processFreeEntries();
+         for (FileSegment segment : segments) {
+            segment.open();
          }
-         else
-            clear(); // otherwise (unknown file format or no preload) just reset the file
-
-         // Initialize the fragmentation factor
-         fragmentationFactor = configuration.fragmentationFactor();
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
@@ -153,569 +162,901 @@ private <Key> Map<Key, FileEntry> newEntryMap() {
    @Override
    public void stop() {
       try {
-         if (channel != null) {
-            log.tracef("Stopping store %s, size = %d, file size = %d", ctx.getCache().getName(), entries.size(), channel.size());
-
-            // reset state
-            channel.close();
-            channel = null;
-            entries = null;
-            freeList = null;
-            filePos = MAGIC.length;
+         if (segments != null) {
+            for (FileSegment segment : segments) {
+               segment.close();
+            }
+            segments = null;
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
       }
    }
 
+   private FileSegment segmentFor(Object key) {
+      return segments.size() == 1 ? segments.get(0) : segments.get(keyPartitioner.getSegment(key));
+   }
+
    /**
-    * Rebuilds the in-memory index from file.
+    * The base class implementation calls {@link #load(Object)} for this, we can do better because
+    * we keep all keys in memory.
     */
-   private void rebuildIndex() throws Exception {
-      ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
-      for (; ; ) {
-         // read FileEntry fields from file (size, keyLen etc.)
-         buf.clear().limit(KEY_POS);
-         channel.read(buf, filePos);
-         // return if end of file is reached
-         if (buf.remaining() > 0)
-            return;
-         buf.flip();
+   @Override
+   public boolean contains(Object key) {
+      return segmentFor(key).contains(key);
+   }
+
+   @Override
+   public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
+      segmentFor(marshalledEntry.getKey()).write(marshalledEntry);
+   }
 
-         // initialize FileEntry from buffer
-         int entrySize = buf.getInt();
-         int keyLen = buf.getInt();
-         int dataLen = buf.getInt();
-         int metadataLen = buf.getInt();
-         long expiryTime = buf.getLong();
-         FileEntry fe = new FileEntry(filePos, entrySize, keyLen, dataLen, metadataLen, expiryTime);
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marshalledEntries) {
+      if (segments.size() == 1) {
+         segments.get(0).writeBatch(marshalledEntries);
+         return;
+      }
+      Map<FileSegment, List<MarshalledEntry<? extends K, ? extends V>>> bySegment = new HashMap<>();
+      for (MarshalledEntry<? extends K, ? extends V> marshalledEntry : marshalledEntries) {
+         bySegment.computeIfAbsent(segmentFor(marshalledEntry.getKey()), s -> new ArrayList<>()).add(marshalledEntry);
+      }
+      bySegment.forEach(FileSegment::writeBatch);
+   }
 
-         // sanity check
-         if (fe.size < KEY_POS + fe.keyLen + fe.dataLen + fe.metadataLen) {
-            throw log.errorReadingFileStore(file.getPath(), filePos);
-         }
+   @Override
+   public void clear() {
+      for (FileSegment segment : segments) {
+         segment.clear();
+      }
+   }
 
-         // update file pointer
-         filePos += fe.size;
+   @Override
+   public boolean delete(Object key) {
+      return segmentFor(key).delete(key);
+   }
 
-         // check if the entry is used or free
-         if (fe.keyLen > 0) {
-            // load the key from file
-            if (buf.capacity() < fe.keyLen)
-               buf = ByteBuffer.allocate(fe.keyLen);
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      if (segments.size() == 1) {
+         segments.get(0).deleteBatch(keys);
+         return;
+      }
+      Map<FileSegment, List<Object>> bySegment = new HashMap<>();
+      for (Object key : keys) {
+         bySegment.computeIfAbsent(segmentFor(key), s -> new ArrayList<>()).add(key);
+      }
+      bySegment.forEach(FileSegment::deleteBatch);
+   }
 
-            buf.clear().limit(fe.keyLen);
-            channel.read(buf, fe.offset + KEY_POS);
+   @Override
+   public MarshalledEntry<K, V> load(Object key) {
+      return segmentFor(key)._load(key, true, true);
+   }
 
-            // deserialize key and add to entries map
-            // Marshaller should allow for provided type return for safety
-            K key = (K) ctx.getMarshaller().objectFromByteBuffer(buf.array(), 0, fe.keyLen);
-            entries.put(key, fe);
-         } else {
-            // add to free list
-            freeList.add(fe);
+   @Override
+   public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
+      filter = PersistenceUtil.notNull(filter);
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      final TaskContextImpl taskContext = new TaskContextImpl();
+      for (FileSegment segment : segments) {
+         if (taskContext.isStopped())
+            break;
+
+         for (K key : segment.keysByOffset(filter)) {
+            if (taskContext.isStopped())
+               break;
+
+            eacs.submit(new Callable<Void>() {
+               @Override
+               public Void call() throws Exception {
+                  try {
+                     final MarshalledEntry marshalledEntry = segment._load(key, fetchValue, fetchMetadata);
+                     if (marshalledEntry != null) {
+                        task.processEntry(marshalledEntry, taskContext);
+                     }
+                     return null;
+                  } catch (Exception e) {
+                     log.errorExecutingParallelStoreTask(e);
+                     throw e;
+                  }
+               }
+            });
          }
       }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", eacs.getFirstException());
+      }
    }
 
    /**
-    * The base class implementation calls {@link #load(Object)} for this, we can do better because
-    * we keep all keys in memory.
+    * In segmented mode only the files of the requested segments are read, each of them sequentially by a separate task
+    * on the supplied executor. Otherwise the keys of the other segments are filtered out before reading their entries.
     */
    @Override
-   public boolean contains(Object key) {
-      FileEntry entry = entries.get(key);
-      return entry != null && !entry.isExpired(timeService.wallClockTime());
+   public void process(Set<Integer> segmentIds, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task,
+                       Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      if (segmentIds == null) {
+         process(filter, task, executor, fetchValue, fetchMetadata);
+         return;
+      }
+      if (!isSegmented()) {
+         KeyPartitioner partitioner = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
+         process(partitioner == null ? filter : PersistenceUtil.segmentFilter(filter, segmentIds, partitioner), task,
+               executor, fetchValue, fetchMetadata);
+         return;
+      }
+      KeyFilter<? super K> notNullFilter = PersistenceUtil.notNull(filter);
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      TaskContextImpl taskContext = new TaskContextImpl();
+      for (int segmentId : segmentIds) {
+         if (segmentId < 0 || segmentId >= segments.size())
+            continue;
+
+         FileSegment segment = segments.get(segmentId);
+         eacs.submit(() -> {
+            try {
+               for (K key : segment.keysByOffset(notNullFilter)) {
+                  if (taskContext.isStopped())
+                     break;
+
+                  MarshalledEntry marshalledEntry = segment._load(key, fetchValue, fetchMetadata);
+                  if (marshalledEntry != null) {
+                     task.processEntry(marshalledEntry, taskContext);
+                  }
+               }
+               return null;
+            } catch (Exception e) {
+               log.errorExecutingParallelStoreTask(e);
+               throw e;
+            }
+         });
+      }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", eacs.getFirstException());
+      }
    }
 
    /**
-    * Allocates the requested space in the file.
-    *
-    * @param len requested space
-    * @return allocated file position and length as FileEntry object
+    * Removes expired entries and compacts the file. In segmented mode every segment is purged and compacted by a
+    * separate task on the supplied executor, so the compaction of a segment only blocks the writers of that segment.
     */
-   private FileEntry allocate(int len) {
-      synchronized (freeList) {
-         // lookup a free entry of sufficient size
-         SortedSet<FileEntry> candidates = freeList.tailSet(new FileEntry(0, len));
-         for (Iterator<FileEntry> it = candidates.iterator(); it.hasNext(); ) {
-            FileEntry free = it.next();
-            // ignore entries that are still in use by concurrent readers
-            if (free.isLocked())
-               continue;
-
-            // There's no race condition risk between locking the entry on
-            // loading and checking whether it's locked (or store allocation),
-            // because for the entry to be lockable, it needs to be in the
-            // entries collection, in which case it's not in the free list.
-            // The only way an entry can be found in the free list is if it's
-            // been removed, and to remove it, lock on "entries" needs to be
-            // acquired, which is also a pre-requisite for loading data.
-
-            // found one, remove from freeList
-            it.remove();
-            return allocateExistingEntry(free, len);
-         }
-
-         // no appropriate free section available, append at end of file
-         FileEntry fe = new FileEntry(filePos, len);
-         filePos += len;
-         if (trace) log.tracef("New entry allocated at %d:%d, %d free entries, file size is %d", fe.offset, fe.size, freeList.size(), filePos);
-         return fe;
+   @Override
+   public void purge(Executor threadPool, final PurgeListener task) {
+      if (segments.size() == 1) {
+         segments.get(0).purge(task);
+         return;
+      }
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(threadPool);
+      for (FileSegment segment : segments) {
+         eacs.submit(() -> {
+            segment.purge(task);
+            return null;
+         });
+      }
+      eacs.waitUntilAllCompleted();
+      if (eacs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", eacs.getFirstException());
       }
    }
 
-   private FileEntry allocateExistingEntry(FileEntry free, int len) {
-      int remainder = free.size - len;
-      // If the entry is quite bigger than configured threshold, then split it
-      if ((remainder >= SMALLEST_ENTRY_SIZE) && (len <= (free.size * fragmentationFactor))) {
-         try {
-            // Add remainder of the space as a fileEntry
-            FileEntry newFreeEntry = new FileEntry(free.offset + len, remainder);
-            addNewFreeEntry(newFreeEntry);
-            FileEntry newEntry = new FileEntry(free.offset, len);
-            if (trace) log.tracef("Split entry at %d:%d, allocated %d:%d, free %d:%d, %d free entries",
-                  free.offset, free.size, newEntry.offset, newEntry.size, newFreeEntry.offset, newFreeEntry.size,
-                  freeList.size());
-            return newEntry;
-         } catch (IOException e) {
-            throw new PersistenceException("Cannot add new free entry", e);
-         }
+   @Override
+   public int size() {
+      int size = 0;
+      for (FileSegment segment : segments) {
+         size += segment.entries.size();
       }
-
-      if (trace) log.tracef("Existing free entry allocated at %d:%d, %d free entries", free.offset, free.size, freeList.size());
-      return free;
+      return size;
    }
 
    /**
-    * Writes a new free entry to the file and also adds it to the free list
+    * Whether each cache segment is kept in its own file.
     */
-   private void addNewFreeEntry(FileEntry fe) throws IOException {
-      ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
-      buf.putInt(fe.size);
-      buf.putInt(0);
-      buf.putInt(0);
-      buf.putInt(0);
-      buf.putLong(-1);
-      buf.flip();
-      channel.write(buf, fe.offset);
-      freeList.add(fe);
+   public boolean isSegmented() {
+      return keyPartitioner != null;
    }
 
    /**
-    * Frees the space of the specified file entry (for reuse by allocate).
-    * <p/>
-    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    * Drops all the entries of the given segments. In segmented mode their files are truncated, without reading or
+    * deserializing any of the entries; otherwise the keys of these segments are removed from the single file.
     */
-   private void free(FileEntry fe) throws IOException {
-      if (fe != null) {
-         // Invalidate entry on disk (by setting keyLen field to 0)
-         // No need to wait for readers to unlock here, the FileEntry instance is not modified,
-         // and allocate() won't return an entry as long as it has a reader.
-         channel.write(ByteBuffer.wrap(ZERO_INT), fe.offset + KEYLEN_POS);
-         if (!freeList.add(fe)) {
-            throw new IllegalStateException(String.format("Trying to free an entry that was not allocated: %s", fe));
+   @Override
+   public void clear(Set<Integer> segmentsToClear) {
+      if (isSegmented()) {
+         for (Integer segment : segmentsToClear) {
+            if (segment >= 0 && segment < segments.size())
+               segments.get(segment).clear();
+         }
+         return;
+      }
+      KeyPartitioner partitioner = resolveKeyPartitioner();
+      FileSegment segment = segments.get(0);
+      List<Object> keysToRemove = new ArrayList<>();
+      synchronized (segment.entries) {
+         for (K key : segment.entries.keySet()) {
+            if (segmentsToClear.contains(partitioner.getSegment(key)))
+               keysToRemove.add(key);
          }
-         if (trace) log.tracef("Deleted entry at %d:%d, there are now %d free entries", fe.offset, fe.size, freeList.size());
       }
+      segment.deleteBatch(keysToRemove);
    }
 
-   @Override
-   public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
-      try {
-         // serialize cache value
-         org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
-         org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
-         org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+   private KeyPartitioner resolveKeyPartitioner() {
+      KeyPartitioner partitioner = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
+      if (partitioner == null) {
+         // Local caches don't register a partitioner, but the configured one maps keys just as well
+         HashConfiguration hashConfiguration = ctx.getCache().getCacheConfiguration().clustering().hash();
+         partitioner = hashConfiguration.keyPartitioner();
+         partitioner.init(hashConfiguration);
+      }
+      return partitioner;
+   }
 
-         // allocate file entry and store in cache file
-         int metadataLength = metadata == null ? 0 : metadata.getLength();
-         int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
-         FileEntry newEntry;
-         FileEntry oldEntry = null;
-         resizeLock.readLock().lock();
-         try {
-            newEntry = allocate(len);
-            long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
-            newEntry = new FileEntry(newEntry, key.getLength(), data.getLength(), metadataLength, expiryTime);
-
-            ByteBuffer buf = ByteBuffer.allocate(len);
-            buf.putInt(newEntry.size);
-            buf.putInt(newEntry.keyLen);
-            buf.putInt(newEntry.dataLen);
-            buf.putInt(newEntry.metadataLen);
-            buf.putLong(newEntry.expiryTime);
-            buf.put(key.getBuf(), key.getOffset(), key.getLength());
-            buf.put(data.getBuf(), data.getOffset(), data.getLength());
-            if (metadata != null)
-               buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
-            buf.flip();
-            channel.write(buf, newEntry.offset);
-            if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
+   Map<K, FileEntry> getEntries() {
+      return segments.get(0).entries;
+   }
 
-            // add the new entry to in-memory index
-            oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
+   SortedSet<FileEntry> getFreeList() {
+      return segments.get(0).freeList;
+   }
 
-            // if we added an entry, check if we need to evict something
-            if (oldEntry == null)
-               oldEntry = evict();
-         } finally {
-            // in case we replaced or evicted an entry, add to freeList
-            try {
-               free(oldEntry);
-            } finally {
-               resizeLock.readLock().unlock();
-            }
-         }
-      } catch (Exception e) {
-         throw new PersistenceException(e);
-      }
+   long getFileSize() {
+      return segments.get(0).filePos;
+   }
+
+   public SingleFileStoreConfiguration getConfiguration() {
+      return configuration;
    }
 
    /**
-    * Try to evict an entry if the capacity of the cache store is reached.
-    *
-    * @return FileEntry to evict, or null (if unbounded or capacity is not yet reached)
+    * A data file with its in-memory index. A non-segmented store has a single instance, a segmented store one
+    * instance per cache segment, so that operations on different segments never contend.
     */
-   private FileEntry evict() {
-      if (configuration.maxEntries() > 0) {
-         synchronized (entries) {
-            if (entries.size() > configuration.maxEntries()) {
-               Iterator<FileEntry> it = entries.values().iterator();
-               FileEntry fe = it.next();
-               it.remove();
-               return fe;
-            }
-         }
+   private class FileSegment {
+      private final File file;
+      private FileChannel channel;
+      private Map<K, FileEntry> entries;
+      private SortedSet<FileEntry> freeList;
+      private long filePos = MAGIC.length;
+      // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
+      private final ReadWriteLock resizeLock = new ReentrantReadWriteLock();
+
+      FileSegment(File file) {
+         this.file = file;
       }
-      return null;
-   }
 
-   @Override
-   public void clear() {
-      resizeLock.writeLock().lock();
-      try {
-         synchronized (entries) {
-            synchronized (freeList) {
-               // wait until all readers are done reading file entries
-               for (FileEntry fe : entries.values())
-                  fe.waitUnlocked();
-               for (FileEntry fe : freeList)
-                  fe.waitUnlocked();
-
-               // clear in-memory state
-               entries.clear();
-               freeList.clear();
-
-               // reset file
-               if (trace) log.tracef("Truncating file, current size is %d", filePos);
-               channel.truncate(0);
-               channel.write(ByteBuffer.wrap(MAGIC), 0);
-               filePos = MAGIC.length;
+      void open() throws Exception {
+         // open the data file
+         if (!file.exists()) {
+            File dir = file.getParentFile();
+            if (!dir.mkdirs() && !dir.exists()) {
+               throw log.directoryCannotBeCreated(dir.getAbsolutePath());
             }
          }
-      } catch (Exception e) {
-         throw new PersistenceException(e);
-      } finally {
-         resizeLock.writeLock().unlock();
+         channel = new RandomAccessFile(file, "rw").getChannel();
+
+         // initialize data structures
+         entries = newEntryMap();
+         freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
+
+         // check file format and read persistent state if enabled for the cache
+         byte[] header = new byte[MAGIC.length];
+         if (channel.read(ByteBuffer.wrap(header), 0) == MAGIC.length && Arrays.equals(MAGIC, header)) {
+            rebuildIndex();
+            processFreeEntries();
+         }
+         else
+            clear(); // otherwise (unknown file format or no preload) just reset the file
       }
-   }
 
-   @Override
-   public boolean delete(Object key) {
-      resizeLock.readLock().lock();
-      try {
-         FileEntry fe = entries.remove(key);
-         free(fe);
-         return fe != null;
-      } catch (Exception e) {
-         throw new PersistenceException(e);
-      } finally {
-         resizeLock.readLock().unlock();
+      void close() throws IOException {
+         if (channel != null) {
+            log.tracef("Stopping store %s, file %s, size = %d, file size = %d", ctx.getCache().getName(), file, entries.size(), channel.size());
+
+            // reset state
+            channel.close();
+            channel = null;
+            entries = null;
+            freeList = null;
+            filePos = MAGIC.length;
+         }
       }
-   }
 
-   @Override
-   public MarshalledEntry<K, V> load(Object key) {
-      return _load(key, true, true);
-   }
+      /**
+       * Rebuilds the in-memory index from file.
+       */
+      private void rebuildIndex() throws Exception {
+         ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+         for (; ; ) {
+            // read FileEntry fields from file (size, keyLen etc.)
+            buf.clear().limit(KEY_POS);
+            channel.read(buf, filePos);
+            // return if end of file is reached
+            if (buf.remaining() > 0)
+               return;
+            buf.flip();
 
-   private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
-      final FileEntry fe;
-      resizeLock.readLock().lock();
-      try {
-         synchronized (entries) {
-            // lookup FileEntry of the key
-            fe = entries.get(key);
-            if (fe == null)
-               return null;
+            // initialize FileEntry from buffer
+            int entrySize = buf.getInt();
+            int keyLen = buf.getInt();
+            int dataLen = buf.getInt();
+            int metadataLen = buf.getInt();
+            long expiryTime = buf.getLong();
+            FileEntry fe = new FileEntry(filePos, entrySize, keyLen, dataLen, metadataLen, expiryTime);
+
+            // sanity check
+            if (fe.size < KEY_POS + fe.keyLen + fe.dataLen + fe.metadataLen) {
+               throw log.errorReadingFileStore(file.getPath(), filePos);
+            }
 
-            // Entries are removed due to expiration from {@link SingleFileStore#purge}
-            if (fe.isExpired(timeService.wallClockTime())) {
-               return null;
+            // update file pointer
+            filePos += fe.size;
+
+            // check if the entry is used or free
+            if (fe.keyLen > 0) {
+               // load the key from file
+               if (buf.capacity() < fe.keyLen)
+                  buf = ByteBuffer.allocate(fe.keyLen);
+
+               buf.clear().limit(fe.keyLen);
+               channel.read(buf, fe.offset + KEY_POS);
+
+               // deserialize key and add to entries map
+               // Marshaller should allow for provided type return for safety
+               K key = (K) ctx.getMarshaller().objectFromByteBuffer(buf.array(), 0, fe.keyLen);
+               entries.put(key, fe);
             } else {
-               // lock entry for reading before releasing entries monitor
-               fe.lock();
+               // add to free list
+               freeList.add(fe);
             }
          }
-      } finally {
-         resizeLock.readLock().unlock();
       }
 
-      org.infinispan.commons.io.ByteBuffer valueBb = null;
-      org.infinispan.commons.io.ByteBuffer metadataBb = null;
+      boolean contains(Object key) {
+         FileEntry entry = entries.get(key);
+         return entry != null && !entry.isExpired(timeService.wallClockTime());
+      }
 
-      // If we only require the key, then no need to read disk
-      if (!loadValue && !loadMetadata) {
-         try {
-            return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, valueBb, metadataBb);
-         } finally {
-            fe.unlock();
+      /**
+       * Allocates the requested space in the file.
+       *
+       * @param len requested space
+       * @return allocated file position and length as FileEntry object
+       */
+      private FileEntry allocate(int len) {
+         synchronized (freeList) {
+            // lookup a free entry of sufficient size
+            SortedSet<FileEntry> candidates = freeList.tailSet(new FileEntry(0, len));
+            for (Iterator<FileEntry> it = candidates.iterator(); it.hasNext(); ) {
+               FileEntry free = it.next();
+               // ignore entries that are still in use by concurrent readers
+               if (free.isLocked())
+                  continue;
+
+               // There's no race condition risk between locking the entry on
+               // loading and checking whether it's locked (or store allocation),
+               // because for the entry to be lockable, it needs to be in the
+               // entries collection, in which case it's not in the free list.
+               // The only way an entry can be found in the free list is if it's
+               // been removed, and to remove it, lock on "entries" needs to be
+               // acquired, which is also a pre-requisite for loading data.
+
+               // found one, remove from freeList
+               it.remove();
+               return allocateExistingEntry(free, len);
+            }
+
+            // no appropriate free section available, append at end of file
+            FileEntry fe = new FileEntry(filePos, len);
+            filePos += len;
+            if (trace) log.tracef("New entry allocated at %d:%d, %d free entries, file size is %d", fe.offset, fe.size, freeList.size(), filePos);
+            return fe;
          }
       }
 
-      final byte[] data;
-      try {
-         // load serialized data from disk
-         data = new byte[fe.keyLen + fe.dataLen + (loadMetadata ? fe.metadataLen : 0)];
-         // The entry lock will prevent clear() from truncating the file at this point
-         channel.read(ByteBuffer.wrap(data), fe.offset + KEY_POS);
-      } catch (Exception e) {
-         throw new PersistenceException(e);
-      } finally {
-         // No need to keep the lock for deserialization.
-         // FileEntry is immutable, so its members can't be changed by another thread.
-         fe.unlock();
-      }
+      private FileEntry allocateExistingEntry(FileEntry free, int len) {
+         int remainder = free.size - len;
+         // If the entry is quite bigger than configured threshold, then split it
+         if ((remainder >= SMALLEST_ENTRY_SIZE) && (len <= (free.size * fragmentationFactor))) {
+            try {
+               // Add remainder of the space as a fileEntry
+               FileEntry newFreeEntry = new FileEntry(free.offset + len, remainder);
+               addNewFreeEntry(newFreeEntry);
+               FileEntry newEntry = new FileEntry(free.offset, len);
+               if (trace) log.tracef("Split entry at %d:%d, allocated %d:%d, free %d:%d, %d free entries",
+                     free.offset, free.size, newEntry.offset, newEntry.size, newFreeEntry.offset, newFreeEntry.size,
+                     freeList.size());
+               return newEntry;
+            } catch (IOException e) {
+               throw new PersistenceException("Cannot add new free entry", e);
+            }
+         }
 
-      if (trace) log.tracef("Read entry %s at %d:%d", key, fe.offset, fe.actualSize());
-      ByteBufferFactory factory = ctx.getByteBufferFactory();
-      org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(data, 0, fe.keyLen);
-      if (loadValue) {
-         valueBb = factory.newByteBuffer(data, fe.keyLen, fe.dataLen);
+         if (trace) log.tracef("Existing free entry allocated at %d:%d, %d free entries", free.offset, free.size, freeList.size());
+         return free;
       }
-      if (loadMetadata && fe.metadataLen > 0) {
-         metadataBb = factory.newByteBuffer(data, fe.keyLen + fe.dataLen, fe.metadataLen);
+
+      /**
+       * Writes a new free entry to the file and also adds it to the free list
+       */
+      private void addNewFreeEntry(FileEntry fe) throws IOException {
+         ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+         buf.putInt(fe.size);
+         buf.putInt(0);
+         buf.putInt(0);
+         buf.putInt(0);
+         buf.putLong(-1);
+         buf.flip();
+         channel.write(buf, fe.offset);
+         freeList.add(fe);
       }
-      return ctx.getMarshalledEntryFactory().newMarshalledEntry(keyBb, valueBb, metadataBb);
-   }
 
-   @Override
-   public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
-      filter = PersistenceUtil.notNull(filter);
-      ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
-      synchronized (entries) {
-         for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
-            if (filter.accept(e.getKey()))
-               keysToLoad.add(new KeyValuePair<>(e.getKey(), e.getValue()));
-         }
-         Collections.sort(keysToLoad, new Comparator<KeyValuePair<K, FileEntry>>() {
-            @Override
-            public int compare(KeyValuePair<K, FileEntry> o1, KeyValuePair<K, FileEntry> o2) {
-               long offset1 = o1.getValue().offset;
-               long offset2 = o2.getValue().offset;
-               return offset1 < offset2 ? -1 : offset1 == offset2 ? 0 : 1;
+      /**
+       * Frees the space of the specified file entry (for reuse by allocate).
+       * <p/>
+       * Note: Caller must hold the {@code resizeLock} in shared mode.
+       */
+      private void free(FileEntry fe) throws IOException {
+         if (fe != null) {
+            // Invalidate entry on disk (by setting keyLen field to 0)
+            // No need to wait for readers to unlock here, the FileEntry instance is not modified,
+            // and allocate() won't return an entry as long as it has a reader.
+            channel.write(ByteBuffer.wrap(ZERO_INT), fe.offset + KEYLEN_POS);
+            if (!freeList.add(fe)) {
+               throw new IllegalStateException(String.format("Trying to free an entry that was not allocated: %s", fe));
             }
-         });
-         // keysToLoad values (i.e. FileEntries) must not be used past this point
+            if (trace) log.tracef("Deleted entry at %d:%d, there are now %d free entries", fe.offset, fe.size, freeList.size());
+         }
       }
 
-      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
-
-      final TaskContextImpl taskContext = new TaskContextImpl();
-      for (KeyValuePair<K, FileEntry> e : keysToLoad) {
-         if (taskContext.isStopped())
-            break;
+      void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
+         try {
+            // serialize cache value
+            org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
+            org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
+            org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+
+            // allocate file entry and store in cache file
+            int metadataLength = metadata == null ? 0 : metadata.getLength();
+            int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
+            FileEntry newEntry;
+            FileEntry oldEntry = null;
+            resizeLock.readLock().lock();
+            try {
+               newEntry = allocate(len);
+               long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
+               newEntry = new FileEntry(newEntry, key.getLength(), data.getLength(), metadataLength, expiryTime);
+
+               ByteBuffer buf = ByteBuffer.allocate(len);
+               putEntry(buf, newEntry, marshalledEntry);
+               buf.flip();
+               channel.write(buf, newEntry.offset);
+               if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
+
+               // add the new entry to in-memory index
+               oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
+
+               // if we added an entry, check if we need to evict something
+               if (oldEntry == null)
+                  oldEntry = evict();
+            } finally {
+               // in case we replaced or evicted an entry, add to freeList
+               try {
+                  free(oldEntry);
+               } finally {
+                  resizeLock.readLock().unlock();
+               }
+            }
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         }
+      }
 
-         final K key = e.getKey();
-         eacs.submit(new Callable<Void>() {
-            @Override
-            public Void call() throws Exception {
+      /**
+       * Writes all entries of the batch while holding the {@code resizeLock} only once. Space for all the entries is
+       * allocated up front, and entries that end up adjacent in the file (typically everything appended at the end of it)
+       * are written with a single channel write, instead of one write per entry.
+       */
+      void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marshalledEntries) {
+         List<MarshalledEntry<? extends K, ? extends V>> batch = new ArrayList<>();
+         List<FileEntry> allocated = new ArrayList<>();
+         int indexed = 0;
+         try {
+            resizeLock.readLock().lock();
+            try {
+               for (MarshalledEntry<? extends K, ? extends V> marshalledEntry : marshalledEntries) {
+                  org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
+                  org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
+                  org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+                  int metadataLength = metadata == null ? 0 : metadata.getLength();
+                  int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
+                  long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
+                  allocated.add(new FileEntry(allocate(len), key.getLength(), data.getLength(), metadataLength, expiryTime));
+                  batch.add(marshalledEntry);
+               }
+               writeContiguousRuns(batch, allocated);
+
+               // only expose the new entries once all of them have been written
+               for (int i = 0; i < batch.size(); i++) {
+                  FileEntry newEntry = allocated.get(i);
+                  FileEntry oldEntry = entries.put(batch.get(i).getKey(), newEntry);
+                  indexed++;
+                  if (oldEntry == null)
+                     oldEntry = evict();
+                  free(oldEntry);
+               }
+            } finally {
                try {
-                  final MarshalledEntry marshalledEntry = _load(key, fetchValue, fetchMetadata);
-                  if (marshalledEntry != null) {
-                     task.processEntry(marshalledEntry, taskContext);
-                  }
-                  return null;
-               } catch (Exception e) {
-                  log.errorExecutingParallelStoreTask(e);
-                  throw e;
+                  // if an entry failed, the space allocated for the entries that are not in the index can be reused
+                  for (int i = indexed; i < allocated.size(); i++)
+                     free(allocated.get(i));
+               } finally {
+                  resizeLock.readLock().unlock();
                }
             }
-         });
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         }
       }
-      eacs.waitUntilAllCompleted();
-      if (eacs.isExceptionThrown()) {
-         throw new PersistenceException("Execution exception!", eacs.getFirstException());
+
+      private void writeContiguousRuns(List<MarshalledEntry<? extends K, ? extends V>> batch, List<FileEntry> allocated) throws IOException {
+         Integer[] byOffset = new Integer[allocated.size()];
+         for (int i = 0; i < byOffset.length; i++)
+            byOffset[i] = i;
+         Arrays.sort(byOffset, (i1, i2) -> Long.compare(allocated.get(i1).offset, allocated.get(i2).offset));
+
+         int runStart = 0;
+         while (runStart < byOffset.length) {
+            FileEntry first = allocated.get(byOffset[runStart]);
+            long runEnd = first.offset + first.size;
+            int runLength = first.size;
+            int next = runStart + 1;
+            while (next < byOffset.length) {
+               FileEntry fe = allocated.get(byOffset[next]);
+               if (fe.offset != runEnd || runLength + fe.size > MAX_BATCH_WRITE_SIZE)
+                  break;
+               runEnd += fe.size;
+               runLength += fe.size;
+               next++;
+            }
+
+            ByteBuffer buf = ByteBuffer.allocate(runLength);
+            for (int i = runStart; i < next; i++) {
+               FileEntry fe = allocated.get(byOffset[i]);
+               buf.position((int) (fe.offset - first.offset));
+               putEntry(buf, fe, batch.get(byOffset[i]));
+            }
+            buf.rewind();
+            channel.write(buf, first.offset);
+            if (trace) log.tracef("Wrote %d entries at %d:%d", next - runStart, first.offset, runLength);
+            runStart = next;
+         }
       }
-   }
 
-   /**
-    * Manipulates the free entries for optimizing disk space.
-    */
-   private void processFreeEntries() {
-      // Get a reverse sorted list of free entries based on file offset
-      // This helps to work backwards with free entries at end of the file
-      List<FileEntry> l  = new ArrayList<FileEntry>(freeList);
-      Collections.sort(l, new FileEntryByOffsetComparator());
-
-      truncateFile(l);
-      mergeFreeEntries(l);
-   }
+      private void putEntry(ByteBuffer buf, FileEntry fe, MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
+         org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
+         org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
+         org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+         buf.putInt(fe.size);
+         buf.putInt(fe.keyLen);
+         buf.putInt(fe.dataLen);
+         buf.putInt(fe.metadataLen);
+         buf.putLong(fe.expiryTime);
+         buf.put(key.getBuf(), key.getOffset(), key.getLength());
+         buf.put(data.getBuf(), data.getOffset(), data.getLength());
+         if (metadata != null)
+            buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
+      }
 
-   /**
-    * Removes free entries towards the end of the file and truncates the file.
-    */
-   private void truncateFile(List<FileEntry> entries) {
-      long startTime = 0;
-      if (trace) startTime = timeService.wallClockTime();
-
-      int reclaimedSpace = 0;
-      int removedEntries = 0;
-      long truncateOffset = -1;
-      for (Iterator<FileEntry> it = entries.iterator() ; it.hasNext(); ) {
-         FileEntry fe = it.next();
-         // Till we have free entries at the end of the file,
-         // we can remove them and contract the file to release disk
-         // space.
-         if (!fe.isLocked() && ((fe.offset + fe.size) == filePos)) {
-            truncateOffset = fe.offset;
-            filePos = fe.offset;
-            freeList.remove(fe);
-            it.remove();
-            reclaimedSpace += fe.size;
-            removedEntries++;
-         } else {
-            break;
+      /**
+       * Try to evict an entry if the capacity of the cache store is reached.
+       *
+       * @return FileEntry to evict, or null (if unbounded or capacity is not yet reached)
+       */
+      private FileEntry evict() {
+         if (maxEntriesPerSegment > 0) {
+            synchronized (entries) {
+               if (entries.size() > maxEntriesPerSegment) {
+                  Iterator<FileEntry> it = entries.values().iterator();
+                  FileEntry fe = it.next();
+                  it.remove();
+                  return fe;
+               }
+            }
          }
+         return null;
       }
 
-      if (truncateOffset > 0) {
+      void clear() {
+         resizeLock.writeLock().lock();
          try {
-            channel.truncate(truncateOffset);
-         } catch (IOException e) {
-            throw new PersistenceException("Error while truncating file", e);
+            synchronized (entries) {
+               synchronized (freeList) {
+                  // wait until all readers are done reading file entries
+                  for (FileEntry fe : entries.values())
+                     fe.waitUnlocked();
+                  for (FileEntry fe : freeList)
+                     fe.waitUnlocked();
+
+                  // clear in-memory state
+                  entries.clear();
+                  freeList.clear();
+
+                  // reset file
+                  if (trace) log.tracef("Truncating file %s, current size is %d", file, filePos);
+                  channel.truncate(0);
+                  channel.write(ByteBuffer.wrap(MAGIC), 0);
+                  filePos = MAGIC.length;
+               }
+            }
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         } finally {
+            resizeLock.writeLock().unlock();
          }
       }
 
-      if (trace) {
-         log.tracef("Removed entries: " + removedEntries + ", Reclaimed Space: " + reclaimedSpace);
-         log.tracef("Time taken for truncateFile: " + (timeService.wallClockTime() - startTime) + " (ms)");
+      boolean delete(Object key) {
+         resizeLock.readLock().lock();
+         try {
+            FileEntry fe = entries.remove(key);
+            free(fe);
+            return fe != null;
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         } finally {
+            resizeLock.readLock().unlock();
+         }
       }
-   }
 
-   /**
-    * Coalesces adjacent free entries to create larger free entries (so that the probability of finding a free entry during allocation increases)
-    */
-   private void mergeFreeEntries(List<FileEntry> entries) {
-      long startTime = 0;
-      if (trace) startTime = timeService.wallClockTime();
-      FileEntry lastEntry = null;
-      FileEntry newEntry = null;
-      int mergeCounter = 0;
-      for (Iterator<FileEntry> it = entries.iterator() ; it.hasNext(); ) {
-         FileEntry fe = it.next();
-         if (fe.isLocked()) {
-            continue;
+      void deleteBatch(Iterable<Object> keys) {
+         resizeLock.readLock().lock();
+         try {
+            for (Object key : keys) {
+               free(entries.remove(key));
+            }
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         } finally {
+            resizeLock.readLock().unlock();
          }
+      }
 
-         // Merge any holes created (consecutive free entries) in the file
-         if ((lastEntry != null) && (lastEntry.offset == (fe.offset + fe.size))) {
-            if (newEntry == null) {
-               newEntry = new FileEntry(fe.offset, fe.size + lastEntry.size);
-               freeList.remove(lastEntry);
-               mergeCounter++;
-            } else {
-               newEntry = new FileEntry(fe.offset, fe.size + newEntry.size);
-            }
-            freeList.remove(fe);
-            mergeCounter++;
-         } else {
-            if (newEntry != null) {
-               try {
-                  addNewFreeEntry(newEntry);
-                  if (trace) log.tracef("Merged %d entries at %d:%d, %d free entries", mergeCounter, newEntry.offset, newEntry.size, freeList.size());
-               } catch (IOException e) {
-                  throw new PersistenceException("Could not add new merged entry", e);
+      private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
+         final FileEntry fe;
+         resizeLock.readLock().lock();
+         try {
+            synchronized (entries) {
+               // lookup FileEntry of the key
+               fe = entries.get(key);
+               if (fe == null)
+                  return null;
+
+               // Entries are removed due to expiration from {@link SingleFileStore#purge}
+               if (fe.isExpired(timeService.wallClockTime())) {
+                  return null;
+               } else {
+                  // lock entry for reading before releasing entries monitor
+                  fe.lock();
                }
-               newEntry = null;
-               mergeCounter = 0;
+            }
+         } finally {
+            resizeLock.readLock().unlock();
+         }
+
+         org.infinispan.commons.io.ByteBuffer valueBb = null;
+         org.infinispan.commons.io.ByteBuffer metadataBb = null;
+
+         // If we only require the key, then no need to read disk
+         if (!loadValue && !loadMetadata) {
+            try {
+               return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, valueBb, metadataBb);
+            } finally {
+               fe.unlock();
             }
          }
-         lastEntry = fe;
-      }
 
-      if (newEntry != null) {
+         final byte[] data;
          try {
-            addNewFreeEntry(newEntry);
-            if (trace) log.tracef("Merged %d entries at %d:%d, %d free entries", mergeCounter, newEntry.offset, newEntry.size, freeList.size());
-         } catch (IOException e) {
-            throw new PersistenceException("Could not add new merged entry", e);
+            // load serialized data from disk
+            data = new byte[fe.keyLen + fe.dataLen + (loadMetadata ? fe.metadataLen : 0)];
+            // The entry lock will prevent clear() from truncating the file at this point
+            channel.read(ByteBuffer.wrap(data), fe.offset + KEY_POS);
+         } catch (Exception e) {
+            throw new PersistenceException(e);
+         } finally {
+            // No need to keep the lock for deserialization.
+            // FileEntry is immutable, so its members can't be changed by another thread.
+            fe.unlock();
          }
-      }
 
-      if (trace) log.tracef("Total time taken for mergeFreeEntries: " + (timeService.wallClockTime() - startTime) + " (ms)");
-   }
+         if (trace) log.tracef("Read entry %s at %d:%d", key, fe.offset, fe.actualSize());
+         ByteBufferFactory factory = ctx.getByteBufferFactory();
+         org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(data, 0, fe.keyLen);
+         if (loadValue) {
+            valueBb = factory.newByteBuffer(data, fe.keyLen, fe.dataLen);
+         }
+         if (loadMetadata && fe.metadataLen > 0) {
+            metadataBb = factory.newByteBuffer(data, fe.keyLen + fe.dataLen, fe.metadataLen);
+         }
+         return ctx.getMarshalledEntryFactory().newMarshalledEntry(keyBb, valueBb, metadataBb);
+      }
 
-   @Override
-   public void purge(Executor threadPool, final PurgeListener task) {
-      long now = timeService.wallClockTime();
-      List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<KeyValuePair<Object, FileEntry>>();
-      synchronized (entries) {
-         for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
-            Map.Entry<K, FileEntry> next = it.next();
-            FileEntry fe = next.getValue();
-            if (fe.isExpired(now)) {
-               it.remove();
-               entriesToPurge.add(new KeyValuePair<Object, FileEntry>(next.getKey(), fe));
+      /**
+       * Returns the keys accepted by the filter, sorted by their position in the file so that they can be read
+       * sequentially.
+       */
+      List<K> keysByOffset(KeyFilter<? super K> filter) {
+         ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
+         synchronized (entries) {
+            for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
+               if (filter.accept(e.getKey()))
+                  keysToLoad.add(new KeyValuePair<>(e.getKey(), e.getValue()));
             }
+            Collections.sort(keysToLoad, new Comparator<KeyValuePair<K, FileEntry>>() {
+               @Override
+               public int compare(KeyValuePair<K, FileEntry> o1, KeyValuePair<K, FileEntry> o2) {
+                  long offset1 = o1.getValue().offset;
+                  long offset2 = o2.getValue().offset;
+                  return offset1 < offset2 ? -1 : offset1 == offset2 ? 0 : 1;
+               }
+            });
+            // keysToLoad values (i.e. FileEntries) must not be used past this point
+         }
+         List<K> keys = new ArrayList<>(keysToLoad.size());
+         for (KeyValuePair<K, FileEntry> e : keysToLoad) {
+            keys.add(e.getKey());
          }
+         return keys;
       }
 
-      resizeLock.readLock().lock();
-      try {
-         for (Iterator<KeyValuePair<Object, FileEntry>> it = entriesToPurge.iterator(); it.hasNext(); ) {
-            KeyValuePair<Object, FileEntry> next = it.next();
-            FileEntry fe = next.getValue();
-            if (fe.isExpired(now)) {
+      /**
+       * Manipulates the free entries for optimizing disk space.
+       */
+      private void processFreeEntries() {
+         // Get a reverse sorted list of free entries based on file offset
+         // This helps to work backwards with free entries at end of the file
+         List<FileEntry> l  = new ArrayList<FileEntry>(freeList);
+         Collections.sort(l, new FileEntryByOffsetComparator());
+
+         truncateFile(l);
+         mergeFreeEntries(l);
+      }
+
+      /**
+       * Removes free entries towards the end of the file and truncates the file.
+       */
+      private void truncateFile(List<FileEntry> entries) {
+         long startTime = 0;
+         if (trace) startTime = timeService.wallClockTime();
+
+         int reclaimedSpace = 0;
+         int removedEntries = 0;
+         long truncateOffset = -1;
+         for (Iterator<FileEntry> it = entries.iterator() ; it.hasNext(); ) {
+            FileEntry fe = it.next();
+            // Till we have free entries at the end of the file,
+            // we can remove them and contract the file to release disk
+            // space.
+            if (!fe.isLocked() && ((fe.offset + fe.size) == filePos)) {
+               truncateOffset = fe.offset;
+               filePos = fe.offset;
+               freeList.remove(fe);
                it.remove();
-               try {
-                  free(fe);
-               } catch (Exception e) {
-                  throw new PersistenceException(e);
-               }
-               if (task != null) task.entryPurged(next.getKey());
+               reclaimedSpace += fe.size;
+               removedEntries++;
+            } else {
+               break;
             }
          }
 
-         // Disk space optimizations
-         synchronized (freeList) {
-           processFreeEntries();
+         if (truncateOffset > 0) {
+            try {
+               channel.truncate(truncateOffset);
+            } catch (IOException e) {
+               throw new PersistenceException("Error while truncating file", e);
+            }
+         }
+
+         if (trace) {
+            log.tracef("Removed entries: " + removedEntries + ", Reclaimed Space: " + reclaimedSpace);
+            log.tracef("Time taken for truncateFile: " + (timeService.wallClockTime() - startTime) + " (ms)");
          }
-      } finally {
-         resizeLock.readLock().unlock();
       }
-   }
 
-   @Override
-   public int size() {
-      return entries.size();
-   }
+      /**
+       * Coalesces adjacent free entries to create larger free entries (so that the probability of finding a free entry during allocation increases)
+       */
+      private void mergeFreeEntries(List<FileEntry> entries) {
+         long startTime = 0;
+         if (trace) startTime = timeService.wallClockTime();
+         FileEntry lastEntry = null;
+         FileEntry newEntry = null;
+         int mergeCounter = 0;
+         for (Iterator<FileEntry> it = entries.iterator() ; it.hasNext(); ) {
+            FileEntry fe = it.next();
+            if (fe.isLocked()) {
+               continue;
+            }
 
-   Map<K, FileEntry> getEntries() {
-      return entries;
-   }
+            // Merge any holes created (consecutive free entries) in the file
+            if ((lastEntry != null) && (lastEntry.offset == (fe.offset + fe.size))) {
+               if (newEntry == null) {
+                  newEntry = new FileEntry(fe.offset, fe.size + lastEntry.size);
+                  freeList.remove(lastEntry);
+                  mergeCounter++;
+               } else {
+                  newEntry = new FileEntry(fe.offset, fe.size + newEntry.size);
+               }
+               freeList.remove(fe);
+               mergeCounter++;
+            } else {
+               if (newEntry != null) {
+                  try {
+                     addNewFreeEntry(newEntry);
+                     if (trace) log.tracef("Merged %d entries at %d:%d, %d free entries", mergeCounter, newEntry.offset, newEntry.size, freeList.size());
+                  } catch (IOException e) {
+                     throw new PersistenceException("Could not add new merged entry", e);
+                  }
+                  newEntry = null;
+                  mergeCounter = 0;
+               }
+            }
+            lastEntry = fe;
+         }
 
-   SortedSet<FileEntry> getFreeList() {
-      return freeList;
-   }
+         if (newEntry != null) {
+            try {
+               addNewFreeEntry(newEntry);
+               if (trace) log.tracef("Merged %d entries at %d:%d, %d free entries", mergeCounter, newEntry.offset, newEntry.size, freeList.size());
+            } catch (IOException e) {
+               throw new PersistenceException("Could not add new merged entry", e);
+            }
+         }
 
-   long getFileSize() {
-      return filePos;
-   }
+         if (trace) log.tracef("Total time taken for mergeFreeEntries: " + (timeService.wallClockTime() - startTime) + " (ms)");
+      }
 
-   public SingleFileStoreConfiguration getConfiguration() {
-      return configuration;
+      void purge(PurgeListener task) {
+         long now = timeService.wallClockTime();
+         List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<KeyValuePair<Object, FileEntry>>();
+         synchronized (entries) {
+            for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+               Map.Entry<K, FileEntry> next = it.next();
+               FileEntry fe = next.getValue();
+               if (fe.isExpired(now)) {
+                  it.remove();
+                  entriesToPurge.add(new KeyValuePair<Object, FileEntry>(next.getKey(), fe));
+               }
+            }
+         }
+
+         resizeLock.readLock().lock();
+         try {
+            for (Iterator<KeyValuePair<Object, FileEntry>> it = entriesToPurge.iterator(); it.hasNext(); ) {
+               KeyValuePair<Object, FileEntry> next = it.next();
+               FileEntry fe = next.getValue();
+               if (fe.isExpired(now)) {
+                  it.remove();
+                  try {
+                     free(fe);
+                  } catch (Exception e) {
+                     throw new PersistenceException(e);
+                  }
+                  if (task != null) task.entryPurged(next.getKey());
+               }
+            }
+
+            // Disk space optimizations
+            synchronized (freeList) {
+              processFreeEntries();
+            }
+         } finally {
+            resizeLock.readLock().unlock();
+         }
+      }
    }
 
    /**
@@ -1,6 +1,7 @@
 package org.infinispan.persistence.manager;
 
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
 
@@ -48,6 +49,13 @@ public interface PersistenceManager extends Lifecycle {
     */
    void clearAllStores(AccessMode mode);
 
+   /**
+    * Invokes {@link org.infinispan.persistence.spi.SegmentedAdvancedCacheWriter#clear(Set)} on all the stores that
+    * allow it. The asynchronous and singleton stores are skipped, the entries of the given segments must still be
+    * removed from them by key.
+    */
+   void clearSegmentsFromAllStores(Set<Integer> segments, AccessMode mode);
+
    boolean deleteFromAllStores(Object key, AccessMode mode);
 
    void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata);
@@ -58,8 +66,28 @@ public interface PersistenceManager extends Lifecycle {
 
    void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
 
+   void processOnAllStores(Set<Integer> segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
+
+   /**
+    * Iterates over the entries of the given segments only. The stores implementing {@link
+    * org.infinispan.persistence.spi.SegmentedAdvancedCacheLoader} don't read the entries of the other segments at all,
+    * the other stores filter them out by key.
+    *
+    * @param segments the segments to process, or {@code null} to process the entries of all segments
+    */
+   void processOnAllStores(Executor executor, Set<Integer> segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode);
+
    MarshalledEntry loadFromAllStores(Object key, InvocationContext context);
 
+   /**
+    * Loads the entries of several keys. Each key is looked up in the stores in the same order as {@link
+    * #loadFromAllStores(Object, InvocationContext)}, but every store is queried only once for all the keys not found
+    * by the previous stores.
+    *
+    * @return the entries found, in a map using the key equivalence of the cache.
+    */
+   Map<Object, MarshalledEntry> loadAllFromAllStores(Collection<?> keys, InvocationContext context);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
@@ -125,6 +153,25 @@ protected boolean canPerform(StoreConfiguration configuration) {
     */
    void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode modes);
 
+   /**
+    * Write all the given entries to all stores that are not transactional, using
+    * {@link org.infinispan.persistence.spi.CacheWriter#writeBatch(Iterable)} so that each store can apply them with as
+    * few round trips as possible.
+    *
+    * @param entries the entries to be written to all non-tx stores.
+    * @param accessMode the type of access to the underlying store.
+    */
+   void writeBatchToAllNonTxStores(Iterable<MarshalledEntry> entries, AccessMode accessMode);
+
+   /**
+    * Remove all the given keys from all stores that are not transactional, using
+    * {@link org.infinispan.persistence.spi.CacheWriter#deleteBatch(Iterable)}.
+    *
+    * @param keys the keys to be removed from all non-tx stores.
+    * @param accessMode the type of access to the underlying store.
+    */
+   void deleteBatchFromAllNonTxStores(Iterable<Object> keys, AccessMode accessMode);
+
    /**
     * Perform the prepare phase of 2PC on all Tx stores.
     *
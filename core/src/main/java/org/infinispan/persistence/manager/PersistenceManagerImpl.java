@@ -18,11 +18,14 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -33,17 +36,24 @@
 
 import org.infinispan.AdvancedCache;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.EvictionConfigurationBuilder;
 import org.infinispan.configuration.cache.Index;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.container.DataContainer;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
@@ -54,11 +64,17 @@
 import org.infinispan.interceptors.impl.CacheLoaderInterceptor;
 import org.infinispan.interceptors.impl.CacheWriterInterceptor;
 import org.infinispan.interceptors.impl.TransactionalStoreInterceptor;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.metadata.impl.InternalMetadataImpl;
 import org.infinispan.persistence.InitializationContextImpl;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.async.AdvancedAsyncCacheLoader;
 import org.infinispan.persistence.async.AdvancedAsyncCacheWriter;
 import org.infinispan.persistence.async.AsyncCacheLoader;
@@ -72,21 +88,26 @@
 import org.infinispan.persistence.spi.CacheWriter;
 import org.infinispan.persistence.spi.LocalOnlyCacheLoader;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedCacheWriter;
 import org.infinispan.persistence.spi.TransactionalCacheWriter;
 import org.infinispan.persistence.support.AdvancedSingletonCacheWriter;
 import org.infinispan.persistence.support.BatchModification;
 import org.infinispan.persistence.support.DelegatingCacheLoader;
 import org.infinispan.persistence.support.DelegatingCacheWriter;
 import org.infinispan.persistence.support.SingletonCacheWriter;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.StateTransferManager;
+import org.infinispan.topology.CacheTopology;
 import org.infinispan.util.TimeService;
-import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+@MBean(objectName = "Persistence", description = "Component that handles the cache stores and loaders")
 public class PersistenceManagerImpl implements PersistenceManager {
 
    private static final Log log = LogFactory.getLog(PersistenceManagerImpl.class);
    private static final boolean trace = log.isTraceEnabled();
+   private static final int PRELOAD_BATCH_SIZE = 128;
 
    Configuration configuration;
    AdvancedCache<Object, Object> cache;
@@ -116,6 +137,11 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private MarshalledEntryFactory marshalledEntryFactory;
    private volatile boolean clearOnStop;
 
+   private final AtomicLong preloadedEntries = new AtomicLong();
+   private volatile boolean preloading;
+   private volatile long preloadStart = -1;
+   private volatile long preloadEnd = -1;
+
    @Inject
    public void inject(AdvancedCache<Object, Object> cache, StreamingMarshaller marshaller,
                       Configuration configuration, TransactionManager transactionManager,
@@ -248,25 +274,89 @@ public void preload() {
       if (preloadCl == null)
          return;
 
-      long start = timeService.time();
+      preloadedEntries.set(0);
+      preloadEnd = -1;
+      preloadStart = timeService.time();
+      preloading = true;
+      try {
+         final long maxEntries = getMaxEntries();
+         final AtomicInteger loadedEntries = new AtomicInteger(0);
+         final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
+         final DataContainer<Object, Object> dataContainer = canPreloadIntoDataContainer() ?
+               cache.getAdvancedCache().getDataContainer() : null;
+         final Queue<MarshalledEntry> pending = new ConcurrentLinkedQueue<>();
+         final AtomicInteger pendingCount = new AtomicInteger();
+         Set<Integer> preloadSegments = getPreloadSegments();
+         KeyPartitioner keyPartitioner = preloadSegments == null ? null :
+               cache.getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
+         // Stores that support it process the entries in parallel on the persistence executor
+         PersistenceUtil.process(preloadCl, preloadSegments, keyPartitioner, null, new AdvancedCacheLoader.CacheLoaderTask() {
+            @Override
+            public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+               if (loadedEntries.getAndIncrement() >= maxEntries) {
+                  taskContext.stop();
+                  return;
+               }
+               if (dataContainer != null) {
+                  dataContainer.put(me.getKey(), me.getValue(), unwrapMetadata(me));
+                  preloadedEntries.incrementAndGet();
+               } else {
+                  pending.add(me);
+                  if (pendingCount.incrementAndGet() % PRELOAD_BATCH_SIZE == 0) {
+                     preloadBatch(flaggedCache, pending, PRELOAD_BATCH_SIZE);
+                  }
+               }
+            }
+         }, persistenceExecutor, true, true);
+         preloadBatch(flaggedCache, pending, Integer.MAX_VALUE);
+      } finally {
+         preloadEnd = timeService.time();
+         preloading = false;
+      }
 
+      log.debugf("Preloaded %s keys in %s (%s keys/s)", preloadedEntries,
+                 Util.prettyPrintTime(timeService.timeDuration(preloadStart, preloadEnd, MILLISECONDS)),
+                 getPreloadThroughput());
+   }
 
-      final long maxEntries = getMaxEntries();
-      final AtomicInteger loadedEntries = new AtomicInteger(0);
-      final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
-      preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
-         @Override
-         public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-            if (loadedEntries.getAndIncrement() >= maxEntries) {
-               taskContext.stop();
-               return;
-            }
-            Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl)me.getMetadata()).actual() : null; //the downcast will go away with ISPN-3460
-            preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
-         }
-      }, new WithinThreadExecutor(), true, true);
+   @ManagedAttribute(
+         description = "Whether entries are currently being preloaded from the cache stores",
+         displayName = "Is preload in progress?",
+         dataType = DataType.TRAIT
+   )
+   public boolean isPreloading() {
+      return preloading;
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries preloaded from the cache stores by the current or the last preload",
+         displayName = "Number of preloaded entries",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getPreloadedEntries() {
+      return preloadedEntries.get();
+   }
+
+   @ManagedAttribute(
+         description = "Time spent by the current or the last preload",
+         displayName = "Preload time",
+         units = Units.MILLISECONDS
+   )
+   public long getPreloadTime() {
+      long start = preloadStart;
+      if (start < 0)
+         return 0;
+      long end = preloadEnd;
+      return end < 0 ? timeService.timeDuration(start, MILLISECONDS) : timeService.timeDuration(start, end, MILLISECONDS);
+   }
 
-      log.debugf("Preloaded %s keys in %s", loadedEntries, Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   @ManagedAttribute(
+         description = "Number of entries preloaded per second by the current or the last preload",
+         displayName = "Preloaded entries per second"
+   )
+   public long getPreloadThroughput() {
+      long millis = getPreloadTime();
+      return millis == 0 ? preloadedEntries.get() : preloadedEntries.get() * 1000 / millis;
    }
 
    @Override
@@ -426,6 +516,25 @@ public void clearAllStores(AccessMode mode) {
       }
    }
 
+   @Override
+   public void clearSegmentsFromAllStores(Set<Integer> segments, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         // The asynchronous and singleton stores are wrapped, so they are not segmented writers
+         Consumer<CacheWriter> clearWriter = writer -> {
+            if (writer instanceof SegmentedAdvancedCacheWriter) {
+               if (mode.canPerform(configMap.get(writer))) {
+                  ((SegmentedAdvancedCacheWriter) writer).clear(segments);
+               }
+            }
+         };
+         nonTxWriters.forEach(clearWriter);
+         txWriters.forEach(clearWriter);
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public boolean deleteFromAllStores(Object key, AccessMode mode) {
       storesMutex.readLock().lock();
@@ -461,11 +570,25 @@ public void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoa
 
    @Override
    public void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+      processOnAllStores(executor, null, keyFilter, task, fetchValue, fetchMetadata, mode);
+   }
+
+   @Override
+   public void processOnAllStores(Set<Integer> segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task,
+                                  boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+      processOnAllStores(persistenceExecutor, segments, keyFilter, task, fetchValue, fetchMetadata, mode);
+   }
+
+   @Override
+   public void processOnAllStores(Executor executor, Set<Integer> segments, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata, AccessMode mode) {
+      KeyPartitioner keyPartitioner = segments == null ? null :
+            cache.getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
       storesMutex.readLock().lock();
       try {
          for (CacheLoader loader : loaders) {
             if (mode.canPerform(configMap.get(loader)) && loader instanceof AdvancedCacheLoader) {
-               ((AdvancedCacheLoader) loader).process(keyFilter, task, executor, fetchValue, fetchMetadata);
+               PersistenceUtil.process((AdvancedCacheLoader) loader, segments, keyPartitioner, keyFilter, task, executor,
+                     fetchValue, fetchMetadata);
             }
          }
       } finally {
@@ -491,6 +614,33 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
       }
    }
 
+   @Override
+   public Map<Object, MarshalledEntry> loadAllFromAllStores(Collection<?> keys, InvocationContext context) {
+      Equivalence<Object> keyEquivalence = configuration.dataContainer().keyEquivalence();
+      Map<Object, MarshalledEntry> loaded = CollectionFactory.makeMap(keys.size(), keyEquivalence,
+            AnyEquivalence.getInstance());
+      storesMutex.readLock().lock();
+      try {
+         Set<Object> pending = CollectionFactory.makeSet(keys.size(), keyEquivalence);
+         pending.addAll(keys);
+         for (CacheLoader l : loaders) {
+            if (!context.isOriginLocal() && isLocalOnlyLoader(l))
+               continue;
+
+            Map<Object, MarshalledEntry> entries = l.loadAll(pending);
+            if (entries.isEmpty())
+               continue;
+            loaded.putAll(entries);
+            pending.removeIf(loaded::containsKey);
+            if (pending.isEmpty())
+               break;
+         }
+         return loaded;
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    private boolean isLocalOnlyLoader(CacheLoader loader) {
       if (loader instanceof LocalOnlyCacheLoader) return true;
       if (loader instanceof DelegatingCacheLoader) {
@@ -513,6 +663,30 @@ public void writeToAllNonTxStores(MarshalledEntry marshalledEntry, AccessMode ac
       }
    }
 
+   @Override
+   public void writeBatchToAllNonTxStores(Iterable<MarshalledEntry> entries, AccessMode accessMode) {
+      storesMutex.readLock().lock();
+      try {
+         nonTxWriters.stream()
+               .filter(writer -> accessMode.canPerform(configMap.get(writer)))
+               .forEach(writer -> writer.writeBatch(entries));
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
+   @Override
+   public void deleteBatchFromAllNonTxStores(Iterable<Object> keys, AccessMode accessMode) {
+      storesMutex.readLock().lock();
+      try {
+         nonTxWriters.stream()
+               .filter(writer -> accessMode.canPerform(configMap.get(writer)))
+               .forEach(writer -> writer.deleteBatch(keys));
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public void prepareAllTxStores(Transaction transaction, BatchModification batchModification,
                                   AccessMode accessMode) throws PersistenceException {
@@ -738,14 +912,65 @@ private long getMaxEntries() {
       return ne;
    }
 
-   private void preloadKey(AdvancedCache<Object, Object> cache, Object key, Object value, Metadata metadata) {
+   /**
+    * Only the segments owned by the local node are preloaded. Before joining the cluster the owned segments are only
+    * known if the consistent hash was persisted on the last graceful shutdown, otherwise everything is preloaded and
+    * the state consumer discards the segments that are not owned once the node joins.
+    */
+   private Set<Integer> getPreloadSegments() {
+      if (!configuration.clustering().cacheMode().isDistributed())
+         return null;
+      ComponentRegistry componentRegistry = cache.getAdvancedCache().getComponentRegistry();
+      StateTransferManager stateTransferManager = componentRegistry.getStateTransferManager();
+      if (stateTransferManager == null)
+         return null;
+      Set<Integer> segments = null;
+      CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      if (cacheTopology != null) {
+         ConsistentHash readCH = cacheTopology.getReadConsistentHash();
+         Address localAddress = cache.getAdvancedCache().getRpcManager().getAddress();
+         if (readCH.getMembers().contains(localAddress)) {
+            segments = readCH.getSegmentsForOwner(localAddress);
+         }
+      } else {
+         segments = stateTransferManager.getPersistedOwnedSegments().orElse(null);
+      }
+      if (trace && segments != null) log.tracef("Preloading only the owned segments %s", segments);
+      return segments;
+   }
+
+   /**
+    * Writing into the data container skips the interceptor chain, so it is only done when no interceptor would have
+    * to see the preloaded entries.
+    */
+   private boolean canPreloadIntoDataContainer() {
+      return !configuration.indexing().index().isEnabled() && !configuration.compatibility().enabled() &&
+            configuration.customInterceptors().interceptors().isEmpty();
+   }
+
+   private static Metadata unwrapMetadata(MarshalledEntry me) {
+      //the downcast will go away with ISPN-3460
+      return me.getMetadata() != null ? ((InternalMetadataImpl) me.getMetadata()).actual() : null;
+   }
+
+   /**
+    * Puts up to {@code maxEntries} pending entries through the interceptor chain, using a single transaction for all
+    * of them in transactional caches.
+    */
+   private void preloadBatch(AdvancedCache<Object, Object> cache, Queue<MarshalledEntry> pending, int maxEntries) {
       final Transaction transaction = suspendIfNeeded();
       boolean success = false;
       try {
          try {
             beginIfNeeded();
-            cache.put(key, value, metadata);
+            MarshalledEntry me;
+            int count = 0;
+            while (count < maxEntries && (me = pending.poll()) != null) {
+               cache.put(me.getKey(), me.getValue(), unwrapMetadata(me));
+               count++;
+            }
             success = true;
+            preloadedEntries.addAndGet(count);
          } catch (Exception e) {
             throw new PersistenceException("Unable to preload!", e);
          } finally {
@@ -1,5 +1,9 @@
 package org.infinispan.persistence.spi;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 import org.infinispan.commons.api.Lifecycle;
 import org.infinispan.marshall.core.MarshalledEntry;
 
@@ -33,6 +37,27 @@
     */
    MarshalledEntry<K, V> load(Object key);
 
+   /**
+    * Fetches the entries associated with all provided keys. Loaders that can read several entries with a single round
+    * trip to the underlying storage (e.g. a single query or a sorted pass over a file) should override this method; the
+    * default implementation invokes {@link #load(Object)} for each key.
+    *
+    * @param keys the keys to load
+    * @return the entries by key, the keys that do not exist in the storage are not present in the map
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default Map<Object, MarshalledEntry<K, V>> loadAll(Set<Object> keys) {
+      Map<Object, MarshalledEntry<K, V>> entries = new HashMap<>();
+      for (Object key : keys) {
+         MarshalledEntry<K, V> entry = load(key);
+         if (entry != null) {
+            entries.put(key, entry);
+         }
+      }
+      return entries;
+   }
+
    /**
     * Returns true if the storage contains an entry associated with the given key.
     *
@@ -35,4 +35,32 @@
     * @throws PersistenceException in case of an error, e.g. communicating with the external storage
     */
    boolean delete(Object key);
+
+   /**
+    * Persists all provided entries to the store. Stores that can apply several modifications with a single round trip to
+    * the underlying storage (e.g. a JDBC batch or a single file write) should override this method; the default
+    * implementation invokes {@link #write(MarshalledEntry)} for each entry.
+    *
+    * @param entries the entries to persist
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+         write(entry);
+      }
+   }
+
+   /**
+    * Removes all provided keys from the store. The default implementation invokes {@link #delete(Object)} for each key.
+    *
+    * @param keys the keys to remove
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default void deleteBatch(Iterable<Object> keys) {
+      for (Object key : keys) {
+         delete(key);
+      }
+   }
 }
@@ -0,0 +1,36 @@
+package org.infinispan.persistence.spi;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.infinispan.commons.util.Experimental;
+import org.infinispan.filter.KeyFilter;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * An {@link AdvancedCacheLoader} which knows the cache segment of the stored entries and can therefore iterate over
+ * the entries of some segments only, without reading the entries of the other segments at all.
+ *
+ * @since 9.0
+ */
+@Experimental
+@ThreadSafe
+public interface SegmentedAdvancedCacheLoader<K, V> extends AdvancedCacheLoader<K, V> {
+
+   /**
+    * Same as {@link AdvancedCacheLoader#process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)}, but only for
+    * the entries mapped to one of the given segments. The segments should be processed in parallel, using the threads
+    * from the <b>executor</b> pool.
+    *
+    * @param segments      the segments of the entries to process, or {@code null} to process all the entries
+    * @param filter        to validate which entries should be feed into the task. Might be null.
+    * @param task          callback to be invoked in parallel for each stored entry that passes the filter check
+    * @param executor      an external thread pool to be used for parallel iteration
+    * @param fetchValue    whether or not to fetch the value from the persistent store
+    * @param fetchMetadata whether or not to fetch the metadata from the persistent store
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void process(Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                boolean fetchValue, boolean fetchMetadata);
+}
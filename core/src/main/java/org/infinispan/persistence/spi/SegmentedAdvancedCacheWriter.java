@@ -0,0 +1,26 @@
+package org.infinispan.persistence.spi;
+
+import java.util.Set;
+
+import org.infinispan.commons.util.Experimental;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * An {@link AdvancedCacheWriter} which knows the cache segment of the stored entries and can therefore remove all the
+ * entries of some segments at once, e.g. the segments a node no longer owns after a rebalance.
+ *
+ * @since 9.0
+ */
+@Experimental
+@ThreadSafe
+public interface SegmentedAdvancedCacheWriter<K, V> extends AdvancedCacheWriter<K, V> {
+
+   /**
+    * Removes all the entries mapped to one of the given segments from the storage.
+    *
+    * @param segments the segments of the entries to remove
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void clear(Set<Integer> segments);
+}
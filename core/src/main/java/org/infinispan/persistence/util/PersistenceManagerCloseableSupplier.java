@@ -1,5 +1,8 @@
 package org.infinispan.persistence.util;
 
+import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
+
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
@@ -25,7 +28,9 @@
  * A closeable supplier that provides a way to supply cache entries from a given persistence manager.  On the first
  * call to get this class will submit a task to collect all of the entries from the loader (or optionally a subset
  * provided a given {@link org.infinispan.filter.KeyFilter}).  A timeout value is required so that if a get blocks
- * for the given timeout it will throw a {@link TimeoutException}.
+ * for the given timeout it will throw a {@link TimeoutException}.  If only some segments are required, the stores
+ * implementing {@link org.infinispan.persistence.spi.SegmentedAdvancedCacheLoader} don't read the other segments and
+ * process the requested ones in parallel on the given executor.
  * @author William Burns
  * @since 8.0
  */
@@ -33,6 +38,7 @@
    private final Executor executor;
    private final PersistenceManager manager;
    private final KeyFilter<K> filter;
+   private final Set<Integer> segments;
    private final InternalEntryFactory factory;
    private final BlockingQueue<CacheEntry<K, V>> queue;
    private final long timeout;
@@ -47,9 +53,16 @@
    public PersistenceManagerCloseableSupplier(Executor executor, PersistenceManager manager,
                                               InternalEntryFactory factory, KeyFilter<K> filter, long timeout,
                                               TimeUnit unit, int maxQueue) {
+      this(executor, manager, factory, null, filter, timeout, unit, maxQueue);
+   }
+
+   public PersistenceManagerCloseableSupplier(Executor executor, PersistenceManager manager,
+                                              InternalEntryFactory factory, Set<Integer> segments, KeyFilter<K> filter,
+                                              long timeout, TimeUnit unit, int maxQueue) {
       this.executor = executor;
       this.manager = manager;
       this.factory = factory;
+      this.segments = segments;
       this.filter = filter;
       this.timeout = timeout;
       this.unit = unit;
@@ -111,7 +124,13 @@ public CacheEntry<K, V> get() throws TimeoutException {
          // can't really use the persistence executor since we will block while waiting for additional work
          executor.execute(() -> {
             try {
-               manager.processOnAllStores(new WithinThreadExecutor(), filter, task, true, true);
+               if (segments == null) {
+                  manager.processOnAllStores(new WithinThreadExecutor(), filter, task, true, true);
+               } else {
+                  // Segmented stores submit a task per segment and wait for them: the persistence executor hands them
+                  // to an idle thread or runs them in this one, it never queues them behind us
+                  manager.processOnAllStores(executor, segments, filter, task, true, true, BOTH);
+               }
             } finally {
                close();
             }
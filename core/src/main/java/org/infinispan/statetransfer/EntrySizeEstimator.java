@@ -0,0 +1,52 @@
+package org.infinispan.statetransfer;
+
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * Estimates the marshalled size of the cache entries sent during state transfer, without marshalling them.
+ * <p>
+ * Byte arrays and strings are measured directly, strings by the length of their UTF-8 encoding; the size of any other
+ * object is the one predicted by the marshaller for its type.
+ *
+ * @since 9.0
+ */
+final class EntrySizeEstimator {
+
+   private final Marshaller marshaller;
+
+   EntrySizeEstimator(Marshaller marshaller) {
+      this.marshaller = marshaller;
+   }
+
+   long estimateSize(InternalCacheEntry entry) {
+      return estimateSize(entry.getKey()) + estimateSize(entry.getValue());
+   }
+
+   private int estimateSize(Object o) {
+      if (o == null) {
+         return 1;
+      } else if (o instanceof byte[]) {
+         return ((byte[]) o).length;
+      } else if (o instanceof String) {
+         return utf8Length((String) o);
+      } else {
+         return marshaller.getBufferSizePredictor(o).nextSize(o);
+      }
+   }
+
+   static int utf8Length(String s) {
+      int length = s.length();
+      int bytes = length;
+      for (int i = 0; i < length; i++) {
+         char c = s.charAt(i);
+         if (c >= 0x800) {
+            bytes += 2;
+         } else if (c >= 0x80 || c == 0) {
+            // The marshaller writes the null character in two bytes, like DataOutput.writeUTF
+            bytes++;
+         }
+      }
+      return bytes;
+   }
+}
@@ -82,7 +82,12 @@ public class InboundTransferTask {
 
    private final RpcOptions rpcOptions;
 
-   public InboundTransferTask(Set<Integer> segments, Address source, int topologyId, StateConsumerImpl stateConsumer, RpcManager rpcManager, CommandsFactory commandsFactory, long timeout, String cacheName) {
+   /**
+    * The number of chunks the source may send before we have applied the previous ones.
+    */
+   private final int chunkCredits;
+
+   public InboundTransferTask(Set<Integer> segments, Address source, int topologyId, StateConsumerImpl stateConsumer, RpcManager rpcManager, CommandsFactory commandsFactory, long timeout, String cacheName, int chunkCredits) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("segments must not be null or empty");
       }
@@ -98,6 +103,7 @@ public InboundTransferTask(Set<Integer> segments, Address source, int topologyId
       this.commandsFactory = commandsFactory;
       this.timeout = timeout;
       this.cacheName = cacheName;
+      this.chunkCredits = chunkCredits;
       //the rpc options does not changed in runtime and they are the same in all the remote invocations. re-use the
       //same instance
       this.rpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS)
@@ -140,6 +146,7 @@ public boolean requestSegments() {
          // start transfer of cache entries
          try {
             StateRequestCommand cmd = commandsFactory.buildStateRequestCommand(StateRequestCommand.Type.START_STATE_TRANSFER, rpcManager.getAddress(), topologyId, segmentsCopy);
+            cmd.setChunkCredits(chunkCredits);
             Map<Address, Response> responses = rpcManager.invokeRemotely(Collections.singleton(source), cmd, rpcOptions);
             Response response = responses.get(source);
             if (response instanceof SuccessfulResponse) {
@@ -5,9 +5,11 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commands.CommandsFactory;
@@ -19,6 +21,7 @@
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.filter.CollectionKeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.remoting.rpc.ResponseMode;
@@ -35,6 +38,11 @@
  * Outbound state transfer task. Pushes data segments to another cluster member on request. Instances of
  * OutboundTransferTask are created and managed by StateTransferManagerImpl. There should be at most
  * one such task per destination at any time.
+ * <p>
+ * Chunks are sent once they reach either the configured number of entries or the configured estimated size in bytes.
+ * The destination grants a number of credits when it requests the segments: each chunk consumes a credit, which is
+ * given back when the destination has applied the chunk, so the destination never has to hold more than that many
+ * unapplied chunks from this task.
  *
  * @author anistor@redhat.com
  * @since 5.2
@@ -55,6 +63,17 @@ public class OutboundTransferTask implements Runnable {
 
    private final int stateTransferChunkSize;
 
+   private final long stateTransferChunkSizeBytes;
+
+   private final EntrySizeEstimator sizeEstimator;
+
+   private final int chunkCredits;
+
+   /**
+    * Each chunk sent acquires a permit, which is released when the destination has applied the chunk.
+    */
+   private final Semaphore credits;
+
    private final ConsistentHash readCh;
 
    private final DataContainer<Object, Object> dataContainer;
@@ -76,6 +95,12 @@ public class OutboundTransferTask implements Runnable {
     */
    private int accumulatedEntries;
 
+   /**
+    * The estimated size of the entries accumulated in entriesBySegment, only computed if a chunk size in bytes is
+    * configured.
+    */
+   private long accumulatedBytes;
+
    /**
     * The Future obtained from submitting this task to an executor service. This is used for cancellation.
     */
@@ -85,10 +110,11 @@ public class OutboundTransferTask implements Runnable {
 
    private InternalEntryFactory entryFactory;
 
-   public OutboundTransferTask(Address destination, Set<Integer> segments, int stateTransferChunkSize,
-                               int topologyId, ConsistentHash readCh, StateProviderImpl stateProvider, DataContainer dataContainer,
-                               PersistenceManager persistenceManager, RpcManager rpcManager,
-                               CommandsFactory commandsFactory, InternalEntryFactory ef, long timeout, String cacheName) {
+   OutboundTransferTask(Address destination, Set<Integer> segments, int stateTransferChunkSize,
+                        long stateTransferChunkSizeBytes, EntrySizeEstimator sizeEstimator, int chunkCredits,
+                        int topologyId, ConsistentHash readCh, StateProviderImpl stateProvider, DataContainer dataContainer,
+                        PersistenceManager persistenceManager, RpcManager rpcManager,
+                        CommandsFactory commandsFactory, InternalEntryFactory ef, long timeout, String cacheName) {
       if (segments == null || segments.isEmpty()) {
          throw new IllegalArgumentException("Segments must not be null or empty");
       }
@@ -102,6 +128,10 @@ public OutboundTransferTask(Address destination, Set<Integer> segments, int stat
       this.destination = destination;
       this.segments.addAll(segments);
       this.stateTransferChunkSize = stateTransferChunkSize;
+      this.stateTransferChunkSizeBytes = stateTransferChunkSizeBytes;
+      this.sizeEstimator = sizeEstimator;
+      this.chunkCredits = Math.max(1, chunkCredits);
+      this.credits = new Semaphore(this.chunkCredits);
       this.topologyId = topologyId;
       this.readCh = readCh;
       this.dataContainer = dataContainer;
@@ -171,7 +201,8 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
                         }
                      }
                   };
-               stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
+               // Segmented stores don't read the entries of the other segments at all
+               PersistenceUtil.process(stProvider, segments, readCh::getSegment, filter, task, new WithinThreadExecutor(), true, true);
             } catch (CacheException e) {
                log.failedLoadingKeysFromCacheStore(e);
             }
@@ -194,9 +225,11 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
 
    private void sendEntry(InternalCacheEntry ice, int segmentId) {
       // send if we have a full chunk
-      if (accumulatedEntries >= stateTransferChunkSize) {
+      if (accumulatedEntries >= stateTransferChunkSize ||
+            (stateTransferChunkSizeBytes > 0 && accumulatedBytes >= stateTransferChunkSizeBytes)) {
          sendEntries(false);
          accumulatedEntries = 0;
+         accumulatedBytes = 0;
       }
 
       List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
@@ -206,6 +239,9 @@ private void sendEntry(InternalCacheEntry ice, int segmentId) {
       }
       entries.add(ice);
       accumulatedEntries++;
+      if (stateTransferChunkSizeBytes > 0) {
+         accumulatedBytes += sizeEstimator.estimateSize(ice);
+      }
    }
 
    private void sendEntries(boolean isLast) {
@@ -237,22 +273,50 @@ private void sendEntries(boolean isLast) {
          }
 
          StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks);
-         // send synchronously, in order. it is important that the last chunk is received last in order to correctly detect completion of the stream of chunks
-         try {
-            rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
-         } catch (SuspectException e) {
-            log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
-            cancel();
-         } catch (Exception e) {
-            if (isCancelled()) {
-               log.debugf("Stopping cancelled transfer of segments %s of cache %s to node %s", segments, cacheName, destination);
-            } else {
-               log.errorf(e, "Failed to send entries to node %s : %s", destination, e.getMessage());
+         if (chunkCredits == 1 || isLast) {
+            // it is important that the last chunk is received last in order to correctly detect completion of the
+            // stream of chunks, so wait for the destination to apply all the other chunks first
+            acquireCredits(chunkCredits);
+            try {
+               rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
+            } catch (Exception e) {
+               handleSendFailure(e);
+            } finally {
+               credits.release(chunkCredits);
             }
+         } else {
+            acquireCredits(1);
+            rpcManager.invokeRemotelyAsync(Collections.singleton(destination), cmd, rpcOptions)
+                  .whenComplete((responses, t) -> {
+                     credits.release();
+                     if (t != null) {
+                        handleSendFailure(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+                     }
+                  });
          }
       }
    }
 
+   private void acquireCredits(int permits) {
+      try {
+         credits.acquire(permits);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+   }
+
+   private void handleSendFailure(Throwable t) {
+      if (t instanceof SuspectException) {
+         log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
+         cancel();
+      } else if (isCancelled()) {
+         log.debugf("Stopping cancelled transfer of segments %s of cache %s to node %s", segments, cacheName, destination);
+      } else {
+         log.errorf(t, "Failed to send entries to node %s : %s", destination, t.getMessage());
+      }
+   }
+
    /**
     * Cancel some of the segments. If all segments get cancelled then the whole task will be cancelled.
     *
@@ -292,6 +356,8 @@ public String toString() {
             ", destination=" + destination +
             ", segments=" + segments +
             ", stateTransferChunkSize=" + stateTransferChunkSize +
+            ", stateTransferChunkSizeBytes=" + stateTransferChunkSizeBytes +
+            ", chunkCredits=" + chunkCredits +
             ", timeout=" + timeout +
             ", cacheName='" + cacheName + '\'' +
             '}';
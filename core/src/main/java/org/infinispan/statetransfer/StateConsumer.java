@@ -49,4 +49,26 @@ public interface StateConsumer {
     * @return  true if this node has already received the first rebalance command
     */
    boolean ownsData();
+
+   /**
+    * @return the estimated number of bytes per second received during the current or the last rebalance
+    */
+   double getInboundBytesPerSecond();
+
+   /**
+    * @return the number of entries per second received during the current or the last rebalance
+    */
+   double getInboundEntriesPerSecond();
+
+   /**
+    * @return the estimated time, in milliseconds, until the current rebalance has received all the segments, or -1 if
+    * it cannot be estimated yet
+    */
+   long getInboundEstimatedTimeToCompletion();
+
+   /**
+    * @return one line per segment requested during the current or the last rebalance, with the amount of state
+    * received and the transfer rates
+    */
+   String getInboundSegmentStatistics();
 }
@@ -3,6 +3,7 @@
 import static org.infinispan.context.Flag.CACHE_MODE_LOCAL;
 import static org.infinispan.context.Flag.IGNORE_RETURN_VALUES;
 import static org.infinispan.context.Flag.PUT_FOR_STATE_TRANSFER;
+import static org.infinispan.context.Flag.SKIP_CACHE_STORE;
 import static org.infinispan.context.Flag.SKIP_LOCKING;
 import static org.infinispan.context.Flag.SKIP_OWNERSHIP_CHECK;
 import static org.infinispan.context.Flag.SKIP_REMOTE_LOOKUP;
@@ -37,6 +38,7 @@
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.commons.util.concurrent.ConcurrentHashSet;
 import org.infinispan.configuration.cache.CacheMode;
@@ -57,7 +59,9 @@
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
 import org.infinispan.remoting.responses.CacheNotFoundResponse;
@@ -75,6 +79,7 @@
 import org.infinispan.transaction.totalorder.TotalOrderManager;
 import org.infinispan.transaction.xa.CacheTransaction;
 import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.logging.Log;
@@ -97,6 +102,7 @@ public class StateConsumerImpl implements StateConsumer {
                                                                       IGNORE_RETURN_VALUES, SKIP_REMOTE_LOOKUP,
                                                                       SKIP_SHARED_CACHE_STORE, SKIP_OWNERSHIP_CHECK,
                                                                       SKIP_XSITE_BACKUP);
+   private static final long BATCHED_STORE_STATE_TRANSFER_FLAGS = EnumUtil.setEnum(STATE_TRANSFER_FLAGS, SKIP_CACHE_STORE);
 
    private Cache cache;
    private StateTransferManager stateTransferManager;
@@ -122,6 +128,15 @@ public class StateConsumerImpl implements StateConsumer {
    private volatile KeyInvalidationListener keyInvalidationListener; //for test purpose only!
    private CommitManager commitManager;
    private ExecutorService stateTransferExecutor;
+   private StreamingMarshaller marshaller;
+   private EntrySizeEstimator sizeEstimator;
+   private StateTransferStatistics statistics;
+   private int chunkCredits;
+   /**
+    * If {@code true}, the entries of a chunk are written to the (non-shared) stores with a single batch write, instead
+    * of one store write per entry.
+    */
+   private boolean batchStoreWrites;
 
    private volatile CacheTopology cacheTopology;
 
@@ -196,7 +211,9 @@ public void init(Cache cache,
                     CacheNotifier cacheNotifier,
                     TotalOrderManager totalOrderManager,
                     @ComponentName(KnownComponentNames.REMOTE_COMMAND_EXECUTOR) BlockingTaskAwareExecutorService remoteCommandsExecutor,
-                    CommitManager commitManager) {
+                    CommitManager commitManager,
+                    StreamingMarshaller marshaller,
+                    TimeService timeService) {
       this.cache = cache;
       this.cacheName = cache.getName();
       this.stateTransferExecutor = stateTransferExecutor;
@@ -215,6 +232,9 @@ public void init(Cache cache,
       this.totalOrderManager = totalOrderManager;
       this.remoteCommandsExecutor = remoteCommandsExecutor;
       this.commitManager = commitManager;
+      this.marshaller = marshaller;
+      this.sizeEstimator = new EntrySizeEstimator(marshaller);
+      this.statistics = new StateTransferStatistics(timeService);
 
       isInvalidationMode = configuration.clustering().cacheMode().isInvalidation();
 
@@ -222,6 +242,7 @@ public void init(Cache cache,
       isTotalOrder = configuration.transaction().transactionProtocol().isTotalOrder();
 
       timeout = configuration.clustering().stateTransfer().timeout();
+      chunkCredits = configuration.clustering().stateTransfer().chunkCredits();
 
       stateRequestCompletionService = new SemaphoreCompletionService<>(stateTransferExecutor, 1);
    }
@@ -285,7 +306,9 @@ public void onTopologyUpdate(final CacheTopology cacheTopology, final boolean is
       if (startRebalance) {
          // Only update the rebalance topology id when starting the rebalance, as we're going to ignore any state
          // response with a smaller topology id
-         stateTransferTopologyId.compareAndSet(NO_REBALANCE_IN_PROGRESS, cacheTopology.getTopologyId());
+         if (stateTransferTopologyId.compareAndSet(NO_REBALANCE_IN_PROGRESS, cacheTopology.getTopologyId())) {
+            statistics.start();
+         }
          cacheNotifier.notifyDataRehashed(cacheTopology.getCurrentCH(), cacheTopology.getPendingCH(),
                                           cacheTopology.getUnionCH(), cacheTopology.getTopologyId(), true);
       }
@@ -392,6 +415,7 @@ public void onTopologyUpdate(final CacheTopology cacheTopology, final boolean is
                boolean changed = stateTransferTopologyId.compareAndSet(rebalanceTopologyId, NO_REBALANCE_IN_PROGRESS);
                if (changed) {
                   stopApplyingState();
+                  statistics.stop();
 
                   // if the coordinator changed, we might get two concurrent topology updates,
                   // but we only want to notify the @DataRehashed listeners once
@@ -574,9 +598,13 @@ private void applyChunk(Address sender, Set<Integer> mySegments, StateChunk stat
          inboundTransfer = transfersBySegment.get(stateChunk.getSegmentId());
       }
       if (inboundTransfer != null) {
+         int entries = 0;
+         long bytes = 0;
          if (stateChunk.getCacheEntries() != null) {
-            doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries());
+            bytes = doApplyState(sender, stateChunk.getSegmentId(), stateChunk.getCacheEntries());
+            entries = stateChunk.getCacheEntries().size();
          }
+         statistics.chunkApplied(stateChunk.getSegmentId(), entries, bytes, stateChunk.isLastChunk());
 
          inboundTransfer.onStateReceived(stateChunk.getSegmentId(), stateChunk.isLastChunk());
       } else {
@@ -586,13 +614,20 @@ private void applyChunk(Address sender, Set<Integer> mySegments, StateChunk stat
       }
    }
 
-   private void doApplyState(Address sender, int segmentId, Collection<InternalCacheEntry> cacheEntries) {
+   /**
+    * @return the estimated size of the applied entries, in bytes
+    */
+   private long doApplyState(Address sender, int segmentId, Collection<InternalCacheEntry> cacheEntries) {
       if (trace) log.tracef("Applying new state chunk for segment %d of cache %s from node %s: received %d cache entries",
             segmentId, cacheName, sender, cacheEntries.size());
 
       // CACHE_MODE_LOCAL avoids handling by StateTransferInterceptor and any potential locks in StateTransferLock
       boolean transactional = transactionManager != null;
+      long flags = batchStoreWrites ? BATCHED_STORE_STATE_TRANSFER_FLAGS : STATE_TRANSFER_FLAGS;
+      List<MarshalledEntry> storeBatch = batchStoreWrites ? new ArrayList<>(cacheEntries.size()) : null;
+      long bytes = 0;
       for (InternalCacheEntry e : cacheEntries) {
+         bytes += sizeEstimator.estimateSize(e);
          try {
             InvocationContext ctx;
             if (transactional) {
@@ -605,9 +640,12 @@ private void doApplyState(Address sender, int segmentId, Collection<InternalCach
             }
 
             PutKeyValueCommand put = commandsFactory.buildPutKeyValueCommand(
-                  e.getKey(), e.getValue(), e.getMetadata(), STATE_TRANSFER_FLAGS);
+                  e.getKey(), e.getValue(), e.getMetadata(), flags);
             ctx.setLockOwner(put.getKeyLockOwner());
             interceptorChain.invoke(ctx, put);
+            if (storeBatch != null && put.isSuccessful()) {
+               storeBatch.add(new MarshalledEntryImpl(e.getKey(), e.getValue(), PersistenceUtil.internalMetadata(e), marshaller));
+            }
 
             if (transactionManager != null) {
                transactionManager.commit();
@@ -629,7 +667,46 @@ private void doApplyState(Address sender, int segmentId, Collection<InternalCach
             }
          }
       }
+      if (storeBatch != null && !storeBatch.isEmpty()) {
+         writeStateToStores(storeBatch);
+      }
       if (trace) log.tracef("Finished applying chunk of segment %d of cache %s", segmentId, cacheName);
+      return bytes;
+   }
+
+   private void writeStateToStores(List<MarshalledEntry> storeBatch) {
+      try {
+         persistenceManager.writeBatchToAllNonTxStores(storeBatch, PRIVATE);
+      } catch (Exception ex) {
+         if (trace) log.tracef(ex, "Unable to write a batch of %d entries, writing them one by one", storeBatch.size());
+         for (MarshalledEntry entry : storeBatch) {
+            try {
+               persistenceManager.writeToAllNonTxStores(entry, PRIVATE);
+            } catch (Exception e) {
+               log.problemApplyingStateForKey(e.getMessage(), entry.getKey(), e);
+            }
+         }
+      }
+      // A write or a remove committed after the state transfer put could have updated the stores before the batch.
+      // Committing the key again waits for the data container, so the stores end up with its entry.
+      for (MarshalledEntry entry : storeBatch) {
+         dataContainer.compute(entry.getKey(), (key, current, factory) -> {
+            if (current == null || current.getValue() != entry.getValue()) {
+               if (trace) log.tracef("Key %s was updated while writing the state to the stores", key);
+               try {
+                  if (current == null) {
+                     persistenceManager.deleteFromAllStores(key, PRIVATE);
+                  } else {
+                     persistenceManager.writeToAllNonTxStores(new MarshalledEntryImpl(key, current.getValue(),
+                           PersistenceUtil.internalMetadata(current), marshaller), PRIVATE);
+                  }
+               } catch (Exception e) {
+                  log.problemApplyingStateForKey(e.getMessage(), key, e);
+               }
+            }
+            return current;
+         });
+      }
    }
 
    private void applyTransactions(Address sender, Collection<TransactionInfo> transactions, int topologyId) {
@@ -667,6 +744,10 @@ public void start() {
       //rpc options does not changes in runtime. we can use always the same instance.
       rpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS)
             .timeout(timeout, TimeUnit.MILLISECONDS).build();
+      // Only the (Dist)CacheWriterInterceptor writes state transfer puts to the stores. With eviction, a key missing
+      // from the data container may still be in the stores, so the batch cannot be checked against the data container.
+      batchStoreWrites = !isTransactional && configuration.persistence().usingStores() &&
+            !configuration.persistence().passivation() && !configuration.eviction().strategy().isEnabled();
    }
 
    @Stop(priority = 0)
@@ -911,6 +992,7 @@ private void cancelTransfers(Set<Integer> removedSegments) {
                cancelledSegments.retainAll(inboundTransfer.getSegments());
                segmentsToCancel.removeAll(cancelledSegments);
                transfersBySegment.keySet().removeAll(cancelledSegments);
+               statistics.segmentsCancelled(cancelledSegments);
                //this will also remove it from transfersBySource if the entire task gets cancelled
                inboundTransfer.cancelSegments(cancelledSegments);
                if (inboundTransfer.isCancelled()) {
@@ -944,16 +1026,16 @@ private void removeStaleData(final Set<Integer> removedSegments) throws Interrup
       // gather all keys from cache store that belong to the segments that are being removed/moved to L1
       if (!removedSegments.isEmpty()) {
          try {
+            // Segmented stores drop whole segments, so the scan below won't find any of their keys
+            persistenceManager.clearSegmentsFromAllStores(removedSegments, PRIVATE);
+
             KeyFilter filter = new KeyFilter() {
                @Override
                public boolean accept(Object key) {
-                  if (dataContainer.containsKey(key))
-                     return false;
-                  int keySegment = getSegment(key);
-                  return (removedSegments.contains(keySegment));
+                  return !dataContainer.containsKey(key);
                }
             };
-            persistenceManager.processOnAllStores(filter, new AdvancedCacheLoader.CacheLoaderTask() {
+            persistenceManager.processOnAllStores(removedSegments, filter, new AdvancedCacheLoader.CacheLoaderTask() {
                @Override
                public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
                   keysToRemove.add(marshalledEntry.getKey());
@@ -1034,7 +1116,8 @@ private InboundTransferTask addTransfer(Address source, Set<Integer> segmentsFro
          }
 
          inboundTransfer = new InboundTransferTask(segmentsFromSource, source,
-               cacheTopology.getTopologyId(), this, rpcManager, commandsFactory, timeout, cacheName);
+               cacheTopology.getTopologyId(), this, rpcManager, commandsFactory, timeout, cacheName, chunkCredits);
+         statistics.segmentsRequested(segmentsFromSource);
          for (int segmentId : segmentsFromSource) {
             transfersBySegment.put(segmentId, inboundTransfer);
          }
@@ -1109,6 +1192,26 @@ private void retryOrNotifyCompletion(InboundTransferTask inboundTransfer) {
       }
    }
 
+   @Override
+   public double getInboundBytesPerSecond() {
+      return statistics.getBytesPerSecond();
+   }
+
+   @Override
+   public double getInboundEntriesPerSecond() {
+      return statistics.getEntriesPerSecond();
+   }
+
+   @Override
+   public long getInboundEstimatedTimeToCompletion() {
+      return statistics.getEstimatedTimeToCompletion();
+   }
+
+   @Override
+   public String getInboundSegmentStatistics() {
+      return statistics.getSegmentStatistics();
+   }
+
    public interface KeyInvalidationListener {
       void beforeInvalidation(Set<Integer> removedSegments, Set<Integer> staleL1Segments);
    }
@@ -50,8 +50,10 @@ public interface StateProvider {
     * @param destination the address of the requester
     * @param topologyId
     * @param segments
+    * @param chunkCredits the number of chunks that may be sent before the requester has applied the previous ones
     */
-   void startOutboundTransfer(Address destination, int topologyId, Set<Integer> segments) throws InterruptedException;
+   void startOutboundTransfer(Address destination, int topologyId, Set<Integer> segments, int chunkCredits)
+         throws InterruptedException;
 
    /**
     * Cancel sending of cache entries that belong to the given set of segments. This is invoked in response to a
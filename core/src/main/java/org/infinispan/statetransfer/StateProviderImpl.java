@@ -17,6 +17,7 @@
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
@@ -63,6 +64,8 @@ public class StateProviderImpl implements StateProvider {
    private InternalEntryFactory entryFactory;
    private long timeout;
    private int chunkSize;
+   private long chunkSizeBytes;
+   private EntrySizeEstimator sizeEstimator;
 
    private StateConsumer stateConsumer;
 
@@ -86,7 +89,7 @@ public void init(Cache cache,
                     DataContainer dataContainer,
                     TransactionTable transactionTable,
                     StateTransferLock stateTransferLock,
-                    StateConsumer stateConsumer, InternalEntryFactory entryFactory) {
+                    StateConsumer stateConsumer, InternalEntryFactory entryFactory, StreamingMarshaller marshaller) {
       this.cacheName = cache.getName();
       this.executorService = executorService;
       this.configuration = configuration;
@@ -103,6 +106,8 @@ public void init(Cache cache,
       timeout = configuration.clustering().stateTransfer().timeout();
 
       this.chunkSize = configuration.clustering().stateTransfer().chunkSize();
+      this.chunkSizeBytes = configuration.clustering().stateTransfer().chunkSizeBytes();
+      this.sizeEstimator = new EntrySizeEstimator(marshaller);
    }
 
    public boolean isStateTransferInProgress() {
@@ -274,8 +279,8 @@ private void collectTransactionsToTransfer(Address destination,
    }
 
    @Override
-   public void startOutboundTransfer(Address destination, int requestTopologyId, Set<Integer> segments)
-         throws InterruptedException {
+   public void startOutboundTransfer(Address destination, int requestTopologyId, Set<Integer> segments,
+                                     int chunkCredits) throws InterruptedException {
       if (trace) {
          log.tracef("Starting outbound transfer of segments %s to node %s with topology id %d for cache %s", segments,
                destination, requestTopologyId, cacheName);
@@ -284,8 +289,8 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, Se
       final CacheTopology cacheTopology = getCacheTopology(requestTopologyId, destination, false);
 
       // the destination node must already have an InboundTransferTask waiting for these segments
-      OutboundTransferTask outboundTransfer = new OutboundTransferTask(destination, segments, chunkSize, requestTopologyId,
-            cacheTopology.getReadConsistentHash(), this, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName);
+      OutboundTransferTask outboundTransfer = new OutboundTransferTask(destination, segments, chunkSize, chunkSizeBytes,
+            sizeEstimator, chunkCredits, requestTopologyId, cacheTopology.getReadConsistentHash(), this, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName);
       addTransfer(outboundTransfer);
       outboundTransfer.execute(executorService);
    }
@@ -43,6 +43,12 @@ public enum Type {
 
    private Set<Integer> segments;
 
+   /**
+    * The number of chunks the provider may send before the previous ones are applied, only used with
+    * {@link Type#START_STATE_TRANSFER}.
+    */
+   private int chunkCredits = 1;
+
    private StateProvider stateProvider;
 
    private StateRequestCommand() {
@@ -75,7 +81,7 @@ public Object perform(InvocationContext ctx) throws Throwable {
                return stateProvider.getTransactionsForSegments(getOrigin(), topologyId, segments);
 
             case START_STATE_TRANSFER:
-               stateProvider.startOutboundTransfer(getOrigin(), topologyId, segments);
+               stateProvider.startOutboundTransfer(getOrigin(), topologyId, segments, chunkCredits);
                // return a non-null value to ensure it will reach back to originator wrapped in a SuccessfulResponse (a null would not be sent back)
                return true;
 
@@ -122,6 +128,14 @@ public Set<Integer> getSegments() {
       return segments;
    }
 
+   public int getChunkCredits() {
+      return chunkCredits;
+   }
+
+   public void setChunkCredits(int chunkCredits) {
+      this.chunkCredits = chunkCredits;
+   }
+
    @Override
    public byte getCommandId() {
       return COMMAND_ID;
@@ -131,8 +145,9 @@ public byte getCommandId() {
    public void writeTo(ObjectOutput output) throws IOException {
       MarshallUtil.marshallEnum(type, output);
       switch (type) {
-         case GET_TRANSACTIONS:
          case START_STATE_TRANSFER:
+            output.writeInt(chunkCredits);
+         case GET_TRANSACTIONS:
          case CANCEL_STATE_TRANSFER:
             output.writeObject(getOrigin());
             MarshallUtil.marshallCollection(segments, output);
@@ -148,9 +163,10 @@ public void writeTo(ObjectOutput output) throws IOException {
    public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
       type = MarshallUtil.unmarshallEnum(input, ordinal -> Type.CACHED_VALUES[ordinal]);
       switch (type) {
+         case START_STATE_TRANSFER:
+            chunkCredits = input.readInt();
          case GET_TRANSACTIONS:
          case CANCEL_STATE_TRANSFER:
-         case START_STATE_TRANSFER:
             setOrigin((Address) input.readObject());
             segments = MarshallUtil.unmarshallCollectionUnbounded(input, HashSet::new);
          case GET_CACHE_LISTENERS:
@@ -168,6 +184,7 @@ public String toString() {
             ", type=" + type +
             ", topologyId=" + topologyId +
             ", segments=" + segments +
+            ", chunkCredits=" + chunkCredits +
             '}';
    }
 }
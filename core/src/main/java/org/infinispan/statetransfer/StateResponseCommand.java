@@ -72,6 +72,10 @@ public Object perform(InvocationContext ctx) throws Throwable {
       }
    }
 
+   public Collection<StateChunk> getStateChunks() {
+      return stateChunks;
+   }
+
    @Override
    public boolean isReturnValueExpected() {
       return false;
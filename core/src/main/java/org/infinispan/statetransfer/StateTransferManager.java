@@ -1,14 +1,18 @@
 package org.infinispan.statetransfer;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import org.infinispan.commands.TopologyAffectedCommand;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.DisplayType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.topology.CacheTopology;
@@ -68,6 +72,27 @@ public interface StateTransferManager {
     */
    int getFirstTopologyAsMember();
 
+   /**
+    * Returns the segments owned by the local node in the consistent hash persisted when the cache was last shut down
+    * gracefully. The coordinator restores that consistent hash when all its members rejoin, so it is the best guess
+    * of the local node's segments before the node has joined the cache.
+    *
+    * @return the owned segments, or an empty {@link Optional} if no consistent hash was persisted
+    */
+   Optional<Set<Integer>> getPersistedOwnedSegments();
+
    @ManagedAttribute(description = "Retrieves the rebalancing status for this cache. Possible values are PENDING, SUSPENDED, IN_PROGRESS, BALANCED", displayName = "Rebalancing progress", dataType = DataType.TRAIT)
    String getRebalancingStatus() throws Exception;
+
+   @ManagedAttribute(description = "Estimated number of bytes per second received by this node during the current or the last rebalance", displayName = "Inbound state transfer bytes per second", displayType = DisplayType.SUMMARY)
+   double getInboundStateTransferBytesPerSecond();
+
+   @ManagedAttribute(description = "Number of cache entries per second received by this node during the current or the last rebalance", displayName = "Inbound state transfer entries per second", displayType = DisplayType.SUMMARY)
+   double getInboundStateTransferEntriesPerSecond();
+
+   @ManagedAttribute(description = "Estimated time until this node has received all the segments of the current rebalance, or -1 if it cannot be estimated yet", displayName = "Inbound state transfer estimated time to completion", units = Units.MILLISECONDS, displayType = DisplayType.SUMMARY)
+   long getInboundStateTransferEstimatedTimeToCompletion();
+
+   @ManagedOperation(description = "Shows the state received for each segment during the current or the last rebalance", displayName = "Show inbound state transfer statistics per segment")
+   String showInboundSegmentStatistics();
 }
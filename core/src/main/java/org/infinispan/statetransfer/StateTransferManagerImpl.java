@@ -25,6 +25,7 @@
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.globalstate.GlobalStateManager;
+import org.infinispan.globalstate.ScopedPersistentState;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
 import org.infinispan.partitionhandling.impl.PartitionHandlingManager;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
@@ -36,6 +37,7 @@
 import org.infinispan.topology.CacheTopology;
 import org.infinispan.topology.CacheTopologyHandler;
 import org.infinispan.topology.LocalTopologyManager;
+import org.infinispan.topology.PersistentUUID;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -59,6 +61,7 @@ public class StateTransferManagerImpl implements StateTransferManager {
    private GlobalConfiguration globalConfiguration;
    private RpcManager rpcManager;
    private LocalTopologyManager localTopologyManager;
+   private Optional<ScopedPersistentState> persistentState;
    private Optional<Integer> persistentStateChecksum;
 
    private final CountDownLatch initialStateTransferComplete = new CountDownLatch(1);
@@ -93,10 +96,11 @@ public void init(StateConsumer stateConsumer,
       this.localTopologyManager = localTopologyManager;
       this.partitionHandlingManager = partitionHandlingManager;
       if (globalStateManager != null) {
-         persistentStateChecksum = globalStateManager.readScopedState(cacheName).map(state -> state.getChecksum());
+         persistentState = globalStateManager.readScopedState(cacheName);
       } else {
-         persistentStateChecksum = Optional.empty();
+         persistentState = Optional.empty();
       }
+      persistentStateChecksum = persistentState.map(state -> state.getChecksum());
    }
 
    // needs to be AFTER the DistributionManager and *after* the cache loader manager (if any) inits and preloads
@@ -158,6 +162,18 @@ private ConsistentHashFactory pickConsistentHashFactory() {
       return factory;
    }
 
+   @Override
+   public Optional<Set<Integer>> getPersistedOwnedSegments() {
+      return persistentState.flatMap(state -> {
+         ConsistentHash persistedCH = pickConsistentHashFactory().fromPersistentState(state);
+         PersistentUUID localUUID = localTopologyManager.getPersistentUUID();
+         // The persisted hash cannot be restored if the local node was not part of it
+         if (!persistedCH.getMembers().contains(localUUID))
+            return Optional.empty();
+         return Optional.of(persistedCH.getSegmentsForOwner(localUUID));
+      });
+   }
+
    /**
     * Decorates the given cache topology to add a key partitioner.
     *
@@ -256,6 +272,26 @@ public boolean isStateTransferInProgress() {
       return stateConsumer.isStateTransferInProgress();
    }
 
+   @Override
+   public double getInboundStateTransferBytesPerSecond() {
+      return stateConsumer.getInboundBytesPerSecond();
+   }
+
+   @Override
+   public double getInboundStateTransferEntriesPerSecond() {
+      return stateConsumer.getInboundEntriesPerSecond();
+   }
+
+   @Override
+   public long getInboundStateTransferEstimatedTimeToCompletion() {
+      return stateConsumer.getInboundEstimatedTimeToCompletion();
+   }
+
+   @Override
+   public String showInboundSegmentStatistics() {
+      return stateConsumer.getInboundSegmentStatistics();
+   }
+
    @Override
    public boolean isStateTransferInProgressForKey(Object key) {
       return stateConsumer.isStateTransferInProgressForKey(key);
@@ -0,0 +1,166 @@
+package org.infinispan.statetransfer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.infinispan.util.TimeService;
+
+/**
+ * Keeps track of the state received by the local node during the current (or the last) rebalance.
+ * <p>
+ * The number of entries a segment holds is not known in advance, so the estimated time to completion is derived from
+ * the rate at which segments have been completed so far.
+ *
+ * @since 9.0
+ */
+class StateTransferStatistics {
+
+   private final TimeService timeService;
+   private final ConcurrentMap<Integer, SegmentStatistics> segments = new ConcurrentHashMap<>();
+   private final LongAdder entries = new LongAdder();
+   private final LongAdder bytes = new LongAdder();
+   private volatile long startTime;
+   private volatile long endTime;
+   private volatile boolean inProgress;
+
+   StateTransferStatistics(TimeService timeService) {
+      this.timeService = timeService;
+   }
+
+   /**
+    * Resets the statistics at the beginning of a rebalance.
+    */
+   void start() {
+      segments.clear();
+      entries.reset();
+      bytes.reset();
+      startTime = timeService.time();
+      inProgress = true;
+   }
+
+   /**
+    * Freezes the statistics at the end of a rebalance.
+    */
+   void stop() {
+      if (inProgress) {
+         endTime = timeService.time();
+         inProgress = false;
+      }
+   }
+
+   void segmentsRequested(Set<Integer> segmentIds) {
+      long now = timeService.time();
+      for (Integer segmentId : segmentIds) {
+         segments.computeIfAbsent(segmentId, id -> new SegmentStatistics(now));
+      }
+   }
+
+   void segmentsCancelled(Set<Integer> segmentIds) {
+      segments.keySet().removeAll(segmentIds);
+   }
+
+   void chunkApplied(int segmentId, int chunkEntries, long chunkBytes, boolean isLastChunk) {
+      entries.add(chunkEntries);
+      bytes.add(chunkBytes);
+      SegmentStatistics segment = segments.get(segmentId);
+      if (segment != null) {
+         segment.chunkApplied(chunkEntries, chunkBytes, isLastChunk ? timeService.time() : 0);
+      }
+   }
+
+   double getBytesPerSecond() {
+      return perSecond(bytes.sum(), elapsedNanos());
+   }
+
+   double getEntriesPerSecond() {
+      return perSecond(entries.sum(), elapsedNanos());
+   }
+
+   /**
+    * @return the estimated time, in milliseconds, until all the requested segments are received, or -1 if no segment
+    * has been completed yet
+    */
+   long getEstimatedTimeToCompletion() {
+      if (!inProgress) {
+         return 0;
+      }
+      int requested = 0;
+      int finished = 0;
+      for (SegmentStatistics segment : segments.values()) {
+         requested++;
+         if (segment.endTime != 0) {
+            finished++;
+         }
+      }
+      if (finished == requested) {
+         return 0;
+      }
+      if (finished == 0) {
+         return -1;
+      }
+      return TimeUnit.NANOSECONDS.toMillis(elapsedNanos() * (requested - finished) / finished);
+   }
+
+   String getSegmentStatistics() {
+      SortedMap<Integer, SegmentStatistics> sorted = new TreeMap<>(segments);
+      StringBuilder sb = new StringBuilder();
+      long now = timeService.time();
+      for (Map.Entry<Integer, SegmentStatistics> e : sorted.entrySet()) {
+         SegmentStatistics segment = e.getValue();
+         long segmentEnd = segment.endTime != 0 ? segment.endTime : inProgress ? now : endTime;
+         long elapsed = segmentEnd - segment.startTime;
+         long segmentEntries = segment.entries.sum();
+         long segmentBytes = segment.bytes.sum();
+         if (sb.length() > 0) {
+            sb.append('\n');
+         }
+         sb.append("segment=").append(e.getKey())
+               .append(", completed=").append(segment.endTime != 0)
+               .append(", entries=").append(segmentEntries)
+               .append(", bytes=").append(segmentBytes)
+               .append(", entriesPerSecond=").append(String.format("%.1f", perSecond(segmentEntries, elapsed)))
+               .append(", bytesPerSecond=").append(String.format("%.1f", perSecond(segmentBytes, elapsed)));
+      }
+      return sb.toString();
+   }
+
+   private long elapsedNanos() {
+      long start = startTime;
+      if (start == 0) {
+         return 0;
+      }
+      return (inProgress ? timeService.time() : endTime) - start;
+   }
+
+   private static double perSecond(long count, long elapsedNanos) {
+      if (elapsedNanos <= 0) {
+         return 0;
+      }
+      return count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+   }
+
+   private static class SegmentStatistics {
+      final long startTime;
+      final LongAdder entries = new LongAdder();
+      final LongAdder bytes = new LongAdder();
+      volatile long endTime;
+
+      SegmentStatistics(long startTime) {
+         this.startTime = startTime;
+      }
+
+      void chunkApplied(int chunkEntries, long chunkBytes, long endTime) {
+         entries.add(chunkEntries);
+         bytes.add(chunkBytes);
+         if (endTime != 0) {
+            this.endTime = endTime;
+         }
+      }
+   }
+}
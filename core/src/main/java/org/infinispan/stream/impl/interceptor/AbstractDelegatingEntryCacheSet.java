@@ -1,5 +1,8 @@
 package org.infinispan.stream.impl.interceptor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.StreamSupport;
 
 import org.infinispan.Cache;
@@ -8,6 +11,7 @@
 import org.infinispan.commons.util.CloseableSpliterator;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.stream.impl.local.EntryStreamSupplier;
 import org.infinispan.stream.impl.local.LocalCacheStream;
 import org.infinispan.util.AbstractDelegatingCacheSet;
@@ -43,12 +47,28 @@ public CacheStream<CacheEntry<K, V>> parallelStream() {
 
    protected CacheStream<CacheEntry<K, V>> getStream(boolean parallel) {
       DistributionManager dm = cache.getAdvancedCache().getDistributionManager();
-      CloseableSpliterator<CacheEntry<K, V>> closeableSpliterator = spliterator();
-      CacheStream<CacheEntry<K, V>> stream = new LocalCacheStream<>(new EntryStreamSupplier<>(cache, dm != null ?
-              dm.getConsistentHash() : null, () -> StreamSupport.stream(closeableSpliterator, false)), parallel,
-              cache.getAdvancedCache().getComponentRegistry());
+      ConsistentHash ch = dm != null ? dm.getConsistentHash() : null;
+      // The spliterator is only created once the stream knows which segments it requires, local caches ignore them
+      List<CloseableSpliterator<CacheEntry<K, V>>> spliterators = new ArrayList<>(1);
+      CacheStream<CacheEntry<K, V>> stream = new LocalCacheStream<>(new EntryStreamSupplier<>(cache, ch,
+              (Set<Integer> segments) -> {
+         CloseableSpliterator<CacheEntry<K, V>> closeableSpliterator = spliterator(ch != null ? segments : null);
+         spliterators.add(closeableSpliterator);
+         return StreamSupport.stream(closeableSpliterator, false);
+      }), parallel, cache.getAdvancedCache().getComponentRegistry());
       // We rely on the fact that on close returns the same instance
-      stream.onClose(() -> closeableSpliterator.close());
+      stream.onClose(() -> spliterators.forEach(CloseableSpliterator::close));
       return stream;
    }
+
+   /**
+    * Returns a spliterator for the entries of the given segments, used by the streams of this set. The spliterator may
+    * return entries of other segments as well, they are filtered afterwards. By default it is the same as
+    * {@link #spliterator()}, implementations can override it to avoid reading the segments that are not required.
+    * @param segments the segments to retrieve, or <b>null</b> if all of them are required
+    * @return the spliterator of the entries
+    */
+   protected CloseableSpliterator<CacheEntry<K, V>> spliterator(Set<Integer> segments) {
+      return spliterator();
+   }
 }
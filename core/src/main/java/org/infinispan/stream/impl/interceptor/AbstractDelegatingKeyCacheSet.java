@@ -1,5 +1,8 @@
 package org.infinispan.stream.impl.interceptor;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.StreamSupport;
 
 import org.infinispan.Cache;
@@ -7,6 +10,7 @@
 import org.infinispan.CacheStream;
 import org.infinispan.commons.util.CloseableSpliterator;
 import org.infinispan.distribution.DistributionManager;
+import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.stream.impl.local.KeyStreamSupplier;
 import org.infinispan.stream.impl.local.LocalCacheStream;
 import org.infinispan.util.AbstractDelegatingCacheSet;
@@ -42,11 +46,26 @@ public CacheStream<K> parallelStream() {
 
    protected CacheStream<K> getStream(boolean parallel) {
       DistributionManager dm = cache.getAdvancedCache().getDistributionManager();
-      CloseableSpliterator<K> closeableSpliterator = spliterator();
-      CacheStream<K> stream = new LocalCacheStream<>(new KeyStreamSupplier<>(cache, dm != null ? dm.getConsistentHash() : null,
-              () -> StreamSupport.stream(closeableSpliterator, false)), parallel, cache.getAdvancedCache().getComponentRegistry());
+      ConsistentHash ch = dm != null ? dm.getConsistentHash() : null;
+      // The spliterator is only created once the stream knows which segments it requires, local caches ignore them
+      List<CloseableSpliterator<K>> spliterators = new ArrayList<>(1);
+      CacheStream<K> stream = new LocalCacheStream<>(new KeyStreamSupplier<>(cache, ch, (Set<Integer> segments) -> {
+         CloseableSpliterator<K> closeableSpliterator = spliterator(ch != null ? segments : null);
+         spliterators.add(closeableSpliterator);
+         return StreamSupport.stream(closeableSpliterator, false);
+      }), parallel, cache.getAdvancedCache().getComponentRegistry());
       // We rely on the fact that on close returns the same instance
-      stream.onClose(() -> closeableSpliterator.close());
+      stream.onClose(() -> spliterators.forEach(CloseableSpliterator::close));
       return stream;
    }
+
+   /**
+    * Returns a spliterator for the keys of the given segments, see
+    * {@link AbstractDelegatingEntryCacheSet#spliterator(Set)}.
+    * @param segments the segments to retrieve, or <b>null</b> if all of them are required
+    * @return the spliterator of the keys
+    */
+   protected CloseableSpliterator<K> spliterator(Set<Integer> segments) {
+      return spliterator();
+   }
 }
@@ -2,6 +2,7 @@
 
 import java.util.BitSet;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -25,9 +26,21 @@
 
    private final Cache<K, V> cache;
    private final ConsistentHash hash;
-   private final Supplier<Stream<CacheEntry<K, V>>> supplier;
+   private final Function<Set<Integer>, Stream<CacheEntry<K, V>>> supplier;
 
    public EntryStreamSupplier(Cache<K, V> cache, ConsistentHash hash, Supplier<Stream<CacheEntry<K, V>>> supplier) {
+      this(cache, hash, segments -> supplier.get());
+   }
+
+   /**
+    * Creates a supplier whose underlying stream is built with the segments that will be retrieved, allowing the stream
+    * source to skip the other segments altogether.  The segments are <b>null</b> when all of them are requested.
+    * @param cache the cache the entries belong to
+    * @param hash the consistent hash used to filter the segments, may be null for local caches
+    * @param supplier the function creating the underlying stream for the given segments
+    */
+   public EntryStreamSupplier(Cache<K, V> cache, ConsistentHash hash,
+         Function<Set<Integer>, Stream<CacheEntry<K, V>>> supplier) {
       this.cache = cache;
       this.hash = hash;
       this.supplier = supplier;
@@ -44,7 +57,7 @@ public Stream<CacheEntry<K, V>> buildStream(Set<Integer> segmentsToFilter, Set<?
          }
          stream = keysToFilter.stream().map(advancedCache::getCacheEntry).filter(e -> e != null);
       } else {
-         stream = supplier.get();
+         stream = supplier.apply(segmentsToFilter);
       }
       if (segmentsToFilter != null && hash != null) {
          if (trace) {
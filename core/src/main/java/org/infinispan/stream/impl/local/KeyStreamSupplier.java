@@ -25,9 +25,18 @@
 
    private final Cache<K, V> cache;
    private final ConsistentHash hash;
-   private final Supplier<Stream<K>> supplier;
+   private final Function<Set<Integer>, Stream<K>> supplier;
 
    public KeyStreamSupplier(Cache<K, V> cache, ConsistentHash hash, Supplier<Stream<K>> supplier) {
+      this(cache, hash, segments -> supplier.get());
+   }
+
+   /**
+    * Same as {@link EntryStreamSupplier#EntryStreamSupplier(Cache, ConsistentHash, Function)} but for keys: the
+    * function receives the requested segments, or <b>null</b> if all of them are requested.
+    */
+   public KeyStreamSupplier(Cache<K, V> cache, ConsistentHash hash,
+         Function<Set<Integer>, Stream<K>> supplier) {
       this.cache = cache;
       this.hash = hash;
       this.supplier = supplier;
@@ -44,7 +53,7 @@ public Stream<K> buildStream(Set<Integer> segmentsToFilter, Set<?> keysToFilter)
          AdvancedCache<K, V> advancedCache = cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL);
          stream = (Stream<K>) keysToFilter.stream().filter(k -> advancedCache.containsKey(k));
       } else {
-         stream = supplier.get();
+         stream = supplier.apply(segmentsToFilter);
       }
       if (segmentsToFilter != null && hash != null) {
          if (trace) {
@@ -45,6 +45,7 @@ public abstract class LocalTransaction extends AbstractCacheTransaction {
 
    private boolean prepareSent;
    private boolean commitOrRollbackSent;
+   private volatile boolean onePhaseCommitOnPrepare;
 
    public LocalTransaction(Transaction transaction, GlobalTransaction tx,
          boolean implicitTransaction, int topologyId, Equivalence<Object> keyEquivalence, long txCreationTime) {
@@ -240,4 +241,19 @@ public final boolean isCommitOrRollbackSent() {
       return commitOrRollbackSent;
    }
 
+   /**
+    * Marks this transaction as committed in one phase when the transaction manager prepares it, because all its
+    * modified keys have the same primary owner.
+    */
+   public final void markOnePhaseCommitOnPrepare() {
+      onePhaseCommitOnPrepare = true;
+   }
+
+   /**
+    * @return true if this transaction is committed in one phase when the transaction manager prepares it
+    */
+   public final boolean isOnePhaseCommitOnPrepare() {
+      return onePhaseCommitOnPrepare;
+   }
+
 }
@@ -3,7 +3,9 @@
 import static javax.transaction.xa.XAResource.XA_OK;
 import static javax.transaction.xa.XAResource.XA_RDONLY;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.transaction.Transaction;
 import javax.transaction.xa.XAException;
@@ -21,8 +23,10 @@
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.transaction.xa.GlobalTransaction;
 import org.infinispan.transaction.xa.recovery.RecoveryManager;
+import org.infinispan.util.concurrent.locks.LockUtil;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -46,11 +50,13 @@ public class TransactionCoordinator {
    private RecoveryManager recoveryManager;
    private Configuration configuration;
    private CommandCreator commandCreator;
+   private ClusteringDependentLogic clusteringLogic;
    private volatile boolean shuttingDown = false;
 
    private boolean totalOrder;
    private boolean defaultOnePhaseCommit;
    private boolean use1PcForAutoCommitTransactions;
+   private boolean use1PcForSingleOwnerTransactions;
 
    @Inject
    public void init(CommandsFactory commandsFactory, InvocationContextFactory icf, InterceptorChain invoker,
@@ -66,7 +72,12 @@ public void init(CommandsFactory commandsFactory, InvocationContextFactory icf,
       totalOrder = configuration.transaction().transactionProtocol().isTotalOrder();
       defaultOnePhaseCommit = Configurations.isOnePhaseCommit(configuration) ||
             Configurations.isOnePhaseTotalOrderCommit(configuration);
+      use1PcForSingleOwnerTransactions = Configurations.isOnePhaseSingleOwnerCommit(configuration);
+   }
 
+   @Inject
+   public void injectClusteringLogic(ClusteringDependentLogic clusteringLogic) {
+      this.clusteringLogic = clusteringLogic;
    }
 
    @Start(priority = 1)
@@ -114,6 +125,15 @@ public final int prepare(LocalTransaction localTransaction) throws XAException {
    }
 
    public final int prepare(LocalTransaction localTransaction, boolean replayEntryWrapping) throws XAException {
+      return prepare(localTransaction, replayEntryWrapping, localTransaction.isImplicitTransaction());
+   }
+
+   /**
+    * @param onlyParticipant true if the cache is the only participant in the transaction, so committing it during the
+    *                        prepare cannot break the atomicity of the transaction.
+    */
+   public final int prepare(LocalTransaction localTransaction, boolean replayEntryWrapping, boolean onlyParticipant)
+         throws XAException {
       validateNotMarkedForRollback(localTransaction);
 
       if (isOnePhaseCommit(localTransaction)) {
@@ -121,7 +141,13 @@ public final int prepare(LocalTransaction localTransaction, boolean replayEntryW
          return XA_OK;
       }
 
-      PrepareCommand prepareCommand = commandCreator.createPrepareCommand(localTransaction.getGlobalTransaction(), localTransaction.getModifications(), false);
+      boolean singleOwner = onlyParticipant && isSingleOwnerTransaction(localTransaction);
+      if (singleOwner) {
+         if (trace) log.tracef("All the keys of tx %s have the same primary owner, 1PC will be used.", localTransaction);
+         localTransaction.markOnePhaseCommitOnPrepare();
+      }
+      PrepareCommand prepareCommand = commandCreator.createPrepareCommand(localTransaction.getGlobalTransaction(), localTransaction.getModifications(), singleOwner);
+      prepareCommand.setSingleOwnerCommit(singleOwner);
       if (trace) log.tracef("Sending prepare command through the chain: %s", prepareCommand);
 
       LocalTxInvocationContext ctx = icf.createTxInvocationContext(localTransaction);
@@ -133,6 +159,9 @@ public final int prepare(LocalTransaction localTransaction, boolean replayEntryW
             // force a cleanup to release any objects held.  Some TMs don't call commit if it is a READ ONLY tx.  See ISPN-845
             commitInternal(ctx);
             return XA_RDONLY;
+         } else if (singleOwner) {
+            // Already committed, the commit call only has to release the transaction
+            return XA_OK;
          } else {
             txTable.localTransactionPrepared(localTransaction);
             return XA_OK;
@@ -155,6 +184,10 @@ public final int prepare(LocalTransaction localTransaction, boolean replayEntryW
 
    public boolean commit(LocalTransaction localTransaction, boolean isOnePhase) throws XAException {
       if (trace) log.tracef("Committing transaction %s", localTransaction.getGlobalTransaction());
+      if (localTransaction.isOnePhaseCommitOnPrepare()) {
+         if (trace) log.tracef("Transaction %s already committed in one phase", localTransaction.getGlobalTransaction());
+         return true;
+      }
       LocalTxInvocationContext ctx = icf.createTxInvocationContext(localTransaction);
       if (isOnePhaseCommit(localTransaction) || isOnePhase) {
          validateNotMarkedForRollback(localTransaction);
@@ -261,4 +294,25 @@ private static interface CommandCreator {
    private boolean isOnePhaseCommit(LocalTransaction localTransaction) {
       return defaultOnePhaseCommit || is1PcForAutoCommitTransaction(localTransaction);
    }
+
+   /**
+    * @return true if all the keys modified by the transaction have the same primary owner, which can lock, check and
+    * commit them in one phase and then apply the modifications on the backup owners in lock order. The local node
+    * must not be a backup owner, as it would commit its own copy without holding the primary owner's locks.
+    */
+   private boolean isSingleOwnerTransaction(LocalTransaction localTransaction) {
+      if (!use1PcForSingleOwnerTransactions || localTransaction.isReadOnly()) {
+         return false;
+      }
+      Set<Object> keys = new HashSet<>();
+      for (WriteCommand modification : localTransaction.getModifications()) {
+         Set<Object> affectedKeys = modification.getAffectedKeys();
+         if (affectedKeys.isEmpty()) {
+            // e.g. a clear, which affects all the owners
+            return false;
+         }
+         keys.addAll(affectedKeys);
+      }
+      return LockUtil.getSingleLockOwner(keys, clusteringLogic) != null;
+   }
 }
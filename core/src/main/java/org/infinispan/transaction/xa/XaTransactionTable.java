@@ -119,8 +119,8 @@ public void commit(Xid externalXid, boolean isOnePhase) throws XAException {
       } else if (isOnePhase) {
          //isOnePhase being true means that we're the only participant in the distributed transaction and TM does the
          //1PC optimization. We run a 2PC though, as running only 1PC has a high chance of leaving the cluster in
-         //inconsistent state.
-         txCoordinator.prepare(localTransaction);
+         //inconsistent state, unless all the keys have the same primary owner.
+         txCoordinator.prepare(localTransaction, false, true);
          committedInOnePhase = txCoordinator.commit(localTransaction, false);
       } else {
          committedInOnePhase = txCoordinator.commit(localTransaction, false);
@@ -1,7 +1,10 @@
 package org.infinispan.util.concurrent.locks;
 
+import java.util.Collection;
+
 import org.infinispan.atomic.DeltaCompositeKey;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
+import org.infinispan.remoting.transport.Address;
 
 /**
  * Utility methods for locking keys.
@@ -23,9 +26,7 @@ private LockUtil() {
     * @throws NullPointerException if {@code clusteringDependentLogic} is {@code null}.
     */
    public static LockOwnership getLockOwnership(Object key, ClusteringDependentLogic clusteringDependentLogic) {
-      Object keyToCheck = key instanceof DeltaCompositeKey ?
-            ((DeltaCompositeKey) key).getDeltaAwareValueKey() :
-            key;
+      Object keyToCheck = keyToCheck(key);
       if (clusteringDependentLogic.localNodeIsPrimaryOwner(keyToCheck)) {
          return LockOwnership.PRIMARY;
       } else if (clusteringDependentLogic.localNodeIsOwner(keyToCheck)) {
@@ -35,6 +36,36 @@ public static LockOwnership getLockOwnership(Object key, ClusteringDependentLogi
       }
    }
 
+   /**
+    * It finds the single primary owner locking all the {@code keys}, if there is one and if this node is not a backup
+    * owner of any of them.
+    *
+    * @param keys                     the keys to check
+    * @param clusteringDependentLogic the {@link ClusteringDependentLogic} to check the ownership of the keys.
+    * @return the primary owner of all the keys, or {@code null} if the keys have different primary owners or if this
+    * node is a backup owner of some key.
+    */
+   public static Address getSingleLockOwner(Collection<?> keys, ClusteringDependentLogic clusteringDependentLogic) {
+      Address lockOwner = null;
+      for (Object key : keys) {
+         if (getLockOwnership(key, clusteringDependentLogic) == LockOwnership.BACKUP) {
+            return null;
+         }
+         Address primaryOwner = clusteringDependentLogic.getPrimaryOwner(keyToCheck(key));
+         if (lockOwner == null) {
+            lockOwner = primaryOwner;
+         } else if (!lockOwner.equals(primaryOwner)) {
+            return null;
+         }
+      }
+      return lockOwner;
+   }
+
+   private static Object keyToCheck(Object key) {
+      return key instanceof DeltaCompositeKey ?
+            ((DeltaCompositeKey) key).getDeltaAwareValueKey() :
+            key;
+   }
 
    public enum LockOwnership {
       /**
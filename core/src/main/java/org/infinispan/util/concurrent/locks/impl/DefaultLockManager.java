@@ -25,6 +25,7 @@
 import org.infinispan.jmx.annotations.DataType;
 import org.infinispan.jmx.annotations.MBean;
 import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.DeadlockDetectedException;
 import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
@@ -168,8 +169,7 @@ public boolean isLocked(Object key) {
 
    @Override
    public Object getOwner(Object key) {
-      InfinispanLock lock = lockContainer.getLock(key);
-      return lock == null ? null : lock.getLockOwner();
+      return lockContainer.getLockOwner(key);
    }
 
    @Override
@@ -193,6 +193,16 @@ public int getNumberOfLocksAvailable() {
       return lockContainer.size() - lockContainer.getNumLocksHeld();
    }
 
+   @ManagedAttribute(description = "Number of lock acquisitions by number of lock owners already holding or waiting for the lock: 0, 1, 2-3, 4-7, 8-15 and 16 or more", displayName = "Lock contention histogram")
+   public long[] getLockContentionHistogram() {
+      return lockContainer.getContentionHistogram().getBuckets();
+   }
+
+   @ManagedOperation(description = "Resets the lock contention histogram", displayName = "Reset lock contention histogram")
+   public void resetLockContentionHistogram() {
+      lockContainer.getContentionHistogram().reset();
+   }
+
    @Override
    public InfinispanLock getLock(Object key) {
       return lockContainer.getLock(key);
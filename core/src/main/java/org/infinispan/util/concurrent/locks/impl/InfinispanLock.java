@@ -10,6 +10,7 @@
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.infinispan.util.TimeService;
@@ -44,6 +45,8 @@ public class InfinispanLock {
          newUpdater(InfinispanLock.class, LockPlaceHolder.class, "current");
    private static final AtomicReferenceFieldUpdater<LockPlaceHolder, LockState> STATE_UPDATER =
          newUpdater(LockPlaceHolder.class, LockState.class, "lockState");
+   private static final AtomicIntegerFieldUpdater<InfinispanLock> PENDING_UPDATER =
+         AtomicIntegerFieldUpdater.newUpdater(InfinispanLock.class, "pendingCount");
 
 
    private final Queue<LockPlaceHolder> pendingRequest;
@@ -51,6 +54,8 @@ public class InfinispanLock {
    private final Runnable releaseRunnable;
    private TimeService timeService;
    private volatile LockPlaceHolder current;
+   //the size of pendingRequest, ConcurrentLinkedQueue.size() traverses the queue
+   private volatile int pendingCount;
 
    /**
     * Creates a new instance.
@@ -133,6 +138,7 @@ public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUni
       }
 
       pendingRequest.add(lockPlaceHolder);
+      PENDING_UPDATER.incrementAndGet(this);
       tryAcquire(null);
       return lockPlaceHolder;
    }
@@ -194,6 +200,18 @@ public boolean isLocked() {
       return current != null;
    }
 
+   /**
+    * It returns the number of lock owners waiting for this lock, not counting the current lock owner.
+    * <p/>
+    * The lock owners which timed-out or were released while waiting are counted until the lock is acquired by the
+    * next one in the queue.
+    *
+    * @return the number of lock owners waiting for this lock.
+    */
+   public int getPendingCount() {
+      return pendingCount;
+   }
+
    /**
     * It forces a deadlock checking.
     */
@@ -272,7 +290,9 @@ private void tryAcquire(LockPlaceHolder release) {
          }
          if (cas(toRelease, toAcquire)) {
             //we set the current lock owner, so we must remove it from the queue
-            pendingRequest.remove(toAcquire);
+            if (pendingRequest.remove(toAcquire)) {
+               PENDING_UPDATER.decrementAndGet(this);
+            }
             if (toAcquire.setAcquire()) {
                if (trace) {
                   log.tracef("%s successfully acquired the lock.", toAcquire);
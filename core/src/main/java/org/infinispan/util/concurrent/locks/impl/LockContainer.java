@@ -29,6 +29,15 @@ public interface LockContainer {
 
    void release(Object key, Object lockOwner);
 
+   /**
+    * @param key the key to test.
+    * @return the owner of the lock of the key or {@code null} if it is not locked.
+    */
+   default Object getLockOwner(Object key) {
+      InfinispanLock lock = getLock(key);
+      return lock == null ? null : lock.getLockOwner();
+   }
+
    /**
     * @return number of locks held
     */
@@ -49,4 +58,9 @@ public interface LockContainer {
     * It forces a deadlock checks in all existing locks.
     */
    void deadlockCheck(DeadlockChecker deadlockChecker);
+
+   /**
+    * @return the histogram of the contention seen by the lock acquisitions.
+    */
+   LockContentionHistogram getContentionHistogram();
 }
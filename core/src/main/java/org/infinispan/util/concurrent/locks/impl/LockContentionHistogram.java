@@ -0,0 +1,71 @@
+package org.infinispan.util.concurrent.locks.impl;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the lock acquisitions of a {@link LockContainer} by the number of lock owners already holding or waiting for
+ * the lock when it was requested.
+ * <p>
+ * The buckets are powers of two: 0 (uncontended), 1, 2-3, 4-7, 8-15 and 16 or more lock owners.
+ *
+ * @since 9.0
+ */
+public class LockContentionHistogram {
+
+   public static final int BUCKETS = 6;
+
+   private final LongAdder[] buckets;
+
+   public LockContentionHistogram() {
+      buckets = new LongAdder[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+         buckets[i] = new LongAdder();
+      }
+   }
+
+   /**
+    * Records a lock acquisition.
+    *
+    * @param lockOwners the number of lock owners holding or waiting for the lock.
+    */
+   public void record(int lockOwners) {
+      buckets[bucket(lockOwners)].increment();
+   }
+
+   /**
+    * @return the number of lock acquisitions in each bucket.
+    */
+   public long[] getBuckets() {
+      long[] counts = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+         counts[i] = buckets[i].sum();
+      }
+      return counts;
+   }
+
+   public void reset() {
+      for (LongAdder bucket : buckets) {
+         bucket.reset();
+      }
+   }
+
+   static int bucket(int lockOwners) {
+      if (lockOwners <= 0) {
+         return 0;
+      }
+      return Math.min(BUCKETS - 1, 32 - Integer.numberOfLeadingZeros(lockOwners));
+   }
+
+   @Override
+   public String toString() {
+      long[] counts = getBuckets();
+      return "LockContentionHistogram{" +
+            "0=" + counts[0] +
+            ", 1=" + counts[1] +
+            ", 2-3=" + counts[2] +
+            ", 4-7=" + counts[3] +
+            ", 8-15=" + counts[4] +
+            ", 16+=" + counts[5] +
+            '}';
+   }
+}
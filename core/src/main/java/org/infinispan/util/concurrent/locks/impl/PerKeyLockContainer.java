@@ -21,6 +21,7 @@ public class PerKeyLockContainer implements LockContainer {
 
    private static final int INITIAL_CAPACITY = 32;
    private final EquivalentConcurrentHashMapV8<Object, InfinispanLock> lockMap;
+   private final LockContentionHistogram contentionHistogram = new LockContentionHistogram();
    private TimeService timeService;
 
    public PerKeyLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
@@ -41,6 +42,9 @@ public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, Time
       lockMap.compute(key, (aKey, lock) -> {
          if (lock == null) {
             lock = createInfinispanLock(aKey);
+            contentionHistogram.record(0);
+         } else {
+            contentionHistogram.record((lock.isLocked() ? 1 : 0) + lock.getPendingCount());
          }
          reference.set(lock.acquire(lockOwner, time, timeUnit));
          return lock;
@@ -88,6 +92,11 @@ public void deadlockCheck(DeadlockChecker deadlockChecker) {
       lockMap.values().forEach(lock -> lock.deadlockCheck(deadlockChecker));
    }
 
+   @Override
+   public LockContentionHistogram getContentionHistogram() {
+      return contentionHistogram;
+   }
+
    @Override
    public String toString() {
       return "PerKeyLockContainer{" +
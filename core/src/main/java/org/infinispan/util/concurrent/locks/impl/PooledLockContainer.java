@@ -0,0 +1,376 @@
+package org.infinispan.util.concurrent.locks.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.locks.DeadlockChecker;
+import org.infinispan.util.concurrent.locks.ExtendedLockPromise;
+import org.infinispan.util.concurrent.locks.LockListener;
+import org.infinispan.util.concurrent.locks.LockState;
+
+/**
+ * A lock container that maintains a lock per entry, optimized for uncontended keys.
+ * <p>
+ * An uncontended lock is a single state word, acquired and released with a compare-and-swap. It is inflated to an
+ * {@link InfinispanLock}, with its waiting queue, only when a second lock owner requests it and it is deflated once it
+ * is released and nobody is waiting. The released locks are pooled and reused for other keys.
+ *
+ * @since 9.0
+ */
+public class PooledLockContainer implements LockContainer {
+
+   private static final int INITIAL_CAPACITY = 32;
+   private static final int POOL_PROBES = 4;
+   private static final Object INFLATED = new Object() {
+      @Override
+      public String toString() {
+         return "INFLATED";
+      }
+   };
+   private static final Object RETIRED = new Object() {
+      @Override
+      public String toString() {
+         return "RETIRED";
+      }
+   };
+   private static final AtomicReferenceFieldUpdater<PooledLock, Object> STATE_UPDATER =
+         AtomicReferenceFieldUpdater.newUpdater(PooledLock.class, Object.class, "state");
+
+   private final EquivalentConcurrentHashMapV8<Object, PooledLock> lockMap;
+   private final AtomicReferenceArray<PooledLock> pool;
+   private final LockContentionHistogram contentionHistogram = new LockContentionHistogram();
+   private TimeService timeService;
+
+   public PooledLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
+      lockMap = new EquivalentConcurrentHashMapV8<>(INITIAL_CAPACITY, concurrencyLevel, keyEquivalence, AnyEquivalence.getInstance());
+      int poolSize = Integer.highestOneBit(Math.max(16, concurrencyLevel * 2) - 1) << 1;
+      pool = new AtomicReferenceArray<>(poolSize);
+   }
+
+   @Inject
+   public void inject(TimeService timeService) {
+      this.timeService = timeService;
+      for (PooledLock lock : lockMap.values()) {
+         synchronized (lock) {
+            if (lock.inflated != null) {
+               lock.inflated.setTimeService(timeService);
+            }
+         }
+      }
+   }
+
+   @Override
+   public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
+      while (true) {
+         PooledLock lock = lockMap.get(key);
+         if (lock == null) {
+            PooledLock newLock = take(key, lockOwner);
+            lock = lockMap.putIfAbsent(key, newLock);
+            if (lock == null) {
+               contentionHistogram.record(0);
+               return new AcquiredLockPromise(lockOwner);
+            }
+            newLock.state = RETIRED;
+            recycle(newLock);
+         }
+         if (isOwner(lock.state, lockOwner) && lockMap.get(key) == lock) {
+            //re-entrant acquisition
+            return new AcquiredLockPromise(lockOwner);
+         }
+         ExtendedLockPromise promise = acquireInflated(key, lock, lockOwner, time, timeUnit);
+         if (promise != null) {
+            return promise;
+         }
+         //the lock was released in the meanwhile, retry
+      }
+   }
+
+   @Override
+   public InfinispanLock getLock(Object key) {
+      PooledLock lock = lockMap.get(key);
+      if (lock == null) {
+         return null;
+      }
+      synchronized (lock) {
+         if (lockMap.get(key) != lock || lock.state == RETIRED) {
+            return null;
+         }
+         return inflate(lock) ? lock.inflated : null;
+      }
+   }
+
+   @Override
+   public Object getLockOwner(Object key) {
+      PooledLock lock = lockMap.get(key);
+      if (lock == null) {
+         return null;
+      }
+      Object state = lock.state;
+      if (state == RETIRED) {
+         return null;
+      } else if (state != INFLATED) {
+         return state;
+      }
+      synchronized (lock) {
+         return lock.inflated == null ? null : lock.inflated.getLockOwner();
+      }
+   }
+
+   @Override
+   public void release(Object key, Object lockOwner) {
+      PooledLock lock = lockMap.get(key);
+      if (lock == null) {
+         return;
+      }
+      Object state = lock.state;
+      if (isOwner(state, lockOwner)) {
+         if (STATE_UPDATER.compareAndSet(lock, state, RETIRED)) {
+            lockMap.remove(key, lock);
+            recycle(lock);
+            return;
+         }
+         //inflated in the meanwhile
+         state = lock.state;
+      }
+      if (state != INFLATED) {
+         //not locked by lockOwner
+         return;
+      }
+      InfinispanLock inflated;
+      synchronized (lock) {
+         if (lock.state != INFLATED || lockMap.get(key) != lock) {
+            return;
+         }
+         inflated = lock.inflated;
+      }
+      inflated.release(lockOwner);
+      tryDeflate(key, lock, inflated);
+   }
+
+   @Override
+   public int getNumLocksHeld() {
+      int count = 0;
+      for (PooledLock lock : lockMap.values()) {
+         if (lock.isLocked()) {
+            count++;
+         }
+      }
+      return count;
+   }
+
+   @Override
+   public boolean isLocked(Object key) {
+      return getLockOwner(key) != null;
+   }
+
+   @Override
+   public int size() {
+      return lockMap.size();
+   }
+
+   @Override
+   public void deadlockCheck(DeadlockChecker deadlockChecker) {
+      for (PooledLock lock : lockMap.values()) {
+         InfinispanLock inflated;
+         synchronized (lock) {
+            inflated = lock.inflated;
+         }
+         if (inflated != null) {
+            inflated.deadlockCheck(deadlockChecker);
+         }
+      }
+   }
+
+   @Override
+   public LockContentionHistogram getContentionHistogram() {
+      return contentionHistogram;
+   }
+
+   @Override
+   public String toString() {
+      return "PooledLockContainer{" +
+            "locks=" + lockMap +
+            '}';
+   }
+
+   private ExtendedLockPromise acquireInflated(Object key, PooledLock lock, Object lockOwner, long time,
+                                               TimeUnit timeUnit) {
+      synchronized (lock) {
+         if (lockMap.get(key) != lock || lock.state == RETIRED || !inflate(lock)) {
+            return null;
+         }
+         InfinispanLock inflated = lock.inflated;
+         contentionHistogram.record(1 + lock.waiting);
+         ExtendedLockPromise promise = inflated.acquire(lockOwner, time, timeUnit);
+         if (!promise.isAvailable()) {
+            lock.waiting++;
+            promise.addListener(state -> {
+               synchronized (lock) {
+                  if (lock.inflated == inflated) {
+                     lock.waiting--;
+                  }
+               }
+            });
+         }
+         return promise;
+      }
+   }
+
+   /**
+    * Replaces the state word of the lock by an {@link InfinispanLock} acquired by the current lock owner. It must be
+    * invoked while holding the monitor of the lock.
+    *
+    * @return {@code false} if the lock owner released the lock in the meanwhile.
+    */
+   private boolean inflate(PooledLock lock) {
+      if (lock.inflated != null) {
+         return true;
+      }
+      Object owner = lock.state;
+      if (owner == RETIRED) {
+         return false;
+      }
+      InfinispanLock inflated = new InfinispanLock(timeService);
+      inflated.acquire(owner, 0, TimeUnit.MILLISECONDS);
+      if (!STATE_UPDATER.compareAndSet(lock, owner, INFLATED)) {
+         return false;
+      }
+      lock.inflated = inflated;
+      return true;
+   }
+
+   private void tryDeflate(Object key, PooledLock lock, InfinispanLock inflated) {
+      synchronized (lock) {
+         if (lock.inflated != inflated || inflated.isLocked() || lockMap.get(key) != lock) {
+            return;
+         }
+         lock.state = RETIRED;
+         lockMap.remove(key, lock);
+      }
+      recycle(lock);
+   }
+
+   private PooledLock take(Object key, Object lockOwner) {
+      int start = probeStart();
+      for (int i = 0; i < POOL_PROBES; i++) {
+         int index = (start + i) & (pool.length() - 1);
+         PooledLock lock = pool.get(index);
+         if (lock != null && pool.compareAndSet(index, lock, null)) {
+            lock.key = key;
+            lock.state = lockOwner;
+            return lock;
+         }
+      }
+      return new PooledLock(key, lockOwner);
+   }
+
+   private void recycle(PooledLock lock) {
+      synchronized (lock) {
+         lock.key = null;
+         lock.inflated = null;
+         lock.waiting = 0;
+      }
+      int start = probeStart();
+      for (int i = 0; i < POOL_PROBES; i++) {
+         int index = (start + i) & (pool.length() - 1);
+         if (pool.get(index) == null && pool.compareAndSet(index, null, lock)) {
+            return;
+         }
+      }
+   }
+
+   private int probeStart() {
+      return (int) Thread.currentThread().getId() * POOL_PROBES;
+   }
+
+   private static boolean isOwner(Object state, Object lockOwner) {
+      return state == lockOwner || (state != INFLATED && state != RETIRED && lockOwner.equals(state));
+   }
+
+   private static class PooledLock {
+      // the lock owner, INFLATED or RETIRED
+      volatile Object state;
+      // guarded by the monitor
+      Object key;
+      InfinispanLock inflated;
+      int waiting;
+
+      PooledLock(Object key, Object state) {
+         this.key = key;
+         this.state = state;
+      }
+
+      boolean isLocked() {
+         Object current = state;
+         if (current == RETIRED) {
+            return false;
+         } else if (current != INFLATED) {
+            return true;
+         }
+         synchronized (this) {
+            return inflated != null && inflated.isLocked();
+         }
+      }
+
+      @Override
+      public String toString() {
+         return "PooledLock{" +
+               "state=" + state +
+               '}';
+      }
+   }
+
+   /**
+    * The {@link ExtendedLockPromise} of a lock acquired without contention.
+    */
+   private static class AcquiredLockPromise implements ExtendedLockPromise {
+      private final Object lockOwner;
+
+      AcquiredLockPromise(Object lockOwner) {
+         this.lockOwner = lockOwner;
+      }
+
+      @Override
+      public boolean isAvailable() {
+         return true;
+      }
+
+      @Override
+      public void lock() {
+         //already acquired
+      }
+
+      @Override
+      public void addListener(LockListener listener) {
+         listener.onEvent(LockState.ACQUIRED);
+      }
+
+      @Override
+      public void cancel(LockState cause) {
+         //no-op, already acquired
+      }
+
+      @Override
+      public Object getRequestor() {
+         return lockOwner;
+      }
+
+      @Override
+      public Object getOwner() {
+         return lockOwner;
+      }
+
+      @Override
+      public String toString() {
+         return "AcquiredLockPromise{" +
+               "lockOwner=" + lockOwner +
+               '}';
+      }
+   }
+}
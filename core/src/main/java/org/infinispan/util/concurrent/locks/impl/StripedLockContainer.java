@@ -22,6 +22,7 @@ public class StripedLockContainer implements LockContainer {
 
    private final InfinispanLock[] sharedLocks;
    private final StripedHashFunction<Object> hashFunction;
+   private final LockContentionHistogram contentionHistogram = new LockContentionHistogram();
 
    public StripedLockContainer(int concurrencyLevel, Equivalence<Object> keyEquivalence) {
       this.hashFunction = new StripedHashFunction<>(keyEquivalence, concurrencyLevel);
@@ -41,7 +42,9 @@ public void inject(TimeService timeService) {
 
    @Override
    public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
-      return getLock(key).acquire(lockOwner, time, timeUnit);
+      InfinispanLock lock = getLock(key);
+      contentionHistogram.record((lock.isLocked() ? 1 : 0) + lock.getPendingCount());
+      return lock.acquire(lockOwner, time, timeUnit);
    }
 
    @Override
@@ -80,6 +83,11 @@ public void deadlockCheck(DeadlockChecker deadlockChecker) {
       forEach(sharedLocks, lock -> lock.deadlockCheck(deadlockChecker));
    }
 
+   @Override
+   public LockContentionHistogram getContentionHistogram() {
+      return contentionHistogram;
+   }
+
    @Override
    public String toString() {
       return "StripedLockContainer{" +
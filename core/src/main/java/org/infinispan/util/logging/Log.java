@@ -39,6 +39,7 @@
 import org.infinispan.commons.util.TypedProperties;
 import org.infinispan.jmx.JmxDomainConflictException;
 import org.infinispan.lifecycle.ComponentStatus;
+import org.infinispan.notifications.Listener;
 import org.infinispan.partitionhandling.AvailabilityException;
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.persistence.support.SingletonCacheWriter;
@@ -1448,4 +1449,24 @@ TimeoutException timeoutWaitingForView(int expectedViewId, int currentViewId,
 
    @Message(value = "Cannot enable '%s' in invalidation caches!", id = 420)
    CacheConfigurationException attributeNotAllowedInInvalidationMode(String attributeName);
+
+   @LogMessage(level = WARN)
+   @Message(value = "The event queue of asynchronous listener %s is full, discarding events according to its %s overflow policy", id = 421)
+   void listenerQueueFull(String listener, Listener.Overflow overflow);
+
+   @Message(value = "The backup queue can only be used with asynchronous backup strategy.", id = 422)
+   CacheConfigurationException backupQueueSyncBackup();
+
+   @Message(value = "The backup queue max batch size must be greater than 0, but was %d", id = 423)
+   CacheConfigurationException invalidBackupQueueMaxBatchSize(int maxBatchSize);
+
+   @Message(value = "The backup queue flush interval must be greater than 0, but was %d", id = 424)
+   CacheConfigurationException invalidBackupQueueFlushInterval(long flushInterval);
+
+   @Message(value = "The backup queue max size %d must be at least its max batch size %d", id = 425)
+   CacheConfigurationException invalidBackupQueueMaxSize(int maxSize, int maxBatchSize);
+
+   @LogMessage(level = WARN)
+   @Message(value = "The backup queue of cache '%s' for site '%s' exceeded %d modifications. Taking the site offline and discarding the queued modifications: the site must receive a state transfer once it is back online", id = 426)
+   void backupQueueFull(String cacheName, String siteName, int maxSize);
 }
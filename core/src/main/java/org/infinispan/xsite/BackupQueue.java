@@ -0,0 +1,327 @@
+package org.infinispan.xsite;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.PutMapCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.equivalence.EquivalentLinkedHashMap;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.cache.BackupQueueConfiguration;
+import org.infinispan.remoting.transport.BackupResponse;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.transaction.xa.TransactionFactory;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Collects the modifications sent to an asynchronous backup site and sends them in batches.
+ * <p>
+ * Only the last modification of each key is kept, and a clear discards all the modifications queued before it. The
+ * queued modifications are sent every {@link BackupQueueConfiguration#flushInterval()} milliseconds, or as soon as
+ * {@link BackupQueueConfiguration#maxBatchSize()} keys are queued, as one-phase prepare commands of at most
+ * {@link BackupQueueConfiguration#maxBatchSize()} modifications. A batch that could not reach the site is merged back
+ * into the queue, without overriding the modifications queued in the meantime, and sent again later. While the site is
+ * offline nothing is sent, and the queue is flushed as soon as it is brought back online.
+ * <p>
+ * When more than {@link BackupQueueConfiguration#maxSize()} modifications are queued, the queue is discarded and the
+ * site is taken offline. Modifications are ignored until the site is brought back online, as the site needs a state
+ * transfer anyway.
+ *
+ * @since 9.0
+ */
+public class BackupQueue {
+
+   private static final Log log = LogFactory.getLog(BackupQueue.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final String cacheName;
+   private final XSiteBackup backup;
+   private final BackupQueueConfiguration config;
+   private final OfflineStatus offlineStatus;
+   private final Transport transport;
+   private final CommandsFactory commandsFactory;
+   private final TimeService timeService;
+   private final ExecutorService executor;
+   private final Equivalence<Object> keyEquivalence;
+   private final AtomicBoolean flushing = new AtomicBoolean();
+
+   // Guarded by this
+   private Map<Object, WriteCommand> pending;
+   private boolean pendingClear;
+   private boolean overflowed;
+   private long oldestPendingTime = -1;
+   private long batchCount;
+   private long sentCount;
+
+   private volatile ScheduledFuture<?> flushTask;
+
+   BackupQueue(String cacheName, XSiteBackup backup, BackupQueueConfiguration config, OfflineStatus offlineStatus,
+               Transport transport, CommandsFactory commandsFactory, TimeService timeService,
+               ExecutorService executor, Equivalence<Object> keyEquivalence) {
+      this.cacheName = cacheName;
+      this.backup = backup;
+      this.config = config;
+      this.offlineStatus = offlineStatus;
+      this.transport = transport;
+      this.commandsFactory = commandsFactory;
+      this.timeService = timeService;
+      this.executor = executor;
+      this.keyEquivalence = keyEquivalence;
+      this.pending = newPendingMap();
+   }
+
+   void start(ScheduledExecutorService scheduler) {
+      long interval = config.flushInterval();
+      flushTask = scheduler.scheduleWithFixedDelay(this::flushAsync, interval, interval, TimeUnit.MILLISECONDS);
+   }
+
+   void stop() {
+      ScheduledFuture<?> task = flushTask;
+      if (task != null) {
+         task.cancel(false);
+         flushTask = null;
+      }
+   }
+
+   /**
+    * Queues the modifications to be sent to the backup site.
+    */
+   void enqueue(Collection<WriteCommand> modifications) {
+      boolean batchFull;
+      boolean full;
+      synchronized (this) {
+         if (overflowed) {
+            return;
+         }
+         for (WriteCommand command : modifications) {
+            if (command instanceof ClearCommand) {
+               pending.clear();
+               pendingClear = true;
+            } else if (command instanceof PutMapCommand) {
+               PutMapCommand putMap = (PutMapCommand) command;
+               for (Map.Entry<Object, Object> entry : putMap.getMap().entrySet()) {
+                  queue(entry.getKey(), commandsFactory.buildPutKeyValueCommand(entry.getKey(), entry.getValue(),
+                        putMap.getMetadata(), putMap.getFlagsBitSet()));
+               }
+            } else if (command instanceof PutKeyValueCommand || command instanceof RemoveCommand) {
+               // The backup sender already made them unconditional
+               queue(((DataWriteCommand) command).getKey(), command);
+            } else if (trace) {
+               log.tracef("Not queueing %s for site %s, the backup site would ignore it", command, backup.getSiteName());
+            }
+         }
+         if (oldestPendingTime < 0 && !isEmpty()) {
+            oldestPendingTime = timeService.wallClockTime();
+         }
+         batchFull = pending.size() >= config.maxBatchSize();
+         full = pending.size() > config.maxSize();
+         if (full) {
+            overflowed = true;
+            pending = newPendingMap();
+            pendingClear = false;
+            oldestPendingTime = -1;
+         }
+      }
+      if (full) {
+         log.backupQueueFull(cacheName, backup.getSiteName(), config.maxSize());
+         offlineStatus.forceOffline();
+      } else if (batchFull) {
+         flushAsync();
+      }
+   }
+
+   /**
+    * Starts queueing the modifications again after the queue overflowed, and sends the queued modifications.
+    */
+   void siteOnline() {
+      synchronized (this) {
+         overflowed = false;
+      }
+      flushAsync();
+   }
+
+   private void queue(Object key, WriteCommand command) {
+      // Remove first, so that the key moves to the end of the queue
+      pending.remove(key);
+      pending.put(key, command);
+   }
+
+   /**
+    * Sends the queued modifications from the transport executor, unless a flush is already in progress.
+    */
+   void flushAsync() {
+      synchronized (this) {
+         if (isEmpty())
+            return;
+      }
+      if (offlineStatus.isOffline() || !flushing.compareAndSet(false, true))
+         return;
+      try {
+         executor.execute(() -> {
+            try {
+               flush();
+            } finally {
+               flushing.set(false);
+            }
+         });
+      } catch (RejectedExecutionException e) {
+         flushing.set(false);
+         log.tracef(e, "Could not flush the backup queue for site %s", backup.getSiteName());
+      }
+   }
+
+   private void flush() {
+      boolean clear;
+      List<WriteCommand> modifications;
+      long flushTime;
+      synchronized (this) {
+         clear = pendingClear;
+         modifications = new ArrayList<>(pending.values());
+         pendingClear = false;
+         pending = newPendingMap();
+         flushTime = timeService.wallClockTime();
+      }
+      if (trace) {
+         log.tracef("Flushing %s modifications (clear=%s) to site %s", (Object) modifications.size(), clear,
+                    backup.getSiteName());
+      }
+
+      if (clear && !send(commandsFactory.buildClearCommand(EnumUtil.EMPTY_BIT_SET), 0)) {
+         requeue(true, modifications);
+         return;
+      }
+      int maxBatchSize = config.maxBatchSize();
+      for (int start = 0; start < modifications.size(); start += maxBatchSize) {
+         List<WriteCommand> batch = modifications.subList(start, Math.min(start + maxBatchSize, modifications.size()));
+         GlobalTransaction gtx = TransactionFactory.TxFactoryEnum.NODLD_NORECOVERY_XA
+               .newGlobalTransaction(transport.getAddress(), false, null, true);
+         if (!send(commandsFactory.buildPrepareCommand(gtx, new ArrayList<>(batch), true), batch.size())) {
+            requeue(false, modifications.subList(start, modifications.size()));
+            return;
+         }
+      }
+
+      synchronized (this) {
+         // Everything still queued was added after the flush started
+         oldestPendingTime = isEmpty() ? -1 : flushTime;
+      }
+   }
+
+   /**
+    * @return {@code false} if the command could not reach the backup site and should be sent again later.
+    */
+   private boolean send(VisitableCommand command, int modificationCount) {
+      Throwable failure;
+      boolean communicationError;
+      long sendTimeMillis;
+      try {
+         BackupResponse response = transport.backupRemotely(Collections.singleton(backup),
+                                                            commandsFactory.buildSingleXSiteRpcCommand(command));
+         response.waitForBackupToFinish();
+         failure = response.getFailedBackups().get(backup.getSiteName());
+         communicationError = response.getCommunicationErrors().contains(backup.getSiteName());
+         sendTimeMillis = response.getSendTimeMillis();
+      } catch (Exception e) {
+         failure = e;
+         communicationError = true;
+         sendTimeMillis = TimeUnit.NANOSECONDS.toMillis(timeService.time());
+      }
+
+      if (failure == null) {
+         if (offlineStatus.isEnabled() && !offlineStatus.isOffline()) {
+            offlineStatus.reset();
+         }
+         if (modificationCount > 0) {
+            synchronized (this) {
+               batchCount++;
+               sentCount += modificationCount;
+            }
+         }
+         return true;
+      }
+      if (!communicationError) {
+         // The site received the batch but could not apply it, sending it again would not help
+         log.warnXsiteBackupFailed(cacheName, backup.getSiteName(), failure);
+         return true;
+      }
+      log.tracef(failure, "Could not reach site %s, the modifications will be sent again", backup.getSiteName());
+      if (offlineStatus.isEnabled()) {
+         offlineStatus.updateOnCommunicationFailure(sendTimeMillis);
+      }
+      return false;
+   }
+
+   private synchronized void requeue(boolean clear, List<WriteCommand> modifications) {
+      if (pendingClear || overflowed) {
+         // A clear was queued in the meantime, or the queue overflowed: the failed modifications are obsolete
+         return;
+      }
+      Map<Object, WriteCommand> merged = newPendingMap();
+      for (WriteCommand command : modifications) {
+         merged.put(((DataWriteCommand) command).getKey(), command);
+      }
+      for (Map.Entry<Object, WriteCommand> entry : pending.entrySet()) {
+         merged.remove(entry.getKey());
+         merged.put(entry.getKey(), entry.getValue());
+      }
+      pending = merged;
+      pendingClear = clear;
+   }
+
+   private Map<Object, WriteCommand> newPendingMap() {
+      return CollectionFactory.makeLinkedMap(16, 0.75f, EquivalentLinkedHashMap.IterationOrder.INSERT_ORDER,
+                                             keyEquivalence, AnyEquivalence.getInstance());
+   }
+
+   private boolean isEmpty() {
+      return !pendingClear && pending.isEmpty();
+   }
+
+   /**
+    * @return the number of modifications waiting to be sent to the backup site.
+    */
+   public synchronized int size() {
+      return pending.size() + (pendingClear ? 1 : 0);
+   }
+
+   /**
+    * @return the age in milliseconds of the oldest modification not yet applied by the backup site, or 0 if there is
+    * no such modification.
+    */
+   public synchronized long lag() {
+      return oldestPendingTime < 0 ? 0 : Math.max(0, timeService.wallClockTime() - oldestPendingTime);
+   }
+
+   /**
+    * @return the average number of modifications in the batches sent to the backup site.
+    */
+   public synchronized double averageBatchSize() {
+      return batchCount == 0 ? 0 : (double) sentCount / batchCount;
+   }
+
+   @Override
+   public String toString() {
+      return "BackupQueue{site=" + backup.getSiteName() + ", size=" + size() + "}";
+   }
+}
@@ -42,6 +42,12 @@ public interface BackupSender {
 
    OfflineStatus getOfflineStatus(String siteName);
 
+   /**
+    * Returns the queue batching the modifications sent to the given site, or {@code null} if the site is not backed
+    * up through a queue.
+    */
+   BackupQueue getBackupQueue(String siteName);
+
    /**
     * Returns a Map having as entries the site names and as value Boolean.TRUE if the site is online and Boolean.FALSE
     * if it is offline.
@@ -11,6 +11,8 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 import javax.transaction.Transaction;
 
@@ -36,8 +38,11 @@
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.remoting.transport.AggregateBackupResponse;
 import org.infinispan.remoting.transport.BackupResponse;
 import org.infinispan.remoting.transport.Transport;
@@ -68,7 +73,10 @@ public class BackupSenderImpl implements BackupSender {
    private CommandsFactory commandsFactory;
    private final Map<String, CustomFailurePolicy> siteFailurePolicy = new HashMap<>();
    private final ConcurrentMap<String, OfflineStatus> offlineStatus = CollectionFactory.makeConcurrentMap();
+   private final Map<String, BackupQueue> backupQueues = new HashMap<>();
    private EventLogManager eventLogManager;
+   private ExecutorService asyncTransportExecutor;
+   private ScheduledExecutorService timeoutExecutor;
 
    private final String localSiteName;
    private String cacheName;
@@ -82,7 +90,9 @@ public BackupSenderImpl(String localSiteName) {
 
    @Inject
    public void init(Cache cache, Transport transport, TransactionTable txTable, GlobalConfiguration gc,
-                    TimeService timeService, CommandsFactory commandsFactory, EventLogManager eventLogManager) {
+                    TimeService timeService, CommandsFactory commandsFactory, EventLogManager eventLogManager,
+                    @ComponentName(KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR) ExecutorService asyncTransportExecutor,
+                    @ComponentName(KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR) ScheduledExecutorService timeoutExecutor) {
       this.cache = cache;
       this.transport = transport;
       this.txTable = txTable;
@@ -90,6 +100,8 @@ public void init(Cache cache, Transport transport, TransactionTable txTable, Glo
       this.timeService = timeService;
       this.commandsFactory = commandsFactory;
       this.eventLogManager = eventLogManager;
+      this.asyncTransportExecutor = asyncTransportExecutor;
+      this.timeoutExecutor = timeoutExecutor;
    }
 
    @Start
@@ -120,9 +132,23 @@ public void siteOffline() {
                                                       }
                                                    });
          offlineStatus.put(siteName, offline);
+         if (bc.isAsyncBackup() && bc.queue().enabled() && !siteName.equals(localSiteName)) {
+            // The queue waits for the acknowledgement, so that it can send the batch again if it failed
+            XSiteBackup backup = new XSiteBackup(siteName, true, bc.replicationTimeout());
+            BackupQueue queue = new BackupQueue(cacheName, backup, bc.queue(), offline, transport, commandsFactory,
+                                                timeService, asyncTransportExecutor,
+                                                cache.getCacheConfiguration().dataContainer().keyEquivalence());
+            queue.start(timeoutExecutor);
+            backupQueues.put(siteName, queue);
+         }
       }
    }
 
+   @Stop
+   public void stop() {
+      backupQueues.values().forEach(BackupQueue::stop);
+   }
+
    @Override
    public BackupResponse backupPrepare(PrepareCommand command) throws Exception {
       List<WriteCommand> modifications = filterModifications(command.getModifications());
@@ -133,6 +159,9 @@ public BackupResponse backupPrepare(PrepareCommand command) throws Exception {
                                                                    command.isOnePhaseCommit());
       //if we run a 2PC then filter out 1PC prepare backup calls as they will happen during the local commit phase.
       BackupFilter filter = !prepare.isOnePhaseCommit() ? BackupFilter.KEEP_2PC_ONLY : BackupFilter.KEEP_ALL;
+      if (prepare.isOnePhaseCommit()) {
+         enqueue(modifications);
+      }
       List<XSiteBackup> backups = calculateBackupInfo(filter);
       return backupCommand(prepare, backups);
    }
@@ -169,6 +198,7 @@ private void updateOfflineSites(BackupResponse backupResponse) {
 
    @Override
    public BackupResponse backupWrite(WriteCommand command) throws Exception {
+      enqueue(filterModifications(Collections.singletonList(command)));
       List<XSiteBackup> xSiteBackups = calculateBackupInfo(BackupFilter.KEEP_ALL);
       return backupCommand(command, xSiteBackups);
    }
@@ -212,6 +242,12 @@ public TakeSiteOfflineResponse takeSiteOffline(String siteName) {
       }
    }
 
+   private void enqueue(List<WriteCommand> modifications) {
+      for (BackupQueue queue : backupQueues.values()) {
+         queue.enqueue(modifications);
+      }
+   }
+
    private BackupResponse backupCommand(VisitableCommand command, List<XSiteBackup> xSiteBackups) throws Exception {
       return transport.backupRemotely(xSiteBackups, commandsFactory.buildSingleXSiteRpcCommand(command));
    }
@@ -222,6 +258,7 @@ private BackupResponse sendTo1PCBackups(CommitCommand command) throws Exception
       if (modifications.isEmpty()) {
          return EMPTY_RESPONSE;
       }
+      enqueue(modifications);
       List<XSiteBackup> backups = calculateBackupInfo(BackupFilter.KEEP_1PC_ONLY);
       PrepareCommand prepare = commandsFactory.buildPrepareCommand(command.getGlobalTransaction(),
                                                                    modifications, true);
@@ -269,6 +306,11 @@ private List<XSiteBackup> calculateBackupInfo(BackupFilter backupFilter) {
                continue;
          }
 
+         if (backupQueues.containsKey(bc.site())) {
+            // Sent in batches by the backup queue
+            continue;
+         }
+
          if (isOffline(bc.site())) {
             log.tracef("The site '%s' is offline, not backing up information to it", bc.site());
             continue;
@@ -322,6 +364,11 @@ private List<WriteCommand> filterModifications(Collection<WriteCommand> modifica
 
    private void siteOnline(String siteName) {
       getEventLogger().info(EventLogCategory.CLUSTER, MESSAGES.siteOnline(siteName));
+      BackupQueue queue = backupQueues.get(siteName);
+      if (queue != null) {
+         // Replay the modifications queued while the site was offline
+         queue.siteOnline();
+      }
    }
 
    private void siteOffline(String siteName) {
@@ -404,6 +451,11 @@ public OfflineStatus getOfflineStatus(String site) {
       return offlineStatus.get(site);
    }
 
+   @Override
+   public BackupQueue getBackupQueue(String siteName) {
+      return backupQueues.get(siteName);
+   }
+
    @Override
    public Map<String, Boolean> status() {
       Map<String, Boolean> result = new HashMap<>(offlineStatus.size());
@@ -253,6 +253,27 @@ public String getTakeOfflineAfterFailures(@Parameter(name = "site", description
       return String.valueOf(offlineStatus.getTakeOffline().afterFailures());
    }
 
+   @ManagedOperation(description = "Returns the number of modifications waiting in the backup queue of the given site.", displayName = "Returns the number of modifications waiting in the backup queue.")
+   public String getBackupQueueSize(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      BackupQueue queue = backupSender.getBackupQueue(site);
+      if (queue == null) return noBackupQueue(site);
+      return String.valueOf(queue.size());
+   }
+
+   @ManagedOperation(description = "Returns the age in milliseconds of the oldest modification not yet applied by the given site.", displayName = "Returns the lag of the backup queue in milliseconds.")
+   public String getBackupQueueLag(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      BackupQueue queue = backupSender.getBackupQueue(site);
+      if (queue == null) return noBackupQueue(site);
+      return String.valueOf(queue.lag());
+   }
+
+   @ManagedOperation(description = "Returns the average number of modifications in the batches sent to the given site.", displayName = "Returns the average batch size of the backup queue.")
+   public String getBackupQueueAverageBatchSize(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      BackupQueue queue = backupSender.getBackupQueue(site);
+      if (queue == null) return noBackupQueue(site);
+      return String.valueOf(queue.averageBatchSize());
+   }
+
    @ManagedOperation(description = "Brings the given site back online on all the cluster.", displayName = "Brings the given site back online on all the cluster.")
    public String bringSiteOnline(@Parameter(name = "site", description = "The name of the backup site") String site) {
       OfflineStatus offlineStatus = backupSender.getOfflineStatus(site);
@@ -392,6 +413,11 @@ private String incorrectSiteName(String site) {
       return "Incorrect site name: " + site;
    }
 
+   private String noBackupQueue(String site) {
+      if (backupSender.getOfflineStatus(site) == null) return incorrectSiteName(site);
+      return "The backup queue is not enabled for site: " + site;
+   }
+
    private Map<Address, Response> invokeRemotely(XSiteAdminCommand command) {
       return rpcManager.invokeRemotely(null, command,
                                        rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE).build());
@@ -0,0 +1,70 @@
+package org.infinispan.commons.util.concurrent.jdk8backported;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Map;
+
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.FrequencySketch;
+import org.testng.annotations.Test;
+
+/**
+ * Tests bounded concurrent hash map V8 logic with the Window TinyLFU eviction policy.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8TinyLFUTest")
+public class BoundedEquivalentConcurrentHashMapV8TinyLFUTest extends BoundedEquivalentConcurrentHashMapV8BaseTest {
+
+   @Override
+   protected Eviction evictionPolicy() {
+      return Eviction.TINY_LFU;
+   }
+
+   /**
+    * Tests that a scan of entries which are only written once doesn't evict the entries that are frequently read
+    */
+   public void testScanResistance() {
+      final int COUNT = 100;
+      final int HOT = COUNT / 2;
+      Map<Integer, Integer> bchm = createMap(COUNT, evictionPolicy());
+
+      for (int i = 0; i < HOT; i++) {
+         bchm.put(i, i);
+      }
+      for (int j = 0; j < 3; j++) {
+         for (int i = 0; i < HOT; i++) {
+            assertEquals(i, bchm.get(i).intValue());
+         }
+      }
+
+      for (int i = COUNT; i < COUNT * 10; i++) {
+         bchm.put(i, i);
+         assertTrue(bchm.size() <= COUNT);
+      }
+
+      assertEquals(COUNT, bchm.size());
+      for (int i = 0; i < HOT; i++) {
+         assertEquals(i, bchm.get(i).intValue());
+      }
+   }
+
+   public void testFrequencySketch() {
+      FrequencySketch sketch = new FrequencySketch(64);
+      int hash = 42;
+      assertEquals(0, sketch.frequency(hash));
+      for (int i = 0; i < 20; i++) {
+         sketch.increment(hash);
+      }
+      // Counters saturate at 15
+      assertEquals(15, sketch.frequency(hash));
+
+      // Enough increments of other keys to trigger the aging of all the counters
+      int samples = sketch.sampleSize;
+      for (int i = 0; i < samples; i++) {
+         sketch.increment(i * 31 + 1000);
+      }
+      assertTrue(sketch.frequency(hash) < 15);
+   }
+}
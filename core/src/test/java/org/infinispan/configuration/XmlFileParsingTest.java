@@ -28,9 +28,11 @@
 import org.infinispan.configuration.cache.InterceptorConfiguration;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.configuration.cache.SingleFileStoreConfiguration;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.configuration.global.ShutdownHookBehavior;
+import org.infinispan.container.offheap.OffHeapDataContainer;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.eviction.EvictionThreadPolicy;
 import org.infinispan.factories.threads.DefaultThreadFactory;
@@ -216,6 +218,26 @@ public void call() {
       });
    }
 
+   public void testOffHeapStorage() throws Exception {
+      String config = INFINISPAN_START_TAG_NO_SCHEMA +
+            "<cache-container default-cache=\"default\">" +
+            "   <local-cache name=\"default\">\n" +
+            "      <data-container storage=\"OFF_HEAP\" address-count=\"4096\"/>\n" +
+            "   </local-cache>\n" +
+            "</cache-container>" +
+            INFINISPAN_END_TAG;
+      InputStream is = new ByteArrayInputStream(config.getBytes());
+      withCacheManager(new CacheManagerCallable(TestCacheManagerFactory.fromStream(is)) {
+         @Override
+         public void call() {
+            Configuration cfg = cm.getDefaultCacheConfiguration();
+            assertEquals(StorageType.OFF_HEAP, cfg.dataContainer().storageType());
+            assertEquals(4096, cfg.dataContainer().addressCount());
+            assertTrue(cm.getCache().getAdvancedCache().getDataContainer() instanceof OffHeapDataContainer);
+         }
+      });
+   }
+
    public void testDummyInMemoryStore() throws IOException {
       String config = INFINISPAN_START_TAG_NO_SCHEMA +
             "<cache-container default-cache=\"default\">" +
@@ -15,9 +15,15 @@
 import org.infinispan.container.entries.MortalCacheEntry;
 import org.infinispan.container.entries.TransientCacheEntry;
 import org.infinispan.container.entries.TransientMortalCacheEntry;
+import org.infinispan.container.entries.metadata.CompactImmortalCacheEntry;
+import org.infinispan.container.entries.metadata.CompactTransientMortalCacheEntry;
+import org.infinispan.container.entries.metadata.MetadataImmortalCacheEntry;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.container.versioning.SimpleClusteredVersion;
 import org.infinispan.eviction.ActivationManager;
 import org.infinispan.expiration.ExpirationManager;
 import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
 import org.infinispan.test.AbstractInfinispanTest;
 import org.infinispan.util.CoreImmutables;
 import org.mockito.Mockito;
@@ -171,6 +177,42 @@ public void testExpirableToImmortalAndBack() {
       assertContainerEntry(mortaltype(), value);
    }
 
+   public void testCompactVersionedEntries() {
+      Metadata immortal = new EmbeddedMetadata.Builder().version(new NumericVersion(1)).build();
+      dc.put("k", "v1", immortal);
+      assertContainerEntry(CompactImmortalCacheEntry.class, "v1");
+      assertEquals(immortal, dc.get("k").getMetadata());
+
+      Metadata mortal = new EmbeddedMetadata.Builder().lifespan(100, TimeUnit.MINUTES)
+            .version(new NumericVersion(2)).build();
+      dc.put("k", "v2", mortal);
+      assertContainerEntry(CompactTransientMortalCacheEntry.class, "v2");
+      InternalCacheEntry entry = dc.get("k");
+      assertEquals(mortal, entry.getMetadata());
+      assertEquals(TimeUnit.MINUTES.toMillis(100), entry.getLifespan());
+      assertEquals(-1, entry.getMaxIdle());
+      assertEquals(-1, entry.getLastUsed());
+      assert entry.getCreated() > 0;
+
+      Metadata transientMortal = new EmbeddedMetadata.Builder().lifespan(100, TimeUnit.MINUTES)
+            .maxIdle(10, TimeUnit.MINUTES).version(new NumericVersion(3)).build();
+      dc.put("k", "v3", transientMortal);
+      assertContainerEntry(CompactTransientMortalCacheEntry.class, "v3");
+      entry = dc.get("k");
+      assertEquals(transientMortal, entry.getMetadata());
+      assert entry.getLastUsed() > 0;
+      assertEquals(Math.min(entry.getCreated() + TimeUnit.MINUTES.toMillis(100),
+            entry.getLastUsed() + TimeUnit.MINUTES.toMillis(10)), entry.getExpiryTime());
+
+      dc.put("k", "v4", new EmbeddedMetadata.Builder().version(new NumericVersion(4)).build());
+      assertContainerEntry(CompactImmortalCacheEntry.class, "v4");
+      assertEquals(new NumericVersion(4), dc.get("k").getMetadata().version());
+
+      // Other versions still keep the metadata instance
+      dc.put("k", "v5", new EmbeddedMetadata.Builder().version(new SimpleClusteredVersion(1, 5)).build());
+      assertContainerEntry(MetadataImmortalCacheEntry.class, "v5");
+   }
+
    private void assertContainerEntry(Class<? extends InternalCacheEntry> type,
                                      String expectedValue) {
       assert dc.containsKey("k");
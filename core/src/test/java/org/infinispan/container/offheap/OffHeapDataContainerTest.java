@@ -0,0 +1,165 @@
+package org.infinispan.container.offheap;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.ControlledTimeService;
+import org.infinispan.util.TimeService;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "container.offheap.OffHeapDataContainerTest")
+public class OffHeapDataContainerTest extends SingleCacheManagerTest {
+
+   private final ControlledTimeService timeService = new ControlledTimeService(0);
+
+   public OffHeapDataContainerTest() {
+      cleanup = CleanupPhase.AFTER_METHOD;
+   }
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.dataContainer().storageType(StorageType.OFF_HEAP).addressCount(64)
+            .expiration().disableReaper();
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      ConfigurationBuilder bounded = new ConfigurationBuilder().read(builder.build());
+      bounded.eviction().strategy(EvictionStrategy.LRU).type(EvictionType.COUNT).size(10);
+      cm.defineConfiguration("bounded", bounded.build());
+      ConfigurationBuilder memory = new ConfigurationBuilder().read(builder.build());
+      memory.eviction().strategy(EvictionStrategy.LRU).type(EvictionType.MEMORY).size(4096);
+      cm.defineConfiguration("memory", memory.build());
+      TestingUtil.replaceComponent(cm, TimeService.class, timeService, true);
+      cache = cm.getCache();
+      return cm;
+   }
+
+   public void testContainerType() {
+      assertTrue(dataContainer() instanceof OffHeapDataContainer);
+   }
+
+   public void testBasicOperations() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      assertEquals("v1", cache.get("k1"));
+      assertEquals(2, cache.size());
+
+      cache.put("k1", "v1-updated");
+      assertEquals("v1-updated", cache.get("k1"));
+      assertEquals(2, cache.size());
+
+      assertEquals("v2", cache.remove("k2"));
+      assertNull(cache.get("k2"));
+      assertEquals(1, cache.size());
+
+      assertTrue(cache.replace("k1", "v1-updated", "v1-replaced"));
+      assertEquals("v1-replaced", cache.get("k1"));
+      assertEquals("v1-replaced", cache.putIfAbsent("k1", "ignored"));
+
+      cache.clear();
+      assertEquals(0, cache.size());
+      assertNull(cache.get("k1"));
+   }
+
+   public void testKeysComparedByMarshalledForm() {
+      cache.put(new byte[] { 1, 2, 3 }, "bytes");
+      assertEquals("bytes", cache.get(new byte[] { 1, 2, 3 }));
+      assertNull(cache.get(new byte[] { 1, 2, 4 }));
+   }
+
+   public void testIteration() {
+      Set<String> keys = new HashSet<>();
+      for (int i = 0; i < 200; i++) {
+         cache.put("k" + i, "v" + i);
+         keys.add("k" + i);
+      }
+      DataContainer<Object, Object> container = dataContainer();
+      Set<Object> seen = new HashSet<>();
+      for (InternalCacheEntry<Object, Object> entry : container) {
+         assertEquals("v" + ((String) entry.getKey()).substring(1), entry.getValue());
+         seen.add(entry.getKey());
+      }
+      assertEquals(keys, seen);
+      assertEquals(keys, new HashSet<>(cache.keySet()));
+   }
+
+   public void testExpiration() {
+      cache.put("mortal", "v", 10, TimeUnit.MILLISECONDS);
+      cache.put("transient", "v", -1, TimeUnit.MILLISECONDS, 10, TimeUnit.MILLISECONDS);
+      cache.put("immortal", "v");
+      timeService.advance(5);
+      // reading the transient entry extends its life
+      assertEquals("v", cache.get("transient"));
+      timeService.advance(6);
+      assertNull(cache.get("mortal"));
+      assertEquals("v", cache.get("transient"));
+      timeService.advance(11);
+      assertNull(cache.get("transient"));
+      assertEquals("v", cache.get("immortal"));
+      assertEquals(1, cache.size());
+   }
+
+   public void testCountEviction() {
+      DataContainer<Object, Object> container = dataContainer("bounded");
+      for (int i = 0; i < 20; i++) {
+         cacheManager.getCache("bounded").put("k" + i, "v" + i);
+      }
+      assertEquals(10, container.sizeIncludingExpired());
+      // The least recently used entries are the ones evicted
+      assertNull(container.peek("k0"));
+      assertEquals("v19", container.peek("k19").getValue());
+
+      // Touching an entry keeps it in the container
+      cacheManager.getCache("bounded").get("k10");
+      cacheManager.getCache("bounded").put("k20", "v20");
+      assertEquals("v10", container.peek("k10").getValue());
+      assertNull(container.peek("k11"));
+   }
+
+   public void testMemoryEviction() {
+      OffHeapDataContainer<Object, Object> container = (OffHeapDataContainer<Object, Object>) dataContainer("memory");
+      long bucketBytes = container.getAllocatedBytes();
+      for (int i = 0; i < 1000; i++) {
+         cacheManager.getCache("memory").put("k" + i, "v" + i);
+      }
+      assertTrue(container.getAllocatedBytes() - bucketBytes <= 4096);
+      assertTrue(container.sizeIncludingExpired() < 1000);
+      assertFalse(container.containsKey("k0"));
+   }
+
+   public void testMemoryReleasedOnClear() {
+      OffHeapDataContainer<Object, Object> container = (OffHeapDataContainer<Object, Object>) dataContainer();
+      long bucketBytes = container.getAllocatedBytes();
+      for (int i = 0; i < 100; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      assertTrue(container.getAllocatedBytes() > bucketBytes);
+      cache.clear();
+      assertEquals(bucketBytes, container.getAllocatedBytes());
+      cache.stop();
+      assertEquals(0, container.getAllocatedBytes());
+   }
+
+   private DataContainer<Object, Object> dataContainer() {
+      return cache.getAdvancedCache().getDataContainer();
+   }
+
+   private DataContainer<Object, Object> dataContainer(String cacheName) {
+      return cacheManager.getCache(cacheName).getAdvancedCache().getDataContainer();
+   }
+}
@@ -0,0 +1,146 @@
+package org.infinispan.distribution;
+
+import static org.infinispan.test.TestingUtil.wrapPerCacheInboundInvocationHandler;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.remote.BackupWriteBatchCommand;
+import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.remoting.inboundhandler.AbstractDelegatingHandler;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.inboundhandler.PerCacheInboundInvocationHandler;
+import org.infinispan.remoting.inboundhandler.Reply;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that concurrent backup writes are batched when a backup batch window is configured, and that every write
+ * still gets its own result.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "distribution.BackupWriteBatchTest")
+public class BackupWriteBatchTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_THREADS = 16;
+   private static final int NUM_KEYS_PER_THREAD = 50;
+
+   private final List<CountingHandler> handlers = new ArrayList<>();
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2).backupBatchWindow(5, TimeUnit.MILLISECONDS);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+      for (Cache<Object, Object> cache : this.<Object, Object>caches()) {
+         handlers.add(wrapPerCacheInboundInvocationHandler(cache, (wrapOn, current) -> new CountingHandler(current), true));
+      }
+   }
+
+   public void testConcurrentWrites() throws Exception {
+      runConcurrently(t -> {
+         Cache<String, String> cache = cache(t % 2);
+         for (int i = 0; i < NUM_KEYS_PER_THREAD; i++) {
+            String key = "k-" + t + "-" + i;
+            assertNull(cache.put(key, "v1"));
+            assertEquals("v1", cache.replace(key, "v2"));
+            assertEquals("v2", cache.putIfAbsent(key, "v3"));
+         }
+      });
+
+      assertTrue(batchesReceived() > 0);
+      for (int t = 0; t < NUM_THREADS; t++) {
+         for (int i = 0; i < NUM_KEYS_PER_THREAD; i++) {
+            String key = "k-" + t + "-" + i;
+            for (Cache<String, String> cache : this.<String, String>caches()) {
+               assertEquals("v2", cache.getAdvancedCache().getDataContainer().get(key).getValue());
+            }
+         }
+      }
+
+      runConcurrently(t -> {
+         Cache<String, String> cache = cache((t + 1) % 2);
+         for (int i = 0; i < NUM_KEYS_PER_THREAD; i++) {
+            String key = "k-" + t + "-" + i;
+            assertEquals("v2", cache.remove(key));
+         }
+      });
+      for (Cache<String, String> cache : this.<String, String>caches()) {
+         assertEquals(0, cache.getAdvancedCache().getDataContainer().size());
+      }
+   }
+
+   public void testSameKeyOrdering() throws Exception {
+      String key = "counter";
+      cache(0).put(key, 0);
+      runConcurrently(t -> {
+         Cache<String, Integer> cache = cache(t % 2);
+         for (int i = 0; i < NUM_KEYS_PER_THREAD; i++) {
+            Integer value;
+            do {
+               value = cache.get(key);
+            } while (!cache.replace(key, value, value + 1));
+         }
+      });
+      Integer expected = NUM_THREADS * NUM_KEYS_PER_THREAD;
+      for (Cache<String, Integer> cache : this.<String, Integer>caches()) {
+         assertEquals(expected, cache.getAdvancedCache().getDataContainer().get(key).getValue());
+      }
+   }
+
+   private void runConcurrently(ThreadTask task) throws Exception {
+      CyclicBarrier barrier = new CyclicBarrier(NUM_THREADS);
+      List<Future<Void>> futures = new ArrayList<>(NUM_THREADS);
+      for (int t = 0; t < NUM_THREADS; t++) {
+         int threadIndex = t;
+         futures.add(fork(() -> {
+            barrier.await(10, TimeUnit.SECONDS);
+            task.run(threadIndex);
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get(30, TimeUnit.SECONDS);
+      }
+   }
+
+   private int batchesReceived() {
+      int batches = 0;
+      for (CountingHandler handler : handlers) {
+         batches += handler.batches.get();
+      }
+      return batches;
+   }
+
+   private interface ThreadTask {
+      void run(int threadIndex) throws Exception;
+   }
+
+   private static class CountingHandler extends AbstractDelegatingHandler {
+      final AtomicInteger batches = new AtomicInteger();
+
+      CountingHandler(PerCacheInboundInvocationHandler delegate) {
+         super(delegate);
+      }
+
+      @Override
+      protected boolean beforeHandle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
+         if (command instanceof BackupWriteBatchCommand) {
+            batches.incrementAndGet();
+         }
+         return super.beforeHandle(command, reply, order);
+      }
+   }
+}
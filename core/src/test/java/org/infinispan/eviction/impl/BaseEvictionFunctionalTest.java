@@ -5,6 +5,7 @@
 import java.util.concurrent.TimeUnit;
 
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.eviction.EvictionStrategy;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.notifications.Listener;
@@ -26,12 +27,17 @@ protected BaseEvictionFunctionalTest() {
 
    protected abstract EvictionStrategy getEvictionStrategy();
 
+   protected StorageType getStorageType() {
+      return StorageType.OBJECT;
+   }
+
    protected EmbeddedCacheManager createCacheManager() throws Exception {
       ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
       builder.eviction().maxEntries(CACHE_SIZE)
             .strategy(getEvictionStrategy()).expiration().wakeUpInterval(100L).locking()
             .useLockStriping(false) // to minimize chances of deadlock in the unit test
-            .invocationBatching();
+            .invocationBatching()
+            .dataContainer().storageType(getStorageType());
       EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
       cache = cm.getCache();
       cache.addListener(new EvictionListener());
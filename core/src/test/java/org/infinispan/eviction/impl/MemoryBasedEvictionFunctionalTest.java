@@ -22,11 +22,15 @@ public class MemoryBasedEvictionFunctionalTest extends SingleCacheManagerTest {
 
    protected void configure(ConfigurationBuilder cb) { }
 
+   protected EvictionStrategy getEvictionStrategy() {
+      return EvictionStrategy.LRU;
+   }
+
    @Override
    protected EmbeddedCacheManager createCacheManager() throws Exception {
       ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
       builder.eviction().maxEntries(CACHE_SIZE)
-            .strategy(EvictionStrategy.LRU).type(EvictionType.MEMORY);
+            .strategy(getEvictionStrategy()).type(EvictionType.MEMORY);
       configure(builder);
       EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
       cache = cm.getCache();
@@ -0,0 +1,18 @@
+package org.infinispan.eviction.impl;
+
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.eviction.EvictionStrategy;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "eviction.OffHeapLRUEvictionFunctionalTest")
+public class OffHeapLRUEvictionFunctionalTest extends BaseEvictionFunctionalTest {
+
+   protected EvictionStrategy getEvictionStrategy() {
+      return EvictionStrategy.LRU;
+   }
+
+   @Override
+   protected StorageType getStorageType() {
+      return StorageType.OFF_HEAP;
+   }
+}
@@ -0,0 +1,13 @@
+package org.infinispan.eviction.impl;
+
+import org.infinispan.eviction.EvictionStrategy;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "eviction.TinyLFUMemoryBasedEvictionFunctionalTest")
+public class TinyLFUMemoryBasedEvictionFunctionalTest extends MemoryBasedEvictionFunctionalTest {
+
+   @Override
+   protected EvictionStrategy getEvictionStrategy() {
+      return EvictionStrategy.TINY_LFU;
+   }
+}
@@ -0,0 +1,161 @@
+package org.infinispan.expiration.impl;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryExpired;
+import org.infinispan.notifications.cachelistener.event.CacheEntryExpiredEvent;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.ControlledTimeService;
+import org.infinispan.util.TimeService;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the expiration reaper only removes the entries that are due when the data container indexes the entries
+ * by expiration time, and the reaper statistics.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "expiration.impl.ExpirationIndexTest")
+public class ExpirationIndexTest extends SingleCacheManagerTest {
+
+   private final ControlledTimeService timeService = new ControlledTimeService(0);
+   private DataContainer<Object, Object> dataContainer;
+   private ExpirationManagerImpl<Object, Object> expirationManager;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      // The reaper is invoked manually by the test
+      builder.expiration().enableReaper().wakeUpInterval(1, TimeUnit.DAYS);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager(builder);
+      TestingUtil.replaceComponent(cm, TimeService.class, timeService, true);
+      cache = cm.getCache();
+      dataContainer = cache.getAdvancedCache().getDataContainer();
+      expirationManager = (ExpirationManagerImpl<Object, Object>) TestingUtil.extractComponent(cache,
+            ExpirationManager.class);
+      return cm;
+   }
+
+   public void testOnlyDueEntriesExpire() {
+      for (int i = 1; i <= 100; i++) {
+         cache.put("mortal-" + i, "value", i * 100, TimeUnit.MILLISECONDS);
+         cache.put("immortal-" + i, "value");
+      }
+      // Far enough to need a few cascades through the coarser buckets
+      cache.put("late", "value", 1, TimeUnit.HOURS);
+
+      timeService.advance(5050);
+      expirationManager.processExpiration();
+      assertEquals(50, expirationManager.getEntriesExpiredLastRun());
+      assertEquals(4950, expirationManager.getReaperLag());
+      assertEquals(151, dataContainer.sizeIncludingExpired());
+      for (int i = 1; i <= 100; i++) {
+         assertEquals(i > 50, dataContainer.peek("mortal-" + i) != null);
+      }
+
+      timeService.advance(TimeUnit.HOURS.toMillis(1));
+      expirationManager.processExpiration();
+      assertEquals(51, expirationManager.getEntriesExpiredLastRun());
+      assertEquals(100, dataContainer.sizeIncludingExpired());
+
+      expirationManager.processExpiration();
+      assertEquals(0, expirationManager.getEntriesExpiredLastRun());
+      assertEquals(0, expirationManager.getReaperLag());
+   }
+
+   public void testMaxIdleEntryIsRebucketedOnAccess() {
+      cache.put("k", "v", -1, TimeUnit.MILLISECONDS, 1000, TimeUnit.MILLISECONDS);
+      timeService.advance(600);
+      assertEquals("v", cache.get("k"));
+
+      // Expired according to the original bucket, but it was accessed since
+      timeService.advance(600);
+      expirationManager.processExpiration();
+      assertEquals(0, expirationManager.getEntriesExpiredLastRun());
+      assertNotNull(dataContainer.peek("k"));
+
+      timeService.advance(1001);
+      expirationManager.processExpiration();
+      assertEquals(1, expirationManager.getEntriesExpiredLastRun());
+      assertNull(dataContainer.peek("k"));
+   }
+
+   public void testUpdatedEntryUsesNewExpiration() {
+      cache.put("k", "v1", 1000, TimeUnit.MILLISECONDS);
+      cache.put("k", "v2", 10000, TimeUnit.MILLISECONDS);
+      cache.put("removed", "v", 1000, TimeUnit.MILLISECONDS);
+      cache.remove("removed");
+
+      timeService.advance(2000);
+      expirationManager.processExpiration();
+      assertEquals(0, expirationManager.getEntriesExpiredLastRun());
+      assertEquals("v2", dataContainer.peek("k").getValue());
+
+      timeService.advance(10000);
+      expirationManager.processExpiration();
+      assertEquals(1, expirationManager.getEntriesExpiredLastRun());
+      assertEquals(0, dataContainer.sizeIncludingExpired());
+   }
+
+   public void testFailedExpirationIsRetried() {
+      FailingListener listener = new FailingListener();
+      cache.addListener(listener);
+      try {
+         cache.put("fail", "value", 100, TimeUnit.MILLISECONDS);
+         cache.put("other", "value", 100, TimeUnit.MILLISECONDS);
+
+         timeService.advance(200);
+         expirationManager.processExpiration();
+         assertNotNull(dataContainer.peek("fail"));
+         assertNull(dataContainer.peek("other"));
+
+         expirationManager.processExpiration();
+         assertEquals(1, expirationManager.getEntriesExpiredLastRun());
+         assertNull(dataContainer.peek("fail"));
+      } finally {
+         cache.removeListener(listener);
+      }
+   }
+
+   public void testEntriesNotRemovedAreReturnedAgain() {
+      cache.put("k", "v", 100, TimeUnit.MILLISECONDS);
+      timeService.advance(200);
+      long now = timeService.wallClockTime();
+
+      Iterator<InternalCacheEntry<Object, Object>> candidates = dataContainer.expirationCandidates(now);
+      assertEquals("k", candidates.next().getKey());
+      assertFalse(candidates.hasNext());
+
+      // Still in the container, so the next run returns it again
+      candidates = dataContainer.expirationCandidates(now);
+      assertEquals("k", candidates.next().getKey());
+      assertFalse(candidates.hasNext());
+   }
+
+   @Listener
+   public static class FailingListener {
+      private boolean failed;
+
+      @CacheEntryExpired
+      public void entryExpired(CacheEntryExpiredEvent<Object, Object> event) {
+         if (!failed && "fail".equals(event.getKey())) {
+            failed = true;
+            throw new IllegalStateException("Failing the expiration of " + event.getKey());
+         }
+      }
+   }
+}
@@ -0,0 +1,60 @@
+package org.infinispan.globalstate;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PersistenceManagerImpl;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that after a graceful shutdown every node only preloads the segments it owns according to the persisted
+ * consistent hash, even though the store is shared and contains all the entries.
+ */
+@Test(testName = "globalstate.ThreeNodeDistGlobalStatePreloadTest", groups = "functional")
+public class ThreeNodeDistGlobalStatePreloadTest extends AbstractGlobalStateRestartTest {
+
+   private String storeName;
+
+   @Override
+   protected int getClusterSize() {
+      return 3;
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      storeName = getClass().getSimpleName() + System.nanoTime();
+      super.createCacheManagers();
+   }
+
+   @Override
+   protected void applyCacheManagerClusteringConfiguration(ConfigurationBuilder config) {
+      config.clustering().cacheMode(CacheMode.DIST_SYNC).hash().numOwners(1);
+      config.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .storeName(storeName).shared(true).preload(true);
+   }
+
+   public void testRestartPreloadsOnlyOwnedSegments() throws Throwable {
+      shutdownAndRestart(-1, false);
+
+      long totalPreloaded = 0;
+      for (int i = 0; i < getClusterSize(); i++) {
+         ConsistentHash ch = cache(i).getAdvancedCache().getDistributionManager().getConsistentHash();
+         int owned = 0;
+         for (int j = 0; j < DATA_SIZE; j++) {
+            if (ch.isKeyLocalToNode(address(i), String.valueOf(j)))
+               owned++;
+         }
+         PersistenceManagerImpl pm = (PersistenceManagerImpl) TestingUtil.extractComponent(cache(i), PersistenceManager.class);
+         assertFalse(pm.isPreloading());
+         assertEquals(owned, pm.getPreloadedEntries());
+         totalPreloaded += pm.getPreloadedEntries();
+      }
+      assertEquals(DATA_SIZE, totalPreloaded);
+   }
+}
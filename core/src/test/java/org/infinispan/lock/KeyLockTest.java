@@ -44,6 +44,14 @@ public void testByteArrayPerEntryLockNonTx() throws Exception {
       doTest(CacheName.PER_ENTRY_LOCK_NON_TX);
    }
 
+   public void testByteArrayPooledLockTx() throws Exception {
+      doTest(CacheName.POOLED_LOCK_TX);
+   }
+
+   public void testByteArrayPooledLockNonTx() throws Exception {
+      doTest(CacheName.POOLED_LOCK_NON_TX);
+   }
+
    @Override
    protected EmbeddedCacheManager createCacheManager() throws Exception {
       ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.LOCAL);
@@ -113,6 +121,20 @@ void configure(ConfigurationBuilder builder) {
             builder.locking().useLockStriping(false);
             builder.transaction().transactionMode(TransactionMode.NON_TRANSACTIONAL);
          }
+      },
+      POOLED_LOCK_TX {
+         @Override
+         void configure(ConfigurationBuilder builder) {
+            builder.locking().useLockStriping(false).useLockPooling(true);
+            builder.transaction().transactionMode(TransactionMode.TRANSACTIONAL);
+         }
+      },
+      POOLED_LOCK_NON_TX {
+         @Override
+         void configure(ConfigurationBuilder builder) {
+            builder.locking().useLockStriping(false).useLockPooling(true);
+            builder.transaction().transactionMode(TransactionMode.NON_TRANSACTIONAL);
+         }
       };
 
       abstract void configure(ConfigurationBuilder builder);
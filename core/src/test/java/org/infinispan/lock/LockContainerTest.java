@@ -17,7 +17,9 @@
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.LockPromise;
 import org.infinispan.util.concurrent.locks.impl.LockContainer;
+import org.infinispan.util.concurrent.locks.impl.LockContentionHistogram;
 import org.infinispan.util.concurrent.locks.impl.PerKeyLockContainer;
+import org.infinispan.util.concurrent.locks.impl.PooledLockContainer;
 import org.infinispan.util.concurrent.locks.impl.StripedLockContainer;
 import org.testng.AssertJUnit;
 import org.testng.annotations.Test;
@@ -55,6 +57,93 @@ public void testSingleCounterWithStriped() throws ExecutionException, Interrupte
       doSingleCounterTest(lockContainer, 16);
    }
 
+   public void testSingleLockWithPooled() throws InterruptedException {
+      PooledLockContainer lockContainer = new PooledLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      doSingleLockTest(lockContainer, -1);
+   }
+
+   public void testSingleCounterWithPooled() throws ExecutionException, InterruptedException {
+      PooledLockContainer lockContainer = new PooledLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      doSingleCounterTest(lockContainer, -1);
+   }
+
+   public void testPooledReentrantAndContention() throws InterruptedException {
+      PooledLockContainer lockContainer = new PooledLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+
+      //uncontended and re-entrant acquisitions do not inflate the lock
+      lockContainer.acquire("key", "LO1", 0, TimeUnit.MILLISECONDS).lock();
+      lockContainer.acquire("key", "LO1", 0, TimeUnit.MILLISECONDS).lock();
+      AssertJUnit.assertEquals("LO1", lockContainer.getLockOwner("key"));
+      AssertJUnit.assertTrue(lockContainer.isLocked("key"));
+
+      //a second lock owner waits in the inflated lock
+      LockPromise promise = lockContainer.acquire("key", "LO2", 1, TimeUnit.DAYS);
+      AssertJUnit.assertFalse(promise.isAvailable());
+      lockContainer.release("key", "LO1");
+      promise.lock();
+      AssertJUnit.assertEquals("LO2", lockContainer.getLockOwner("key"));
+      lockContainer.release("key", "LO2");
+
+      //deflated and removed
+      AssertJUnit.assertFalse(lockContainer.isLocked("key"));
+      AssertJUnit.assertEquals(0, lockContainer.size());
+
+      //the pooled lock is reused
+      lockContainer.acquire("other", "LO3", 0, TimeUnit.MILLISECONDS).lock();
+      AssertJUnit.assertEquals("LO3", lockContainer.getLockOwner("other"));
+      AssertJUnit.assertNull(lockContainer.getLockOwner("key"));
+      lockContainer.release("other", "LO3");
+      AssertJUnit.assertEquals(0, lockContainer.getNumLocksHeld());
+
+      long[] buckets = lockContainer.getContentionHistogram().getBuckets();
+      AssertJUnit.assertEquals(LockContentionHistogram.BUCKETS, buckets.length);
+      AssertJUnit.assertEquals(2, buckets[0]);
+      AssertJUnit.assertEquals(1, buckets[1]);
+      lockContainer.getContentionHistogram().reset();
+      AssertJUnit.assertEquals(0, lockContainer.getContentionHistogram().getBuckets()[0]);
+   }
+
+   public void testContentionWithPerEntry() throws InterruptedException {
+      PerKeyLockContainer lockContainer = new PerKeyLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      doContentionTest(lockContainer);
+   }
+
+   public void testContentionWithStriped() throws InterruptedException {
+      StripedLockContainer lockContainer = new StripedLockContainer(16, AnyEquivalence.getInstance());
+      lockContainer.inject(AbstractCacheTest.TIME_SERVICE);
+      doContentionTest(lockContainer);
+   }
+
+   private void doContentionTest(LockContainer lockContainer) throws InterruptedException {
+      final String key = "key";
+      lockContainer.acquire(key, "LO0", 0, TimeUnit.MILLISECONDS).lock();
+      //each lock owner finds the lock held and all the previous lock owners waiting
+      List<LockPromise> promises = new ArrayList<>();
+      for (int i = 1; i <= 4; i++) {
+         LockPromise promise = lockContainer.acquire(key, "LO" + i, 1, TimeUnit.DAYS);
+         AssertJUnit.assertFalse(promise.isAvailable());
+         promises.add(promise);
+      }
+
+      long[] buckets = lockContainer.getContentionHistogram().getBuckets();
+      //0, 1, 2, 3 and 4 lock owners
+      AssertJUnit.assertEquals(1, buckets[0]);
+      AssertJUnit.assertEquals(1, buckets[1]);
+      AssertJUnit.assertEquals(2, buckets[2]);
+      AssertJUnit.assertEquals(1, buckets[3]);
+
+      for (int i = 0; i < 4; i++) {
+         lockContainer.release(key, "LO" + i);
+         promises.get(i).lock();
+      }
+      lockContainer.release(key, "LO4");
+      AssertJUnit.assertEquals(0, lockContainer.getNumLocksHeld());
+   }
+
    private void doSingleCounterTest(LockContainer lockContainer, int poolSize) throws InterruptedException, ExecutionException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final String key = "key";
@@ -0,0 +1,96 @@
+package org.infinispan.marshall.core;
+
+import static org.infinispan.test.TestingUtil.extractGlobalComponent;
+import static org.infinispan.test.TestingUtil.extractGlobalMarshaller;
+import static org.testng.AssertJUnit.assertArrayEquals;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.infinispan.commands.CommandInvocationId;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.marshall.VersionAwareMarshallerTest;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the internal wire format of the {@link GlobalMarshaller}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "marshall.core.GlobalMarshallerTest")
+public class GlobalMarshallerTest extends AbstractInfinispanTest {
+
+   private EmbeddedCacheManager cm;
+   private StreamingMarshaller marshaller;
+
+   @BeforeClass
+   public void setUp() {
+      cm = TestCacheManagerFactory.createClusteredCacheManager();
+      marshaller = extractGlobalMarshaller(cm);
+   }
+
+   @AfterClass
+   public void tearDown() {
+      cm.stop();
+   }
+
+   public void testInternalTypeWithUserObjects() throws Exception {
+      VersionAwareMarshallerTest.Pojo pojo = new VersionAwareMarshallerTest.Pojo();
+      List<Object> value = Arrays.asList("v", 1, 2L, true, null, new byte[]{1, 2, 3}, pojo, new Date(0));
+      PutKeyValueCommand cmd = putCommand(value);
+
+      byte[] bytes = marshaller.objectToByteBuffer(cmd);
+      assertEquals(GlobalMarshaller.INTERNAL_FORMAT, bytes[0]);
+
+      PutKeyValueCommand read = (PutKeyValueCommand) marshaller.objectFromByteBuffer(bytes);
+      assertEquals(cmd.getKey(), read.getKey());
+      List<?> readValue = (List<?>) read.getValue();
+      assertEquals(value.size(), readValue.size());
+      for (int i = 0; i < value.size(); i++) {
+         if (value.get(i) instanceof byte[]) {
+            assertArrayEquals((byte[]) value.get(i), (byte[]) readValue.get(i));
+         } else {
+            assertEquals(value.get(i), readValue.get(i));
+         }
+      }
+   }
+
+   public void testUserObjectUsesJBossMarshalling() throws Exception {
+      Date date = new Date(0);
+      byte[] bytes = marshaller.objectToByteBuffer(date);
+      assertFalse(bytes[0] == GlobalMarshaller.INTERNAL_FORMAT);
+      assertEquals(date, marshaller.objectFromByteBuffer(bytes));
+   }
+
+   public void testReadJBossMarshalledInternalType() throws Exception {
+      JBossMarshaller jbossMarshaller = new JBossMarshaller(extractGlobalComponent(cm, ExternalizerTable.class),
+            extractGlobalComponent(cm, GlobalConfiguration.class));
+      jbossMarshaller.start();
+      try {
+         PutKeyValueCommand cmd = putCommand("v");
+         byte[] bytes = jbossMarshaller.objectToByteBuffer(cmd);
+         assertFalse(bytes[0] == GlobalMarshaller.INTERNAL_FORMAT);
+         assertEquals(cmd, marshaller.objectFromByteBuffer(bytes));
+      } finally {
+         jbossMarshaller.stop();
+      }
+   }
+
+   private PutKeyValueCommand putCommand(Object value) {
+      return new PutKeyValueCommand("k", value, false, null, new EmbeddedMetadata.Builder().build(),
+            EnumUtil.EMPTY_BIT_SET, AnyEquivalence.getInstance(), CommandInvocationId.generateId(null));
+   }
+}
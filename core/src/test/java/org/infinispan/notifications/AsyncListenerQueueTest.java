@@ -0,0 +1,238 @@
+package org.infinispan.notifications;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.executors.BlockingThreadPoolExecutorFactory;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.cachelistener.CacheNotifier;
+import org.infinispan.notifications.cachelistener.CacheNotifierImpl;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.event.CacheEntryEvent;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the ordering, batching and overflow policies of the event queues of asynchronous listeners.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "notifications.AsyncListenerQueueTest")
+public class AsyncListenerQueueTest extends AbstractInfinispanTest {
+   Cache<String, Integer> c;
+   EmbeddedCacheManager cm;
+   CacheNotifierImpl<?, ?> notifier;
+
+   @BeforeMethod
+   public void setUp() {
+      GlobalConfigurationBuilder global = new GlobalConfigurationBuilder();
+      // Several notification threads, the events of a listener must still be delivered in order
+      global.listenerThreadPool().threadPoolFactory(BlockingThreadPoolExecutorFactory.create(4, 1000));
+      cm = TestCacheManagerFactory.createCacheManager(global, new ConfigurationBuilder());
+      c = cm.getCache();
+      notifier = (CacheNotifierImpl<?, ?>) TestingUtil.extractComponent(c, CacheNotifier.class);
+   }
+
+   @AfterMethod
+   public void tearDown() {
+      TestingUtil.killCacheManagers(cm);
+      cm = null;
+      c = null;
+   }
+
+   public void testOrderedDelivery() {
+      OrderListener listener = new OrderListener();
+      c.addListener(listener);
+      for (int i = 0; i < 1000; i++) {
+         c.put("k" + (i % 10), i);
+      }
+      eventuallyEquals(1000, listener.values::size);
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+         expected.add(i);
+      }
+      assertEquals(expected, listener.values);
+   }
+
+   public void testBatchDelivery() throws Exception {
+      BatchListener listener = new BatchListener();
+      c.addListener(listener);
+      c.put("first", 0);
+      assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+      for (int i = 1; i <= 20; i++) {
+         c.put("k" + i, i);
+      }
+      assertEquals(20, notifier.getListenerQueueDepth(notifier.getAsyncListeners()[0]));
+      listener.release.countDown();
+      eventuallyEquals(21, () -> listener.values.size());
+      for (int i = 0; i <= 20; i++) {
+         assertEquals(Integer.valueOf(i), listener.values.get(i));
+      }
+      // The first batch only held the event sent before the listener blocked, the other ones were queued meanwhile
+      assertEquals(Integer.valueOf(1), listener.batchSizes.get(0));
+      assertEquals(Integer.valueOf(8), listener.batchSizes.get(1));
+      assertEquals(0, notifier.getListenerQueueDepth(notifier.getAsyncListeners()[0]));
+      assertTrue(notifier.getListenerMaxDeliveryLag(notifier.getAsyncListeners()[0]) >= 0);
+   }
+
+   public void testDiscardNewest() throws Exception {
+      DiscardingListener listener = new DiscardingListener();
+      c.addListener(listener);
+      c.put("first", 0);
+      assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+      for (int i = 1; i <= 5; i++) {
+         c.put("k" + i, i);
+      }
+      String name = notifier.getAsyncListeners()[0];
+      assertEquals(2, notifier.getListenerQueueDepth(name));
+      assertEquals(3, notifier.getListenerDiscardedEvents(name));
+      listener.release.countDown();
+      eventuallyEquals(3, () -> listener.values.size());
+      assertEquals(Integer.valueOf(1), listener.values.get(1));
+      assertEquals(Integer.valueOf(2), listener.values.get(2));
+   }
+
+   public void testBlockWhenFull() throws Exception {
+      BlockingListener listener = new BlockingListener();
+      c.addListener(listener);
+      c.put("first", 0);
+      assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+      c.put("k1", 1);
+      Future<Integer> future = fork(() -> c.put("k2", 2));
+      try {
+         future.get(500, TimeUnit.MILLISECONDS);
+         throw new AssertionError("The writer should wait for the listener");
+      } catch (TimeoutException e) {
+         // expected
+      }
+      assertFalse(future.isDone());
+      listener.release.countDown();
+      future.get(10, TimeUnit.SECONDS);
+      eventuallyEquals(3, () -> listener.values.size());
+   }
+
+   public void testUnknownListener() {
+      assertEquals(0, notifier.getAsyncListeners().length);
+      assertEquals(-1, notifier.getListenerQueueDepth("unknown"));
+      OrderListener listener = new OrderListener();
+      c.addListener(listener);
+      assertEquals(1, notifier.getAsyncListeners().length);
+      c.removeListener(listener);
+      assertEquals(0, notifier.getAsyncListeners().length);
+   }
+
+   public void testListenerWithoutQueueSizeIsNotQueued() {
+      UnqueuedListener listener = new UnqueuedListener();
+      c.addListener(listener);
+      assertEquals(0, notifier.getAsyncListeners().length);
+      c.put("k", 1);
+      eventuallyEquals(1, listener.values::size);
+   }
+
+   public void testInvalidListenerHasNoQueue() {
+      try {
+         c.addListener(new InvalidBatchListener());
+         throw new AssertionError("A batch method requires a queue");
+      } catch (IncorrectListenerException e) {
+         // expected
+      }
+      assertEquals(0, notifier.getAsyncListeners().length);
+   }
+
+   @Listener(sync = false, queueSize = 1024)
+   public static class OrderListener {
+      final List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+
+      @CacheEntryCreated
+      @CacheEntryModified
+      public void handle(CacheEntryEvent<String, Integer> e) {
+         if (!e.isPre()) {
+            values.add(e.getValue());
+         }
+      }
+   }
+
+   @Listener(sync = false, observation = Listener.Observation.POST)
+   public static class UnqueuedListener {
+      final List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+
+      @CacheEntryCreated
+      public void handle(CacheEntryEvent<String, Integer> e) {
+         values.add(e.getValue());
+      }
+   }
+
+   @Listener(sync = false, observation = Listener.Observation.POST, batchSize = 8)
+   public static class InvalidBatchListener {
+      @CacheEntryCreated
+      public void valid(CacheEntryEvent<String, Integer> e) {
+      }
+
+      @CacheEntryModified
+      public void invalid(List<CacheEntryEvent<String, Integer>> events) {
+      }
+   }
+
+   public abstract static class AbstractBlockingListener {
+      final List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+      final CountDownLatch started = new CountDownLatch(1);
+      final CountDownLatch release = new CountDownLatch(1);
+
+      void record(CacheEntryEvent<String, Integer> e) {
+         if (!e.isPre()) {
+            values.add(e.getValue());
+            started.countDown();
+            try {
+               release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ie) {
+               Thread.currentThread().interrupt();
+            }
+         }
+      }
+   }
+
+   @Listener(sync = false, observation = Listener.Observation.POST, queueSize = 1024, batchSize = 8)
+   public static class BatchListener extends AbstractBlockingListener {
+      final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+
+      @CacheEntryCreated
+      public void handle(List<CacheEntryEvent<String, Integer>> events) {
+         batchSizes.add(events.size());
+         events.forEach(this::record);
+      }
+   }
+
+   @Listener(sync = false, observation = Listener.Observation.POST, queueSize = 2,
+         overflow = Listener.Overflow.DISCARD_NEWEST)
+   public static class DiscardingListener extends AbstractBlockingListener {
+      @CacheEntryCreated
+      public void handle(CacheEntryEvent<String, Integer> e) {
+         record(e);
+      }
+   }
+
+   @Listener(sync = false, observation = Listener.Observation.POST, queueSize = 1)
+   public static class BlockingListener extends AbstractBlockingListener {
+      @CacheEntryCreated
+      public void handle(CacheEntryEvent<String, Integer> e) {
+         record(e);
+      }
+   }
+}
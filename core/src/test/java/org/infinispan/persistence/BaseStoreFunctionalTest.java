@@ -9,6 +9,9 @@
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import javax.transaction.TransactionManager;
@@ -196,6 +199,26 @@ public void testStoreByteArrays(final Method m) throws PersistenceException {
       assertArrayEquals(value, found);
    }
 
+   public void testGetAllByteArrays(final Method m) throws PersistenceException {
+      ConfigurationBuilder base = new ConfigurationBuilder();
+      base.dataContainer().keyEquivalence(ByteArrayEquivalence.INSTANCE);
+      cacheManager.defineConfiguration(m.getName(), configureCacheLoader(base, true).build());
+      Cache<byte[], byte[]> cache = cacheManager.getCache(m.getName());
+      cache.put(new byte[]{1, 2, 3}, new byte[]{4, 5, 6});
+      cache.put(new byte[]{7, 8, 9}, new byte[]{10, 11, 12});
+      cache.evict(new byte[]{1, 2, 3});
+      cache.evict(new byte[]{7, 8, 9});
+
+      // Both keys are loaded from the cache store, with lookup keys equal to the stored ones
+      Map<byte[], byte[]> found = cache.getAdvancedCache().getAll(
+            new HashSet<>(Arrays.asList(new byte[]{1, 2, 3}, new byte[]{7, 8, 9})));
+      assertEquals(2, found.size());
+      for (Map.Entry<byte[], byte[]> entry : found.entrySet()) {
+         byte[] expected = entry.getKey()[0] == 1 ? new byte[]{4, 5, 6} : new byte[]{10, 11, 12};
+         assertArrayEquals(expected, entry.getValue());
+      }
+   }
+
    public void testRemoveCache() {
       ConfigurationBuilder cb = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
       createCacheStoreConfig(cb.persistence(), true);
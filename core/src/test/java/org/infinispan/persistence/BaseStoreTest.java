@@ -9,10 +9,13 @@
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.infinispan.commons.marshall.StreamingMarshaller;
@@ -410,6 +413,63 @@ public void testStoreAndRemove() throws PersistenceException {
       assertEquals("k4", set.iterator().next().getKey());
    }
 
+   public void testWriteAndDeleteBatch() throws PersistenceException {
+      assertIsEmpty();
+
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+         entries.add(marshalledEntry("k" + i, "v" + i, null));
+      }
+      cl.writeBatch(entries);
+      assertSize(TestingUtil.allEntries(cl), 10);
+      for (int i = 0; i < 10; i++) {
+         assertEquals("v" + i, unwrap(cl.load("k" + i).getValue()));
+      }
+
+      // overwrite part of the entries and add a new one in the same batch
+      entries.clear();
+      for (int i = 5; i < 11; i++) {
+         entries.add(marshalledEntry("k" + i, "v" + i + "-new", null));
+      }
+      cl.writeBatch(entries);
+      assertSize(TestingUtil.allEntries(cl), 11);
+      assertEquals("v4", unwrap(cl.load("k4").getValue()));
+      assertEquals("v5-new", unwrap(cl.load("k5").getValue()));
+      assertEquals("v10-new", unwrap(cl.load("k10").getValue()));
+
+      List<Object> keys = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+         keys.add("k" + i);
+      }
+      cl.deleteBatch(keys);
+      Set<MarshalledEntry> set = TestingUtil.allEntries(cl);
+      assertSize(set, 1);
+      assertEquals("k10", set.iterator().next().getKey());
+   }
+
+   public void testLoadAllKeys() throws Exception {
+      assertIsEmpty();
+
+      long lifespan = 2000;
+      for (int i = 0; i < 10; i++) {
+         cl.write(marshalledEntry("k" + i, "v" + i, null));
+      }
+      cl.write(marshalledEntry(internalCacheEntry("expired", "v", lifespan)));
+      timeService.advance(lifespan + 1);
+
+      Set<Object> keys = new HashSet<>();
+      for (int i = 0; i < 15; i++) {
+         keys.add("k" + i);
+      }
+      keys.add("expired");
+      Map<Object, MarshalledEntry<Object, Object>> entries = cl.loadAll(keys);
+      assertEquals(10, entries.size());
+      for (int i = 0; i < 10; i++) {
+         assertEquals("v" + i, unwrap(entries.get("k" + i).getValue()));
+      }
+      assertTrue(cl.loadAll(Collections.emptySet()).isEmpty());
+   }
+
    public void testPurgeExpired() throws Exception {
       assertIsEmpty();
       // Increased lifespan and idle timeouts to accommodate slower cache stores
@@ -13,7 +13,9 @@
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import javax.transaction.NotSupportedException;
 import javax.transaction.SystemException;
@@ -487,6 +489,43 @@ public void testLoadingToMemory() throws PersistenceException {
       assert "v2".equals(cache.get("k2"));
    }
 
+   public void testGetAllLoadsToMemory() throws PersistenceException {
+      assertNotInCacheAndStore("k1", "k2", "k3", "k4");
+      cache.put("k1", "v1");
+      store.write(new MarshalledEntryImpl("k2", "v2", null, sm));
+      store.write(new MarshalledEntryImpl("k3", "v3", null, sm));
+
+      assertInStoreNotInCache("k2", "k3");
+
+      Map<String, String> values = cache.getAdvancedCache().getAll(new HashSet<>(Arrays.asList("k1", "k2", "k3", "k4")));
+      assertEquals(3, values.size());
+      assertEquals("v1", values.get("k1"));
+      assertEquals("v2", values.get("k2"));
+      assertEquals("v3", values.get("k3"));
+
+      assertInCacheAndStore("k2", "v2");
+      assertInCacheAndStore("k3", "v3");
+      assertNotInCacheAndStore("k4");
+      // make sure we have no stale locks!!
+      assertNoLocks(cache);
+   }
+
+   public void testGetAllRemovesExpiredEntries() throws PersistenceException {
+      assertNotInCacheAndStore("k1", "k2", "k3");
+      cache.getAdvancedCache().withFlags(Flag.SKIP_CACHE_STORE).put("k1", "v1", 1, MILLISECONDS);
+      store.write(new MarshalledEntryImpl("k2", "v2", null, sm));
+      TestingUtil.sleepThread(10);
+
+      Map<String, String> values = cache.getAdvancedCache().getAll(new HashSet<>(Arrays.asList("k1", "k2", "k3")));
+      assertEquals(Collections.singletonMap("k2", "v2"), values);
+
+      // Not in any store, so the expired entry is removed from memory
+      DataContainer dataContainer = cache.getAdvancedCache().getDataContainer();
+      assertNull(dataContainer.peek("k1"));
+      assertInCacheAndStore("k2", "v2");
+      assertNoLocks(cache);
+   }
+
    public void testSkipLocking(Method m) {
       String name = m.getName();
       AdvancedCache<String, String> advancedCache = cache.getAdvancedCache();
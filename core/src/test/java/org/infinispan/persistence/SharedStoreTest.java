@@ -1,6 +1,8 @@
 package org.infinispan.persistence;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.infinispan.Cache;
 import org.infinispan.configuration.cache.CacheMode;
@@ -87,4 +89,24 @@ public void testSkipSharedCacheStoreFlagUsage() throws PersistenceException {
       }
    }
 
+   public void testPutAllWritesSingleBatch() throws PersistenceException {
+      List<Cache<Object, Object>> caches = caches();
+      Map<Object, Object> map = new HashMap<>();
+      for (int i = 0; i < 10; i++) {
+         map.put("key" + i, "value" + i);
+      }
+      caches.get(0).putAll(map);
+
+      List<CacheLoader<Object, Object>> cacheStores = TestingUtil.cachestores(caches);
+      for (CacheLoader cs : cacheStores) {
+         for (Object key : map.keySet()) {
+            assert cs.contains(key);
+         }
+         DummyInMemoryStore dimcs = (DummyInMemoryStore) cs;
+         // each primary owner writes the keys it owns to the shared store as one batch
+         assert dimcs.stats().get("writeBatch") <= caches.size() : "Entries should have been written with at most one batch per owner, but " + dimcs.stats().get("writeBatch") + " batches were written";
+         assert dimcs.stats().get("write") == map.size() : "Every entry should have been written just once, but there were " + dimcs.stats().get("write") + " writes";
+      }
+   }
+
 }
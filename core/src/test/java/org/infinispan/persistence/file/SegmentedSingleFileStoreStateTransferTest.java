@@ -0,0 +1,80 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a node with a segmented file store drops the segments it no longer owns after a rebalance, while keeping
+ * the ones it still owns.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.file.SegmentedSingleFileStoreStateTransferTest")
+public class SegmentedSingleFileStoreStateTransferTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 100;
+
+   private final String tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      Util.recursiveFileRemove(tmpDirectory);
+      addClusterEnabledCacheManager(buildConfiguration(0));
+   }
+
+   private ConfigurationBuilder buildConfiguration(int index) {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1).numSegments(20);
+      builder.persistence().addSingleFileStore().location(tmpDirectory + "/" + index).segmented(true);
+      return builder;
+   }
+
+   public void testRebalanceDropsSegmentsNoLongerOwned() {
+      Cache<String, String> cache0 = cache(0);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache0.put("k" + i, "v" + i);
+      }
+      SingleFileStore store0 = store(cache0);
+      assertEquals(NUM_KEYS, store0.size());
+
+      addClusterEnabledCacheManager(buildConfiguration(1));
+      Cache<String, String> cache1 = cache(1);
+      TestingUtil.waitForRehashToComplete(cache0, cache1);
+
+      ConsistentHash ch = cache0.getAdvancedCache().getDistributionManager().getReadConsistentHash();
+      int owned0 = 0;
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         boolean isOwner0 = ch.isKeyLocalToNode(address(0), key);
+         assertEquals(isOwner0, store0.contains(key));
+         if (isOwner0) {
+            owned0++;
+         }
+         assertEquals("v" + i, cache1.get(key));
+      }
+      assertTrue(owned0 < NUM_KEYS);
+      assertEquals(owned0, store0.size());
+      assertEquals(NUM_KEYS - owned0, store(cache1).size());
+   }
+
+   private SingleFileStore store(Cache<?, ?> cache) {
+      PersistenceManager persistenceManager = TestingUtil.extractComponent(cache, PersistenceManager.class);
+      return persistenceManager.getStores(SingleFileStore.class).iterator().next();
+   }
+}
@@ -0,0 +1,97 @@
+package org.infinispan.persistence.file;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.stream.CacheCollectors;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a stream restricted to some segments only reads the files of those segments from a segmented file store.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.file.SegmentedSingleFileStoreStreamTest")
+public class SegmentedSingleFileStoreStreamTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 100;
+
+   private final String tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      Util.recursiveFileRemove(tmpDirectory);
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1).numSegments(16);
+      builder.persistence().addSingleFileStore().location(tmpDirectory).segmented(true);
+      addClusterEnabledCacheManager(builder);
+   }
+
+   public void testSegmentRestrictedStreamOnlyReadsItsSegment() {
+      Cache<String, String> cache = cache(0);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      // Only the store has the entries now
+      cache.getAdvancedCache().getDataContainer().clear();
+      SingleFileStore<String, String> store = spyStore(cache);
+
+      KeyPartitioner keyPartitioner = TestingUtil.extractComponent(cache, KeyPartitioner.class);
+      int segment = keyPartitioner.getSegment("k0");
+      Set<Integer> segments = Collections.singleton(segment);
+      Map<String, String> expected = new HashMap<>();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         if (keyPartitioner.getSegment("k" + i) == segment) {
+            expected.put("k" + i, "v" + i);
+         }
+      }
+
+      Map<String, String> entries = cache.entrySet().stream().filterKeySegments(segments)
+            .collect(CacheCollectors.serializableCollector(() -> Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+      assertEquals(expected, entries);
+      verify(store).process(eq(segments), any(KeyFilter.class), any(AdvancedCacheLoader.CacheLoaderTask.class),
+            any(Executor.class), anyBoolean(), anyBoolean());
+      verify(store, never()).process(any(KeyFilter.class), any(AdvancedCacheLoader.CacheLoaderTask.class),
+            any(Executor.class), anyBoolean(), anyBoolean());
+   }
+
+   private SingleFileStore<String, String> spyStore(Cache<?, ?> cache) {
+      PersistenceManager persistenceManager = TestingUtil.extractComponent(cache, PersistenceManager.class);
+      SingleFileStore<String, String> store = persistenceManager.getStores(SingleFileStore.class).iterator().next();
+      SingleFileStore<String, String> spy = spy(store);
+      List<Object> loaders = TestingUtil.extractField(persistenceManager, "loaders");
+      loaders.set(loaders.indexOf(store), spy);
+      Map<Object, Object> configMap = TestingUtil.extractField(persistenceManager, "configMap");
+      configMap.put(spy, configMap.get(store));
+      return spy;
+   }
+}
@@ -0,0 +1,76 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.commons.util.concurrent.ConcurrentHashSet;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the single-file store tests against a store that keeps one file per segment.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.file.SegmentedSingleFileStoreTest")
+public class SegmentedSingleFileStoreTest extends SingleFileStoreTest {
+
+   private static final int NUM_SEGMENTS = 16;
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      SingleFileStore store = new SingleFileStore();
+      ConfigurationBuilder configurationBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      configurationBuilder.clustering().hash().numSegments(NUM_SEGMENTS);
+      configurationBuilder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .segmented(true);
+      configuration = configurationBuilder.build();
+      store.init(createContext(configuration));
+      return store;
+   }
+
+   public void testOneFilePerSegment() {
+      SingleFileStore<Object, Object> store = (SingleFileStore<Object, Object>) cl;
+      assertTrue(store.isSegmented());
+      File[] files = new File(tmpDirectory).listFiles();
+      assertEquals(1, files.length);
+      assertEquals(NUM_SEGMENTS, files[0].list().length);
+   }
+
+   public void testProcessSegments() {
+      KeyPartitioner keyPartitioner = configuration.clustering().hash().keyPartitioner();
+      int numKeys = 100;
+      for (int i = 0; i < numKeys; i++) {
+         cl.write(marshalledEntry("k" + i, wrap("k" + i, "v" + i), null));
+      }
+
+      Set<Integer> requestedSegments = new HashSet<>(Arrays.asList(keyPartitioner.getSegment("k0"),
+            keyPartitioner.getSegment("k1")));
+      Set<Object> expected = new HashSet<>();
+      for (int i = 0; i < numKeys; i++) {
+         if (requestedSegments.contains(keyPartitioner.getSegment("k" + i))) {
+            expected.add("k" + i);
+         }
+      }
+
+      Set<Object> processed = new ConcurrentHashSet<>();
+      ((SingleFileStore<Object, Object>) cl).process(requestedSegments, null,
+            (marshalledEntry, taskContext) -> processed.add(marshalledEntry.getKey()), new WithinThreadExecutor(),
+            false, false);
+      assertEquals(expected, processed);
+   }
+}
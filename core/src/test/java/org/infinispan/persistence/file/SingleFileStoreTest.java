@@ -1,10 +1,24 @@
 package org.infinispan.persistence.file;
 
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.BaseStoreTest;
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.test.TestingUtil;
 import org.infinispan.test.fwk.TestCacheManagerFactory;
 import org.testng.annotations.AfterClass;
@@ -21,6 +35,7 @@
 public class SingleFileStoreTest extends BaseStoreTest {
 
    String tmpDirectory;
+   Configuration configuration;
 
    @BeforeClass(alwaysRun = true)
    protected void setUpTempDir() {
@@ -41,7 +56,53 @@ protected AdvancedLoadWriteStore createStore() throws Exception {
             .persistence()
                .addStore(SingleFileStoreConfigurationBuilder.class)
                   .location(this.tmpDirectory);
-      store.init(createContext(configurationBuilder.build()));
+      configuration = configurationBuilder.build();
+      store.init(createContext(configuration));
       return store;
    }
+
+   public void testClearSegments() {
+      KeyPartitioner keyPartitioner = configuration.clustering().hash().keyPartitioner();
+      keyPartitioner.init(configuration.clustering().hash());
+      int numKeys = 100;
+      for (int i = 0; i < numKeys; i++) {
+         cl.write(marshalledEntry("k" + i, wrap("k" + i, "v" + i), null));
+      }
+      assertEquals(numKeys, cl.size());
+
+      int clearedSegment = keyPartitioner.getSegment("k0");
+      Set<Integer> clearedSegments = Collections.singleton(clearedSegment);
+      ((SingleFileStore<Object, Object>) cl).clear(clearedSegments);
+
+      int remaining = 0;
+      for (int i = 0; i < numKeys; i++) {
+         String key = "k" + i;
+         if (keyPartitioner.getSegment(key) == clearedSegment) {
+            assertFalse(cl.contains(key));
+            assertEquals(null, cl.load(key));
+         } else {
+            assertEquals("v" + i, unwrap(cl.load(key).getValue()));
+            remaining++;
+         }
+      }
+      assertTrue(remaining < numKeys);
+      assertEquals(remaining, cl.size());
+   }
+
+   public void testFailedWriteBatchFreesAllocatedSpace() {
+      List<MarshalledEntry<?, ?>> entries = new ArrayList<>();
+      entries.add(marshalledEntry("k1", "v1", null));
+      // The value cannot be marshalled
+      entries.add(marshalledEntry("k2", new Object(), null));
+      try {
+         cl.writeBatch(entries);
+         fail("The batch should have failed");
+      } catch (PersistenceException expected) {
+      }
+
+      // The space allocated for the first entry is reused
+      long fileSize = ((SingleFileStore) cl).getFileSize();
+      cl.write(marshalledEntry("k1", "v1", null));
+      assertEquals(fileSize, ((SingleFileStore) cl).getFileSize());
+   }
 }
@@ -66,6 +66,7 @@
 import org.infinispan.transaction.impl.TransactionTable;
 import org.infinispan.transaction.totalorder.TotalOrderManager;
 import org.infinispan.util.ByteString;
+import org.infinispan.util.DefaultTimeService;
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
 import org.infinispan.util.concurrent.IsolationLevel;
 import org.infinispan.util.logging.Log;
@@ -203,7 +204,8 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       final StateConsumerImpl stateConsumer = new StateConsumerImpl();
       stateConsumer.init(cache, pooledExecutorService, stateTransferManager, interceptorChain, icf, configuration, rpcManager, null,
             commandsFactory, persistenceManager, dataContainer, transactionTable, stateTransferLock, cacheNotifier,
-            totalOrderManager, remoteCommandsExecutor, new CommitManager(AnyEquivalence.getInstance()));
+            totalOrderManager, remoteCommandsExecutor, new CommitManager(AnyEquivalence.getInstance()), null,
+            new DefaultTimeService());
       stateConsumer.start();
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
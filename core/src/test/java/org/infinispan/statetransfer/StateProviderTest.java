@@ -174,7 +174,7 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       StateProviderImpl stateProvider = new StateProviderImpl();
       stateProvider.init(cache, mockExecutorService,
             configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
-            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef);
+            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef, null);
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
       Object key1 = new TestKey("key1", 0, ch1);
@@ -207,7 +207,7 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       verifyNoMoreInteractions(stateTransferLock);
 
-      stateProvider.startOutboundTransfer(F, 1, Collections.singleton(0));
+      stateProvider.startOutboundTransfer(F, 1, Collections.singleton(0), 1);
 
       assertTrue(stateProvider.isStateTransferInProgress());
 
@@ -217,7 +217,7 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       assertFalse(stateProvider.isStateTransferInProgress());
 
-      stateProvider.startOutboundTransfer(D, 1, Collections.singleton(0));
+      stateProvider.startOutboundTransfer(D, 1, Collections.singleton(0), 1);
 
       assertTrue(stateProvider.isStateTransferInProgress());
 
@@ -283,7 +283,7 @@ public RpcOptionsBuilder answer(InvocationOnMock invocation) {
       StateProviderImpl stateProvider = new StateProviderImpl();
       stateProvider.init(cache, mockExecutorService,
             configuration, rpcManager, commandsFactory, cacheNotifier, persistenceManager,
-            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef);
+            dataContainer, transactionTable, stateTransferLock, stateConsumer, ef, null);
 
       final List<InternalCacheEntry> cacheEntries = new ArrayList<InternalCacheEntry>();
       Object key1 = new TestKey("key1", 0, ch1);
@@ -320,7 +320,7 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       verifyNoMoreInteractions(stateTransferLock);
 
-      stateProvider.startOutboundTransfer(F, 1, Collections.singleton(0));
+      stateProvider.startOutboundTransfer(F, 1, Collections.singleton(0), 1);
 
       assertTrue(stateProvider.isStateTransferInProgress());
 
@@ -331,7 +331,7 @@ public Iterator<InternalCacheEntry> answer(InvocationOnMock invocation) {
 
       assertFalse(stateProvider.isStateTransferInProgress());
 
-      stateProvider.startOutboundTransfer(E, 1, Collections.singleton(0));
+      stateProvider.startOutboundTransfer(E, 1, Collections.singleton(0), 1);
 
       assertTrue(stateProvider.isStateTransferInProgress());
 
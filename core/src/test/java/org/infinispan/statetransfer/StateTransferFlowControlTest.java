@@ -0,0 +1,119 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.persistence.dummy.DummyInMemoryStore;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.testng.annotations.Test;
+
+/**
+ * Tests state transfer with chunks limited by size in bytes and with more than one chunk credit, and checks the
+ * inbound state transfer statistics.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.StateTransferFlowControlTest")
+public class StateTransferFlowControlTest extends MultipleCacheManagersTest {
+
+   private static final int NUM_KEYS = 200;
+   private static final int VALUE_SIZE = 1000;
+   private static final int CHUNK_SIZE_BYTES = 10 * VALUE_SIZE;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      addClusterEnabledCacheManager(buildConfiguration());
+      waitForClusterToForm();
+   }
+
+   private ConfigurationBuilder buildConfiguration() {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.REPL_SYNC, false);
+      builder.clustering().stateTransfer().chunkSize(NUM_KEYS).chunkSizeBytes(CHUNK_SIZE_BYTES).chunkCredits(4);
+      builder.persistence().addStore(DummyInMemoryStoreConfigurationBuilder.class);
+      return builder;
+   }
+
+   public void testJoinWithByteSizedChunks() {
+      Cache<String, byte[]> cache0 = cache(0);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         byte[] value = new byte[VALUE_SIZE];
+         Arrays.fill(value, (byte) i);
+         cache0.put("k" + i, value);
+      }
+
+      ChunkCountingRpcManager rpcManager = TestingUtil.wrapComponent(cache0, RpcManager.class,
+            (wrapOn, current) -> new ChunkCountingRpcManager(current), true);
+
+      addClusterEnabledCacheManager(buildConfiguration());
+      Cache<String, byte[]> cache1 = cache(1);
+      TestingUtil.waitForRehashToComplete(cache0, cache1);
+
+      // every chunk is sent as soon as it is bigger than the limit, so there can't be a single chunk
+      assertTrue(rpcManager.chunks.get() >= NUM_KEYS * VALUE_SIZE / (CHUNK_SIZE_BYTES + VALUE_SIZE));
+      assertTrue(rpcManager.maxChunkEntries.get() <= CHUNK_SIZE_BYTES / VALUE_SIZE + 1);
+
+      DummyInMemoryStore store1 = TestingUtil.extractComponent(cache1, PersistenceManager.class)
+            .getStores(DummyInMemoryStore.class).iterator().next();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         byte[] value = cache1.getAdvancedCache().getDataContainer().get(key).getValue();
+         assertNotNull(value);
+         assertEquals((byte) i, value[0]);
+         assertTrue(store1.contains(key));
+      }
+
+      StateTransferManager stateTransferManager = TestingUtil.extractComponent(cache1, StateTransferManager.class);
+      assertFalse(stateTransferManager.isStateTransferInProgress());
+      assertTrue(stateTransferManager.getInboundStateTransferEntriesPerSecond() > 0);
+      assertTrue(stateTransferManager.getInboundStateTransferBytesPerSecond() >=
+            stateTransferManager.getInboundStateTransferEntriesPerSecond() * VALUE_SIZE);
+      assertEquals(0, stateTransferManager.getInboundStateTransferEstimatedTimeToCompletion());
+      String segmentStatistics = stateTransferManager.showInboundSegmentStatistics();
+      assertTrue(segmentStatistics, segmentStatistics.contains("completed=true"));
+      assertFalse(segmentStatistics, segmentStatistics.contains("completed=false"));
+   }
+
+   public void testStringSizeIsEncodedLength() {
+      EntrySizeEstimator estimator = new EntrySizeEstimator(TestingUtil.extractGlobalMarshaller(manager(0)));
+      // 1 byte per ASCII character, 2 bytes for the null character and for U+00E9, 3 bytes for U+4E2D
+      assertEquals(3 + 7, estimator.estimateSize(new ImmortalCacheEntry("key", "\u0000\u00e9\u4e2d")));
+   }
+
+   private static class ChunkCountingRpcManager extends AbstractControlledRpcManager {
+      final AtomicInteger chunks = new AtomicInteger();
+      final AtomicInteger maxChunkEntries = new AtomicInteger();
+
+      ChunkCountingRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      @Override
+      protected void beforeInvokeRemotely(ReplicableCommand command) {
+         if (command instanceof StateResponseCommand) {
+            int entries = 0;
+            for (StateChunk chunk : ((StateResponseCommand) command).getStateChunks()) {
+               entries += chunk.getCacheEntries().size();
+            }
+            if (entries > 0) {
+               chunks.incrementAndGet();
+               maxChunkEntries.accumulateAndGet(entries, Math::max);
+            }
+         }
+      }
+   }
+}
@@ -2,6 +2,7 @@
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.withSettings;
@@ -259,15 +260,20 @@ protected PersistenceManager waitUntilAboutToProcessStoreTask(final Cache<?, ?>
       PersistenceManager pm = TestingUtil.extractComponent(cache, PersistenceManager.class);
       final Answer<Object> forwardedAnswer = AdditionalAnswers.delegatesTo(pm);
       PersistenceManager mockManager = mock(PersistenceManager.class, withSettings().defaultAnswer(forwardedAnswer));
-      doAnswer(invocation -> {
+      Answer<Object> blockingAnswer = invocation -> {
          // Wait for main thread to sync up
          checkPoint.trigger("pre_process_on_all_stores_invoked");
          // Now wait until main thread lets us through
          checkPoint.awaitStrict("pre_process_on_all_stores_released", 10, TimeUnit.SECONDS);
 
          return forwardedAnswer.answer(invocation);
-      }).when(mockManager).processOnAllStores(any(Executor.class),      any(KeyFilter.class), any(AdvancedCacheLoader.CacheLoaderTask.class),
+      };
+      doAnswer(blockingAnswer).when(mockManager).processOnAllStores(any(Executor.class),      any(KeyFilter.class), any(AdvancedCacheLoader.CacheLoaderTask.class),
                                                   anyBoolean(), anyBoolean());
+      // Distributed streams only load the segments they retrieve from each node
+      doAnswer(blockingAnswer).when(mockManager).processOnAllStores(any(Executor.class), anySetOf(Integer.class),
+            any(KeyFilter.class), any(AdvancedCacheLoader.CacheLoaderTask.class), anyBoolean(), anyBoolean(),
+            any(PersistenceManager.AccessMode.class));
       TestingUtil.replaceComponent(cache, PersistenceManager.class, mockManager, true);
       return pm;
    }
@@ -0,0 +1,233 @@
+package org.infinispan.tx;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.transaction.Transaction;
+import javax.transaction.xa.XAException;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.VersioningScheme;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.versioning.InequalVersionComparisonResult;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.interceptors.impl.TxInterceptor;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.transaction.lookup.DummyTransactionManagerLookup;
+import org.infinispan.transaction.tm.DummyTransaction;
+import org.infinispan.transaction.tm.DummyTransactionManager;
+import org.infinispan.tx.Use1PcForInducedTransactionTest.InvocationCountInterceptor;
+import org.infinispan.util.concurrent.IsolationLevel;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that optimistic transactions modifying keys with the same primary owner are committed in one phase, with the
+ * primary owner checking for write skews and committing on the backup owners.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "tx.Use1PcForSingleOwnerTransactionTest")
+public class Use1PcForSingleOwnerTransactionTest extends MultipleCacheManagersTest {
+
+   private InvocationCountInterceptor[] ic;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder c = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      c.clustering().hash().numOwners(2);
+      // The dummy transaction manager never commits in one phase on its own
+      c.transaction().lockingMode(LockingMode.OPTIMISTIC).use1PcForSingleOwnerTransactions(true)
+            .transactionManagerLookup(new DummyTransactionManagerLookup());
+      c.locking().isolationLevel(IsolationLevel.REPEATABLE_READ).writeSkewCheck(true);
+      c.versioning().enable().scheme(VersioningScheme.SIMPLE);
+      c.jmxStatistics().enable();
+
+      createCluster(c, 4);
+      waitForClusterToForm();
+
+      ic = new InvocationCountInterceptor[4];
+      for (int i = 0; i < 4; i++) {
+         ic[i] = new InvocationCountInterceptor();
+         advancedCache(i).addInterceptor(ic[i], 1);
+      }
+   }
+
+   @BeforeMethod
+   public void resetCounters() {
+      for (InvocationCountInterceptor interceptor : ic) {
+         interceptor.prepareInvocations = 0;
+         interceptor.commitInvocations = 0;
+      }
+      txInterceptor(0).resetStatistics();
+      txInterceptor(1).resetStatistics();
+   }
+
+   public void testSingleOwnerTransaction() {
+      MagicKey k1 = new MagicKey("k1", cache(1), cache(2));
+      MagicKey k2 = new MagicKey("k2", cache(1), cache(2));
+
+      putAll(cache(0), k1, k2);
+
+      assertCommitted(k1, k2);
+      assertOnePhaseCommit(1, 2);
+      assertEquals(0, ic[3].prepareInvocations);
+      assertEquals(1L, txInterceptor(0).getSingleOwnerOnePhaseCommits());
+      assertEquals(1.0, txInterceptor(0).getSingleOwnerOnePhaseCommitRatio(), 0.0);
+   }
+
+   public void testOriginatorIsPrimaryOwner() {
+      MagicKey k1 = new MagicKey("k1", cache(1), cache(2));
+      MagicKey k2 = new MagicKey("k2", cache(1), cache(3));
+
+      putAll(cache(1), k1, k2);
+
+      assertCommitted(k1, k2);
+      assertOnePhaseCommit(1, 2, 3);
+      assertEquals(1L, txInterceptor(1).getSingleOwnerOnePhaseCommits());
+   }
+
+   public void testOriginatorIsBackupOwner() {
+      MagicKey k1 = new MagicKey("k1", cache(1), cache(0));
+      MagicKey k2 = new MagicKey("k2", cache(1), cache(2));
+
+      putAll(cache(0), k1, k2);
+
+      assertCommitted(k1, k2);
+      assertEquals(1, ic[1].commitInvocations);
+      assertEquals(1, ic[2].commitInvocations);
+      assertEquals(0L, txInterceptor(0).getSingleOwnerOnePhaseCommits());
+   }
+
+   public void testMultiplePrimaryOwners() {
+      MagicKey k1 = new MagicKey("k1", cache(1), cache(3));
+      MagicKey k2 = new MagicKey("k2", cache(2), cache(3));
+
+      putAll(cache(0), k1, k2);
+
+      assertCommitted(k1, k2);
+      assertEquals(1, ic[1].commitInvocations);
+      assertEquals(1, ic[2].commitInvocations);
+      assertEquals(0L, txInterceptor(0).getSingleOwnerOnePhaseCommits());
+      assertEquals(0.0, txInterceptor(0).getSingleOwnerOnePhaseCommitRatio(), 0.0);
+   }
+
+   public void testExplicitTransactionUsesTwoPhaseCommit() throws Exception {
+      MagicKey k1 = new MagicKey("k1", cache(1), cache(2));
+      MagicKey k2 = new MagicKey("k2", cache(1), cache(2));
+
+      // Other resources may be enlisted in a transaction committed in two phases, so the cache cannot commit when it
+      // is prepared
+      tm(0).begin();
+      cache(0).put(k1, "v1");
+      cache(0).put(k2, "v2");
+      tm(0).commit();
+
+      assertCommitted(k1, k2);
+      assertEquals(1, ic[1].commitInvocations);
+      assertEquals(1, ic[2].commitInvocations);
+      assertEquals(0L, txInterceptor(0).getSingleOwnerOnePhaseCommits());
+   }
+
+   public void testOnePhaseXaCommit() throws Exception {
+      MagicKey k1 = new MagicKey("k1", cache(1), cache(2));
+      MagicKey k2 = new MagicKey("k2", cache(1), cache(2));
+
+      tm(0).begin();
+      cache(0).put(k1, "v1");
+      cache(0).put(k2, "v2");
+      commitOnePhase();
+
+      assertCommitted(k1, k2);
+      assertOnePhaseCommit(1, 2);
+      assertEquals(1L, txInterceptor(0).getSingleOwnerOnePhaseCommits());
+   }
+
+   public void testWriteSkewCheckedByPrimaryOwner() throws Exception {
+      MagicKey k = new MagicKey("k", cache(1), cache(2));
+      cache(0).put(k, "v1");
+
+      tm(0).begin();
+      assertEquals("v1", cache(0).get(k));
+      Transaction tx = tm(0).suspend();
+
+      // Committed in one phase as well, the primary owner must still increment the version on all the owners
+      cache(3).put(k, "v2");
+
+      tm(0).resume(tx);
+      cache(0).put(k, "v3");
+      try {
+         commitOnePhase();
+         fail("The transaction should have been rolled back");
+      } catch (XAException expected) {
+         assertEquals(XAException.XA_RBROLLBACK, expected.errorCode);
+      }
+
+      assertEquals("v2", cache(1).get(k));
+      assertEquals("v2", cache(2).get(k));
+      assertSameVersion(k);
+      assertNotLocked(k);
+   }
+
+   private void putAll(Cache<Object, Object> cache, MagicKey k1, MagicKey k2) {
+      Map<Object, Object> map = new HashMap<>();
+      map.put(k1, "v1");
+      map.put(k2, "v2");
+      // An implicit transaction, the cache is its only participant
+      cache.putAll(map);
+   }
+
+   private void commitOnePhase() throws Exception {
+      DummyTransactionManager dtm = (DummyTransactionManager) tm(0);
+      DummyTransaction tx = dtm.getTransaction();
+      try {
+         // What a transaction manager does when the cache is the only resource enlisted in the transaction
+         dtm.firstEnlistedResource().commit(tx.getXid(), true);
+      } finally {
+         dtm.suspend();
+      }
+   }
+
+   private void assertCommitted(MagicKey k1, MagicKey k2) {
+      for (Cache<Object, Object> c : caches()) {
+         assertEquals("v1", c.get(k1));
+         assertEquals("v2", c.get(k2));
+      }
+      assertNotLocked(k1);
+      assertNotLocked(k2);
+      assertSameVersion(k1);
+      assertSameVersion(k2);
+   }
+
+   private void assertSameVersion(MagicKey key) {
+      InternalCacheEntry primaryEntry = null;
+      for (Cache<Object, Object> c : caches()) {
+         InternalCacheEntry entry = c.getAdvancedCache().getDataContainer().get(key);
+         if (entry == null) continue;
+         if (primaryEntry == null) {
+            primaryEntry = entry;
+         } else {
+            assertEquals(InequalVersionComparisonResult.EQUAL,
+                  primaryEntry.getMetadata().version().compareTo(entry.getMetadata().version()));
+         }
+      }
+   }
+
+   private void assertOnePhaseCommit(int... owners) {
+      for (int owner : owners) {
+         assertEquals(1, ic[owner].prepareInvocations);
+         assertEquals(0, ic[owner].commitInvocations);
+      }
+   }
+
+   private TxInterceptor txInterceptor(int index) {
+      return TestingUtil.findInterceptor(cache(index), TxInterceptor.class);
+   }
+}
@@ -44,6 +44,7 @@
 import org.infinispan.commands.read.GetKeyValueCommand;
 import org.infinispan.commands.read.KeySetCommand;
 import org.infinispan.commands.read.SizeCommand;
+import org.infinispan.commands.remote.BackupWriteBatchCommand;
 import org.infinispan.commands.remote.ClusteredGetAllCommand;
 import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commands.remote.GetKeysInGroupCommand;
@@ -59,6 +60,7 @@
 import org.infinispan.commands.tx.VersionedPrepareCommand;
 import org.infinispan.commands.write.ApplyDeltaCommand;
 import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.DataWriteCommand;
 import org.infinispan.commands.write.EvictCommand;
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
@@ -256,6 +258,11 @@ public SingleRpcCommand buildSingleRpcCommand(ReplicableCommand call) {
       return actual.buildSingleRpcCommand(call);
    }
 
+   @Override
+   public BackupWriteBatchCommand buildBackupWriteBatchCommand(List<DataWriteCommand> commands, int topologyId) {
+      return actual.buildBackupWriteBatchCommand(commands, topologyId);
+   }
+
    @Override
    public ClusteredGetCommand buildClusteredGetCommand(Object key, long flagsBitSet) {
       return actual.buildClusteredGetCommand(key, flagsBitSet);
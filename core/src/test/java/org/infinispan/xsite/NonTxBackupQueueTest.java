@@ -0,0 +1,174 @@
+package org.infinispan.xsite;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.equivalence.AnyServerEquivalence;
+import org.infinispan.configuration.cache.BackupConfiguration;
+import org.infinispan.configuration.cache.BackupConfigurationBuilder;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the queue batching the modifications sent to an asynchronous backup site.
+ *
+ * @since 9.0
+ */
+@Test(groups = "xsite", testName = "xsite.NonTxBackupQueueTest")
+public class NonTxBackupQueueTest extends AbstractTwoSitesTest {
+
+   public NonTxBackupQueueTest() {
+      super.lonBackupStrategy = BackupConfiguration.BackupStrategy.ASYNC;
+   }
+
+   @Override
+   protected ConfigurationBuilder getNycActiveConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+
+   @Override
+   protected ConfigurationBuilder getLonActiveConfig() {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.dataContainer().keyEquivalence(new AnyServerEquivalence());
+      return builder;
+   }
+
+   @Override
+   protected void adaptLONConfiguration(BackupConfigurationBuilder builder) {
+      builder.queue().enabled(true).maxBatchSize(5).flushInterval(50).maxSize(20);
+   }
+
+   public void testWritesReachBackupSite() {
+      Map<Object, Object> map = new HashMap<>();
+      for (int i = 0; i < 20; i++) {
+         map.put("k" + i, "v" + i);
+      }
+      cache(LON, 0).putAll(map);
+      cache(LON, 1).put("k0", "v0-2");
+      cache(LON, 0).remove("k1");
+      cache(LON, 1).replace("k2", "v2-2");
+
+      eventually(() -> "v0-2".equals(backup(LON).get("k0")) && backup(LON).get("k1") == null
+            && "v2-2".equals(backup(LON).get("k2")) && "v19".equals(backup(LON).get("k19")));
+      for (int i = 3; i < 20; i++) {
+         assertEquals("v" + i, backup(LON).get("k" + i));
+      }
+      eventually(() -> queueSize() == 0);
+      assertTrue(backupQueue(0).averageBatchSize() > 0 || backupQueue(1).averageBatchSize() > 0);
+
+      cache(LON, 0).clear();
+      eventually(() -> backup(LON).isEmpty());
+   }
+
+   public void testQueueCoalescesAndReplaysWhileOffline() {
+      takeOffline();
+      try {
+         for (int i = 0; i < 10; i++) {
+            cache(LON, i % 2).put("key", "value" + i);
+         }
+         cache(LON, 0).put("removed", "value");
+         cache(LON, 0).remove("removed");
+
+         assertEquals(2, queueSize());
+         assertNull(backup(LON).get("key"));
+      } finally {
+         bringOnline();
+      }
+
+      eventually(() -> "value9".equals(backup(LON).get("key")));
+      assertNull(backup(LON).get("removed"));
+      eventually(() -> queueSize() == 0);
+      assertEquals(0, backupQueue(0).lag());
+      assertEquals(0, backupQueue(1).lag());
+   }
+
+   public void testQueueCoalescesByteArrayKeys() {
+      takeOffline();
+      try {
+         for (int i = 0; i < 10; i++) {
+            // Equal keys, but different instances
+            cache(LON, i % 2).put(new byte[]{1, 2, 3}, "value" + i);
+         }
+
+         assertEquals(1, queueSize());
+      } finally {
+         bringOnline();
+      }
+      eventually(() -> queueSize() == 0);
+   }
+
+   public void testQueueOverflowTakesSiteOffline() {
+      takeOffline();
+      try {
+         for (int i = 0; i < 50; i++) {
+            cache(LON, 0).put("overflow" + i, "value");
+         }
+
+         // At least one of the queues overflowed and discarded its modifications
+         assertTrue(queueSize() < 50);
+         assertTrue(backupSender(0).getOfflineStatus(NYC).isOffline());
+         cache(LON, 0).put("discarded", "value");
+      } finally {
+         bringOnline();
+      }
+
+      cache(LON, 0).put("online", "value");
+      eventually(() -> "value".equals(backup(LON).get("online")));
+      assertFalse(backupSender(0).getOfflineStatus(NYC).isOffline());
+      eventually(() -> queueSize() == 0);
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class, expectedExceptionsMessageRegExp = "ISPN000425: .*")
+   public void testMaxSizeSmallerThanMaxBatchSizeNotAllowed() {
+      BackupConfigurationBuilder builder = new ConfigurationBuilder().sites().addBackup().site(NYC)
+            .strategy(BackupConfiguration.BackupStrategy.ASYNC);
+      builder.queue().enabled(true).maxBatchSize(10).maxSize(5);
+      builder.validate();
+   }
+
+   @Test(expectedExceptions = CacheConfigurationException.class, expectedExceptionsMessageRegExp = "ISPN000422: .*")
+   public void testSyncBackupNotAllowed() {
+      BackupConfigurationBuilder builder = new ConfigurationBuilder().sites().addBackup().site(NYC)
+            .strategy(BackupConfiguration.BackupStrategy.SYNC);
+      builder.queue().enabled(true);
+      builder.validate();
+   }
+
+   private void takeOffline() {
+      for (int i = 0; i < initialClusterSize; i++) {
+         backupSender(i).takeSiteOffline(NYC);
+      }
+   }
+
+   private void bringOnline() {
+      for (int i = 0; i < initialClusterSize; i++) {
+         backupSender(i).bringSiteOnline(NYC);
+      }
+   }
+
+   private int queueSize() {
+      int size = 0;
+      for (int i = 0; i < initialClusterSize; i++) {
+         size += backupQueue(i).size();
+      }
+      return size;
+   }
+
+   private BackupQueue backupQueue(int index) {
+      return backupSender(index).getBackupQueue(NYC);
+   }
+
+   private BackupSender backupSender(int index) {
+      Cache<?, ?> cache = cache(LON, index);
+      return extractComponent(cache, BackupSender.class);
+   }
+}
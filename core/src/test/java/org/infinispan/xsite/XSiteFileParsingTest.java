@@ -69,6 +69,16 @@ public void testCustomBackupPolicy() {
       assertEquals(dcc.sites().backupFor().remoteCache(), null);
    }
 
+   public void testBackupQueue() {
+      Configuration dcc = cacheManager.getCacheConfiguration("backupQueue");
+      assertEquals(dcc.sites().allBackups().size(), 1);
+      BackupConfigurationBuilder sfo = new BackupConfigurationBuilder(null).site("SFO").strategy(BackupStrategy.ASYNC)
+            .backupFailurePolicy(BackupFailurePolicy.WARN).failurePolicyClass(null).replicationTimeout(10000)
+            .useTwoPhaseCommit(false).enabled(true);
+      sfo.queue().enabled(true).maxBatchSize(50).flushInterval(20).maxSize(500);
+      assertTrue(dcc.sites().allBackups().contains(sfo.create()));
+   }
+
    private void testDefault(Configuration dcc) {
       assertEquals(dcc.sites().allBackups().size(), 2);
       BackupConfigurationBuilder nyc = new BackupConfigurationBuilder(null).site("NYC").strategy(BackupStrategy.SYNC)
@@ -39,6 +39,8 @@ public class InfinispanDirectoryProvider implements org.hibernate.search.store.D
    private String dataCacheName;
    private String lockingCacheName;
    private Integer chunkSize;
+   private Integer chunkCacheSize;
+   private Integer readAheadChunks;
 
    private Directory directory;
 
@@ -70,6 +72,8 @@ public void initialize(String directoryProviderName, Properties properties, Buil
       lockingCacheName = InfinispanIntegration.getLockingCacheName(properties);
       //Let it return null if it's not set, so that we can avoid applying any override.
       chunkSize = ConfigurationParseHelper.getIntValue(properties, "chunk_size");
+      chunkCacheSize = ConfigurationParseHelper.getIntValue(properties, "chunk_cache_size");
+      readAheadChunks = ConfigurationParseHelper.getIntValue(properties, "read_ahead_chunks");
       writeFileListAsync = getWriteFileListAsync(properties);
 
       //Only override the default Infinispan LockDirectory if an explicit option is set:
@@ -129,6 +133,12 @@ public void start(DirectoryBasedIndexManager indexManager) {
       if (chunkSize != null) {
          directoryBuildContext.chunkSize(chunkSize.intValue());
       }
+      if (chunkCacheSize != null) {
+         directoryBuildContext.chunkCacheSize(chunkCacheSize.intValue());
+      }
+      if (readAheadChunks != null) {
+         directoryBuildContext.readAheadChunks(readAheadChunks.intValue());
+      }
       if (indexWriterLockFactory != null) {
          directoryBuildContext.overrideWriteLocker(indexWriterLockFactory);
       }
@@ -85,4 +85,25 @@ public interface BuildContext {
     */
    BuildContext affinityLocationIntoSegment(int segmentId);
 
+   /**
+    * Enables a cache of the chunks read by the IndexInputs of the Directory instance, shared by all of them, to avoid
+    * looking up the same chunks in the chunks cache again, possibly with a remote call.
+    * Defaults to 0, which disables it.
+    *
+    * @param chunks the maximum number of chunks kept in the cache; it needs chunks * chunkSize bytes of memory at most
+    * @return the same building context to eventually create the Directory instance
+    */
+   BuildContext chunkCacheSize(int chunks);
+
+   /**
+    * When set to a positive integer, reading a chunk sequentially starts loading the given number of chunks following
+    * it in the background, so that they are already available in the chunk cache when the IndexInput reaches them.
+    * Requires a chunk cache larger than the number of chunks read ahead.
+    * Defaults to 0, which disables it.
+    *
+    * @param chunks the number of chunks to read ahead
+    * @return the same building context to eventually create the Directory instance
+    */
+   BuildContext readAheadChunks(int chunks);
+
 }
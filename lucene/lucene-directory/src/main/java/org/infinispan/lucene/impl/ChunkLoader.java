@@ -0,0 +1,118 @@
+package org.infinispan.lucene.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.lucene.ChunkCacheKey;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Loads the chunks read by the IndexInputs of a Directory.
+ * <p>
+ * When enabled, the chunks are kept in a bounded cache shared by all the IndexInputs of the Directory, and their
+ * clones and slices, so that reading the same chunks again does not need a (possibly remote) cache lookup. Read-ahead
+ * asynchronously loads the chunks following the one being read into that same cache, so that sequential reads find
+ * them already loaded.
+ * <p>
+ * Lucene never modifies an index file once written, so the cached chunks only need to be discarded when their file
+ * is deleted.
+ *
+ * @since 9.0
+ */
+final class ChunkLoader {
+
+   private static final Log log = LogFactory.getLog(ChunkLoader.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final AdvancedCache<ChunkCacheKey, Object> chunksCache;
+   private final int readAheadChunks;
+   // Null when the chunk cache is disabled
+   private final ConcurrentMap<ChunkCacheKey, byte[]> loadedChunks;
+   private final ConcurrentMap<ChunkCacheKey, CompletableFuture<Object>> pendingChunks = new ConcurrentHashMap<>();
+
+   ChunkLoader(AdvancedCache<ChunkCacheKey, Object> chunksCache, int chunkCacheSize, int readAheadChunks) {
+      this.chunksCache = chunksCache;
+      this.readAheadChunks = readAheadChunks;
+      this.loadedChunks = chunkCacheSize > 0 ? CollectionFactory.makeBoundedConcurrentMap(chunkCacheSize) : null;
+   }
+
+   /**
+    * @return the content of the chunk, or {@code null} if it does not exist.
+    */
+   byte[] load(ChunkCacheKey key) {
+      if (loadedChunks == null) {
+         return (byte[]) chunksCache.get(key);
+      }
+      byte[] chunk = loadedChunks.get(key);
+      if (chunk != null) {
+         return chunk;
+      }
+      CompletableFuture<Object> pending = pendingChunks.get(key);
+      if (pending != null) {
+         try {
+            chunk = (byte[]) pending.join();
+         } catch (CompletionException e) {
+            // Reading ahead is only an optimization, load it again to report the failure to the reader
+            chunk = (byte[]) chunksCache.get(key);
+         }
+      } else {
+         chunk = (byte[]) chunksCache.get(key);
+      }
+      if (chunk != null) {
+         loadedChunks.put(key, chunk);
+      }
+      return chunk;
+   }
+
+   /**
+    * Starts loading the chunks following the given one in the background, up to the configured number of chunks and
+    * without going past the last chunk of the file.
+    */
+   void readAhead(ChunkCacheKey key, long fileLength) {
+      if (readAheadChunks <= 0 || loadedChunks == null) {
+         return;
+      }
+      int chunkSize = key.getBufferSize();
+      int lastChunk = (int) ((fileLength - 1) / chunkSize);
+      int last = Math.min(lastChunk, key.getChunkId() + readAheadChunks);
+      for (int chunkId = key.getChunkId() + 1; chunkId <= last; chunkId++) {
+         ChunkCacheKey next = new ChunkCacheKey(key.getIndexName(), key.getFileName(), chunkId, chunkSize,
+               key.getAffinitySegmentId());
+         if (loadedChunks.containsKey(next) || pendingChunks.containsKey(next)) {
+            continue;
+         }
+         CompletableFuture<Object> future = new CompletableFuture<>();
+         if (pendingChunks.putIfAbsent(next, future) != null) {
+            continue;
+         }
+         if (trace) {
+            log.tracef("Reading ahead chunk %s", next);
+         }
+         chunksCache.getAsync(next).whenComplete((value, throwable) -> {
+            if (value != null) {
+               loadedChunks.put(next, (byte[]) value);
+            }
+            pendingChunks.remove(next);
+            if (throwable != null) {
+               future.completeExceptionally(throwable);
+            } else {
+               future.complete(value);
+            }
+         });
+      }
+   }
+
+   /**
+    * Discards the cached chunks of a file which was deleted.
+    */
+   void evict(String fileName) {
+      if (loadedChunks != null) {
+         loadedChunks.keySet().removeIf(key -> key.getFileName().equals(fileName));
+      }
+   }
+}
@@ -43,6 +43,8 @@ public class DirectoryBuilderImpl implements BuildContext {
    private boolean writeFileListAsync = false;
    private Executor deleteExecutor = null;
    private int affinitySegmentId = -1;
+   private int chunkCacheSize = 0;
+   private int readAheadChunks = 0;
 
    public DirectoryBuilderImpl(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, Cache<?, ?> distLocksCache, String indexName) {
       this.metadataCache = checkValidConfiguration(checkNotNull(metadataCache, "metadataCache"), indexName);
@@ -63,7 +65,10 @@ public Directory create() {
       if (deleteExecutor == null) {
          deleteExecutor = new WithinThreadExecutor();
       }
-      return new DirectoryLucene(metadataCache, chunksCache, distLocksCache, indexName, lockFactory, chunkSize, srl, writeFileListAsync, deleteExecutor, affinitySegmentId);
+      if (readAheadChunks > 0 && chunkCacheSize <= readAheadChunks) {
+         throw log.readAheadChunksLargerThanChunkCache(indexName, readAheadChunks);
+      }
+      return new DirectoryLucene(metadataCache, chunksCache, distLocksCache, indexName, lockFactory, chunkSize, srl, writeFileListAsync, deleteExecutor, affinitySegmentId, chunkCacheSize, readAheadChunks);
    }
 
    @Override
@@ -90,6 +95,22 @@ public BuildContext affinityLocationIntoSegment(int segmentId) {
       return this;
    }
 
+   @Override
+   public BuildContext chunkCacheSize(int chunks) {
+      if (chunks < 0)
+         throw new IllegalArgumentException("chunkCacheSize must not be negative");
+      this.chunkCacheSize = chunks;
+      return this;
+   }
+
+   @Override
+   public BuildContext readAheadChunks(int chunks) {
+      if (chunks < 0)
+         throw new IllegalArgumentException("readAheadChunks must not be negative");
+      this.readAheadChunks = chunks;
+      return this;
+   }
+
    @Override
    public BuildContext writeFileListAsynchronously(boolean writeFileListAsync) {
       this.writeFileListAsync = writeFileListAsync;
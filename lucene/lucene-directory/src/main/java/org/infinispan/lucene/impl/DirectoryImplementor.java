@@ -43,8 +43,9 @@ class DirectoryImplementor {
     private final SegmentReadLocker readLocks;
     private final FileCacheKey segmentsGenFileKey;
     private final int affinitySegmentId;
+    private final ChunkLoader chunkLoader;
 
-    public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, Cache<?, ?> distLocksCache, String indexName, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync, int affinitySegmentId) {
+    public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, Cache<?, ?> distLocksCache, String indexName, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync, int affinitySegmentId, int chunkCacheSize, int readAheadChunks) {
        this.affinitySegmentId = affinitySegmentId;
        if (chunkSize <= 0)
            throw new IllegalArgumentException("chunkSize must be a positive integer");
@@ -56,6 +57,7 @@ public DirectoryImplementor(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache,
         this.fileOps = new FileListOperations(this.metadataCache, indexName, fileListUpdatedAsync, this.affinitySegmentId);
         this.segmentsGenFileKey = new FileCacheKey(indexName, IndexFileNames.SEGMENTS, this.affinitySegmentId);
         this.readLocks = readLocker;
+        this.chunkLoader = new ChunkLoader(this.chunksCache, chunkCacheSize, readAheadChunks);
      }
 
     String[] list() {
@@ -69,6 +71,7 @@ boolean fileExists(final String name) {
     void deleteFile(final String name) {
        fileOps.deleteFileName(name);
        readLocks.deleteOrReleaseReadLock(name);
+       chunkLoader.evict(name);
        if (log.isDebugEnabled()) {
           log.debugf("Removed file: %s from index: %s from %s", name, indexName, getAddress(chunksCache));
        }
@@ -98,6 +101,7 @@ void renameFile(final String from, final String to) {
 
        // now trigger deletion of old file chunks:
        readLocks.deleteOrReleaseReadLock(from);
+       chunkLoader.evict(from);
        if (trace) {
           log.tracef("Renamed file from: %s to: %s in index %s from %s", from, to, indexName, getAddress(metadataCache));
        }
@@ -144,7 +148,7 @@ IndexInputContext openInput(final String name) throws IOException {
        }
        else if (!fileMetadata.isMultiChunked()) {
           //files smaller than chunkSize don't need a readLock
-          return new IndexInputContext(chunksCache, fileKey, fileMetadata, null, affinitySegmentId);
+          return new IndexInputContext(chunksCache, fileKey, fileMetadata, null, affinitySegmentId, chunkLoader);
        }
        else {
           boolean locked = readLocks.acquireReadLock(name);
@@ -152,7 +156,7 @@ else if (!fileMetadata.isMultiChunked()) {
              // safest reaction is to tell this file doesn't exist anymore.
              throw new FileNotFoundException("Error loading metadata for index file: " + fileKey);
           }
-          return new IndexInputContext(chunksCache, fileKey, fileMetadata, readLocks, affinitySegmentId);
+          return new IndexInputContext(chunksCache, fileKey, fileMetadata, readLocks, affinitySegmentId, chunkLoader);
        }
     }
 
@@ -51,11 +51,13 @@ class DirectoryLucene extends Directory implements DirectoryExtensions {
     * @param fileListUpdatedAsync When true, the writes to the list of currently existing files in the Directory will use the putAsync method rather than put.
     * @param deleteExecutor The Executor to run file deletes in the background
     * @param affinitySegmentId A hint interpreted by the consistent hashing function to force locality with a specific segment identifier
+    * @param chunkCacheSize The maximum number of chunks cached by the IndexInputs of this Directory, 0 to disable the cache
+    * @param readAheadChunks The number of chunks loaded in the background when reading a chunk sequentially, 0 to disable read-ahead
     */
-   public DirectoryLucene(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, Cache<?, ?> distLocksCache, String indexName, LockFactory lf, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync, Executor deleteExecutor, int affinitySegmentId) {
+   public DirectoryLucene(Cache<?, ?> metadataCache, Cache<?, ?> chunksCache, Cache<?, ?> distLocksCache, String indexName, LockFactory lf, int chunkSize, SegmentReadLocker readLocker, boolean fileListUpdatedAsync, Executor deleteExecutor, int affinitySegmentId, int chunkCacheSize, int readAheadChunks) {
       this.deleteExecutor = deleteExecutor;
       this.affinitySegmentId = affinitySegmentId;
-      this.impl = new DirectoryImplementor(metadataCache, chunksCache, distLocksCache, indexName, chunkSize, readLocker, fileListUpdatedAsync, affinitySegmentId);
+      this.impl = new DirectoryImplementor(metadataCache, chunksCache, distLocksCache, indexName, chunkSize, readLocker, fileListUpdatedAsync, affinitySegmentId, chunkCacheSize, readAheadChunks);
       this.indexName = indexName;
       this.lockFactory = lf;
    }
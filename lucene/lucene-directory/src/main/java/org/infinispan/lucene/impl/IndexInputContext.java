@@ -13,14 +13,21 @@ public final class IndexInputContext {
    final FileMetadata fileMetadata;
    final SegmentReadLocker readLocks;
    final int affinitySegmentId;
+   final ChunkLoader chunkLoader;
 
    public IndexInputContext(AdvancedCache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, FileMetadata fileMetadata,
          SegmentReadLocker readLocks, int affinitySegmentId) {
+      this(chunksCache, fileKey, fileMetadata, readLocks, affinitySegmentId, new ChunkLoader(chunksCache, 0, 0));
+   }
+
+   IndexInputContext(AdvancedCache<ChunkCacheKey, Object> chunksCache, FileCacheKey fileKey, FileMetadata fileMetadata,
+         SegmentReadLocker readLocks, int affinitySegmentId, ChunkLoader chunkLoader) {
             this.chunksCache = chunksCache;
             this.fileKey = fileKey;
             this.fileMetadata = fileMetadata;
             this.readLocks = readLocks;
             this.affinitySegmentId = affinitySegmentId;
+            this.chunkLoader = chunkLoader;
    }
 
 }
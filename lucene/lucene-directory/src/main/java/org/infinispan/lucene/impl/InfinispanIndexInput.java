@@ -3,7 +3,6 @@
 import java.io.IOException;
 
 import org.apache.lucene.store.IndexInput;
-import org.infinispan.Cache;
 import org.infinispan.lucene.ChunkCacheKey;
 import org.infinispan.lucene.FileCacheKey;
 import org.infinispan.lucene.readlocks.SegmentReadLocker;
@@ -27,7 +26,7 @@ public class InfinispanIndexInput extends IndexInput {
 
    protected boolean isClone;
 
-   private final Cache<ChunkCacheKey, Object> chunksCache;
+   private final ChunkLoader chunkLoader;
    private final FileCacheKey fileKey;
    private final int chunkSize;
    private final SegmentReadLocker readLocks;
@@ -42,7 +41,7 @@ public class InfinispanIndexInput extends IndexInput {
 
    public InfinispanIndexInput(final IndexInputContext ctx) {
       super(ctx.fileKey.getFileName());
-      this.chunksCache = ctx.chunksCache;
+      this.chunkLoader = ctx.chunkLoader;
       this.fileKey = ctx.fileKey;
       this.chunkSize = ctx.fileMetadata.getBufferSize();
       this.fileLength = ctx.fileMetadata.getSize();
@@ -54,10 +53,10 @@ public InfinispanIndexInput(final IndexInputContext ctx) {
       }
    }
 
-   private InfinispanIndexInput(final String resourceDescription, final Cache<ChunkCacheKey, Object> chunksCache,
+   private InfinispanIndexInput(final String resourceDescription, final ChunkLoader chunkLoader,
          FileCacheKey fileKey, int chunkSize, String filename, long fileLength, int affinitySegmentId) {
       super(resourceDescription);
-      this.chunksCache = chunksCache;
+      this.chunkLoader = chunkLoader;
       this.fileKey = fileKey;
       this.chunkSize = chunkSize;
       this.filename = filename;
@@ -129,18 +128,20 @@ private void nextChunk() throws IOException {
 
    private void setBufferToCurrentChunk() throws IOException {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), filename, currentLoadedChunk, chunkSize, affinitySegmentId);
-      buffer = (byte[]) chunksCache.get(key);
+      buffer = chunkLoader.load(key);
       if (buffer == null) {
          throw new IOException("Read past EOF: Chunk value could not be found for key " + key);
       }
       currentBufferSize = buffer.length;
+      // Only sequential reads load the following chunks in advance
+      chunkLoader.readAhead(key, fileLength);
    }
 
    // Lucene might try seek(pos) using an illegal pos value
    // RAMDirectory teaches to position the cursor to the end of previous chunk in this case
    private void setBufferToCurrentChunkIfPossible() {
       ChunkCacheKey key = new ChunkCacheKey(fileKey.getIndexName(), filename, currentLoadedChunk, chunkSize, affinitySegmentId);
-      buffer = (byte[]) chunksCache.get(key);
+      buffer = chunkLoader.load(key);
       if (buffer == null) {
          currentLoadedChunk--;
          bufferPosition = chunkSize;
@@ -170,7 +171,7 @@ public IndexInput slice(String sliceDescription, long offset, long length) throw
    }
 
    InfinispanIndexInput copyAndReset() {
-      return new InfinispanIndexInput(filename, chunksCache, fileKey, chunkSize, filename, fileLength, affinitySegmentId);
+      return new InfinispanIndexInput(filename, chunkLoader, fileKey, chunkSize, filename, fileLength, affinitySegmentId);
    }
 
 }
@@ -87,4 +87,7 @@ public interface Log extends org.infinispan.util.logging.Log {
 
    @Message(value = "Lucene Directory for index '%s' can not set affinity location to segment id '%d': must be a positive integer!", id = 15021)
    IllegalArgumentException affinityLocationIntoSegmentValueShallNotBeNegative(String indexName, int segmentId);
+
+   @Message(value = "Lucene Directory for index '%s' can not read ahead %d chunks: the chunk cache must be enabled and larger than the number of chunks read ahead!", id = 15022)
+   IllegalArgumentException readAheadChunksLargerThanChunkCache(String indexName, int readAheadChunks);
 }
@@ -0,0 +1,138 @@
+package org.infinispan.lucene;
+
+import java.io.IOException;
+
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexInput;
+import org.apache.lucene.store.IndexOutput;
+import org.infinispan.Cache;
+import org.infinispan.lucene.directory.DirectoryBuilder;
+import org.infinispan.lucene.testutils.RepeatableLongByteSequence;
+import org.infinispan.manager.CacheContainer;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.AssertJUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Verifies the chunk cache and the read-ahead of the IndexInputs.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "lucene.ReadAheadChunkCacheTest", singleThreaded = true)
+public class ReadAheadChunkCacheTest extends AbstractInfinispanTest {
+
+   private static final String INDEX_NAME = "index";
+   private static final String FILE_NAME = "file.bin";
+   private static final int CHUNK_SIZE = 64;
+   private static final int CHUNKS = 10;
+
+   private CacheContainer cacheManager;
+
+   @BeforeClass(alwaysRun = true)
+   public void prepareCacheManager() {
+      cacheManager = CacheTestSupport.createTestCacheManager();
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void killCacheManager() {
+      TestingUtil.killCacheManagers(cacheManager);
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void clearCache() {
+      cacheManager.getCache().clear();
+   }
+
+   public void testChunkCacheSharedByClones() throws IOException {
+      Cache<Object, Object> cache = cacheManager.getCache();
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEX_NAME)
+            .chunkSize(CHUNK_SIZE).chunkCacheSize(CHUNKS + 1).create();
+      writeFile(dir);
+
+      IndexInput input = dir.openInput(FILE_NAME, IOContext.DEFAULT);
+      assertContent(input);
+      removeChunks(cache, 0, CHUNKS);
+
+      // All the chunks are served by the chunk cache
+      IndexInput clone = input.clone();
+      clone.seek(0);
+      assertContent(clone);
+      input.close();
+      dir.close();
+   }
+
+   public void testReadAhead() throws IOException {
+      Cache<Object, Object> cache = cacheManager.getCache();
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEX_NAME)
+            .chunkSize(CHUNK_SIZE).chunkCacheSize(CHUNKS).readAheadChunks(4).create();
+      writeFile(dir);
+
+      IndexInput input = dir.openInput(FILE_NAME, IOContext.DEFAULT);
+      RepeatableLongByteSequence bytesGenerator = new RepeatableLongByteSequence();
+      AssertJUnit.assertEquals(bytesGenerator.nextByte(), input.readByte());
+      // The next 4 chunks were loaded when reading the first one, synchronously as the keys are local
+      removeChunks(cache, 1, 5);
+      IndexInput clone = input.clone();
+      clone.seek(0);
+      assertContent(clone);
+      input.close();
+      dir.close();
+   }
+
+   public void testDeletedFileEvicted() throws IOException {
+      Cache<Object, Object> cache = cacheManager.getCache();
+      Directory dir = DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEX_NAME)
+            .chunkSize(CHUNK_SIZE).chunkCacheSize(CHUNKS + 1).create();
+      writeFile(dir);
+      IndexInput input = dir.openInput(FILE_NAME, IOContext.DEFAULT);
+      assertContent(input);
+      input.close();
+
+      dir.deleteFile(FILE_NAME);
+      IndexOutput output = dir.createOutput(FILE_NAME, IOContext.DEFAULT);
+      for (int i = 0; i < CHUNK_SIZE * CHUNKS; i++) {
+         output.writeByte((byte) 1);
+      }
+      output.close();
+
+      input = dir.openInput(FILE_NAME, IOContext.DEFAULT);
+      for (int i = 0; i < CHUNK_SIZE * CHUNKS; i++) {
+         AssertJUnit.assertEquals(1, input.readByte());
+      }
+      input.close();
+      dir.close();
+   }
+
+   @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "ISPN015022: .*")
+   public void testReadAheadRequiresChunkCache() {
+      Cache<Object, Object> cache = cacheManager.getCache();
+      DirectoryBuilder.newDirectoryInstance(cache, cache, cache, INDEX_NAME).readAheadChunks(4).create();
+   }
+
+   private void writeFile(Directory dir) throws IOException {
+      RepeatableLongByteSequence bytesGenerator = new RepeatableLongByteSequence();
+      IndexOutput output = dir.createOutput(FILE_NAME, IOContext.DEFAULT);
+      for (int i = 0; i < CHUNK_SIZE * CHUNKS; i++) {
+         output.writeByte(bytesGenerator.nextByte());
+      }
+      output.close();
+   }
+
+   private void assertContent(IndexInput input) throws IOException {
+      RepeatableLongByteSequence bytesGenerator = new RepeatableLongByteSequence();
+      for (int i = 0; i < CHUNK_SIZE * CHUNKS; i++) {
+         AssertJUnit.assertEquals(bytesGenerator.nextByte(), input.readByte());
+      }
+   }
+
+   private void removeChunks(Cache<Object, Object> cache, int from, int to) {
+      for (int i = from; i < to; i++) {
+         cache.remove(new ChunkCacheKey(INDEX_NAME, FILE_NAME, i, CHUNK_SIZE, -1));
+      }
+   }
+}
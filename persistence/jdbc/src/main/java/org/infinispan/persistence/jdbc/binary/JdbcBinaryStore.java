@@ -111,6 +111,73 @@ public final void write(MarshalledEntry entry) {
       }
    }
 
+   /**
+    * Groups the entries by bucket, so that every affected bucket is loaded and written back only once, no matter how
+    * many of the entries it holds.
+    */
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      Map<Integer, List<MarshalledEntry>> entriesByBucket = new HashMap<>();
+      for (MarshalledEntry entry : entries) {
+         entriesByBucket.computeIfAbsent(getBuckedId(entry.getKey()), k -> new ArrayList<>()).add(entry);
+      }
+      long now = ctx.getTimeService().wallClockTime();
+      for (Map.Entry<Integer, List<MarshalledEntry>> e : entriesByBucket.entrySet()) {
+         Integer bucketId = e.getKey();
+         lockBucketForWriting(bucketId);
+         try {
+            Bucket bucket = loadBucket(bucketId);
+            boolean existing = bucket != null;
+            if (!existing) {
+               bucket = new Bucket(keyEquivalence);
+               bucket.setBucketId(bucketId);
+            }
+            boolean modified = false;
+            for (MarshalledEntry me : e.getValue()) {
+               InternalMetadata m = me.getMetadata();
+               if (m != null && m.isExpired(now)) {
+                  modified |= bucket.removeEntry(me.getKey());
+               } else {
+                  bucket.addEntry(me.getKey(), me);
+                  modified = true;
+               }
+            }
+            if (existing && modified) {
+               updateBucket(bucket);
+            } else if (!existing && !bucket.isEmpty()) {
+               insertBucket(bucket);
+            }
+         } finally {
+            unlock(bucketId);
+         }
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      Map<Integer, List<Object>> keysByBucket = new HashMap<>();
+      for (Object key : keys) {
+         keysByBucket.computeIfAbsent(getBuckedId(key), k -> new ArrayList<>()).add(key);
+      }
+      for (Map.Entry<Integer, List<Object>> e : keysByBucket.entrySet()) {
+         Integer bucketId = e.getKey();
+         lockBucketForWriting(bucketId);
+         try {
+            Bucket bucket = loadBucket(bucketId);
+            if (bucket == null)
+               continue;
+            boolean modified = false;
+            for (Object key : e.getValue()) {
+               modified |= bucket.removeEntry(key);
+            }
+            if (modified)
+               updateBucket(bucket);
+         } finally {
+            unlock(bucketId);
+         }
+      }
+   }
+
    @Override
    public final MarshalledEntry load(Object key) {
       Integer bucketId = getBuckedId(key);
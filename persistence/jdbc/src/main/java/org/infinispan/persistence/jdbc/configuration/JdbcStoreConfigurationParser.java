@@ -15,6 +15,7 @@
 import org.infinispan.configuration.parsing.Parser;
 import org.infinispan.configuration.parsing.XMLExtendedStreamReader;
 import org.infinispan.persistence.jdbc.DatabaseType;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder.StringTableManipulationConfigurationBuilder;
 import org.kohsuke.MetaInfServices;
 
 /**
@@ -350,6 +351,15 @@ private void parseTableElements(XMLExtendedStreamReader reader, TableManipulatio
                builder.timestampColumnType(column.type);
                break;
             }
+            case SEGMENT_COLUMN: {
+               if (!(builder instanceof StringTableManipulationConfigurationBuilder)) {
+                  throw ParseUtils.unexpectedElement(reader);
+               }
+               Column column = parseTableElementAttributes(reader);
+               ((StringTableManipulationConfigurationBuilder) builder)
+                     .segmentColumnName(column.name).segmentColumnType(column.type);
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedElement(reader);
             }
@@ -2,6 +2,8 @@
 
 import static org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfiguration.KEY2STRING_MAPPER;
 import static org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfiguration.PROPERTIES;
+import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.SEGMENT_COLUMN_NAME;
+import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.SEGMENT_COLUMN_TYPE;
 
 import java.util.Map;
 import java.util.Properties;
@@ -92,6 +94,24 @@ public StringTableManipulationConfigurationBuilder self() {
          return this;
       }
 
+      /**
+       * The name of the database column used to store the cache segment of the entries. Optional: when set, the
+       * store only reads the rows of the requested segments when iterating over some segments, e.g. during state
+       * transfer. The number of segments of the cache must not change while the table is in use.
+       */
+      public StringTableManipulationConfigurationBuilder segmentColumnName(String segmentColumnName) {
+         attributes().attribute(SEGMENT_COLUMN_NAME).set(segmentColumnName);
+         return this;
+      }
+
+      /**
+       * The type of the database column used to store the cache segment of the entries, e.g. INT
+       */
+      public StringTableManipulationConfigurationBuilder segmentColumnType(String segmentColumnType) {
+         attributes().attribute(SEGMENT_COLUMN_TYPE).set(segmentColumnType);
+         return this;
+      }
+
       @Override
       public PooledConnectionFactoryConfigurationBuilder<JdbcStringBasedStoreConfigurationBuilder> connectionPool() {
          return JdbcStringBasedStoreConfigurationBuilder.this.connectionPool();
@@ -14,6 +14,8 @@ public class TableManipulationConfiguration {
    public static final AttributeDefinition<String> DATA_COLUMN_TYPE = AttributeDefinition.builder("dataColumnType", null, String.class).immutable().build();
    public static final AttributeDefinition<String> TIMESTAMP_COLUMN_NAME = AttributeDefinition.builder("timestampColumnName", null, String.class).immutable().build();
    public static final AttributeDefinition<String> TIMESTAMP_COLUMN_TYPE = AttributeDefinition.builder("timestampColumnType", null, String.class).immutable().build();
+   public static final AttributeDefinition<String> SEGMENT_COLUMN_NAME = AttributeDefinition.builder("segmentColumnName", null, String.class).immutable().build();
+   public static final AttributeDefinition<String> SEGMENT_COLUMN_TYPE = AttributeDefinition.builder("segmentColumnType", null, String.class).immutable().build();
    public static final AttributeDefinition<Integer> BATCH_SIZE = AttributeDefinition.builder("batchSize", TableManager.DEFAULT_BATCH_SIZE).immutable().build();
    public static final AttributeDefinition<Integer> FETCH_SIZE = AttributeDefinition.builder("fetchSize", TableManager.DEFAULT_FETCH_SIZE).immutable().build();
    public static final AttributeDefinition<Boolean> CREATE_ON_START = AttributeDefinition.builder("createOnStart", true).immutable().build();
@@ -21,7 +23,7 @@ public class TableManipulationConfiguration {
 
    static AttributeSet attributeSet() {
       return new AttributeSet(TableManipulationConfiguration.class, ID_COLUMN_NAME, ID_COLUMN_TYPE, TABLE_NAME_PREFIX, CACHE_NAME, DATA_COLUMN_NAME, DATA_COLUMN_TYPE,
-                              TIMESTAMP_COLUMN_NAME, TIMESTAMP_COLUMN_TYPE, BATCH_SIZE, FETCH_SIZE, CREATE_ON_START, DROP_ON_EXIT);
+                              TIMESTAMP_COLUMN_NAME, TIMESTAMP_COLUMN_TYPE, SEGMENT_COLUMN_NAME, SEGMENT_COLUMN_TYPE, BATCH_SIZE, FETCH_SIZE, CREATE_ON_START, DROP_ON_EXIT);
    }
 
    private final Attribute<String> idColumnName;
@@ -32,6 +34,8 @@ static AttributeSet attributeSet() {
    private final Attribute<String> dataColumnType;
    private final Attribute<String> timestampColumnName;
    private final Attribute<String> timestampColumnType;
+   private final Attribute<String> segmentColumnName;
+   private final Attribute<String> segmentColumnType;
    private final Attribute<Integer> batchSize;
    private final Attribute<Integer> fetchSize;
    private final Attribute<Boolean> createOnStart;
@@ -48,6 +52,8 @@ static AttributeSet attributeSet() {
       dataColumnType = attributes.attribute(DATA_COLUMN_TYPE);
       timestampColumnName = attributes.attribute(TIMESTAMP_COLUMN_NAME);
       timestampColumnType = attributes.attribute(TIMESTAMP_COLUMN_TYPE);
+      segmentColumnName = attributes.attribute(SEGMENT_COLUMN_NAME);
+      segmentColumnType = attributes.attribute(SEGMENT_COLUMN_TYPE);
       batchSize = attributes.attribute(BATCH_SIZE);
       fetchSize = attributes.attribute(FETCH_SIZE);
       createOnStart = attributes.attribute(CREATE_ON_START);
@@ -94,6 +100,22 @@ public String timestampColumnType() {
       return timestampColumnType.get();
    }
 
+   /**
+    * @return the name of the column storing the cache segment of the entries, or {@code null} if the segments are not
+    * stored
+    */
+   public String segmentColumnName() {
+      return segmentColumnName.get();
+   }
+
+   public String segmentColumnType() {
+      return segmentColumnType.get();
+   }
+
+   public boolean segmented() {
+      return segmentColumnName.get() != null;
+   }
+
    public int fetchSize() {
       return fetchSize.get();
    }
@@ -8,6 +8,8 @@
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.FETCH_SIZE;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.ID_COLUMN_NAME;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.ID_COLUMN_TYPE;
+import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.SEGMENT_COLUMN_NAME;
+import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.SEGMENT_COLUMN_TYPE;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.TABLE_NAME_PREFIX;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.TIMESTAMP_COLUMN_NAME;
 import static org.infinispan.persistence.jdbc.configuration.TableManipulationConfiguration.TIMESTAMP_COLUMN_TYPE;
@@ -134,6 +136,10 @@ public S timestampColumnType(String timestampColumnType) {
    @Override
    public void validate() {
       validateIfSet(ID_COLUMN_NAME, ID_COLUMN_TYPE, DATA_COLUMN_NAME, DATA_COLUMN_TYPE, TIMESTAMP_COLUMN_NAME, TIMESTAMP_COLUMN_TYPE, TABLE_NAME_PREFIX);
+      // the segment column is optional, but needs both a name and a type
+      if (attributes.attribute(SEGMENT_COLUMN_NAME).isModified() || attributes.attribute(SEGMENT_COLUMN_TYPE).isModified()) {
+         validateIfSet(SEGMENT_COLUMN_NAME, SEGMENT_COLUMN_TYPE);
+      }
    }
 
    private void validateIfSet(AttributeDefinition<?>... definitions) {
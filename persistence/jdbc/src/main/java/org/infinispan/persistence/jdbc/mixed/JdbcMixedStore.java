@@ -138,6 +138,38 @@ public boolean delete(Object key) {
       return getStore(key).delete(key);
    }
 
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      List<MarshalledEntry<? extends K, ? extends V>> stringEntries = new ArrayList<>();
+      List<MarshalledEntry<? extends K, ? extends V>> binaryEntries = new ArrayList<>();
+      for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+         if (stringStore.supportsKey(entry.getKey().getClass()))
+            stringEntries.add(entry);
+         else
+            binaryEntries.add(entry);
+      }
+      if (!stringEntries.isEmpty())
+         stringStore.writeBatch(stringEntries);
+      if (!binaryEntries.isEmpty())
+         binaryStore.writeBatch(binaryEntries);
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      List<Object> stringKeys = new ArrayList<>();
+      List<Object> binaryKeys = new ArrayList<>();
+      for (Object key : keys) {
+         if (stringStore.supportsKey(key.getClass()))
+            stringKeys.add(key);
+         else
+            binaryKeys.add(key);
+      }
+      if (!stringKeys.isEmpty())
+         stringStore.deleteBatch(stringKeys);
+      if (!binaryKeys.isEmpty())
+         binaryStore.deleteBatch(binaryKeys);
+   }
+
    @Override
    public int size() {
       return stringStore.size() + binaryStore.size();
@@ -8,6 +8,9 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
 
 import javax.transaction.Transaction;
@@ -15,10 +18,13 @@
 import org.infinispan.commons.configuration.ConfiguredBy;
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.HashConfiguration;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.executors.ExecutorAllCompletionService;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.persistence.PersistenceUtil;
 import org.infinispan.persistence.TaskContextImpl;
 import org.infinispan.persistence.jdbc.JdbcUtil;
 import org.infinispan.persistence.jdbc.common.AbstractJdbcStore;
@@ -31,6 +37,7 @@
 import org.infinispan.persistence.keymappers.UnsupportedKeyTypeException;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedCacheLoader;
 import org.infinispan.persistence.support.BatchModification;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.logging.LogFactory;
@@ -64,13 +71,18 @@
  * <b>Rehashing</b>. When a node leaves/joins, Infinispan moves around persistent state as part of rehashing process.
  * For this it needs access to the underlaying key objects, so if distribution is used, the mapper needs to be an
  * {@link org.infinispan.persistence.keymappers.TwoWayKey2StringMapper} otherwise the cache won't start (same constraint as with preloading).
+ * <p/>
+ * <b>Segments</b>. If the table has a segment column, each row also stores the cache segment of its key, and iterating
+ * over the entries of some segments only selects their rows, each segment in a separate task. The rows written before
+ * the column was added are assigned their segment on startup, which requires a
+ * {@link org.infinispan.persistence.keymappers.TwoWayKey2StringMapper} as well.
  *
  * @author Mircea.Markus@jboss.com
  * @see org.infinispan.persistence.keymappers.Key2StringMapper
  * @see org.infinispan.persistence.keymappers.DefaultTwoWayKey2StringMapper
  */
 @ConfiguredBy(JdbcStringBasedStoreConfiguration.class)
-public class JdbcStringBasedStore<K,V> extends AbstractJdbcStore<K,V> {
+public class JdbcStringBasedStore<K,V> extends AbstractJdbcStore<K,V> implements SegmentedAdvancedCacheLoader<K,V> {
 
    private static final Log log = LogFactory.getLog(JdbcStringBasedStore.class, Log.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -78,6 +90,7 @@
    private JdbcStringBasedStoreConfiguration configuration;
    private Key2StringMapper key2StringMapper;
    private GlobalConfiguration globalConfiguration;
+   private KeyPartitioner keyPartitioner;
 
    public JdbcStringBasedStore() {
       super(log);
@@ -111,6 +124,57 @@ public void start() {
       if (isDistributed()) {
          enforceTwoWayMapper("distribution/rehashing");
       }
+      keyPartitioner = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
+      if (keyPartitioner == null) {
+         // Local caches don't register a partitioner, but the configured one maps keys just as well
+         HashConfiguration hashConfiguration = ctx.getCache().getCacheConfiguration().clustering().hash();
+         keyPartitioner = hashConfiguration.keyPartitioner();
+         keyPartitioner.init(hashConfiguration);
+      }
+      if (configuration.table().segmented()) {
+         enforceTwoWayMapper("segment column");
+         assignMissingSegments();
+      }
+   }
+
+   /**
+    * Sets the segment of the rows written before the table had a segment column.
+    */
+   private void assignMissingSegments() {
+      Connection conn = null;
+      try {
+         conn = connectionFactory.getConnection();
+         String sql = tableManager.getSelectIdsWithoutSegmentSql();
+         if (trace) {
+            log.tracef("Running sql '%s'", sql);
+         }
+         try (PreparedStatement select = conn.prepareStatement(sql);
+              PreparedStatement update = conn.prepareStatement(tableManager.getUpdateSegmentSql())) {
+            select.setFetchSize(tableManager.getFetchSize());
+            try (ResultSet rs = select.executeQuery()) {
+               int batchSize = tableManager.getBatchSize();
+               int pending = 0;
+               while (rs.next()) {
+                  String keyStr = rs.getString(1);
+                  Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
+                  update.setInt(1, keyPartitioner.getSegment(key));
+                  update.setString(2, keyStr);
+                  update.addBatch();
+                  if (++pending == batchSize) {
+                     update.executeBatch();
+                     pending = 0;
+                  }
+               }
+               if (pending > 0)
+                  update.executeBatch();
+            }
+         }
+      } catch (SQLException e) {
+         log.sqlFailureFetchingAllStoredEntries(e);
+         throw new PersistenceException("SQL error while assigning the segments of the stored entries", e);
+      } finally {
+         connectionFactory.releaseConnection(conn);
+      }
    }
 
    @Override
@@ -133,6 +197,94 @@ public void write(MarshalledEntry entry) {
       }
    }
 
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      Connection connection = null;
+      try {
+         connection = connectionFactory.getConnection();
+         writeBatch(entries, connection);
+      } catch (SQLException ex) {
+         log.sqlFailureStoringKeys(ex);
+         throw new PersistenceException("Error while storing string keys to database", ex);
+      } catch (InterruptedException e) {
+         if (trace) {
+            log.trace("Interrupted while marshalling to store");
+         }
+         Thread.currentThread().interrupt();
+      } finally {
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      Connection connection = null;
+      try {
+         connection = connectionFactory.getConnection();
+         deleteBatch(keys, connection);
+      } catch (SQLException ex) {
+         log.sqlFailureRemovingKeys(ex);
+         throw new PersistenceException("Error while removing string keys from database", ex);
+      } finally {
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   /**
+    * Writes the entries using JDBC statement batching, flushing every {@link TableManager#getBatchSize()} entries. If
+    * the database does not support upserts, every entry requires a select before the insert or update, so the entries
+    * are written one by one, but still on the same connection.
+    */
+   private void writeBatch(Iterable<? extends MarshalledEntry> entries, Connection connection) throws SQLException, InterruptedException {
+      if (!tableManager.isUpsertSupported()) {
+         for (MarshalledEntry entry : entries) {
+            write(entry, connection);
+         }
+         return;
+      }
+      String sql = tableManager.getUpsertRowSql();
+      try (PreparedStatement ps = connection.prepareStatement(sql)) {
+         int batchSize = tableManager.getBatchSize();
+         int pending = 0;
+         for (MarshalledEntry entry : entries) {
+            String keyStr = key2Str(entry.getKey());
+            if (trace) {
+               log.tracef("Adding sql '%s' to batch. Key string is '%s'", sql, keyStr);
+            }
+            prepareUpdateStatement(entry, keyStr, ps);
+            ps.addBatch();
+            if (++pending == batchSize) {
+               ps.executeBatch();
+               pending = 0;
+            }
+         }
+         if (pending > 0)
+            ps.executeBatch();
+      }
+   }
+
+   private void deleteBatch(Iterable<Object> keys, Connection connection) throws SQLException {
+      String sql = tableManager.getDeleteRowSql();
+      try (PreparedStatement ps = connection.prepareStatement(sql)) {
+         int batchSize = tableManager.getBatchSize();
+         int pending = 0;
+         for (Object key : keys) {
+            String keyStr = key2Str(key);
+            if (trace) {
+               log.tracef("Adding sql '%s' on %s to batch", sql, keyStr);
+            }
+            ps.setString(1, keyStr);
+            ps.addBatch();
+            if (++pending == batchSize) {
+               ps.executeBatch();
+               pending = 0;
+            }
+         }
+         if (pending > 0)
+            ps.executeBatch();
+      }
+   }
+
    private void write(MarshalledEntry entry, Connection connection) throws SQLException, InterruptedException {
       write(entry, connection, key2Str(entry.getKey()));
    }
@@ -224,6 +376,69 @@ public MarshalledEntry load(Object key) {
       return storedValue;
    }
 
+   /**
+    * Loads the entries with a single select by {@link TableManager#getBatchSize()} keys, on the same connection.
+    */
+   @Override
+   public Map<Object, MarshalledEntry<K, V>> loadAll(Set<Object> keys) {
+      if (keys.isEmpty())
+         return new HashMap<>();
+
+      Map<String, Object> keysByString = new HashMap<>(keys.size());
+      for (Object key : keys) {
+         keysByString.put(key2Str(key), key);
+      }
+      Map<Object, MarshalledEntry<K, V>> entries = new HashMap<>(keys.size());
+      Connection conn = null;
+      try {
+         conn = connectionFactory.getConnection();
+         int batchSize = tableManager.getBatchSize();
+         String[] batch = new String[Math.min(batchSize, keysByString.size())];
+         int pending = 0;
+         for (String keyStr : keysByString.keySet()) {
+            batch[pending++] = keyStr;
+            if (pending == batch.length) {
+               loadBatch(conn, batch, pending, keysByString, entries);
+               pending = 0;
+            }
+         }
+         if (pending > 0)
+            loadBatch(conn, batch, pending, keysByString, entries);
+      } catch (SQLException e) {
+         log.sqlFailureReadingKeys(keys.size(), e);
+         throw new PersistenceException(String.format("SQL error while fetching %d stored entries", keys.size()), e);
+      } finally {
+         connectionFactory.releaseConnection(conn);
+      }
+      return entries;
+   }
+
+   private void loadBatch(Connection conn, String[] keyStrings, int numKeys, Map<String, Object> keysByString,
+                          Map<Object, MarshalledEntry<K, V>> entries) throws SQLException {
+      String sql = tableManager.getSelectMultipleRowSql(numKeys);
+      if (trace) {
+         log.tracef("Running sql '%s' on %d keys", sql, numKeys);
+      }
+      try (PreparedStatement ps = conn.prepareStatement(sql)) {
+         for (int i = 0; i < numKeys; i++) {
+            ps.setString(i + 1, keyStrings[i]);
+         }
+         try (ResultSet rs = ps.executeQuery()) {
+            long now = ctx.getTimeService().wallClockTime();
+            while (rs.next()) {
+               Object key = keysByString.get(rs.getString(1));
+               if (key == null)
+                  continue;
+               KeyValuePair<ByteBuffer, ByteBuffer> icv = unmarshall(rs.getBinaryStream(2));
+               MarshalledEntry<K, V> entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, icv.getKey(), icv.getValue());
+               if (entry.getMetadata() == null || !entry.getMetadata().isExpired(now)) {
+                  entries.put(key, entry);
+               }
+            }
+         }
+      }
+   }
+
    @Override
    public boolean delete(Object key) {
       Connection connection = null;
@@ -328,15 +543,7 @@ public void process(final KeyFilter filter, final CacheLoaderTask task, Executor
             InputStream inputStream = rs.getBinaryStream(1);
             ecs.submit(() -> {
                if (!taskContext.isStopped()) {
-                  MarshalledEntry entry;
-                  if (fetchValue || fetchMetadata) {
-                     KeyValuePair<ByteBuffer, ByteBuffer> kvp = unmarshall(inputStream);
-                     entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(
-                           key, fetchValue ? kvp.getKey() : null, fetchMetadata ? kvp.getValue() : null);
-                  } else {
-                     entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object) null, null);
-                  }
-                  task.processEntry(entry, taskContext);
+                  task.processEntry(newMarshalledEntry(key, inputStream, fetchValue, fetchMetadata), taskContext);
                }
                return null;
             });
@@ -355,38 +562,88 @@ public void process(final KeyFilter filter, final CacheLoaderTask task, Executor
       }
    }
 
+   /**
+    * With a segment column, the rows of each segment are selected and processed sequentially by a separate task on the
+    * supplied executor. Otherwise the keys of the other segments are filtered out before reading their entries.
+    */
    @Override
-   public void prepareWithModifications(Transaction transaction, BatchModification batchModification) throws PersistenceException {
-      try {
-         Connection connection = getTxConnection(transaction);
-         connection.setAutoCommit(false);
+   public void process(Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                       boolean fetchValue, boolean fetchMetadata) {
+      if (segments == null) {
+         process(filter, task, executor, fetchValue, fetchMetadata);
+         return;
+      }
+      if (!tableManager.isSegmented()) {
+         process(PersistenceUtil.segmentFilter(filter, segments, keyPartitioner), task, executor, fetchValue, fetchMetadata);
+         return;
+      }
+      KeyFilter<? super K> notNullFilter = PersistenceUtil.notNull(filter);
+      TaskContext taskContext = new TaskContextImpl();
+      ExecutorAllCompletionService ecs = new ExecutorAllCompletionService(executor);
+      for (int segment : segments) {
+         ecs.submit(() -> {
+            processSegment(segment, notNullFilter, task, taskContext, fetchValue, fetchMetadata);
+            return null;
+         });
+      }
+      ecs.waitUntilAllCompleted();
+      if (ecs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", ecs.getFirstException());
+      }
+   }
 
-         boolean upsertSupported = tableManager.isUpsertSupported();
-         try (PreparedStatement upsertBatch = upsertSupported ? connection.prepareStatement(tableManager.getUpsertRowSql()) : null;
-              PreparedStatement deleteBatch = connection.prepareStatement(tableManager.getDeleteRowSql())) {
-
-            for (MarshalledEntry entry : batchModification.getMarshalledEntries()) {
-               if (upsertSupported) {
-                  String keyStr = key2Str(entry.getKey());
-                  prepareUpdateStatement(entry, keyStr, upsertBatch);
-                  upsertBatch.addBatch();
-               } else {
-                  write(entry, connection);
-               }
+   private void processSegment(int segment, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task,
+                               TaskContext taskContext, boolean fetchValue, boolean fetchMetadata) {
+      Connection conn = null;
+      PreparedStatement ps = null;
+      ResultSet rs = null;
+      try {
+         String sql = tableManager.getLoadNonExpiredRowsForSegmentSql();
+         if (trace) {
+            log.tracef("Running sql %s on segment %d", sql, segment);
+         }
+         conn = connectionFactory.getConnection();
+         ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+         ps.setLong(1, ctx.getTimeService().wallClockTime());
+         ps.setInt(2, segment);
+         ps.setFetchSize(tableManager.getFetchSize());
+         rs = ps.executeQuery();
+         while (rs.next() && !taskContext.isStopped()) {
+            K key = (K) ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(rs.getString(2));
+            if (filter.accept(key)) {
+               task.processEntry(newMarshalledEntry(key, rs.getBinaryStream(1), fetchValue, fetchMetadata), taskContext);
             }
+         }
+      } catch (SQLException e) {
+         log.sqlFailureFetchingAllStoredEntries(e);
+         throw new PersistenceException("SQL error while fetching all StoredEntries", e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException("Interrupted while processing segment " + segment, e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(conn);
+      }
+   }
 
-            for (Object key : batchModification.getKeysToRemove()) {
-               String keyStr = key2Str(key);
-               deleteBatch.setString(1, keyStr);
-               deleteBatch.addBatch();
-            }
+   private MarshalledEntry newMarshalledEntry(Object key, InputStream inputStream, boolean fetchValue, boolean fetchMetadata) {
+      if (fetchValue || fetchMetadata) {
+         KeyValuePair<ByteBuffer, ByteBuffer> kvp = unmarshall(inputStream);
+         return ctx.getMarshalledEntryFactory().newMarshalledEntry(
+               key, fetchValue ? kvp.getKey() : null, fetchMetadata ? kvp.getValue() : null);
+      }
+      return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object) null, null);
+   }
 
-            if (upsertSupported && !batchModification.getMarshalledEntries().isEmpty())
-               upsertBatch.executeBatch();
+   @Override
+   public void prepareWithModifications(Transaction transaction, BatchModification batchModification) throws PersistenceException {
+      try {
+         Connection connection = getTxConnection(transaction);
+         connection.setAutoCommit(false);
 
-            if (!batchModification.getKeysToRemove().isEmpty())
-               deleteBatch.executeUpdate();
-         }
+         writeBatch(batchModification.getMarshalledEntries(), connection);
+         deleteBatch(batchModification.getKeysToRemove(), connection);
          // We do not call connection.close() in the event of an exception, as close() on active Tx behaviour is implementation
          // dependent. See https://docs.oracle.com/javase/8/docs/api/java/sql/Connection.html#close--
       } catch (SQLException | InterruptedException e) {
@@ -420,7 +677,12 @@ private void prepareUpdateStatement(MarshalledEntry entry, String key, PreparedS
       ByteBuffer byteBuffer = marshall(new KeyValuePair(entry.getValueBytes(), entry.getMetadataBytes()));
       ps.setBinaryStream(1, new ByteArrayInputStream(byteBuffer.getBuf(), byteBuffer.getOffset(), byteBuffer.getLength()), byteBuffer.getLength());
       ps.setLong(2, getExpiryTime(entry.getMetadata()));
-      ps.setString(3, key);
+      if (tableManager.isSegmented()) {
+         ps.setInt(3, keyPartitioner.getSegment(entry.getKey()));
+         ps.setString(4, key);
+      } else {
+         ps.setString(3, key);
+      }
    }
 
    private String key2Str(Object key) throws PersistenceException {
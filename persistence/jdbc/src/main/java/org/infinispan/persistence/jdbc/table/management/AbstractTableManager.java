@@ -22,6 +22,7 @@ public abstract class AbstractTableManager implements TableManager {
    protected final ConnectionFactory connectionFactory;
    protected final TableManipulationConfiguration config;
    protected final String timestampIndexExt = "timestamp_index";
+   protected final String segmentIndexExt = "segment_index";
 
    protected String identifierQuoteString = "\"";
    protected String cacheName;
@@ -41,6 +42,9 @@ public abstract class AbstractTableManager implements TableManager {
    protected String deleteAllRows;
    protected String selectExpiredRowsSql;
    protected String deleteExpiredRowsSql;
+   protected String loadNonExpiredRowsForSegmentSql;
+   protected String selectIdsWithoutSegmentSql;
+   protected String updateSegmentSql;
 
    AbstractTableManager(ConnectionFactory connectionFactory, TableManipulationConfiguration config, DbMetaData metaData, Log log) {
       this.connectionFactory = connectionFactory;
@@ -57,8 +61,13 @@ public void start() throws PersistenceException {
             conn = connectionFactory.getConnection();
             if (!tableExists(conn)) {
                createTable(conn);
+            } else if (isSegmented() && !segmentColumnExists(conn)) {
+               addSegmentColumn(conn);
             }
             createTimestampIndex(conn);
+            if (isSegmented()) {
+               createSegmentIndex(conn);
+            }
          } finally {
             connectionFactory.releaseConnection(conn);
          }
@@ -111,9 +120,11 @@ public void createTable(Connection conn) throws PersistenceException {
       if (cacheName == null || cacheName.trim().length() == 0)
          throw new PersistenceException("cacheName needed in order to create table");
 
-      String ddl = String.format("CREATE TABLE %1$s (%2$s %3$s NOT NULL, %4$s %5$s, %6$s %7$s, PRIMARY KEY (%2$s))",
+      String segmentColumn = isSegmented() ? String.format(", %s %s", config.segmentColumnName(), config.segmentColumnType()) : "";
+      String ddl = String.format("CREATE TABLE %1$s (%2$s %3$s NOT NULL, %4$s %5$s, %6$s %7$s%8$s, PRIMARY KEY (%2$s))",
                                  getTableName(), config.idColumnName(), config.idColumnType(), config.dataColumnName(),
-                                 config.dataColumnType(), config.timestampColumnName(), config.timestampColumnType());
+                                 config.dataColumnType(), config.timestampColumnName(), config.timestampColumnType(),
+                                 segmentColumn);
 
       if (log.isTraceEnabled()) {
          log.tracef("Creating table with following DDL: '%s'.", ddl);
@@ -135,6 +146,56 @@ protected void createTimestampIndex(Connection conn) throws PersistenceException
    }
 
    protected boolean timestampIndexExists(Connection conn) throws PersistenceException {
+      return indexExists(conn, getIndexName(false));
+   }
+
+   /**
+    * Adds the segment column to a table created before the segments were stored. The rows already in the table have
+    * no segment until the store assigns them one.
+    */
+   protected void addSegmentColumn(Connection conn) throws PersistenceException {
+      String ddl = String.format("ALTER TABLE %s ADD %s %s", getTableName(), config.segmentColumnName(),
+                                 config.segmentColumnType());
+      if (log.isTraceEnabled()) {
+         log.tracef("Adding segment column with following DDL: '%s'.", ddl);
+      }
+      executeUpdateSql(conn, ddl);
+   }
+
+   protected boolean segmentColumnExists(Connection conn) throws PersistenceException {
+      ResultSet rs = null;
+      try {
+         TableName table = getTableName();
+         DatabaseMetaData meta = conn.getMetaData();
+         rs = meta.getColumns(null, table.getSchema(), table.getName(), null);
+
+         while (rs.next()) {
+            if (rs.getString("COLUMN_NAME").equalsIgnoreCase(config.segmentColumnName())) {
+               return true;
+            }
+         }
+      } catch (SQLException e) {
+         throw new PersistenceException(e);
+      } finally {
+         JdbcUtil.safeClose(rs);
+      }
+      return false;
+   }
+
+   protected void createSegmentIndex(Connection conn) throws PersistenceException {
+      if (metaData.isIndexingDisabled()) return;
+
+      if (!indexExists(conn, getIndexName(false, segmentIndexExt))) {
+         String ddl = String.format("CREATE INDEX %s ON %s (%s)", getIndexName(true, segmentIndexExt), getTableName(),
+                                    config.segmentColumnName());
+         if (log.isTraceEnabled()) {
+            log.tracef("Adding segment index with following DDL: '%s'.", ddl);
+         }
+         executeUpdateSql(conn, ddl);
+      }
+   }
+
+   private boolean indexExists(Connection conn, String name) throws PersistenceException {
       ResultSet rs = null;
       try {
          TableName table = getTableName();
@@ -143,7 +204,7 @@ protected boolean timestampIndexExists(Connection conn) throws PersistenceExcept
 
          while (rs.next()) {
             String indexName = rs.getString("INDEX_NAME");
-            if (indexName.equalsIgnoreCase(getIndexName(false))) {
+            if (indexName.equalsIgnoreCase(name)) {
                return true;
             }
          }
@@ -211,9 +272,13 @@ public TableName getTableName() {
    }
 
    public String getIndexName(boolean withIdentifier) {
+      return getIndexName(withIdentifier, timestampIndexExt);
+   }
+
+   protected String getIndexName(boolean withIdentifier, String indexExt) {
       TableName table = getTableName();
       String tableName = table.toString().replace(identifierQuoteString, "");
-      String indexName = tableName + "_" + timestampIndexExt;
+      String indexName = tableName + "_" + indexExt;
       if (withIdentifier) {
          return identifierQuoteString + indexName + identifierQuoteString;
       }
@@ -223,8 +288,14 @@ public String getIndexName(boolean withIdentifier) {
    @Override
    public String getInsertRowSql() {
       if (insertRowSql == null) {
-         insertRowSql = String.format("INSERT INTO %s (%s,%s,%s) VALUES (?,?,?)", getTableName(),
-                                      config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+         if (isSegmented()) {
+            insertRowSql = String.format("INSERT INTO %s (%s,%s,%s,%s) VALUES (?,?,?,?)", getTableName(),
+                                         config.dataColumnName(), config.timestampColumnName(),
+                                         config.segmentColumnName(), config.idColumnName());
+         } else {
+            insertRowSql = String.format("INSERT INTO %s (%s,%s,%s) VALUES (?,?,?)", getTableName(),
+                                         config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+         }
       }
       return insertRowSql;
    }
@@ -232,12 +303,20 @@ public String getInsertRowSql() {
    @Override
    public String getUpdateRowSql() {
       if (updateRowSql == null) {
-         updateRowSql = String.format("UPDATE %s SET %s = ? , %s = ? WHERE %s = ?", getTableName(),
-                                      config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+         updateRowSql = String.format("UPDATE %s SET %s WHERE %s = ?", getTableName(), getUpdatedColumnsSql(),
+                                      config.idColumnName());
       }
       return updateRowSql;
    }
 
+   /**
+    * @return the assignments of the columns set by an update, i.e. all of them but the id
+    */
+   protected String getUpdatedColumnsSql() {
+      String columns = String.format("%s = ? , %s = ?", config.dataColumnName(), config.timestampColumnName());
+      return isSegmented() ? columns + " , " + config.segmentColumnName() + " = ?" : columns;
+   }
+
    @Override
    public String getSelectRowSql() {
       if (selectRowSql == null) {
@@ -334,16 +413,59 @@ public String getSelectOnlyExpiredRowsSql() {
       return deleteExpiredRowsSql;
    }
 
+   @Override
+   public boolean isSegmented() {
+      return config.segmented();
+   }
+
+   @Override
+   public String getLoadNonExpiredRowsForSegmentSql() {
+      if (loadNonExpiredRowsForSegmentSql == null) {
+         loadNonExpiredRowsForSegmentSql = String.format("SELECT %1$s, %2$s, %3$s FROM %4$s WHERE (%3$s > ? OR %3$s < 0) AND %5$s = ?",
+                                                         config.dataColumnName(), config.idColumnName(),
+                                                         config.timestampColumnName(), getTableName(),
+                                                         config.segmentColumnName());
+      }
+      return loadNonExpiredRowsForSegmentSql;
+   }
+
+   @Override
+   public String getSelectIdsWithoutSegmentSql() {
+      if (selectIdsWithoutSegmentSql == null) {
+         selectIdsWithoutSegmentSql = String.format("SELECT %s FROM %s WHERE %s IS NULL", config.idColumnName(),
+                                                    getTableName(), config.segmentColumnName());
+      }
+      return selectIdsWithoutSegmentSql;
+   }
+
+   @Override
+   public String getUpdateSegmentSql() {
+      if (updateSegmentSql == null) {
+         updateSegmentSql = String.format("UPDATE %s SET %s = ? WHERE %s = ?", getTableName(),
+                                          config.segmentColumnName(), config.idColumnName());
+      }
+      return updateSegmentSql;
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
-         upsertRowSql = String.format("MERGE INTO %1$s " +
-                              "USING (VALUES (?, ?, ?)) AS tmp (%2$s, %3$s, %4$s) " +
-                              "ON (%2$s = tmp.%2$s) " +
-                              "WHEN MATCHED THEN UPDATE SET %3$s = tmp.%3$s, %4$s = tmp.%4$s " +
-                              "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s)",
-                              getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
-
+         if (isSegmented()) {
+            upsertRowSql = String.format("MERGE INTO %1$s " +
+                                 "USING (VALUES (?, ?, ?, ?)) AS tmp (%2$s, %3$s, %5$s, %4$s) " +
+                                 "ON (%4$s = tmp.%4$s) " +
+                                 "WHEN MATCHED THEN UPDATE SET %2$s = tmp.%2$s, %3$s = tmp.%3$s, %5$s = tmp.%5$s " +
+                                 "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %5$s, %4$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%5$s, tmp.%4$s)",
+                                 getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName(),
+                                 config.segmentColumnName());
+         } else {
+            upsertRowSql = String.format("MERGE INTO %1$s " +
+                                 "USING (VALUES (?, ?, ?)) AS tmp (%2$s, %3$s, %4$s) " +
+                                 "ON (%2$s = tmp.%2$s) " +
+                                 "WHEN MATCHED THEN UPDATE SET %3$s = tmp.%3$s, %4$s = tmp.%4$s " +
+                                 "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s)",
+                                 getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+         }
       }
       return upsertRowSql;
    }
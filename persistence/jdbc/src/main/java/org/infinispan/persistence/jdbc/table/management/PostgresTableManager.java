@@ -19,9 +19,9 @@ class PostgresTableManager extends AbstractTableManager {
    @Override
    public String getUpdateRowSql() {
       if (updateRowSql == null) {
-         updateRowSql = String.format("UPDATE %s SET %s = ? , %s = ? WHERE %s = cast(? as %s)",
-                                      getTableName(), config.dataColumnName(), config.timestampColumnName(),
-                                      config.idColumnName(), config.idColumnType());
+         updateRowSql = String.format("UPDATE %s SET %s WHERE %s = cast(? as %s)",
+                                      getTableName(), getUpdatedColumnsSql(), config.idColumnName(),
+                                      config.idColumnType());
       }
       return updateRowSql;
    }
@@ -26,9 +26,8 @@ public boolean isUpsertSupported() {
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
-         upsertRowSql = String.format("INSERT OR REPLACE INTO %s (%s, %s, %s) VALUES (?, ?, ?)",
-                                      getTableName(), config.dataColumnName(), config.timestampColumnName(),
-                                      config.idColumnName());
+         // the insert lists the segment column as well if there is one
+         upsertRowSql = getInsertRowSql().replaceFirst("INSERT INTO", "INSERT OR REPLACE INTO");
       }
       return upsertRowSql;
    }
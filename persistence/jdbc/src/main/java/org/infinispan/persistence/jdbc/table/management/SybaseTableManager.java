@@ -18,9 +18,9 @@ class SybaseTableManager extends AbstractTableManager {
    @Override
    public String getUpdateRowSql() {
       if (updateRowSql == null) {
-         updateRowSql = String.format("UPDATE %s SET %s = ? , %s = ? WHERE %s = convert(%s,?)",
-                                      getTableName(), config.dataColumnName(), config.timestampColumnName(),
-                                      config.idColumnName(), config.idColumnType());
+         updateRowSql = String.format("UPDATE %s SET %s WHERE %s = convert(%s,?)",
+                                      getTableName(), getUpdatedColumnsSql(), config.idColumnName(),
+                                      config.idColumnType());
       }
       return updateRowSql;
    }
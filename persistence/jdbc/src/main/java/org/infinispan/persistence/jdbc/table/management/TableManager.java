@@ -60,4 +60,26 @@ public interface TableManager {
    String getSelectExpiredBucketsSql();
 
    String getSelectOnlyExpiredRowsSql();
+
+   /**
+    * @return whether the table stores the cache segment of each entry. If it does, the segment is a parameter of the
+    * insert, update and upsert statements, right before the id.
+    */
+   boolean isSegmented();
+
+   /**
+    * @return the statement selecting the data, id and timestamp of the non-expired rows of a single segment, with the
+    * current time and the segment as parameters
+    */
+   String getLoadNonExpiredRowsForSegmentSql();
+
+   /**
+    * @return the statement selecting the ids of the rows written before the table stored the segments
+    */
+   String getSelectIdsWithoutSegmentSql();
+
+   /**
+    * @return the statement setting the segment of a row, with the segment and the id as parameters
+    */
+   String getUpdateSegmentSql();
 }
@@ -15,7 +15,8 @@ public Object[][] configurationFiles() {
       return new Object[][]{
             {"configs/binary.xml"},
             {"configs/mixed.xml"},
-            {"configs/string-based.xml"}
+            {"configs/string-based.xml"},
+            {"configs/string-based-segmented.xml"}
       };
    }
 
@@ -0,0 +1,114 @@
+package org.infinispan.persistence.jdbc.stringbased;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.commons.util.concurrent.ConcurrentHashSet;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.UnitTestDatabaseManager;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the string based store tests against a table storing the segment of each entry.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.jdbc.stringbased.JdbcStringBasedSegmentedStoreTest")
+public class JdbcStringBasedSegmentedStoreTest extends JdbcStringBasedStoreTest {
+
+   private static final int NUM_SEGMENTS = 16;
+
+   private Configuration configuration;
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.clustering().hash().numSegments(NUM_SEGMENTS);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class);
+      UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table(), false);
+      storeBuilder.table().segmentColumnName("SEGMENT_COLUMN").segmentColumnType("INT");
+      configuration = builder.build();
+      JdbcStringBasedStore stringBasedCacheStore = new JdbcStringBasedStore();
+      stringBasedCacheStore.init(createContext(configuration));
+      return stringBasedCacheStore;
+   }
+
+   public void testProcessSegments() {
+      for (int i = 0; i < 100; i++) {
+         cl.write(marshalledEntry("k" + i, wrap("k" + i, "v" + i), null));
+      }
+      assertProcessSegments(cl, configuration);
+   }
+
+   public void testSegmentsAssignedOnStart() throws Exception {
+      String connectionUrl = "jdbc:h2:mem:JdbcStringBasedSegmentedStoreTest_migration;DB_CLOSE_DELAY=-1";
+      JdbcStringBasedStore<Object, Object> store = createStore(connectionUrl, false);
+      for (int i = 0; i < 100; i++) {
+         store.write(marshalledEntry("k" + i, wrap("k" + i, "v" + i), null));
+      }
+      store.stop();
+
+      // The table written without segments gets a segment column, and the existing rows their segment
+      store = createStore(connectionUrl, true);
+      try {
+         assertTrue(store.getTableManager().isSegmented());
+         assertEquals(100, store.size());
+         assertProcessSegments(store, configuration);
+      } finally {
+         store.clear();
+         store.stop();
+      }
+   }
+
+   private JdbcStringBasedStore<Object, Object> createStore(String connectionUrl, boolean segmented) {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.clustering().hash().numSegments(NUM_SEGMENTS);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class);
+      storeBuilder.connectionPool()
+            .driverClass(org.h2.Driver.class)
+            .connectionUrl(connectionUrl)
+            .username("sa");
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table(), false);
+      if (segmented) {
+         storeBuilder.table().segmentColumnName("SEGMENT_COLUMN").segmentColumnType("INT");
+      }
+      configuration = builder.build();
+      JdbcStringBasedStore<Object, Object> store = new JdbcStringBasedStore<>();
+      store.init(createContext(configuration));
+      store.start();
+      return store;
+   }
+
+   private void assertProcessSegments(AdvancedLoadWriteStore<Object, Object> store, Configuration configuration) {
+      KeyPartitioner keyPartitioner = configuration.clustering().hash().keyPartitioner();
+      Set<Integer> requestedSegments = new HashSet<>(Arrays.asList(keyPartitioner.getSegment("k0"),
+            keyPartitioner.getSegment("k1")));
+      Set<Object> expected = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+         if (requestedSegments.contains(keyPartitioner.getSegment("k" + i))) {
+            expected.add("k" + i);
+         }
+      }
+
+      Set<Object> processed = new ConcurrentHashSet<>();
+      ((JdbcStringBasedStore<Object, Object>) store).process(requestedSegments, null,
+            (marshalledEntry, taskContext) -> processed.add(marshalledEntry.getKey()), new WithinThreadExecutor(),
+            false, false);
+      assertEquals(expected, processed);
+   }
+}
@@ -2,11 +2,14 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
@@ -38,6 +41,8 @@
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.Snapshot;
+import org.iq80.leveldb.WriteBatch;
 
 @ConfiguredBy(LevelDBStoreConfiguration.class)
 public class LevelDBStore implements AdvancedLoadWriteStore {
@@ -445,6 +450,68 @@ public void write(MarshalledEntry me) {
         }
     }
 
+    @Override
+    public void writeBatch(Iterable entries) {
+        try {
+            List<byte[]> marshalled = new ArrayList<>();
+            List<MarshalledEntry> expiring = new ArrayList<>();
+            for (Object entry : entries) {
+                MarshalledEntry me = (MarshalledEntry) entry;
+                marshalled.add(marshall(me.getKey()));
+                marshalled.add(marshall(me));
+                InternalMetadata meta = me.getMetadata();
+                if (meta != null && meta.expiryTime() > -1) {
+                    expiring.add(me);
+                }
+            }
+            semaphore.acquire();
+            try {
+                if (stopped) {
+                    throw new PersistenceException("LevelDB is stopped");
+                }
+                try (WriteBatch batch = db.createWriteBatch()) {
+                    for (int i = 0; i < marshalled.size(); i += 2) {
+                        batch.put(marshalled.get(i), marshalled.get(i + 1));
+                    }
+                    db.write(batch);
+                }
+            } finally {
+                semaphore.release();
+            }
+            for (MarshalledEntry me : expiring) {
+                addNewExpiry(me);
+            }
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    @Override
+    public void deleteBatch(Iterable keys) {
+        try {
+            List<byte[]> marshalledKeys = new ArrayList<>();
+            for (Object key : keys) {
+                marshalledKeys.add(marshall(key));
+            }
+            semaphore.acquire();
+            try {
+                if (stopped) {
+                    throw new PersistenceException("LevelDB is stopped");
+                }
+                try (WriteBatch batch = db.createWriteBatch()) {
+                    for (byte[] keyBytes : marshalledKeys) {
+                        batch.delete(keyBytes);
+                    }
+                    db.write(batch);
+                }
+            } finally {
+                semaphore.release();
+            }
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        }
+    }
+
     @Override
     public MarshalledEntry load(Object key) {
         try {
@@ -471,6 +538,70 @@ public MarshalledEntry load(Object key) {
         }
     }
 
+    /**
+     * Reads the keys in their sort order, from the same snapshot of the database.
+     */
+    @Override
+    public Map<Object, MarshalledEntry> loadAll(Set keys) {
+        Map<Object, MarshalledEntry> entries = new HashMap<>();
+        if (keys.isEmpty()) {
+            return entries;
+        }
+        try {
+            List<Map.Entry<byte[], Object>> sortedKeys = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+                sortedKeys.add(new AbstractMap.SimpleImmutableEntry<>(marshall(key), key));
+            }
+            sortedKeys.sort((k1, k2) -> compareKeys(k1.getKey(), k2.getKey()));
+
+            List<byte[]> values = new ArrayList<>(sortedKeys.size());
+            semaphore.acquire();
+            try {
+                if (stopped) {
+                    throw new PersistenceException("LevelDB is stopped");
+                }
+                try (Snapshot snapshot = db.getSnapshot()) {
+                    ReadOptions readOptions = new ReadOptions().snapshot(snapshot);
+                    for (Map.Entry<byte[], Object> key : sortedKeys) {
+                        values.add(db.get(key.getKey(), readOptions));
+                    }
+                }
+            } finally {
+                semaphore.release();
+            }
+
+            long now = ctx.getTimeService().wallClockTime();
+            for (int i = 0; i < values.size(); i++) {
+                MarshalledEntry me = (MarshalledEntry) unmarshall(values.get(i));
+                if (me == null) continue;
+
+                InternalMetadata meta = me.getMetadata();
+                if (meta == null || !meta.isExpired(now)) {
+                    entries.put(sortedKeys.get(i).getValue(), me);
+                }
+            }
+            return entries;
+        } catch (PersistenceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PersistenceException(e);
+        }
+    }
+
+    /**
+     * The default LevelDB comparator, lexicographic order of the unsigned bytes.
+     */
+    private static int compareKeys(byte[] k1, byte[] k2) {
+        int length = Math.min(k1.length, k2.length);
+        for (int i = 0; i < length; i++) {
+            int diff = (k1[i] & 0xff) - (k2[i] & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return k1.length - k2.length;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void purge(Executor executor, PurgeListener purgeListener) {
@@ -1,5 +1,7 @@
 package org.infinispan.persistence.remote;
 
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
@@ -124,6 +126,18 @@ public MarshalledEntry load(Object key) throws PersistenceException {
       }
    }
 
+   /**
+    * Loads the entries with a single Hot Rod getAll request, unless the values are raw: their metadata can only be
+    * fetched key by key.
+    */
+   @Override
+   public Map<Object, MarshalledEntry> loadAll(Set keys) throws PersistenceException {
+      if (configuration.rawValues()) {
+         return AdvancedLoadWriteStore.super.loadAll(keys);
+      }
+      return (Map) remoteCache.getAll(keys);
+   }
+
    @Override
    public boolean contains(Object key) throws PersistenceException {
       return remoteCache.containsKey(key);
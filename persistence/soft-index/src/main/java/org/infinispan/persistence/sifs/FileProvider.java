@@ -7,6 +7,7 @@
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -15,7 +16,10 @@
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -24,11 +28,17 @@
 /**
  * Provides resource management for files - only limited amount of files may be opened in one moment, and opened file
  * should not be deleted. Also allows to generate file indexes.
+ * <p>
+ * Optionally the files that are no longer appended to are memory-mapped when first read, and reads are served by
+ * copying from the mapped region instead of issuing a system call. Files that are still written by a {@link Log}
+ * (the current append file and compaction output) are always read through the file channel.
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 class FileProvider {
    private static final org.infinispan.util.logging.Log log = LogFactory.getLog(FileProvider.class);
+   // Copying a few kilobytes from resident pages takes a few microseconds, anything slower has most likely faulted
+   private static final long SLOW_MAPPED_READ_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
 
    private final File dataDir;
    private final int openFileLimit;
@@ -37,11 +47,20 @@ class FileProvider {
    private final AtomicInteger currentOpenFiles = new AtomicInteger(0);
    private final ReadWriteLock lock = new ReentrantReadWriteLock();
    private final Set<Integer> logFiles = new HashSet<Integer>();
+   private final boolean memoryMapped;
+   private final AtomicLong mappedBytes = new AtomicLong();
+   private final LongAdder mappedReads = new LongAdder();
+   private final LongAdder slowMappedReads = new LongAdder();
 
    private int nextFileId = 0;
 
    public FileProvider(String dataDir, int openFileLimit) {
+      this(dataDir, openFileLimit, false);
+   }
+
+   public FileProvider(String dataDir, int openFileLimit, boolean memoryMapped) {
       this.openFileLimit = openFileLimit;
+      this.memoryMapped = memoryMapped;
       this.recordQueue = new ArrayBlockingQueue<Record>(openFileLimit);
       this.dataDir = new File(dataDir);
       this.dataDir.mkdirs();
@@ -178,6 +197,36 @@ public Log getFileForLog() throws IOException {
       }
    }
 
+   /**
+    * @return number of bytes of data files currently memory-mapped
+    */
+   public long getMappedBytes() {
+      return mappedBytes.get();
+   }
+
+   /**
+    * @return number of reads served from memory-mapped files
+    */
+   public long getMappedReads() {
+      return mappedReads.sum();
+   }
+
+   /**
+    * @return number of reads from memory-mapped files slow enough that they most likely had to fault pages in from disk
+    */
+   public long getSlowMappedReads() {
+      return slowMappedReads.sum();
+   }
+
+   private boolean isLogFile(int fileId) {
+      lock.readLock().lock();
+      try {
+         return logFiles.contains(fileId);
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
    public Iterator<Integer> getFileIterator() {
       Set<Integer> set = new HashSet<Integer>();
       for (String file : dataDir.list()) {
@@ -277,7 +326,7 @@ public void close() throws IOException {
       }
    }
 
-   public static final class Handle implements Closeable {
+   public final class Handle implements Closeable {
       private boolean usable = true;
       private Record record;
 
@@ -288,7 +337,24 @@ private Handle(Record record) {
 
       public int read(ByteBuffer buffer, long offset) throws IOException {
          if (!usable) throw new IllegalStateException();
-         return record.getFileChannel().read(buffer, offset);
+         MappedByteBuffer mapped = memoryMapped ? record.getMappedBuffer() : null;
+         if (mapped == null) {
+            return record.getFileChannel().read(buffer, offset);
+         }
+         if (offset >= mapped.capacity()) {
+            return -1;
+         }
+         int length = (int) Math.min(buffer.remaining(), mapped.capacity() - offset);
+         // the mapped buffer is shared by all handles, its position and limit must not be modified
+         ByteBuffer slice = mapped.duplicate();
+         slice.limit((int) offset + length).position((int) offset);
+         long start = System.nanoTime();
+         buffer.put(slice);
+         if (System.nanoTime() - start > SLOW_MAPPED_READ_NANOS) {
+            slowMappedReads.increment();
+         }
+         mappedReads.increment();
+         return length;
       }
 
       @Override
@@ -313,6 +379,8 @@ private class Record {
       private FileChannel fileChannel;
       private int handleCount;
       private boolean deleteOnClose = false;
+      private volatile MappedByteBuffer mappedBuffer;
+      private boolean mappingChecked;
 
       private Record(FileChannel fileChannel, int fileId) {
          this.fileChannel = fileChannel;
@@ -323,6 +391,39 @@ FileChannel getFileChannel() {
          return fileChannel;
       }
 
+      /**
+       * Maps the file when it is first read after it has been completely written. The mapping is released together with
+       * the file channel; the memory itself is unmapped when the buffer is garbage collected.
+       */
+      MappedByteBuffer getMappedBuffer() throws IOException {
+         MappedByteBuffer mapped = mappedBuffer;
+         if (mapped != null || mappingChecked) {
+            return mapped;
+         }
+         if (isLogFile(fileId)) {
+            return null;
+         }
+         synchronized (this) {
+            if (mappedBuffer == null && !mappingChecked && fileChannel != null) {
+               mappingChecked = true;
+               long size = fileChannel.size();
+               if (size > 0 && size <= Integer.MAX_VALUE) {
+                  mappedBuffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                  mappedBytes.addAndGet(size);
+               }
+            }
+            return mappedBuffer;
+         }
+      }
+
+      private void unmap() {
+         MappedByteBuffer mapped = mappedBuffer;
+         if (mapped != null) {
+            mappedBuffer = null;
+            mappedBytes.addAndGet(-mapped.capacity());
+         }
+      }
+
       void increaseHandleCount() {
          handleCount++;
       }
@@ -332,6 +433,7 @@ void decreaseHandleCount() throws IOException {
          if (handleCount == 0 && deleteOnClose) {
             // we cannot easily remove the record from queue - keep it there until collection,
             // but physically close and delete the file
+            unmap();
             fileChannel.close();
             fileChannel = null;
             openFiles.remove(fileId, this);
@@ -352,6 +454,7 @@ public int getFileId() {
       }
 
       public void close() throws IOException {
+         unmap();
          fileChannel.close();
          fileChannel = null;
          if (deleteOnClose) {
@@ -367,6 +470,7 @@ public void delete() {
       public void deleteOnClose() throws IOException {
          if (handleCount == 0) {
             if (fileChannel != null) {
+               unmap();
                fileChannel.close();
                fileChannel = null;
             }
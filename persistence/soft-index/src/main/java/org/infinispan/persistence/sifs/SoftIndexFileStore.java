@@ -1,15 +1,32 @@
 package org.infinispan.persistence.sifs;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.infinispan.AdvancedCache;
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.io.ByteBufferFactory;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.factories.components.ManageableComponentMetadata;
 import org.infinispan.filter.KeyFilter;
+import org.infinispan.jmx.JmxUtil;
+import org.infinispan.jmx.ResourceDMBean;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.metadata.InternalMetadata;
@@ -97,6 +114,7 @@
  *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
+@MBean(objectName = "SoftIndexFileStore", description = "Statistics of the soft-index file store")
 public class SoftIndexFileStore implements AdvancedLoadWriteStore {
 
    private static final Log log = LogFactory.getLog(SoftIndexFileStore.class);
@@ -117,6 +135,9 @@ public class SoftIndexFileStore implements AdvancedLoadWriteStore {
    private TimeService timeService;
    private Equivalence<Object> keyEquivalence;
    private int maxKeyLength;
+   private AdvancedCache<?, ?> cache;
+   private MBeanServer mBeanServer;
+   private ObjectName objectName;
 
    @Override
    public void init(InitializationContext ctx) {
@@ -127,6 +148,7 @@ public void init(InitializationContext ctx) {
       timeService = ctx.getTimeService();
       keyEquivalence = ctx.getCache().getAdvancedCache().getCacheConfiguration().dataContainer().keyEquivalence();
       maxKeyLength = configuration.maxNodeSize() - IndexNode.RESERVED_SPACE;
+      cache = ctx.getCache().getAdvancedCache();
    }
 
    @Override
@@ -138,7 +160,7 @@ public void start() {
       temporaryTable = new TemporaryTable(configuration.indexQueueLength() * configuration.indexSegments(), keyEquivalence);
       storeQueue = new SyncProcessingQueue<LogRequest>();
       indexQueue = new IndexQueue(configuration.indexSegments(), configuration.indexQueueLength(), keyEquivalence);
-      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit());
+      fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit(), configuration.memoryMappedReads());
       compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(), configuration.compactionThreshold());
       logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize());
       try {
@@ -189,6 +211,51 @@ public void afterFile(int file) {
          });
       }
       logAppender.setSeqId(maxSeqId.get() + 1);
+      registerMBean();
+   }
+
+   /**
+    * Registers the statistics of this store, when the cache statistics are enabled, under its own MBean with the data
+    * location in its name: a cache may use several soft-index file stores.
+    */
+   private void registerMBean() {
+      if (!cache.getCacheConfiguration().jmxStatistics().enabled()) {
+         return;
+      }
+      GlobalConfiguration globalCfg = cache.getCacheManager().getCacheManagerConfiguration();
+      try {
+         mBeanServer = JmxUtil.lookupMBeanServer(globalCfg);
+      } catch (Exception e) {
+         mBeanServer = null;
+      }
+      if (mBeanServer == null) {
+         return;
+      }
+      ManageableComponentMetadata metadata = cache.getComponentRegistry().getGlobalComponentRegistry()
+            .getComponentMetadataRepo().findComponentMetadata(SoftIndexFileStore.class).toManageableComponentMetadata();
+      String cacheName = cache.getName() + "(" + cache.getCacheConfiguration().clustering().cacheModeString().toLowerCase() + ")";
+      String groupName = "type=Store,manager=" + ObjectName.quote(globalCfg.globalJmxStatistics().cacheManagerName())
+            + ",cache=" + ObjectName.quote(cacheName) + ",location=" + ObjectName.quote(configuration.dataLocation());
+      try {
+         String jmxDomain = JmxUtil.buildJmxDomain(globalCfg, mBeanServer, groupName);
+         objectName = new ObjectName(jmxDomain + ":" + groupName + ",component=" + metadata.getJmxObjectName());
+         JmxUtil.registerMBean(new ResourceDMBean(this, metadata), objectName, mBeanServer);
+      } catch (Exception e) {
+         objectName = null;
+         throw new PersistenceException("Cannot register the MBean of the store in " + configuration.dataLocation(), e);
+      }
+   }
+
+   private void unregisterMBean() {
+      if (objectName != null) {
+         try {
+            JmxUtil.unregisterMBean(objectName, mBeanServer);
+         } catch (Exception e) {
+            log.debugf(e, "Cannot unregister %s", objectName);
+         } finally {
+            objectName = null;
+         }
+      }
    }
 
    protected boolean isSeqIdOld(long seqId, Object key, byte[] serializedKey) throws IOException {
@@ -236,6 +303,7 @@ protected boolean isIndexLoaded() {
 
    @Override
    public void stop() {
+      unregisterMBean();
       try {
          logAppender.stopOperations();
          logAppender = null;
@@ -293,6 +361,47 @@ public synchronized int size() {
       }
    }
 
+   /**
+    * @return number of bytes of data files currently memory-mapped, always 0 unless memory-mapped reads are enabled
+    */
+   @ManagedAttribute(
+         description = "Number of bytes of data files currently memory-mapped",
+         displayName = "Memory-mapped bytes",
+         measurementType = MeasurementType.DYNAMIC
+   )
+   public long getMappedBytes() {
+      FileProvider fileProvider = this.fileProvider;
+      // the attribute may be read through JMX while the store is stopped
+      return fileProvider == null ? 0 : fileProvider.getMappedBytes();
+   }
+
+   /**
+    * @return number of reads served from memory-mapped data files
+    */
+   @ManagedAttribute(
+         description = "Number of reads served from memory-mapped data files",
+         displayName = "Memory-mapped reads",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getMappedReads() {
+      FileProvider fileProvider = this.fileProvider;
+      return fileProvider == null ? 0 : fileProvider.getMappedReads();
+   }
+
+   /**
+    * @return number of reads from memory-mapped data files that were slow enough to have most likely faulted pages in
+    * from disk; a high ratio to {@link #getMappedReads()} means that the working set does not fit in the page cache
+    */
+   @ManagedAttribute(
+         description = "Number of reads from memory-mapped data files that most likely faulted pages in from disk",
+         displayName = "Slow memory-mapped reads",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getSlowMappedReads() {
+      FileProvider fileProvider = this.fileProvider;
+      return fileProvider == null ? 0 : fileProvider.getSlowMappedReads();
+   }
+
    @Override
    public void purge(Executor threadPool, PurgeListener listener) {
       log.trace("Purge method not supported, ignoring.");
@@ -419,6 +528,67 @@ public MarshalledEntry load(Object key) {
       }
    }
 
+   /**
+    * Looks up the positions of all keys first and then reads the entries ordered by file and offset, so that each file
+    * is opened once and read sequentially. An entry whose file was compacted in the meantime is loaded as a single key.
+    */
+   @Override
+   public Map<Object, MarshalledEntry> loadAll(Set keys) {
+      Map<Object, MarshalledEntry> entries = new HashMap<>();
+      try {
+         List<KeyPosition> positions = new ArrayList<>(keys.size());
+         for (Object key : keys) {
+            EntryPosition position = temporaryTable.get(key);
+            if (position == null) {
+               position = index.getPosition(key, marshaller.objectToByteBuffer(key));
+               if (position == null) continue;
+               positions.add(new KeyPosition(key, position.file, position.offset < 0 ? ~position.offset : position.offset));
+            } else if (position.offset >= 0) {
+               positions.add(new KeyPosition(key, position.file, position.offset));
+            }
+         }
+         positions.sort(KeyPosition.FILE_ORDER);
+
+         FileProvider.Handle handle = null;
+         int handleFile = -1;
+         try {
+            long now = timeService.wallClockTime();
+            for (KeyPosition position : positions) {
+               if (handleFile != position.file) {
+                  if (handle != null) {
+                     handle.close();
+                  }
+                  // null if the file was compacted in the meantime
+                  handle = fileProvider.getFile(position.file);
+                  handleFile = position.file;
+               }
+               EntryHeader header = handle == null ? null : EntryRecord.readEntryHeader(handle, position.offset);
+               if (header == null) {
+                  MarshalledEntry entry = load(position.key);
+                  if (entry != null) {
+                     entries.put(position.key, entry);
+                  }
+                  continue;
+               }
+               if (header.valueLength() <= 0 || (header.expiryTime() > 0 && header.expiryTime() <= now)) {
+                  continue;
+               }
+               byte[] serializedKey = EntryRecord.readKey(handle, header, position.offset);
+               byte[] serializedMetadata = header.metadataLength() > 0 ? EntryRecord.readMetadata(handle, header, position.offset) : null;
+               byte[] serializedValue = EntryRecord.readValue(handle, header, position.offset);
+               entries.put(position.key, marshalledEntryFactory.newMarshalledEntry(toBuffer(serializedKey), toBuffer(serializedValue), toBuffer(serializedMetadata)));
+            }
+         } finally {
+            if (handle != null) {
+               handle.close();
+            }
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+      return entries;
+   }
+
    /**
     * This method should be called by reflection to get more info about the missing/invalid key (from test tools)
     * @param key
@@ -443,6 +613,20 @@ private ByteBuffer toBuffer(byte[] array) {
       return array == null ? null : byteBufferFactory.newByteBuffer(array, 0, array.length);
    }
 
+   private static class KeyPosition {
+      static final Comparator<KeyPosition> FILE_ORDER = Comparator.<KeyPosition>comparingInt(p -> p.file).thenComparingInt(p -> p.offset);
+
+      final Object key;
+      final int file;
+      final int offset;
+
+      KeyPosition(Object key, int file, int offset) {
+         this.key = key;
+         this.file = file;
+         this.offset = offset;
+      }
+   }
+
    private interface EntryFunctor {
       boolean apply(int file, int offset, int size, byte[] serializedKey, byte[] serializedMetadata, byte[] serializedValue, long seqId, long expiration) throws Exception;
    }
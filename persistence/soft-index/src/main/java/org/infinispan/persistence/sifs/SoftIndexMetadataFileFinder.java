@@ -0,0 +1,17 @@
+package org.infinispan.persistence.sifs;
+
+import org.infinispan.factories.components.ModuleMetadataFileFinder;
+import org.kohsuke.MetaInfServices;
+
+/**
+ * Locates the component metadata of the soft-index file store, used to expose its statistics through JMX.
+ *
+ * @since 9.0
+ */
+@MetaInfServices
+public class SoftIndexMetadataFileFinder implements ModuleMetadataFileFinder {
+   @Override
+   public String getMetadataFilename() {
+      return "infinispan-persistence-soft-index-component-metadata.dat";
+   }
+}
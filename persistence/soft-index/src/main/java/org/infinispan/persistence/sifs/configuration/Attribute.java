@@ -17,6 +17,7 @@ public enum Attribute {
    SEGMENTS("segments"),
    MAX_FILE_SIZE("max-file-size"),
    MAX_NODE_SIZE("max-node-size"),
+   MEMORY_MAPPED_READS("memory-mapped-reads"),
    MIN_NODE_SIZE("min-node-size"),
    OPEN_FILES_LIMIT("open-files-limit"),
    SYNC_WRITES("sync-writes")
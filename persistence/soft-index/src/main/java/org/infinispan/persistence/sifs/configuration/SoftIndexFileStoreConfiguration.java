@@ -25,12 +25,13 @@ public class SoftIndexFileStoreConfiguration extends AbstractStoreConfiguration
    static final AttributeDefinition<Integer> MAX_NODE_SIZE = AttributeDefinition.builder("maxNodeSize", 4096).immutable().autoPersist(false).build();
    static final AttributeDefinition<Integer> INDEX_QUEUE_LENGTH = AttributeDefinition.builder("indexQueueLength", 1000).immutable().autoPersist(false).xmlName("max-queue-length").build();
    static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder("syncWrites", false).immutable().autoPersist(false).build();
+   static final AttributeDefinition<Boolean> MEMORY_MAPPED_READS = AttributeDefinition.builder("memoryMappedReads", false).immutable().autoPersist(false).build();
    static final AttributeDefinition<Integer> OPEN_FILES_LIMIT = AttributeDefinition.builder("openFilesLimit", 1000).immutable().build();
    static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder("compactionThreshold", 0.5d).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), DATA_LOCATION, INDEX_LOCATION, INDEX_SEGMENTS, MAX_FILE_SIZE,
-            MIN_NODE_SIZE, MAX_NODE_SIZE, INDEX_QUEUE_LENGTH, SYNC_WRITES, OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
+            MIN_NODE_SIZE, MAX_NODE_SIZE, INDEX_QUEUE_LENGTH, SYNC_WRITES, MEMORY_MAPPED_READS, OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
    }
 
    public SoftIndexFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore) {
@@ -69,6 +70,10 @@ public boolean syncWrites() {
       return attributes.attribute(SYNC_WRITES).get();
    }
 
+   public boolean memoryMappedReads() {
+      return attributes.attribute(MEMORY_MAPPED_READS).get();
+   }
+
    public int openFilesLimit() {
       return attributes.attribute(OPEN_FILES_LIMIT).get();
    }
@@ -7,6 +7,7 @@
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.INDEX_SEGMENTS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_FILE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MAX_NODE_SIZE;
+import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MEMORY_MAPPED_READS;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.MIN_NODE_SIZE;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.OPEN_FILES_LIMIT;
 import static org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration.SYNC_WRITES;
@@ -63,6 +64,16 @@ public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       return this;
    }
 
+   /**
+    * If true, data files that are no longer written to are memory-mapped and entries are read from the mapping rather
+    * than through the file channel. Each open file is mapped as a whole, so up to {@code openFilesLimit * maxFileSize}
+    * bytes of address space can be mapped. Defaults to false.
+    */
+   public SoftIndexFileStoreConfigurationBuilder memoryMappedReads(boolean memoryMappedReads) {
+      attributes.attribute(MEMORY_MAPPED_READS).set(memoryMappedReads);
+      return this;
+   }
+
    public SoftIndexFileStoreConfigurationBuilder openFilesLimit(int openFilesLimit) {
       attributes.attribute(OPEN_FILES_LIMIT).set(openFilesLimit);
       return this;
@@ -112,6 +112,9 @@ private void parseData(XMLExtendedStreamReader reader, SoftIndexFileStoreConfigu
             case SYNC_WRITES:
                builder.syncWrites(Boolean.parseBoolean(value));
                break;
+            case MEMORY_MAPPED_READS:
+               builder.memoryMappedReads(Boolean.parseBoolean(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -29,7 +29,8 @@ private void writeDataElement(XMLExtendedStreamWriter writer, SoftIndexFileStore
       configuration.attributes().write(writer, Element.DATA.getLocalName(),
             SoftIndexFileStoreConfiguration.DATA_LOCATION,
             SoftIndexFileStoreConfiguration.MAX_FILE_SIZE,
-            SoftIndexFileStoreConfiguration.SYNC_WRITES);
+            SoftIndexFileStoreConfiguration.SYNC_WRITES,
+            SoftIndexFileStoreConfiguration.MEMORY_MAPPED_READS);
    }
 
    private void writeIndexElement(XMLExtendedStreamWriter writer, SoftIndexFileStoreConfiguration configuration) throws XMLStreamException {
@@ -0,0 +1,37 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft-index file store tests with memory-mapped reads enabled.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.MemoryMappedSoftIndexFileStoreTest")
+public class MemoryMappedSoftIndexFileStoreTest extends SoftIndexFileStoreTest {
+
+   @Override
+   protected boolean memoryMappedReads() {
+      return true;
+   }
+
+   public void testReadsFromMappedFiles() {
+      int numEntries = 100;
+      // with maxFileSize = 1000 the entries are spread over several files, all but the last one complete
+      for (int i = 0; i < numEntries; ++i) {
+         store.write(marshalledEntry(internalCacheEntry(key(i), "value" + i, -1)));
+      }
+      for (int i = 0; i < numEntries; ++i) {
+         assertEquals("value" + i, unwrap(store.load(key(i)).getValue()));
+      }
+      assertTrue(store.getMappedReads() > 0);
+      assertTrue(store.getMappedBytes() > 0);
+      assertTrue(store.getSlowMappedReads() <= store.getMappedReads());
+
+      store.clear();
+      assertEquals(0, store.getMappedBytes());
+   }
+}
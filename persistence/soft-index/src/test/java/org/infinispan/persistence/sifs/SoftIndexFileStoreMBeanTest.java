@@ -0,0 +1,104 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.infinispan.commons.util.Util;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.jmx.PerThreadMBeanServerLookup;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the statistics of the soft-index file store exposed through JMX.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.sifs.SoftIndexFileStoreMBeanTest")
+public class SoftIndexFileStoreMBeanTest extends SingleCacheManagerTest {
+   private static final String JMX_DOMAIN = SoftIndexFileStoreMBeanTest.class.getName();
+
+   private String tmpDirectory;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      tmpDirectory = TestingUtil.tmpDirectory(this.getClass());
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManagerEnforceJmxDomain(JMX_DOMAIN);
+      ConfigurationBuilder builder = getDefaultStandaloneCacheConfig(false);
+      builder.jmxStatistics().enable();
+      // Two stores in the same cache, each one with its own statistics
+      for (int i = 0; i < 2; i++) {
+         builder.persistence()
+               .addStore(SoftIndexFileStoreConfigurationBuilder.class)
+                  .dataLocation(tmpDirectory + "/data" + i).indexLocation(tmpDirectory + "/index" + i)
+                  .maxFileSize(1000).memoryMappedReads(true);
+      }
+      cm.defineConfiguration("test", builder.build());
+      cache = cm.getCache("test");
+      return cm;
+   }
+
+   @AfterClass(alwaysRun = true)
+   protected void clearTempDir() {
+      Util.recursiveFileRemove(tmpDirectory);
+   }
+
+   public void testMappedReadStatistics() throws Exception {
+      MBeanServer mBeanServer = PerThreadMBeanServerLookup.getThreadMBeanServer();
+      for (int i = 0; i < 2; i++) {
+         ObjectName storeName = getStoreObjectName(tmpDirectory + "/data" + i);
+         assertTrue(mBeanServer.isRegistered(storeName));
+         assertEquals(0L, mBeanServer.getAttribute(storeName, "mappedReads"));
+      }
+
+      for (int i = 0; i < 100; ++i) {
+         cache.put("key" + i, "value" + i);
+      }
+      cache.getAdvancedCache().getDataContainer().clear();
+      for (int i = 0; i < 100; ++i) {
+         assertEquals("value" + i, cache.get("key" + i));
+      }
+
+      // with maxFileSize = 1000 the entries are spread over several files, all but the last one complete
+      PersistenceManager persistenceManager = TestingUtil.extractComponent(cache, PersistenceManager.class);
+      for (SoftIndexFileStore store : persistenceManager.getStores(SoftIndexFileStore.class)) {
+         SoftIndexFileStoreConfiguration configuration = TestingUtil.extractField(store, "configuration");
+         ObjectName storeName = getStoreObjectName(configuration.dataLocation());
+         assertEquals(store.getMappedReads(), mBeanServer.getAttribute(storeName, "mappedReads"));
+         assertEquals(store.getSlowMappedReads(), mBeanServer.getAttribute(storeName, "slowMappedReads"));
+         assertEquals(store.getMappedBytes(), mBeanServer.getAttribute(storeName, "mappedBytes"));
+      }
+      // the entries are loaded from the first store
+      SoftIndexFileStore store = TestingUtil.getFirstWriter(cache);
+      assertTrue(store.getMappedReads() > 0);
+   }
+
+   public void testStopUnregistersMBeans() throws Exception {
+      MBeanServer mBeanServer = PerThreadMBeanServerLookup.getThreadMBeanServer();
+      cache.stop();
+      try {
+         for (int i = 0; i < 2; i++) {
+            assertFalse(mBeanServer.isRegistered(getStoreObjectName(tmpDirectory + "/data" + i)));
+         }
+      } finally {
+         cache.start();
+      }
+   }
+
+   private ObjectName getStoreObjectName(String dataLocation) throws Exception {
+      return new ObjectName(JMX_DOMAIN + ":type=Store,manager=" + ObjectName.quote("DefaultCacheManager")
+            + ",cache=" + ObjectName.quote("test(local)") + ",location=" + ObjectName.quote(dataLocation)
+            + ",component=SoftIndexFileStore");
+   }
+}
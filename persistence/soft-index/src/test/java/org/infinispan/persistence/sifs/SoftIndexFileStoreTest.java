@@ -87,12 +87,17 @@ public void stop() {
       builder.persistence()
                .addStore(SoftIndexFileStoreConfigurationBuilder.class)
                   .indexLocation(tmpDirectory).dataLocation(tmpDirectory + "/data")
-                  .maxFileSize(1000);
+                  .maxFileSize(1000)
+                  .memoryMappedReads(memoryMappedReads());
 
       store.init(createContext(builder.build()));
       return store;
    }
 
+   protected boolean memoryMappedReads() {
+      return false;
+   }
+
    @Override
    protected boolean storePurgesAllExpired() {
       return false;
@@ -202,7 +207,7 @@ private void writeGibberish() {
       }
    }
 
-   private String key(int i) {
+   protected String key(int i) {
       return String.format("key%010d", i);
    }
 
@@ -183,7 +183,7 @@ void addClientListener(VersionedDecoder decoder, Channel ch, HotRodHeader h, byt
 
    CacheEventFilter<byte[], byte[]> getFilter(String name, Boolean compatEnabled, Boolean useRawData, List<byte[]> binaryParams) {
       KeyValuePair<CacheEventFilterFactory, Marshaller> factory =
-            findFactory(name, compatEnabled, cacheEventFilterFactories, "key/value filter", useRawData);
+            findFilterFactory(name, compatEnabled, cacheEventFilterFactories, "key/value filter", useRawData);
       List<? extends Object> params = unmarshallParams(binaryParams, factory.getValue(), useRawData);
       return factory.getKey().getFilter(params.toArray());
    }
@@ -202,6 +202,14 @@ CacheEventFilterConverter<byte[], byte[], byte[]> getFilterConverter(String name
       return factory.getKey().getFilterConverter(params.toArray());
    }
 
+   KeyValuePair<CacheEventFilterFactory, Marshaller> findFilterFactory(String name, boolean compatEnabled,
+                                                                       ConcurrentMap<String, CacheEventFilterFactory> factories, String factoryType, boolean useRawData) {
+      if (name.equals("___near-cache-bloom-filter"))
+         return new KeyValuePair<>(NearCacheBloomFilterFactory.SINGLETON, new GenericJBossMarshaller());
+      else
+         return findFactory(name, compatEnabled, factories, factoryType, useRawData);
+   }
+
    KeyValuePair<CacheEventConverterFactory, Marshaller> findConverterFactory(String name, boolean compatEnabled,
                                                                              ConcurrentMap<String, CacheEventConverterFactory> factories, String factoryType, boolean useRawData) {
       if (name.equals("___eager-key-value-version-converter"))
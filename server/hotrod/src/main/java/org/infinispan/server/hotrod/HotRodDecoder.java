@@ -6,9 +6,9 @@
 
 import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.manager.EmbeddedCacheManager;
-import org.infinispan.server.core.logging.Log;
 import org.infinispan.server.core.transport.ExtendedByteBufJava;
 import org.infinispan.server.core.transport.NettyTransport;
+import org.infinispan.server.hotrod.logging.Log;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -35,6 +35,10 @@ public class HotRodDecoder extends ByteToMessageDecoder {
 
    private boolean resetRequested = true;
 
+   // Value read so far, when a large value is read as its bytes arrive
+   private byte[] value;
+   private int valueBytesRead;
+
    public HotRodDecoder(EmbeddedCacheManager cacheManager, NettyTransport transport, HotRodServer server,
                         Predicate<? super String> ignoreCache) {
       this.cacheManager = cacheManager;
@@ -54,6 +58,8 @@ void resetNow() {
       decodeCtx.header = new HotRodHeader();
       state = HotRodDecoderState.DECODE_HEADER;
       resetRequested = false;
+      value = null;
+      valueBytesRead = 0;
    }
 
    /**
@@ -97,7 +103,7 @@ protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) t
                }
                state(HotRodDecoderState.DECODE_PARAMETERS, in);
             case DECODE_PARAMETERS:
-               if (!decodeParameters(in, out)) {
+               if (!decodeParameters(in, out) || !checkValueLength(ctx, in)) {
                   break;
                }
                state(HotRodDecoderState.DECODE_VALUE, in);
@@ -183,7 +189,7 @@ boolean readHeader(ByteBuf buffer) throws Exception {
          }
 
          long messageId = ExtendedByteBufJava.readMaybeVLong(buffer);
-         if (messageId == Integer.MIN_VALUE) {
+         if (messageId == Long.MIN_VALUE) {
             return false;
          }
          header.messageId = messageId;
@@ -278,16 +284,40 @@ boolean decodeParameters(ByteBuf in, List<Object> out) {
       }
    }
 
+   /**
+    * Closes the connection when the request announces a value larger than the maximum value size, before buffering or
+    * allocating anything for it.
+    */
+   private boolean checkValueLength(ChannelHandlerContext ctx, ByteBuf in) {
+      int maxValueSize = server.getConfiguration().maxValueSize();
+      int valueLength = decodeCtx.params.valueLength;
+      if (maxValueSize < 0 || !decodeCtx.header.op.requireValue() || valueLength <= maxValueSize) {
+         return true;
+      }
+      log.valueTooLarge(ctx.channel().remoteAddress(), valueLength, maxValueSize);
+      in.skipBytes(in.readableBytes());
+      resetRequested = true;
+      ctx.close();
+      return false;
+   }
+
    boolean decodeValue(ByteBuf in, List<Object> out) {
       HotRodOperation op = decodeCtx.header.op;
       if (op.requireValue()) {
          int valueLength = decodeCtx.params.valueLength;
-         if (in.readableBytes() < valueLength) {
-            return false;
+         int incrementalValueThreshold = server.getConfiguration().incrementalValueThreshold();
+         if (incrementalValueThreshold >= 0 && valueLength >= incrementalValueThreshold) {
+            if (!readValueIncrementally(in, valueLength)) {
+               return false;
+            }
+         } else {
+            if (in.readableBytes() < valueLength) {
+               return false;
+            }
+            byte[] bytes = new byte[valueLength];
+            in.readBytes(bytes);
+            decodeCtx.operationDecodeContext = bytes;
          }
-         byte[] bytes = new byte[valueLength];
-         in.readBytes(bytes);
-         decodeCtx.operationDecodeContext = bytes;
       }
       switch (op.getDecoderRequirements()) {
          case VALUE_CUSTOM:
@@ -303,6 +333,25 @@ boolean decodeValue(ByteBuf in, List<Object> out) {
       return true;
    }
 
+   /**
+    * Copies the readable bytes straight into the value array, instead of waiting for the whole value to be accumulated
+    * in the input buffer, so that a large value is copied only once and the input buffer doesn't need to grow to the
+    * size of the value.
+    */
+   private boolean readValueIncrementally(ByteBuf in, int valueLength) {
+      if (value == null) {
+         value = new byte[valueLength];
+      }
+      int length = Math.min(in.readableBytes(), valueLength - valueBytesRead);
+      in.readBytes(value, valueBytesRead, length);
+      valueBytesRead += length;
+      if (valueBytesRead < valueLength) {
+         return false;
+      }
+      decodeCtx.operationDecodeContext = value;
+      return true;
+   }
+
    private void readCustomValue(ByteBuf in, List<Object> out) {
       decodeCtx.decoder.customReadValue(decodeCtx.header, in, decodeCtx, out);
       // If out was written to, it means we read everything, else we have to reread again
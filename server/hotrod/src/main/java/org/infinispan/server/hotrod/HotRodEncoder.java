@@ -41,6 +41,17 @@ private Cache<Address, ServerAddress> getAddressCache() {
       return addressCache;
    }
 
+   @Override
+   protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Object msg, boolean preferDirect) throws Exception {
+      if (msg instanceof GetResponse) {
+         // Leave room for the value, so that it is copied only once
+         byte[] data = ((GetResponse) msg).data;
+         int initialCapacity = data == null ? 256 : data.length + 256;
+         return preferDirect ? ctx.alloc().ioBuffer(initialCapacity) : ctx.alloc().heapBuffer(initialCapacity);
+      }
+      return super.allocateBuffer(ctx, msg, preferDirect);
+   }
+
    @Override
    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf buf) throws Exception {
       try {
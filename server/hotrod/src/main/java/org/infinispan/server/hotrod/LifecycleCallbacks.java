@@ -6,6 +6,7 @@
 import static org.infinispan.server.core.ExternalizerIds.ITERATION_FILTER;
 import static org.infinispan.server.core.ExternalizerIds.KEY_VALUE_VERSION_CONVERTER;
 import static org.infinispan.server.core.ExternalizerIds.KEY_VALUE_WITH_PREVIOUS_CONVERTER;
+import static org.infinispan.server.core.ExternalizerIds.NEAR_CACHE_BLOOM_FILTER;
 import static org.infinispan.server.core.ExternalizerIds.SERVER_ADDRESS;
 
 import java.util.Map;
@@ -39,6 +40,7 @@ public void cacheManagerStarting(GlobalComponentRegistry gcr, GlobalConfiguratio
       externalizers.put(BINARY_FILTER_CONVERTER, new UnmarshallFilterConverterExternalizer());
       externalizers.put(KEY_VALUE_WITH_PREVIOUS_CONVERTER, new KeyValueWithPreviousEventConverterExternalizer());
       externalizers.put(ITERATION_FILTER, new IterationFilter.IterationFilterExternalizer());
+      externalizers.put(NEAR_CACHE_BLOOM_FILTER, new NearCacheBloomFilter.Externalizer());
    }
 
 }
@@ -0,0 +1,56 @@
+package org.infinispan.server.hotrod;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Collections;
+import java.util.Set;
+
+import org.infinispan.commons.io.UnsignedNumeric;
+import org.infinispan.commons.marshall.AbstractExternalizer;
+import org.infinispan.commons.util.BloomFilter;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.notifications.cachelistener.filter.CacheEventFilter;
+import org.infinispan.notifications.cachelistener.filter.EventType;
+
+/**
+ * Filters the events sent to a near cache client, only accepting the keys that might be in the bloom filter of the
+ * keys it caches. The bloom filter is computed by the client over the marshalled keys and sent as the raw filter
+ * parameter. In compatibility mode the keys are not the bytes the client hashed, so every event is accepted.
+ *
+ * @since 9.0
+ */
+class NearCacheBloomFilter implements CacheEventFilter<Object, Object> {
+   private final byte[] filterBytes;
+   private final BloomFilter bloomFilter;
+
+   NearCacheBloomFilter(byte[] filterBytes) {
+      this.filterBytes = filterBytes;
+      this.bloomFilter = BloomFilter.fromBytes(filterBytes);
+   }
+
+   @Override
+   public boolean accept(Object key, Object oldValue, Metadata oldMetadata, Object newValue, Metadata newMetadata, EventType eventType) {
+      return !(key instanceof byte[]) || bloomFilter.mightContain((byte[]) key);
+   }
+
+   static class Externalizer extends AbstractExternalizer<NearCacheBloomFilter> {
+      @Override
+      public Set<Class<? extends NearCacheBloomFilter>> getTypeClasses() {
+         return Collections.singleton(NearCacheBloomFilter.class);
+      }
+
+      @Override
+      public void writeObject(ObjectOutput output, NearCacheBloomFilter object) throws IOException {
+         UnsignedNumeric.writeUnsignedInt(output, object.filterBytes.length);
+         output.write(object.filterBytes);
+      }
+
+      @Override
+      public NearCacheBloomFilter readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+         byte[] filterBytes = new byte[UnsignedNumeric.readUnsignedInt(input)];
+         input.readFully(filterBytes);
+         return new NearCacheBloomFilter(filterBytes);
+      }
+   }
+}
@@ -0,0 +1,24 @@
+package org.infinispan.server.hotrod;
+
+import org.infinispan.notifications.cachelistener.filter.CacheEventFilter;
+import org.infinispan.notifications.cachelistener.filter.CacheEventFilterFactory;
+
+/**
+ * Creates the {@link NearCacheBloomFilter} of a near cache client from the raw bloom filter it sends as the only
+ * filter parameter.
+ *
+ * @since 9.0
+ */
+class NearCacheBloomFilterFactory implements CacheEventFilterFactory {
+   private NearCacheBloomFilterFactory() {
+   }
+
+   public static NearCacheBloomFilterFactory SINGLETON = new NearCacheBloomFilterFactory();
+
+   @Override
+   public <K, V> CacheEventFilter<K, V> getFilter(Object[] params) {
+      if (params.length != 1 || !(params[0] instanceof byte[]))
+         throw new IllegalArgumentException("The near cache bloom filter expects the raw bloom filter as its only parameter");
+      return (CacheEventFilter<K, V>) new NearCacheBloomFilter((byte[]) params[0]);
+   }
+}
@@ -48,4 +48,14 @@ public HotRodServerChildConfigurationBuilder topologyStateTransfer(boolean topol
       return builder.topologyStateTransfer(topologyStateTransfer);
    }
 
+   @Override
+   public HotRodServerChildConfigurationBuilder incrementalValueThreshold(int incrementalValueThreshold) {
+      return builder.incrementalValueThreshold(incrementalValueThreshold);
+   }
+
+   @Override
+   public HotRodServerChildConfigurationBuilder maxValueSize(int maxValueSize) {
+      return builder.maxValueSize(maxValueSize);
+   }
+
 }
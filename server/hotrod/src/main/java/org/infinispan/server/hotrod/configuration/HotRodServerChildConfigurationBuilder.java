@@ -49,4 +49,17 @@ public interface HotRodServerChildConfigurationBuilder {
     */
    HotRodServerChildConfigurationBuilder topologyStateTransfer(boolean topologyStateTransfer);
 
+   /**
+    * Sets the size, in bytes, from which values are read from requests straight into their final array as their bytes
+    * arrive, instead of being accumulated in the input buffer first. Requires a {@link #maxValueSize(int)}, as the array
+    * is allocated before the value is received. A negative value disables this. Defaults to -1.
+    */
+   HotRodServerChildConfigurationBuilder incrementalValueThreshold(int incrementalValueThreshold);
+
+   /**
+    * Sets the maximum size, in bytes, of the values sent by clients. The connection of a client announcing a larger
+    * value is closed. A negative value means no limit. Defaults to -1.
+    */
+   HotRodServerChildConfigurationBuilder maxValueSize(int maxValueSize);
+
 }
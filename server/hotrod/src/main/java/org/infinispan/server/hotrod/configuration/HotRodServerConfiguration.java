@@ -16,9 +16,11 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
    private final long topologyReplTimeout;
    private final boolean topologyAwaitInitialTransfer;
    private final boolean topologyStateTransfer;
+   private final int incrementalValueThreshold;
+   private final int maxValueSize;
    private final AuthenticationConfiguration authentication;
 
-   HotRodServerConfiguration(String defaultCacheName, String proxyHost, int proxyPort, long topologyLockTimeout, long topologyReplTimeout, boolean topologyAwaitInitialTransfer, boolean topologyStateTransfer,
+   HotRodServerConfiguration(String defaultCacheName, String proxyHost, int proxyPort, long topologyLockTimeout, long topologyReplTimeout, boolean topologyAwaitInitialTransfer, boolean topologyStateTransfer, int incrementalValueThreshold, int maxValueSize,
                              String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, AuthenticationConfiguration authentication, Set<String> ignoredCaches) {
       super(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, ignoredCaches);
       this.proxyHost = proxyHost;
@@ -28,6 +30,8 @@ public class HotRodServerConfiguration extends ProtocolServerConfiguration {
       this.topologyReplTimeout = topologyReplTimeout;
       this.topologyStateTransfer = topologyStateTransfer;
       this.topologyAwaitInitialTransfer = topologyAwaitInitialTransfer;
+      this.incrementalValueThreshold = incrementalValueThreshold;
+      this.maxValueSize = maxValueSize;
       this.authentication = authentication;
    }
 
@@ -59,6 +63,14 @@ public boolean topologyStateTransfer() {
       return topologyStateTransfer;
    }
 
+   public int incrementalValueThreshold() {
+      return incrementalValueThreshold;
+   }
+
+   public int maxValueSize() {
+      return maxValueSize;
+   }
+
    public AuthenticationConfiguration authentication() {
       return authentication;
    }
@@ -68,7 +80,9 @@ public String toString() {
       return "HotRodServerConfiguration [proxyHost=" + proxyHost + ", proxyPort=" + proxyPort + ", topologyCacheName="
             + topologyCacheName + ", topologyLockTimeout=" + topologyLockTimeout + ", topologyReplTimeout="
             + topologyReplTimeout + ", topologyAwaitInitialTransfer=" + topologyAwaitInitialTransfer
-            + ", topologyStateTransfer=" + topologyStateTransfer + ", authentication=" + authentication
+            + ", topologyStateTransfer=" + topologyStateTransfer + ", incrementalValueThreshold=" + incrementalValueThreshold
+            + ", maxValueSize=" + maxValueSize
+            + ", authentication=" + authentication
             + ", ignoredCaches=" + ignoredCaches() + ", " + super.toString() + "]";
    }
 }
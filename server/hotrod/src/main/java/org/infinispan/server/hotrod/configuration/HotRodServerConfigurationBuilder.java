@@ -1,10 +1,12 @@
 package org.infinispan.server.hotrod.configuration;
 
 import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.configuration.cache.LockingConfigurationBuilder;
 import org.infinispan.configuration.cache.StateTransferConfigurationBuilder;
 import org.infinispan.configuration.cache.SyncConfigurationBuilder;
 import org.infinispan.server.core.configuration.ProtocolServerConfigurationBuilder;
+import org.infinispan.server.hotrod.logging.Log;
 
 /**
  * HotRodServerConfigurationBuilder.
@@ -14,6 +16,7 @@
  */
 public class HotRodServerConfigurationBuilder extends ProtocolServerConfigurationBuilder<HotRodServerConfiguration, HotRodServerConfigurationBuilder> implements
       Builder<HotRodServerConfiguration>, HotRodServerChildConfigurationBuilder {
+   private static final Log log = LogFactory.getLog(HotRodServerConfigurationBuilder.class, Log.class);
    private final AuthenticationConfigurationBuilder authentication = new AuthenticationConfigurationBuilder(this);
    private String proxyHost;
    private int proxyPort = -1;
@@ -21,6 +24,8 @@ public class HotRodServerConfigurationBuilder extends ProtocolServerConfiguratio
    private long topologyReplTimeout = 10000L;
    private boolean topologyAwaitInitialTransfer = true;
    private boolean topologyStateTransfer = true;
+   private int incrementalValueThreshold = -1;
+   private int maxValueSize = -1;
 
    public HotRodServerConfigurationBuilder() {
       super(11222);
@@ -95,9 +100,30 @@ public HotRodServerConfigurationBuilder topologyStateTransfer(boolean topologySt
       return this;
    }
 
+   /**
+    * Sets the size, in bytes, from which values are read from requests straight into their final array as their bytes
+    * arrive, instead of being accumulated in the input buffer first. Requires a {@link #maxValueSize(int)}, as the array
+    * is allocated before the value is received. A negative value disables this. Defaults to -1.
+    */
+   @Override
+   public HotRodServerConfigurationBuilder incrementalValueThreshold(int incrementalValueThreshold) {
+      this.incrementalValueThreshold = incrementalValueThreshold;
+      return this;
+   }
+
+   /**
+    * Sets the maximum size, in bytes, of the values sent by clients. The connection of a client announcing a larger
+    * value is closed. A negative value means no limit. Defaults to -1.
+    */
+   @Override
+   public HotRodServerConfigurationBuilder maxValueSize(int maxValueSize) {
+      this.maxValueSize = maxValueSize;
+      return this;
+   }
+
    @Override
    public HotRodServerConfiguration create() {
-      return new HotRodServerConfiguration(defaultCacheName, proxyHost == null ? host : proxyHost, proxyPort < 0 ? port : proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, name, host, port, idleTimeout,
+      return new HotRodServerConfiguration(defaultCacheName, proxyHost == null ? host : proxyHost, proxyPort < 0 ? port : proxyPort, topologyLockTimeout, topologyReplTimeout, topologyAwaitInitialTransfer, topologyStateTransfer, incrementalValueThreshold, maxValueSize, name, host, port, idleTimeout,
             recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, authentication.create(), ignoredCaches);
    }
 
@@ -110,6 +136,8 @@ public HotRodServerConfigurationBuilder read(HotRodServerConfiguration template)
       this.topologyReplTimeout = template.topologyReplTimeout();
       this.topologyAwaitInitialTransfer = template.topologyAwaitInitialTransfer();
       this.topologyStateTransfer = template.topologyStateTransfer();
+      this.incrementalValueThreshold = template.incrementalValueThreshold();
+      this.maxValueSize = template.maxValueSize();
       return this;
    }
 
@@ -117,6 +145,9 @@ public HotRodServerConfigurationBuilder read(HotRodServerConfiguration template)
    public void validate() {
       super.validate();
       authentication.validate();
+      if (incrementalValueThreshold >= 0 && maxValueSize < 0) {
+         throw log.incrementalValueThresholdWithoutMaxValueSize();
+      }
    }
 
    public HotRodServerConfiguration build(boolean validate) {
@@ -3,6 +3,7 @@
 import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.WARN;
 
+import java.net.SocketAddress;
 import java.util.Set;
 
 import org.infinispan.commons.CacheConfigurationException;
@@ -87,4 +88,11 @@ public interface Log extends org.infinispan.server.core.logging.Log {
 
    @Message(value = "EXTERNAL SASL mechanism not allowed without SSL client certificate", id = 6018)
    SecurityException externalMechNotAllowedWithoutSSLClientCert();
+
+   @Message(value = "A maxValueSize must be specified when enabling the incrementalValueThreshold", id = 6019)
+   CacheConfigurationException incrementalValueThresholdWithoutMaxValueSize();
+
+   @LogMessage(level = WARN)
+   @Message(value = "Closing connection %s: its request value of %d bytes exceeds the maximum value size of %d bytes", id = 6020)
+   void valueTooLarge(SocketAddress remoteAddress, int valueLength, int maxValueSize);
 }
@@ -130,6 +130,10 @@ public ChannelFuture stop() {
       return ch.disconnect();
    }
 
+   public ChannelFuture closeFuture() {
+      return ch.closeFuture();
+   }
+
    public TestResponse put(byte[] k, int lifespan, int maxIdle, byte[] v) {
       return execute(0xA0, (byte) 0x01, defaultCacheName, k, lifespan, maxIdle, v, 0, (byte) 1, 0);
    }
@@ -0,0 +1,118 @@
+package org.infinispan.server.hotrod
+
+import java.lang.reflect.Method
+import java.util.concurrent.TimeUnit
+import java.util.{Arrays, Random}
+
+import io.netty.buffer.{AbstractByteBufAllocator, ByteBuf, ByteBufAllocator, UnpooledHeapByteBuf}
+import io.netty.channel.embedded.EmbeddedChannel
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.server.hotrod.test.HotRodTestingUtil._
+import org.infinispan.server.hotrod.test.Op
+import org.testng.Assert._
+import org.testng.annotations.Test
+
+/**
+ * Tests that values above the incremental value threshold are read correctly, including values split over many
+ * network reads, that values above the maximum value size are rejected, and that get responses copy their value only
+ * once.
+ *
+ * @since 9.0
+ */
+@Test(groups = Array("functional"), testName = "server.hotrod.HotRodIncrementalValueTest")
+class HotRodIncrementalValueTest extends HotRodSingleNodeTest {
+
+   private val threshold = 1024
+   private val maxValueSize = 8 * 1024 * 1024
+
+   override protected def createStartHotRodServer(cacheManager: EmbeddedCacheManager) =
+      startHotRodServer(cacheManager,
+         getDefaultHotRodConfiguration().incrementalValueThreshold(threshold).maxValueSize(maxValueSize))
+
+   def testSmallValue(m: Method) {
+      assertPutAndGet(k(m), randomValue(threshold - 1))
+   }
+
+   def testThresholdValue(m: Method) {
+      assertPutAndGet(k(m), randomValue(threshold))
+   }
+
+   def testLargeValue(m: Method) {
+      assertPutAndGet(k(m), randomValue(4 * 1024 * 1024))
+   }
+
+   def testMaxValueSize(m: Method) {
+      assertPutAndGet(k(m), randomValue(maxValueSize))
+   }
+
+   def testValueTooLarge(m: Method) {
+      val tooLargeClient = connectClient
+      try {
+         tooLargeClient.writeOp(new Op(0xA0, 21, 0x01, cacheName, k(m), 0, 0, randomValue(maxValueSize + 1), 0, 0, 1, 0), false)
+         assertTrue(tooLargeClient.closeFuture().await(10, TimeUnit.SECONDS))
+         assertNull(advancedCache.get(k(m)))
+      } finally {
+         killClient(tooLargeClient)
+      }
+   }
+
+   def testGetResponseValueCopiedOnce(m: Method) {
+      val allocator = new CountingAllocator
+      val channel = new EmbeddedChannel(new HotRodEncoder(cacheManager, server))
+      channel.config().setAllocator(allocator)
+      val value = randomValue(4 * 1024 * 1024)
+      channel.writeOutbound(new GetResponse(21, 1, cacheName, 1, OperationResponse.GetResponse,
+         OperationStatus.Success, 0, value))
+      val buf: ByteBuf = channel.readOutbound()
+      try {
+         assertTrue(buf.readableBytes() > value.length)
+         // The value is copied into the response buffer once, and the buffer is never reallocated
+         assertEquals(allocator.allocations, 1)
+         assertEquals(allocator.reallocations, 0)
+      } finally {
+         buf.release()
+         channel.finish()
+      }
+   }
+
+   private def assertPutAndGet(key: Array[Byte], value: Array[Byte]) {
+      assertStatus(client.put(key, 0, 0, value), OperationStatus.Success)
+      assertTrue(Arrays.equals(value, advancedCache.get(key)))
+      assertSuccess(client.get(key, 0), value)
+      assertSuccess(client.getWithVersion(key, 0), value, 0)
+      assertSuccess(client.getWithMetadata(key, 0), value, -1, -1)
+   }
+
+   private def randomValue(length: Int): Array[Byte] = {
+      val value = new Array[Byte](length)
+      new Random(length).nextBytes(value)
+      value
+   }
+
+   /**
+    * Counts the buffers it allocates, and how many times they are reallocated to grow, which copies their content.
+    */
+   private class CountingAllocator extends AbstractByteBufAllocator(false) {
+      var allocations = 0
+      var reallocations = 0
+
+      override protected def newHeapBuffer(initialCapacity: Int, maxCapacity: Int): ByteBuf = {
+         allocations += 1
+         new CountingBuf(this, initialCapacity, maxCapacity)
+      }
+
+      override protected def newDirectBuffer(initialCapacity: Int, maxCapacity: Int): ByteBuf =
+         newHeapBuffer(initialCapacity, maxCapacity)
+
+      override def isDirectBufferPooled: Boolean = false
+
+      private class CountingBuf(alloc: ByteBufAllocator, initialCapacity: Int, maxCapacity: Int)
+            extends UnpooledHeapByteBuf(alloc, initialCapacity, maxCapacity) {
+         override def capacity(newCapacity: Int): ByteBuf = {
+            if (newCapacity != capacity()) reallocations += 1
+            super.capacity(newCapacity)
+         }
+      }
+   }
+
+}
@@ -0,0 +1,708 @@
+package org.infinispan.server.memcached;
+
+import static org.infinispan.server.memcached.BinaryProtocolUtil.ADD;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.ADDQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.APPEND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.APPENDQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.AUTH_CONTINUE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.AUTH_ERROR;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DECREMENT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DECREMENTQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DELETE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.DELETEQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.FLUSH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.FLUSHQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GETK;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GETKQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.GETQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.HEADER_LENGTH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.INCREMENT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.INCREMENTQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.INTERNAL_ERROR;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.INVALID_ARGUMENTS;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.ITEM_NOT_STORED;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.KEY_EXISTS;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.KEY_NOT_FOUND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.MAGIC_REQUEST;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.MAGIC_RESPONSE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.MAX_KEY_LENGTH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NON_NUMERIC_VALUE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NOOP;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NO_ERROR;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.NO_INITIAL_VALUE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.PREPEND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.PREPENDQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.QUIT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.QUITQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.REPLACE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.REPLACEQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.SASL_AUTH;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.SASL_LIST_MECHS;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.SASL_STEP;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.SET;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.SETQ;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.STAT;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.TEMPORARY_FAILURE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.UNKNOWN_COMMAND;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.VALUE_TOO_LARGE;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.VERSION;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.isQuiet;
+import static org.infinispan.server.memcached.BinaryProtocolUtil.statusMessage;
+import static org.infinispan.server.memcached.TextProtocolUtil.CHARSET;
+import static org.infinispan.server.memcached.TextProtocolUtil.MAX_UNSIGNED_LONG;
+import static org.infinispan.server.memcached.TextProtocolUtil.MIN_UNSIGNED;
+import static org.infinispan.server.memcached.TextProtocolUtil.concat;
+
+import java.math.BigInteger;
+import java.security.PrivilegedExceptionAction;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import javax.security.auth.Subject;
+import javax.security.sasl.SaslException;
+import javax.security.sasl.SaslServer;
+import javax.security.sasl.SaslServerFactory;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Version;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.versioning.EntryVersion;
+import org.infinispan.container.versioning.NumericVersion;
+import org.infinispan.context.Flag;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.server.core.security.AuthorizingCallbackHandler;
+import org.infinispan.server.core.transport.NettyTransport;
+import org.infinispan.server.memcached.configuration.AuthenticationConfiguration;
+import org.infinispan.server.memcached.logging.JavaLog;
+import org.infinispan.stats.Stats;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+
+/**
+ * A Memcached binary protocol decoder.
+ * <p>
+ * Every request has a fixed size header holding the length of the whole request, so the decoder just waits until the
+ * request is complete and handles it. The responses are written as the requests are handled but only flushed once all
+ * the received requests have been handled, so a batch of quiet requests terminated by a {@code NOOP} is answered with
+ * a single write.
+ *
+ * @since 9.0
+ */
+public class MemcachedBinaryDecoder extends ByteToMessageDecoder {
+   private final static JavaLog log = LogFactory.getLog(MemcachedBinaryDecoder.class, JavaLog.class);
+   private final static boolean isTrace = log.isTraceEnabled();
+
+   private static final byte[] EMPTY = new byte[0];
+
+   private final AdvancedCache<String, byte[]> cache;
+   private final ScheduledExecutorService scheduler;
+   private final NettyTransport transport;
+   private final Predicate<? super String> ignoreCache;
+   private final MemcachedServer server;
+   private final AuthenticationConfiguration authenticationConfig;
+   private final boolean isStatsEnabled;
+   private final int maxItemSize;
+
+   private final AtomicLong incrMisses = new AtomicLong();
+   private final AtomicLong incrHits = new AtomicLong();
+   private final AtomicLong decrMisses = new AtomicLong();
+   private final AtomicLong decrHits = new AtomicLong();
+   private final AtomicLong casMisses = new AtomicLong();
+   private final AtomicLong casHits = new AtomicLong();
+   private final AtomicLong casBadval = new AtomicLong();
+   private final AtomicLong authCmds = new AtomicLong();
+   private final AtomicLong authErrors = new AtomicLong();
+
+   private SaslServer saslServer;
+   private AuthorizingCallbackHandler callbackHandler;
+   private boolean authenticated;
+   private boolean closing;
+
+   public MemcachedBinaryDecoder(AdvancedCache<String, byte[]> memcachedCache, ScheduledExecutorService scheduler,
+                                 NettyTransport transport, Predicate<? super String> ignoreCache, MemcachedServer server) {
+      this.cache = memcachedCache.getCacheConfiguration().compatibility().enabled() ?
+            memcachedCache.withFlags(Flag.OPERATION_MEMCACHED) : memcachedCache;
+      this.scheduler = scheduler;
+      this.transport = transport;
+      this.ignoreCache = ignoreCache;
+      this.server = server;
+      this.authenticationConfig = server.getConfiguration().authentication();
+      this.maxItemSize = server.getConfiguration().maxItemSize();
+      this.isStatsEnabled = cache.getCacheConfiguration().jmxStatistics().enabled();
+   }
+
+   @Override
+   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+      if (closing) {
+         // The rest of a request that was too large
+         in.skipBytes(in.readableBytes());
+         return;
+      }
+      if (in.readableBytes() < HEADER_LENGTH) {
+         return;
+      }
+      int start = in.readerIndex();
+      int bodyLength = in.getInt(start + 8);
+      if (in.getByte(start) != MAGIC_REQUEST || bodyLength < 0) {
+         // There's no way to find the beginning of the next request
+         log.debugf("Invalid binary request header, closing the connection");
+         in.skipBytes(in.readableBytes());
+         ctx.close();
+         return;
+      }
+      if (bodyLength > maxItemSize) {
+         // Don't buffer the body, the client has to reconnect
+         log.debugf("Binary request body length %d exceeds the max item size %d, closing the connection", bodyLength,
+               maxItemSize);
+         byte opcode = in.getByte(start + 1);
+         int opaque = in.getInt(start + 12);
+         in.skipBytes(in.readableBytes());
+         closing = true;
+         writeError(ctx, opcode, opaque, VALUE_TOO_LARGE);
+         ctx.writeAndFlush(ctx.alloc().buffer(0)).addListener(ChannelFutureListener.CLOSE);
+         return;
+      }
+      if (in.readableBytes() < HEADER_LENGTH + bodyLength) {
+         return;
+      }
+      byte opcode = in.getByte(start + 1);
+      int keyLength = in.getUnsignedShort(start + 2);
+      int extrasLength = in.getUnsignedByte(start + 4);
+      int opaque = in.getInt(start + 12);
+      long cas = in.getLong(start + 16);
+      in.skipBytes(HEADER_LENGTH);
+      int valueLength = bodyLength - keyLength - extrasLength;
+      if (valueLength < 0) {
+         in.skipBytes(bodyLength);
+         writeError(ctx, opcode, opaque, INVALID_ARGUMENTS);
+         return;
+      }
+      ByteBuf extras = in.readSlice(extrasLength);
+      byte[] key = new byte[keyLength];
+      in.readBytes(key);
+      byte[] value = new byte[valueLength];
+      in.readBytes(value);
+      Request request = new Request(opcode, opaque, cas, extras, key, value);
+      if (isTrace) log.tracef("Binary request %s", request);
+      try {
+         handle(ctx, request);
+      } catch (Exception e) {
+         log.debug("Exception handling binary request", e);
+         writeError(ctx, opcode, opaque, INTERNAL_ERROR);
+      }
+   }
+
+   @Override
+   public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+      ctx.flush();
+      super.channelReadComplete(ctx);
+   }
+
+   @Override
+   public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+      // Log it just in case the channel is closed or similar
+      log.debug("Exception caught", cause);
+      // The position of the next request in the stream is unknown
+      ctx.close();
+   }
+
+   @Override
+   public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+      disposeSaslServer();
+      super.channelInactive(ctx);
+   }
+
+   private void handle(ChannelHandlerContext ctx, Request request) throws Exception {
+      byte opcode = request.opcode;
+      switch (opcode) {
+         case SASL_LIST_MECHS:
+         case SASL_AUTH:
+         case SASL_STEP:
+            authenticate(ctx, request);
+            return;
+         case NOOP:
+            writeResponse(ctx, request, NO_ERROR, EMPTY, EMPTY, EMPTY, 0);
+            return;
+         case VERSION:
+            writeResponse(ctx, request, NO_ERROR, EMPTY, EMPTY, Version.getVersion().getBytes(CHARSET), 0);
+            return;
+         case QUIT:
+         case QUITQ:
+            if (opcode == QUIT) {
+               writeResponse(ctx, request, NO_ERROR, EMPTY, EMPTY, EMPTY, 0);
+            }
+            ctx.writeAndFlush(ctx.alloc().buffer(0)).addListener(ChannelFutureListener.CLOSE);
+            return;
+      }
+      if (authenticationConfig.enabled() && !authenticated) {
+         writeError(ctx, opcode, request.opaque, AUTH_ERROR);
+         return;
+      }
+      if (ignoreCache.test(cache.getName())) {
+         writeError(ctx, opcode, request.opaque, TEMPORARY_FAILURE);
+         return;
+      }
+      switch (opcode) {
+         case GET:
+         case GETQ:
+         case GETK:
+         case GETKQ:
+            if (checkKey(ctx, request, 0)) get(ctx, request);
+            break;
+         case SET:
+         case SETQ:
+         case ADD:
+         case ADDQ:
+         case REPLACE:
+         case REPLACEQ:
+            if (checkKey(ctx, request, 8)) store(ctx, request);
+            break;
+         case APPEND:
+         case APPENDQ:
+         case PREPEND:
+         case PREPENDQ:
+            if (checkKey(ctx, request, 0)) appendPrepend(ctx, request);
+            break;
+         case DELETE:
+         case DELETEQ:
+            if (checkKey(ctx, request, 0)) delete(ctx, request);
+            break;
+         case INCREMENT:
+         case INCREMENTQ:
+         case DECREMENT:
+         case DECREMENTQ:
+            if (checkKey(ctx, request, 20)) incrDecr(ctx, request);
+            break;
+         case FLUSH:
+         case FLUSHQ:
+            flush(ctx, request);
+            break;
+         case STAT:
+            stats(ctx, request);
+            break;
+         default:
+            writeError(ctx, opcode, request.opaque, UNKNOWN_COMMAND);
+            break;
+      }
+   }
+
+   private boolean checkKey(ChannelHandlerContext ctx, Request request, int extrasLength) {
+      if (request.key.length == 0 || request.key.length > MAX_KEY_LENGTH
+            || request.extras.readableBytes() != extrasLength) {
+         writeError(ctx, request.opcode, request.opaque, INVALID_ARGUMENTS);
+         return false;
+      }
+      return true;
+   }
+
+   private void get(ChannelHandlerContext ctx, Request request) {
+      CacheEntry<String, byte[]> entry = cache.getCacheEntry(request.stringKey());
+      if (entry == null) {
+         if (!isQuiet(request.opcode)) {
+            byte[] key = request.opcode == GETK ? request.key : EMPTY;
+            writeResponse(ctx, request, KEY_NOT_FOUND, EMPTY, key, statusMessage(KEY_NOT_FOUND).getBytes(CHARSET), 0);
+         }
+         return;
+      }
+      byte[] key = request.opcode == GETK || request.opcode == GETKQ ? request.key : EMPTY;
+      writeResponse(ctx, request, NO_ERROR, flags(entry.getMetadata()), key, entry.getValue(), cas(entry.getMetadata()));
+   }
+
+   private void store(ChannelHandlerContext ctx, Request request) {
+      String key = request.stringKey();
+      long flags = request.extras.getUnsignedInt(0);
+      int expiration = request.extras.getInt(4);
+      Metadata metadata = buildMetadata(flags, expiration);
+      short status;
+      switch (request.opcode) {
+         case ADD:
+         case ADDQ:
+            status = cache.putIfAbsent(key, request.value, metadata) == null ? NO_ERROR : KEY_EXISTS;
+            break;
+         case REPLACE:
+         case REPLACEQ:
+            if (request.cas != 0) {
+               status = replaceIfUnmodified(key, request, metadata);
+            } else {
+               status = cache.replace(key, request.value, metadata) != null ? NO_ERROR : KEY_NOT_FOUND;
+            }
+            break;
+         default:
+            if (request.cas != 0) {
+               status = replaceIfUnmodified(key, request, metadata);
+            } else {
+               cache.put(key, request.value, metadata);
+               status = NO_ERROR;
+            }
+            break;
+      }
+      writeModificationResponse(ctx, request, status, metadata);
+   }
+
+   private short replaceIfUnmodified(String key, Request request, Metadata metadata) {
+      CacheEntry<String, byte[]> entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(key);
+      short status;
+      if (entry == null) {
+         status = KEY_NOT_FOUND;
+      } else if (cas(entry.getMetadata()) != request.cas) {
+         status = KEY_EXISTS;
+      } else {
+         status = cache.replace(key, entry.getValue(), request.value, metadata) ? NO_ERROR : KEY_EXISTS;
+      }
+      if (isStatsEnabled) {
+         switch (status) {
+            case NO_ERROR:
+               casHits.incrementAndGet();
+               break;
+            case KEY_NOT_FOUND:
+               casMisses.incrementAndGet();
+               break;
+            default:
+               casBadval.incrementAndGet();
+         }
+      }
+      return status;
+   }
+
+   private void appendPrepend(ChannelHandlerContext ctx, Request request) {
+      String key = request.stringKey();
+      CacheEntry<String, byte[]> entry = cache.getCacheEntry(key);
+      short status;
+      Metadata metadata = null;
+      if (entry == null) {
+         status = ITEM_NOT_STORED;
+      } else if (request.cas != 0 && cas(entry.getMetadata()) != request.cas) {
+         status = KEY_EXISTS;
+      } else {
+         byte[] prev = entry.getValue();
+         boolean append = request.opcode == APPEND || request.opcode == APPENDQ;
+         byte[] concatenated = append ? concat(prev, request.value) : concat(request.value, prev);
+         // The flags and the expiration of the entry don't change
+         metadata = buildMetadata(entry.getMetadata());
+         status = cache.replace(key, prev, concatenated, metadata) ? NO_ERROR : ITEM_NOT_STORED;
+      }
+      writeModificationResponse(ctx, request, status, metadata);
+   }
+
+   private void delete(ChannelHandlerContext ctx, Request request) {
+      String key = request.stringKey();
+      short status;
+      if (request.cas != 0) {
+         CacheEntry<String, byte[]> entry = cache.getCacheEntry(key);
+         if (entry == null) {
+            status = KEY_NOT_FOUND;
+         } else if (cas(entry.getMetadata()) != request.cas) {
+            status = KEY_EXISTS;
+         } else {
+            status = cache.remove(key, entry.getValue()) ? NO_ERROR : KEY_EXISTS;
+         }
+      } else {
+         status = cache.remove(key) != null ? NO_ERROR : KEY_NOT_FOUND;
+      }
+      writeModificationResponse(ctx, request, status, null);
+   }
+
+   private void incrDecr(ChannelHandlerContext ctx, Request request) {
+      String key = request.stringKey();
+      boolean increment = request.opcode == INCREMENT || request.opcode == INCREMENTQ;
+      BigInteger delta = unsigned(request.extras.getLong(0));
+      long initial = request.extras.getLong(8);
+      int expiration = request.extras.getInt(16);
+      while (true) {
+         CacheEntry<String, byte[]> entry = cache.getCacheEntry(key);
+         if (entry == null) {
+            if (isStatsEnabled) {
+               (increment ? incrMisses : decrMisses).incrementAndGet();
+            }
+            if (expiration == NO_INITIAL_VALUE) {
+               writeError(ctx, request.opcode, request.opaque, KEY_NOT_FOUND);
+               return;
+            }
+            Metadata metadata = buildMetadata(0, expiration);
+            if (cache.putIfAbsent(key, unsigned(initial).toString().getBytes(CHARSET), metadata) == null) {
+               writeCounterResponse(ctx, request, initial, metadata);
+               return;
+            }
+            // Created concurrently, try again
+            continue;
+         }
+         if (request.cas != 0 && cas(entry.getMetadata()) != request.cas) {
+            writeError(ctx, request.opcode, request.opaque, KEY_EXISTS);
+            return;
+         }
+         byte[] prev = entry.getValue();
+         BigInteger prevCounter;
+         try {
+            prevCounter = new BigInteger(new String(prev, CHARSET));
+         } catch (NumberFormatException e) {
+            writeError(ctx, request.opcode, request.opaque, NON_NUMERIC_VALUE);
+            return;
+         }
+         // Same overflow and underflow rules as the text protocol
+         BigInteger counter;
+         if (increment) {
+            counter = prevCounter.add(delta);
+            counter = counter.compareTo(MAX_UNSIGNED_LONG) > 0 ? MIN_UNSIGNED : counter;
+         } else {
+            counter = prevCounter.subtract(delta);
+            counter = counter.compareTo(MIN_UNSIGNED) < 0 ? MIN_UNSIGNED : counter;
+         }
+         Metadata metadata = buildMetadata(entry.getMetadata());
+         if (cache.replace(key, prev, counter.toString().getBytes(CHARSET), metadata)) {
+            if (isStatsEnabled) {
+               (increment ? incrHits : decrHits).incrementAndGet();
+            }
+            writeCounterResponse(ctx, request, counter.longValue(), metadata);
+            return;
+         }
+         // Modified concurrently, try again
+      }
+   }
+
+   private void flush(ChannelHandlerContext ctx, Request request) {
+      int delay = request.extras.readableBytes() >= 4 ? request.extras.getInt(0) : 0;
+      if (delay <= 0) {
+         cache.clear();
+      } else {
+         scheduler.schedule(() -> cache.clear(), MemcachedDecoder.toMillis(delay), TimeUnit.MILLISECONDS);
+      }
+      if (request.opcode == FLUSH) {
+         writeResponse(ctx, request, NO_ERROR, EMPTY, EMPTY, EMPTY, 0);
+      }
+   }
+
+   private void stats(ChannelHandlerContext ctx, Request request) {
+      if (request.key.length != 0) {
+         // Only the general statistics are supported
+         writeError(ctx, request.opcode, request.opaque, KEY_NOT_FOUND);
+         return;
+      }
+      Stats stats = cache.getStats();
+      writeStat(ctx, request, "pid", 0);
+      writeStat(ctx, request, "uptime", stats.getTimeSinceStart());
+      writeStat(ctx, request, "time", TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+      writeStat(ctx, request, "version", cache.getVersion());
+      writeStat(ctx, request, "curr_items", stats.getCurrentNumberOfEntries());
+      writeStat(ctx, request, "total_items", stats.getTotalNumberOfEntries());
+      writeStat(ctx, request, "cmd_get", stats.getRetrievals());
+      writeStat(ctx, request, "cmd_set", stats.getStores());
+      writeStat(ctx, request, "get_hits", stats.getHits());
+      writeStat(ctx, request, "get_misses", stats.getMisses());
+      writeStat(ctx, request, "delete_misses", stats.getRemoveMisses());
+      writeStat(ctx, request, "delete_hits", stats.getRemoveHits());
+      writeStat(ctx, request, "incr_misses", incrMisses);
+      writeStat(ctx, request, "incr_hits", incrHits);
+      writeStat(ctx, request, "decr_misses", decrMisses);
+      writeStat(ctx, request, "decr_hits", decrHits);
+      writeStat(ctx, request, "cas_misses", casMisses);
+      writeStat(ctx, request, "cas_hits", casHits);
+      writeStat(ctx, request, "cas_badval", casBadval);
+      writeStat(ctx, request, "auth_cmds", authCmds);
+      writeStat(ctx, request, "auth_errors", authErrors);
+      writeStat(ctx, request, "evictions", stats.getEvictions());
+      writeStat(ctx, request, "bytes_read", transport.getTotalBytesRead());
+      writeStat(ctx, request, "bytes_written", transport.getTotalBytesWritten());
+      // An empty stat terminates the list
+      writeResponse(ctx, request, NO_ERROR, EMPTY, EMPTY, EMPTY, 0);
+   }
+
+   private void writeStat(ChannelHandlerContext ctx, Request request, String name, Object value) {
+      writeResponse(ctx, request, NO_ERROR, EMPTY, name.getBytes(CHARSET), String.valueOf(value).getBytes(CHARSET), 0);
+   }
+
+   private void authenticate(ChannelHandlerContext ctx, Request request) throws Exception {
+      if (!authenticationConfig.enabled()) {
+         writeError(ctx, request.opcode, request.opaque, UNKNOWN_COMMAND);
+         return;
+      }
+      if (request.opcode == SASL_LIST_MECHS) {
+         String mechs = String.join(" ", authenticationConfig.allowedMechs());
+         writeResponse(ctx, request, NO_ERROR, EMPTY, EMPTY, mechs.getBytes(CHARSET), 0);
+         return;
+      }
+      authCmds.incrementAndGet();
+      String mech = request.stringKey();
+      if (request.opcode == SASL_AUTH) {
+         // A new authentication always starts from scratch
+         disposeSaslServer();
+         authenticated = false;
+         SaslServerFactory ssf = authenticationConfig.allowedMechs().contains(mech) ?
+               server.getSaslServerFactory(mech) : null;
+         if (ssf == null) {
+            authErrors.incrementAndGet();
+            writeError(ctx, request.opcode, request.opaque, AUTH_ERROR);
+            return;
+         }
+         callbackHandler = authenticationConfig.serverAuthenticationProvider().getCallbackHandler(mech,
+               authenticationConfig.mechProperties());
+         Subject serverSubject = authenticationConfig.serverSubject();
+         if (serverSubject != null) {
+            saslServer = Subject.doAs(serverSubject, (PrivilegedExceptionAction<SaslServer>) () ->
+                  ssf.createSaslServer(mech, "memcached", authenticationConfig.serverName(),
+                        authenticationConfig.mechProperties(), callbackHandler));
+         } else {
+            saslServer = ssf.createSaslServer(mech, "memcached", authenticationConfig.serverName(),
+                  authenticationConfig.mechProperties(), callbackHandler);
+         }
+      } else if (saslServer == null || !saslServer.getMechanismName().equals(mech)) {
+         authErrors.incrementAndGet();
+         writeError(ctx, request.opcode, request.opaque, AUTH_ERROR);
+         return;
+      }
+      byte[] challenge;
+      try {
+         challenge = saslServer.evaluateResponse(request.value);
+      } catch (SaslException e) {
+         log.debug("Authentication failed", e);
+         disposeSaslServer();
+         authErrors.incrementAndGet();
+         writeError(ctx, request.opcode, request.opaque, AUTH_ERROR);
+         return;
+      }
+      if (saslServer.isComplete()) {
+         authenticated = true;
+         disposeSaslServer();
+         writeResponse(ctx, request, NO_ERROR, EMPTY, EMPTY, "Authenticated".getBytes(CHARSET), 0);
+      } else {
+         writeResponse(ctx, request, AUTH_CONTINUE, EMPTY, EMPTY, challenge == null ? EMPTY : challenge, 0);
+      }
+   }
+
+   private void disposeSaslServer() {
+      if (saslServer != null) {
+         try {
+            saslServer.dispose();
+         } catch (SaslException e) {
+            log.debug("Error disposing the SASL server", e);
+         }
+         saslServer = null;
+         callbackHandler = null;
+      }
+   }
+
+   private Metadata buildMetadata(long flags, int expiration) {
+      MemcachedMetadataBuilder metadata = new MemcachedMetadataBuilder();
+      metadata.version(MemcachedDecoder.generateVersion(cache));
+      metadata.flags(flags);
+      if (expiration > 0)
+         metadata.lifespan(MemcachedDecoder.toMillis(expiration));
+      return metadata.build();
+   }
+
+   /**
+    * Metadata for a new value of an existing entry, keeping its flags and expiration
+    */
+   private Metadata buildMetadata(Metadata previous) {
+      MemcachedMetadataBuilder metadata = new MemcachedMetadataBuilder();
+      metadata.version(MemcachedDecoder.generateVersion(cache));
+      if (previous instanceof MemcachedMetadata) {
+         metadata.flags(((MemcachedMetadata) previous).flags);
+      }
+      if (previous.lifespan() > 0)
+         metadata.lifespan(previous.lifespan());
+      return metadata.build();
+   }
+
+   private static byte[] flags(Metadata metadata) {
+      long flags = metadata instanceof MemcachedMetadata ? ((MemcachedMetadata) metadata).flags : 0;
+      return new byte[]{(byte) (flags >>> 24), (byte) (flags >>> 16), (byte) (flags >>> 8), (byte) flags};
+   }
+
+   private static long cas(Metadata metadata) {
+      EntryVersion version = metadata.version();
+      return version instanceof NumericVersion ? ((NumericVersion) version).getVersion() : 0;
+   }
+
+   private static BigInteger unsigned(long value) {
+      BigInteger bigInteger = BigInteger.valueOf(value);
+      return value >= 0 ? bigInteger : bigInteger.add(BigInteger.ONE.shiftLeft(64));
+   }
+
+   private void writeModificationResponse(ChannelHandlerContext ctx, Request request, short status, Metadata metadata) {
+      if (status != NO_ERROR) {
+         writeError(ctx, request.opcode, request.opaque, status);
+      } else if (!isQuiet(request.opcode)) {
+         writeResponse(ctx, request, NO_ERROR, EMPTY, EMPTY, EMPTY, metadata == null ? 0 : cas(metadata));
+      }
+   }
+
+   private void writeCounterResponse(ChannelHandlerContext ctx, Request request, long counter, Metadata metadata) {
+      if (!isQuiet(request.opcode)) {
+         byte[] value = new byte[8];
+         for (int i = 0; i < 8; i++) {
+            value[i] = (byte) (counter >>> (56 - i * 8));
+         }
+         writeResponse(ctx, request, NO_ERROR, EMPTY, EMPTY, value, cas(metadata));
+      }
+   }
+
+   private void writeError(ChannelHandlerContext ctx, byte opcode, int opaque, short status) {
+      writeResponse(ctx, opcode, opaque, status, EMPTY, EMPTY, statusMessage(status).getBytes(CHARSET), 0);
+   }
+
+   private void writeResponse(ChannelHandlerContext ctx, Request request, short status, byte[] extras, byte[] key,
+                              byte[] value, long cas) {
+      writeResponse(ctx, request.opcode, request.opaque, status, extras, key, value, cas);
+   }
+
+   private void writeResponse(ChannelHandlerContext ctx, byte opcode, int opaque, short status, byte[] extras,
+                              byte[] key, byte[] value, long cas) {
+      int bodyLength = extras.length + key.length + value.length;
+      ByteBuf buf = ctx.alloc().buffer(HEADER_LENGTH + bodyLength);
+      buf.writeByte(MAGIC_RESPONSE);
+      buf.writeByte(opcode);
+      buf.writeShort(key.length);
+      buf.writeByte(extras.length);
+      buf.writeByte(0); // Data type
+      buf.writeShort(status);
+      buf.writeInt(bodyLength);
+      buf.writeInt(opaque);
+      buf.writeLong(cas);
+      buf.writeBytes(extras);
+      buf.writeBytes(key);
+      buf.writeBytes(value);
+      // Flushed once all the requests read have been handled
+      ctx.write(buf, ctx.voidPromise());
+   }
+
+   private static class Request {
+      final byte opcode;
+      final int opaque;
+      final long cas;
+      final ByteBuf extras;
+      final byte[] key;
+      final byte[] value;
+
+      Request(byte opcode, int opaque, long cas, ByteBuf extras, byte[] key, byte[] value) {
+         this.opcode = opcode;
+         this.opaque = opaque;
+         this.cas = cas;
+         this.extras = extras;
+         this.key = key;
+         this.value = value;
+      }
+
+      String stringKey() {
+         return new String(key, CHARSET);
+      }
+
+      @Override
+      public String toString() {
+         return "Request{" +
+               "opcode=" + opcode +
+               ", opaque=" + opaque +
+               ", cas=" + cas +
+               ", key=" + stringKey() +
+               ", valueLength=" + value.length +
+               '}';
+      }
+   }
+}
@@ -0,0 +1,53 @@
+package org.infinispan.server.memcached;
+
+import java.util.List;
+
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.server.memcached.logging.JavaLog;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.CharsetUtil;
+
+/**
+ * Detects whether a connection uses the text or the binary protocol from the first byte it receives and replaces itself
+ * with the matching decoder. Binary requests always start with the request magic byte, which can't start a text
+ * command.
+ *
+ * @since 9.0
+ */
+public class MemcachedProtocolDetector extends ByteToMessageDecoder {
+   private final static JavaLog log = LogFactory.getLog(MemcachedProtocolDetector.class, JavaLog.class);
+
+   private final MemcachedServer server;
+
+   public MemcachedProtocolDetector(MemcachedServer server) {
+      this.server = server;
+   }
+
+   @Override
+   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+      if (!in.isReadable()) {
+         return;
+      }
+      ChannelHandler decoder;
+      if (in.getByte(in.readerIndex()) == BinaryProtocolUtil.MAGIC_REQUEST) {
+         decoder = server.createBinaryDecoder();
+      } else if (server.getConfiguration().authentication().enabled()) {
+         // The text protocol can't authenticate
+         log.debugf("Refusing text protocol connection from %s, authentication is required", ctx.channel().remoteAddress());
+         in.skipBytes(in.readableBytes());
+         ctx.writeAndFlush(Unpooled.copiedBuffer(TextProtocolUtil.SERVER_ERROR + "authentication required"
+               + TextProtocolUtil.CRLF, CharsetUtil.UTF_8)).addListener(ChannelFutureListener.CLOSE);
+         return;
+      } else {
+         decoder = server.createTextDecoder();
+      }
+      // The bytes read so far are passed on to the new decoder
+      ctx.pipeline().replace(this, ctx.name(), decoder);
+   }
+}
@@ -7,22 +7,28 @@
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
 import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.configuration.cache.ExpirationConfiguration;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.server.core.AbstractProtocolServer;
+import org.infinispan.server.core.security.SaslUtils;
 import org.infinispan.server.core.transport.NettyChannelInitializer;
 import org.infinispan.server.core.transport.NettyInitializers;
 import org.infinispan.server.memcached.configuration.MemcachedServerConfiguration;
 import org.infinispan.server.memcached.logging.JavaLog;
 
-import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 
+import javax.security.sasl.SaslServerFactory;
+
 /**
  * Memcached server defining its decoder/encoder settings. In fact, Memcached does not use an encoder since there's
- * no really common headers between protocol operations.
+ * no really common headers between protocol operations. Each connection can use either the text or the binary
+ * protocol, see {@link MemcachedProtocolDetector}.
  *
  * @author Galder Zamarreño
  * @since 4.1
@@ -35,6 +41,7 @@ public MemcachedServer() {
    private final JavaLog log = LogFactory.getLog(getClass(), JavaLog.class);
    protected ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
    private AdvancedCache<String, byte[]> memcachedCache;
+   private final Map<String, SaslServerFactory> saslMechFactories = CollectionFactory.makeConcurrentMap(4, 0.9f, 16);
 
    @Override
    protected void startInternal(MemcachedServerConfiguration configuration, EmbeddedCacheManager cacheManager) {
@@ -48,6 +55,9 @@ protected void startInternal(MemcachedServerConfiguration configuration, Embedde
         throw log.invalidExpiration(configuration.defaultCacheName());
       Cache<String, byte[]> cache = cacheManager.getCache(configuration.defaultCacheName());
       memcachedCache = cache.getAdvancedCache();
+      if (configuration.authentication().enabled()) {
+         setupSasl(configuration);
+      }
 
       super.startInternal(configuration, cacheManager);
    }
@@ -57,11 +67,35 @@ public ChannelOutboundHandler getEncoder() {
       return null;
    }
 
+   private void setupSasl(MemcachedServerConfiguration configuration) {
+      Iterator<SaslServerFactory> saslFactories = SaslUtils.getSaslServerFactories(this.getClass().getClassLoader(), true);
+      while (saslFactories.hasNext()) {
+         SaslServerFactory saslFactory = saslFactories.next();
+         for (String supportedMech : saslFactory.getMechanismNames(configuration.authentication().mechProperties())) {
+            if (configuration.authentication().allowedMechs().contains(supportedMech)) {
+               saslMechFactories.putIfAbsent(supportedMech, saslFactory);
+            }
+         }
+      }
+   }
+
+   SaslServerFactory getSaslServerFactory(String mech) {
+      return saslMechFactories.get(mech);
+   }
+
    @Override
    public ChannelInboundHandler getDecoder() {
+      return new MemcachedProtocolDetector(this);
+   }
+
+   protected ChannelInboundHandler createTextDecoder() {
       return new MemcachedDecoder(memcachedCache, scheduler, transport, this::isCacheIgnored);
    }
 
+   protected ChannelInboundHandler createBinaryDecoder() {
+      return new MemcachedBinaryDecoder(memcachedCache, scheduler, transport, this::isCacheIgnored, this);
+   }
+
    @Override
    public ChannelInitializer<Channel> getInitializer() {
       return new NettyInitializers(new NettyChannelInitializer<>(this, transport, getEncoder()));
@@ -17,13 +17,30 @@ public class MemcachedServerConfiguration extends ProtocolServerConfiguration {
 
    public static final int DEFAULT_MEMCACHED_PORT = 11211;
    public static final String DEFAULT_MEMCACHED_CACHE = "memcachedCache";
+   public static final int DEFAULT_MAX_ITEM_SIZE = 1024 * 1024;
 
-   MemcachedServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, Set<String> ignoredCaches) {
+   private final AuthenticationConfiguration authentication;
+   private final int maxItemSize;
+
+   MemcachedServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, Set<String> ignoredCaches, AuthenticationConfiguration authentication, int maxItemSize) {
       super(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, ignoredCaches);
+      this.authentication = authentication;
+      this.maxItemSize = maxItemSize;
+   }
+
+   public AuthenticationConfiguration authentication() {
+      return authentication;
+   }
+
+   /**
+    * The maximum length in bytes of the body of a binary protocol request
+    */
+   public int maxItemSize() {
+      return maxItemSize;
    }
 
    @Override
    public String toString() {
-      return "MemcachedServerConfiguration [" + super.toString() + "]";
+      return "MemcachedServerConfiguration [authentication=" + authentication + ", maxItemSize=" + maxItemSize + ", " + super.toString() + "]";
    }
 }
@@ -1,7 +1,9 @@
 package org.infinispan.server.memcached.configuration;
 
 import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.server.core.configuration.ProtocolServerConfigurationBuilder;
+import org.infinispan.server.memcached.logging.JavaLog;
 
 /**
  * MemcachedServerConfigurationBuilder.
@@ -11,6 +13,9 @@
  */
 public class MemcachedServerConfigurationBuilder extends ProtocolServerConfigurationBuilder<MemcachedServerConfiguration, MemcachedServerConfigurationBuilder> implements
       Builder<MemcachedServerConfiguration> {
+   private static final JavaLog log = LogFactory.getLog(MemcachedServerConfigurationBuilder.class, JavaLog.class);
+   private final AuthenticationConfigurationBuilder authentication = new AuthenticationConfigurationBuilder();
+   private int maxItemSize = MemcachedServerConfiguration.DEFAULT_MAX_ITEM_SIZE;
 
    public MemcachedServerConfigurationBuilder() {
       super(MemcachedServerConfiguration.DEFAULT_MEMCACHED_PORT);
@@ -31,9 +36,34 @@ public MemcachedServerConfigurationBuilder cache(String cache) {
       return this;
    }
 
+   /**
+    * Configures the SASL authentication of the binary protocol
+    */
+   public AuthenticationConfigurationBuilder authentication() {
+      return authentication;
+   }
+
+   /**
+    * The maximum length in bytes of the body of a binary protocol request, holding the key and the value. The
+    * connections sending larger requests are closed. Defaults to 1 MB.
+    */
+   public MemcachedServerConfigurationBuilder maxItemSize(int maxItemSize) {
+      this.maxItemSize = maxItemSize;
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      authentication.validate();
+      if (maxItemSize <= 0) {
+         throw log.invalidMaxItemSize(maxItemSize);
+      }
+   }
+
    @Override
    public MemcachedServerConfiguration create() {
-      return new MemcachedServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, ignoredCaches);
+      return new MemcachedServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, ignoredCaches, authentication.create(), maxItemSize);
    }
 
    public MemcachedServerConfiguration build(boolean validate) {
@@ -51,6 +81,8 @@ public MemcachedServerConfiguration build() {
    @Override
    public Builder<?> read(MemcachedServerConfiguration template) {
       super.read(template);
+      this.authentication.read(template.authentication());
+      this.maxItemSize = template.maxItemSize();
       return this;
    }
 }
@@ -1,5 +1,7 @@
 package org.infinispan.server.memcached.logging;
 
+import java.util.Set;
+
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.server.core.logging.Log;
 import org.jboss.logging.annotations.Message;
@@ -16,4 +18,16 @@
 public interface JavaLog extends Log {
    @Message(value = "Cache '%s' has expiration enabled which violates the Memcached protocol", id = 11001)
    CacheConfigurationException invalidExpiration(String cacheName);
+
+   @Message(value = "Cannot enable authentication without specifying a ServerAuthenticationProvider", id = 11002)
+   CacheConfigurationException serverAuthenticationProvider();
+
+   @Message(value = "The specified allowedMechs [%s] contains mechs which are unsupported by the underlying factories [%s]", id = 11003)
+   CacheConfigurationException invalidAllowedMechs(Set<String> allowedMechs, Set<String> allMechs);
+
+   @Message(value = "A serverName must be specified when enabling authentication", id = 11004)
+   CacheConfigurationException missingServerName();
+
+   @Message(value = "The max item size must be positive, but was %d", id = 11005)
+   CacheConfigurationException invalidMaxItemSize(int maxItemSize);
 }
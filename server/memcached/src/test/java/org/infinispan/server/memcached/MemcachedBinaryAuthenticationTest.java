@@ -0,0 +1,100 @@
+package org.infinispan.server.memcached;
+
+import static org.infinispan.server.memcached.MemcachedBinaryFunctionalTest.readResponse;
+import static org.infinispan.server.memcached.MemcachedBinaryFunctionalTest.writeRequest;
+import static org.infinispan.server.memcached.test.MemcachedTestingUtil.createMemcachedBinaryClient;
+import static org.infinispan.server.memcached.test.MemcachedTestingUtil.killMemcachedClient;
+import static org.infinispan.server.memcached.test.MemcachedTestingUtil.killMemcachedServer;
+import static org.infinispan.server.memcached.test.MemcachedTestingUtil.startMemcachedServer;
+import static org.infinispan.test.TestingUtil.k;
+import static org.infinispan.test.TestingUtil.v;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.core.security.simple.SimpleServerAuthenticationProvider;
+import org.infinispan.server.memcached.configuration.MemcachedServerConfigurationBuilder;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.auth.AuthDescriptor;
+import net.spy.memcached.auth.PlainCallbackHandler;
+
+/**
+ * Tests SASL authentication over the Memcached binary protocol.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "server.memcached.MemcachedBinaryAuthenticationTest")
+public class MemcachedBinaryAuthenticationTest extends SingleCacheManagerTest {
+   private static final int timeout = 60;
+   private MemcachedServer server;
+   private MemcachedClient client;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      cacheManager = TestCacheManagerFactory.createCacheManager(false);
+      SimpleServerAuthenticationProvider sap = new SimpleServerAuthenticationProvider();
+      sap.addUser("user", "realm", "password".toCharArray(), null);
+      MemcachedServerConfigurationBuilder builder = new MemcachedServerConfigurationBuilder();
+      builder.authentication()
+            .enable()
+            .serverName("localhost")
+            .addAllowedMech("CRAM-MD5")
+            .serverAuthenticationProvider(sap);
+      server = startMemcachedServer(cacheManager, builder);
+      AuthDescriptor authDescriptor = new AuthDescriptor(new String[]{"CRAM-MD5"},
+            new PlainCallbackHandler("user", "password"));
+      client = createMemcachedBinaryClient(60000, server.getPort(), authDescriptor);
+      cache = cacheManager.getCache(server.getConfiguration().defaultCacheName());
+      return cacheManager;
+   }
+
+   @AfterClass(alwaysRun = true)
+   @Override
+   protected void destroyAfterClass() {
+      super.destroyAfterClass();
+      killMemcachedClient(client);
+      killMemcachedServer(server);
+   }
+
+   public void testAuthenticatedClient(Method m) throws Exception {
+      assertTrue(client.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertEquals(v(m), client.get(k(m)));
+   }
+
+   public void testUnauthenticatedRequest(Method m) throws IOException {
+      try (Socket socket = new Socket(server.getHost(), server.getPort())) {
+         DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+         writeRequest(out, BinaryProtocolUtil.GET, 1, new byte[0], k(m), "");
+         out.flush();
+         MemcachedBinaryFunctionalTest.Response response = readResponse(new DataInputStream(socket.getInputStream()));
+         assertEquals(BinaryProtocolUtil.AUTH_ERROR, response.status);
+      }
+   }
+
+   public void testTextProtocolRefused() throws IOException {
+      try (Socket socket = new Socket(server.getHost(), server.getPort())) {
+         socket.getOutputStream().write("get a\r\n".getBytes(StandardCharsets.US_ASCII));
+         InputStream in = socket.getInputStream();
+         StringBuilder sb = new StringBuilder();
+         int b;
+         while ((b = in.read()) >= 0) {
+            sb.append((char) b);
+         }
+         assertEquals("SERVER_ERROR authentication required\r\n", sb.toString());
+      }
+   }
+}
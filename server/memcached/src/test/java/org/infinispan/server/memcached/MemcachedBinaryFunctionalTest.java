@@ -0,0 +1,225 @@
+package org.infinispan.server.memcached;
+
+import static org.infinispan.server.memcached.test.MemcachedTestingUtil.createMemcachedBinaryClient;
+import static org.infinispan.test.TestingUtil.k;
+import static org.infinispan.test.TestingUtil.v;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.testng.annotations.Test;
+
+import net.spy.memcached.CASResponse;
+import net.spy.memcached.CASValue;
+import net.spy.memcached.MemcachedClient;
+
+/**
+ * Tests the Memcached binary protocol, on the same server and cache as the text protocol.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "server.memcached.MemcachedBinaryFunctionalTest")
+public class MemcachedBinaryFunctionalTest extends MemcachedSingleNodeTest {
+   private MemcachedClient binaryClient;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      EmbeddedCacheManager cm = super.createCacheManager();
+      binaryClient = createMemcachedBinaryClient(60000, server.getPort(), null);
+      return cm;
+   }
+
+   @Override
+   protected void shutdownClient() {
+      super.shutdownClient();
+      binaryClient.shutdown();
+   }
+
+   public void testSetGetDelete(Method m) throws Exception {
+      assertTrue(binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertEquals(v(m), binaryClient.get(k(m)));
+      // Both protocols share the same data
+      assertEquals(v(m), client.get(k(m)));
+      assertTrue(binaryClient.delete(k(m)).get(timeout, TimeUnit.SECONDS));
+      assertNull(binaryClient.get(k(m)));
+      assertFalse(binaryClient.delete(k(m)).get(timeout, TimeUnit.SECONDS));
+   }
+
+   public void testAddReplace(Method m) throws Exception {
+      assertFalse(binaryClient.replace(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertTrue(binaryClient.add(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS));
+      assertFalse(binaryClient.add(k(m), 0, v(m, "v2-")).get(timeout, TimeUnit.SECONDS));
+      assertTrue(binaryClient.replace(k(m), 0, v(m, "v3-")).get(timeout, TimeUnit.SECONDS));
+      assertEquals(v(m, "v3-"), binaryClient.get(k(m)));
+   }
+
+   public void testCas(Method m) throws Exception {
+      assertEquals(CASResponse.NOT_FOUND, binaryClient.cas(k(m), 1, v(m)));
+      binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS);
+      CASValue<Object> value = binaryClient.gets(k(m));
+      assertEquals(v(m), value.getValue());
+      assertEquals(CASResponse.OK, binaryClient.cas(k(m), value.getCas(), v(m, "v2-")));
+      assertEquals(CASResponse.EXISTS, binaryClient.cas(k(m), value.getCas(), v(m, "v3-")));
+      assertEquals(v(m, "v2-"), binaryClient.get(k(m)));
+   }
+
+   public void testAppendPrepend(Method m) throws Exception {
+      assertFalse(binaryClient.append(0, k(m), "b").get(timeout, TimeUnit.SECONDS));
+      binaryClient.set(k(m), 0, "b").get(timeout, TimeUnit.SECONDS);
+      assertTrue(binaryClient.append(0, k(m), "c").get(timeout, TimeUnit.SECONDS));
+      assertTrue(binaryClient.prepend(0, k(m), "a").get(timeout, TimeUnit.SECONDS));
+      assertEquals("abc", binaryClient.get(k(m)));
+   }
+
+   public void testIncrementDecrement(Method m) throws Exception {
+      assertEquals(-1, binaryClient.incr(k(m), 1));
+      assertEquals(10, binaryClient.incr(k(m), 1, 10));
+      assertEquals(15, binaryClient.incr(k(m), 5));
+      assertEquals(12, binaryClient.decr(k(m), 3));
+      assertEquals(0, binaryClient.decr(k(m), 100));
+      // Shared with the text protocol, as a decimal string
+      assertEquals("0", client.get(k(m)));
+   }
+
+   public void testGetBulk(Method m) throws Exception {
+      for (int i = 0; i < 10; i++) {
+         binaryClient.set(k(m, i + "-"), 0, v(m, i + "-")).get(timeout, TimeUnit.SECONDS);
+      }
+      String[] keys = new String[12];
+      for (int i = 0; i < keys.length; i++) {
+         keys[i] = k(m, i + "-");
+      }
+      Map<String, Object> values = binaryClient.getBulk(keys);
+      assertEquals(10, values.size());
+      for (int i = 0; i < 10; i++) {
+         assertEquals(v(m, i + "-"), values.get(k(m, i + "-")));
+      }
+   }
+
+   public void testFlushVersionStats(Method m) throws Exception {
+      binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS);
+      assertTrue(binaryClient.flush().get(timeout, TimeUnit.SECONDS));
+      assertNull(binaryClient.get(k(m)));
+      assertEquals(1, binaryClient.getVersions().size());
+      Map<String, String> stats = binaryClient.getStats().values().iterator().next();
+      assertTrue(stats.containsKey("curr_items"));
+   }
+
+   public void testQuietBatch(Method m) throws IOException {
+      try (Socket socket = new Socket(server.getHost(), server.getPort())) {
+         DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+         for (int i = 0; i < 3; i++) {
+            writeRequest(out, BinaryProtocolUtil.SETQ, i, new byte[8], k(m, i + "-"), v(m, i + "-"));
+         }
+         for (int i = 0; i < 4; i++) {
+            writeRequest(out, BinaryProtocolUtil.GETKQ, 10 + i, new byte[0], k(m, i + "-"), "");
+         }
+         writeRequest(out, BinaryProtocolUtil.NOOP, 20, new byte[0], "", "");
+         out.flush();
+
+         // Only the hits and the NOOP are answered
+         DataInputStream in = new DataInputStream(socket.getInputStream());
+         for (int i = 0; i < 3; i++) {
+            Response response = readResponse(in);
+            assertEquals(BinaryProtocolUtil.GETKQ, response.opcode);
+            assertEquals(10 + i, response.opaque);
+            assertEquals(BinaryProtocolUtil.NO_ERROR, response.status);
+            assertEquals(k(m, i + "-"), response.key);
+            assertEquals(v(m, i + "-"), response.value);
+         }
+         Response noop = readResponse(in);
+         assertEquals(BinaryProtocolUtil.NOOP, noop.opcode);
+         assertEquals(20, noop.opaque);
+      }
+   }
+
+   public void testUnknownCommand() throws IOException {
+      try (Socket socket = new Socket(server.getHost(), server.getPort())) {
+         DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+         writeRequest(out, (byte) 0x7f, 1, new byte[0], "", "");
+         out.flush();
+         Response response = readResponse(new DataInputStream(socket.getInputStream()));
+         assertEquals(BinaryProtocolUtil.UNKNOWN_COMMAND, response.status);
+         assertEquals(1, response.opaque);
+      }
+   }
+
+   public void testRequestTooLarge() throws IOException {
+      try (Socket socket = new Socket(server.getHost(), server.getPort())) {
+         DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+         out.writeByte(BinaryProtocolUtil.MAGIC_REQUEST);
+         out.writeByte(BinaryProtocolUtil.SET);
+         out.writeShort(1);
+         out.writeByte(8);
+         out.writeByte(0);
+         out.writeShort(0);
+         // Only the header is sent, the server must not wait for the body
+         out.writeInt(server.getConfiguration().maxItemSize() + 1);
+         out.writeInt(1);
+         out.writeLong(0);
+         out.flush();
+
+         DataInputStream in = new DataInputStream(socket.getInputStream());
+         Response response = readResponse(in);
+         assertEquals(BinaryProtocolUtil.VALUE_TOO_LARGE, response.status);
+         assertEquals(1, response.opaque);
+         assertEquals(-1, in.read());
+      }
+   }
+
+   static void writeRequest(DataOutputStream out, byte opcode, int opaque, byte[] extras, String key, String value)
+         throws IOException {
+      byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+      byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+      out.writeByte(BinaryProtocolUtil.MAGIC_REQUEST);
+      out.writeByte(opcode);
+      out.writeShort(keyBytes.length);
+      out.writeByte(extras.length);
+      out.writeByte(0);
+      out.writeShort(0);
+      out.writeInt(extras.length + keyBytes.length + valueBytes.length);
+      out.writeInt(opaque);
+      out.writeLong(0);
+      out.write(extras);
+      out.write(keyBytes);
+      out.write(valueBytes);
+   }
+
+   static Response readResponse(DataInputStream in) throws IOException {
+      assertEquals(BinaryProtocolUtil.MAGIC_RESPONSE, in.readByte());
+      Response response = new Response();
+      response.opcode = in.readByte();
+      int keyLength = in.readUnsignedShort();
+      int extrasLength = in.readUnsignedByte();
+      in.readByte();
+      response.status = in.readShort();
+      int bodyLength = in.readInt();
+      response.opaque = in.readInt();
+      in.readLong();
+      byte[] body = new byte[bodyLength];
+      in.readFully(body);
+      response.key = new String(body, extrasLength, keyLength, StandardCharsets.UTF_8);
+      response.value = new String(Arrays.copyOfRange(body, extrasLength + keyLength, bodyLength), StandardCharsets.UTF_8);
+      return response;
+   }
+
+   static class Response {
+      byte opcode;
+      short status;
+      int opaque;
+      String key;
+      String value;
+   }
+}
@@ -40,4 +40,9 @@ void testValidateInvalidExpiration() {
          }));
    }
 
+   @Test(expectedExceptions = CacheConfigurationException.class)
+   void testValidateInvalidMaxItemSize() {
+      new MemcachedServerConfigurationBuilder().maxItemSize(0).build();
+   }
+
 }
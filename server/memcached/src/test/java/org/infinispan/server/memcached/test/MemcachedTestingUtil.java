@@ -8,14 +8,17 @@
 import org.infinispan.Cache;
 import org.infinispan.commons.logging.LogFactory;
 import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.server.memcached.MemcachedBinaryDecoder;
 import org.infinispan.server.memcached.MemcachedDecoder;
 import org.infinispan.server.memcached.MemcachedServer;
 import org.infinispan.server.memcached.configuration.MemcachedServerConfigurationBuilder;
 import org.infinispan.server.memcached.logging.JavaLog;
 
 import io.netty.channel.ChannelInboundHandler;
+import net.spy.memcached.ConnectionFactoryBuilder;
 import net.spy.memcached.DefaultConnectionFactory;
 import net.spy.memcached.MemcachedClient;
+import net.spy.memcached.auth.AuthDescriptor;
 
 /**
  * Utils for Memcached tests.
@@ -38,6 +41,17 @@ public long getOperationTimeout() {
       return new MemcachedClient(d, Collections.singletonList(new InetSocketAddress(host, port)));
    }
 
+   public static MemcachedClient createMemcachedBinaryClient(long timeout, int port, AuthDescriptor authDescriptor)
+         throws IOException {
+      ConnectionFactoryBuilder builder = new ConnectionFactoryBuilder()
+            .setProtocol(ConnectionFactoryBuilder.Protocol.BINARY)
+            .setOpTimeout(timeout);
+      if (authDescriptor != null) {
+         builder.setAuthDescriptor(authDescriptor);
+      }
+      return new MemcachedClient(builder.build(), Collections.singletonList(new InetSocketAddress(host, port)));
+   }
+
    public static MemcachedServer startMemcachedTextServer(EmbeddedCacheManager cacheManager) {
       return startMemcachedTextServer(cacheManager, UniquePortThreadLocal.INSTANCE.get());
    }
@@ -48,6 +62,12 @@ public static MemcachedServer startMemcachedTextServer(EmbeddedCacheManager cach
       return server;
    }
 
+   public static MemcachedServer startMemcachedServer(EmbeddedCacheManager cacheManager, MemcachedServerConfigurationBuilder builder) {
+      MemcachedServer server = new MemcachedServer();
+      server.start(builder.host(host).port(UniquePortThreadLocal.INSTANCE.get()).build(), cacheManager);
+      return server;
+   }
+
    public static MemcachedServer startMemcachedTextServer(EmbeddedCacheManager cacheManager, String cacheName) {
       return startMemcachedTextServer(cacheManager, UniquePortThreadLocal.INSTANCE.get(), cacheName);
    }
@@ -55,11 +75,17 @@ public static MemcachedServer startMemcachedTextServer(EmbeddedCacheManager cach
    public static MemcachedServer startMemcachedTextServer(EmbeddedCacheManager cacheManager, int port, String cacheName) {
       MemcachedServer server = new MemcachedServer() {
          @Override
-         public ChannelInboundHandler getDecoder() {
+         protected ChannelInboundHandler createTextDecoder() {
             Cache<String, byte[]> cache = getCacheManager().getCache(cacheName);
             return new MemcachedDecoder(cache.getAdvancedCache(), scheduler, transport, s -> false);
          }
 
+         @Override
+         protected ChannelInboundHandler createBinaryDecoder() {
+            Cache<String, byte[]> cache = getCacheManager().getCache(cacheName);
+            return new MemcachedBinaryDecoder(cache.getAdvancedCache(), scheduler, transport, s -> false, this);
+         }
+
          @Override
          protected void startDefaultCache() {
             getCacheManager().getCache(cacheName);
@@ -0,0 +1,525 @@
+package org.infinispan.rest;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.container.entries.CacheEntry;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.rest.configuration.RestServerConfiguration;
+import org.infinispan.rest.logging.Log;
+import org.jboss.resteasy.util.DateUtil;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.EventExecutorGroup;
+
+/**
+ * Netty handler serving the GET, HEAD, PUT, POST and DELETE requests on single entries ({@code /rest/{cache}/{key}})
+ * without going through the JAX-RS stack. It produces the same responses as {@link Server}: the same
+ * {@link MimeMetadata} handling, ETags, conditional requests, expiration and extended headers.
+ * <p>
+ * Any other request is passed on to the JAX-RS handlers, and so are the entries which need content negotiation (values
+ * other than {@code String} and {@code byte[]}).
+ * <p>
+ * The requests of a connection are processed one at a time and in order, both the ones handled here and the ones
+ * passed on, so HTTP/1.1 pipelining works over keep-alive connections. The cache operations can block, so they run on
+ * an executor instead of the event loop.
+ *
+ * @since 9.0
+ */
+@ChannelHandler.Sharable
+class NettyRestRequestHandler extends ChannelDuplexHandler {
+   private final static Log log = LogFactory.getLog(NettyRestRequestHandler.class, Log.class);
+
+   private static final String REST_PATH = "rest";
+   private static final String TIME_TO_LIVE_HEADER = "timeToLiveSeconds";
+   private static final String MAX_IDLE_TIME_HEADER = "maxIdleTimeSeconds";
+   private static final String PERFORM_ASYNC_HEADER = "performAsync";
+   private static final String TEXT_PLAIN = "text/plain";
+   private static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+   /**
+    * Above this number of queued requests the connection stops reading until the queue is drained.
+    */
+   private static final int MAX_PENDING_REQUESTS = 64;
+
+   private static final DateTimeFormatter DATE_FORMAT =
+         DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US).withZone(ZoneId.of("GMT"));
+
+   private static final AttributeKey<ConnectionState> STATE = AttributeKey.valueOf(NettyRestRequestHandler.class.getName());
+
+   /**
+    * Marker for the requests which must be handled by the JAX-RS handlers.
+    */
+   private static final FullHttpResponse FORWARD = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+
+   private final RestServerConfiguration configuration;
+   private final RestCacheManager manager;
+   private final EventExecutorGroup executorGroup;
+   private final MurmurHash3 hashFunc = MurmurHash3.getInstance();
+
+   NettyRestRequestHandler(RestServerConfiguration configuration, RestCacheManager manager,
+                           EventExecutorGroup executorGroup) {
+      this.configuration = configuration;
+      this.manager = manager;
+      this.executorGroup = executorGroup;
+   }
+
+   @Override
+   public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+      if (!(msg instanceof FullHttpRequest)) {
+         ctx.fireChannelRead(msg);
+         return;
+      }
+      ConnectionState state = state(ctx);
+      state.pending.add((FullHttpRequest) msg);
+      if (state.pending.size() > MAX_PENDING_REQUESTS) {
+         ctx.channel().config().setAutoRead(false);
+      }
+      processNext(ctx, state);
+   }
+
+   @Override
+   public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+      if (msg instanceof LastHttpContent) {
+         ConnectionState state = ctx.channel().attr(STATE).get();
+         if (state != null && state.forwarded) {
+            // The JAX-RS handlers are done with the current request
+            state.forwarded = false;
+            state.busy = false;
+            ctx.executor().execute(() -> processNext(ctx, state));
+         }
+      }
+      ctx.write(msg, promise);
+   }
+
+   @Override
+   public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+      ConnectionState state = ctx.channel().attr(STATE).get();
+      if (state != null) {
+         FullHttpRequest request;
+         while ((request = state.pending.poll()) != null) {
+            request.release();
+         }
+      }
+      ctx.fireChannelInactive();
+   }
+
+   private ConnectionState state(ChannelHandlerContext ctx) {
+      ConnectionState state = ctx.channel().attr(STATE).get();
+      if (state == null) {
+         state = new ConnectionState(executorGroup.next());
+         ctx.channel().attr(STATE).set(state);
+      }
+      return state;
+   }
+
+   /**
+    * Starts processing the next queued request, if no other request of the connection is being processed. Always
+    * invoked from the event loop.
+    */
+   private void processNext(ChannelHandlerContext ctx, ConnectionState state) {
+      if (state.busy || !ctx.channel().isActive()) {
+         return;
+      }
+      FullHttpRequest request = state.pending.poll();
+      if (request == null) {
+         return;
+      }
+      if (!ctx.channel().config().isAutoRead() && state.pending.size() <= MAX_PENDING_REQUESTS / 2) {
+         ctx.channel().config().setAutoRead(true);
+      }
+      state.busy = true;
+      EntryRequest entryRequest = EntryRequest.parse(request);
+      if (entryRequest == null) {
+         forward(ctx, state, request);
+         return;
+      }
+      state.executor.execute(() -> {
+         FullHttpResponse response;
+         try {
+            response = handle(request, entryRequest);
+         } catch (Throwable t) {
+            log.tracef(t, "Error handling %s %s", request.method(), request.uri());
+            response = errorResponse(t);
+         }
+         FullHttpResponse result = response;
+         ctx.executor().execute(() -> {
+            if (result == FORWARD) {
+               forward(ctx, state, request);
+            } else {
+               boolean keepAlive = HttpUtil.isKeepAlive(request);
+               request.release();
+               writeResponse(ctx, result, keepAlive);
+               state.busy = false;
+               processNext(ctx, state);
+            }
+         });
+      });
+   }
+
+   private void forward(ChannelHandlerContext ctx, ConnectionState state, FullHttpRequest request) {
+      state.forwarded = true;
+      ctx.fireChannelRead(request);
+   }
+
+   private void writeResponse(ChannelHandlerContext ctx, FullHttpResponse response, boolean keepAlive) {
+      HttpUtil.setKeepAlive(response, keepAlive);
+      if (keepAlive) {
+         ctx.writeAndFlush(response);
+      } else {
+         ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+      }
+   }
+
+   private FullHttpResponse handle(FullHttpRequest request, EntryRequest entryRequest) {
+      try {
+         HttpMethod method = request.method();
+         if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)) {
+            return getEntry(request, entryRequest, HttpMethod.HEAD.equals(method));
+         } else if (HttpMethod.DELETE.equals(method)) {
+            return removeEntry(request, entryRequest);
+         } else {
+            return putEntry(request, entryRequest);
+         }
+      } catch (CacheNotFoundException e) {
+         return emptyResponse(HttpResponseStatus.NOT_FOUND);
+      }
+   }
+
+   private <V> FullHttpResponse getEntry(FullHttpRequest request, EntryRequest entryRequest, boolean head) {
+      CacheEntry<String, V> entry = manager.getInternalEntry(entryRequest.cacheName, entryRequest.key);
+      if (!(entry instanceof InternalCacheEntry)) {
+         return emptyResponse(HttpResponseStatus.NOT_FOUND);
+      }
+      InternalCacheEntry<String, V> ice = (InternalCacheEntry<String, V>) entry;
+      Date lastMod = Server.lastModified(ice);
+      Date expires = ice.canExpire() ? new Date(ice.getExpiryTime()) : null;
+      String cacheControl = request.headers().get(HttpHeaderNames.CACHE_CONTROL, "");
+      OptionalInt minFreshSeconds = Server.minFresh(cacheControl);
+      if (!Server.entryFreshEnough(expires, minFreshSeconds)) {
+         return emptyResponse(HttpResponseStatus.NOT_FOUND);
+      }
+      Metadata meta = ice.getMetadata();
+      V value = ice.getValue();
+      FullHttpResponse response;
+      boolean extended = wantExtendedHeaders(entryRequest);
+      if (meta instanceof MimeMetadata) {
+         if (!head && !(value instanceof byte[])) {
+            return FORWARD;
+         }
+         MimeMetadata mime = (MimeMetadata) meta;
+         String etag = calcETAG(ice, mime);
+         FullHttpResponse preconditionFailed = evaluatePreconditions(request, lastMod, etag);
+         if (preconditionFailed != null) {
+            return preconditionFailed;
+         }
+         response = head ? emptyResponse(HttpResponseStatus.OK) : contentResponse((byte[]) value);
+         if (mime.contentType != null) {
+            response.headers().set(HttpHeaderNames.CONTENT_TYPE, mime.contentType);
+         }
+         response.headers().set(HttpHeaderNames.ETAG, etag);
+      } else if (head) {
+         response = emptyResponse(HttpResponseStatus.OK);
+      } else if (value instanceof String) {
+         response = contentResponse(((String) value).getBytes(StandardCharsets.UTF_8));
+         response.headers().set(HttpHeaderNames.CONTENT_TYPE, TEXT_PLAIN);
+         // Like the JAX-RS resource, no extended headers for strings
+         extended = false;
+      } else if (value instanceof byte[]) {
+         response = contentResponse((byte[]) value);
+         response.headers().set(HttpHeaderNames.CONTENT_TYPE, APPLICATION_OCTET_STREAM);
+      } else {
+         return FORWARD;
+      }
+      HttpHeaders headers = response.headers();
+      headers.set(HttpHeaderNames.LAST_MODIFIED, formatDate(lastMod));
+      if (expires != null) {
+         headers.set(HttpHeaderNames.EXPIRES, formatDate(expires));
+         headers.set(HttpHeaderNames.CACHE_CONTROL, calcCacheControl(expires));
+      }
+      mortality(headers, meta);
+      if (extended) {
+         extended(headers, entryRequest);
+      }
+      if (head) {
+         // Content-Length of a HEAD response describes the entity that would have been returned
+         headers.remove(HttpHeaderNames.CONTENT_LENGTH);
+      }
+      return response;
+   }
+
+   private <V> FullHttpResponse putEntry(FullHttpRequest request, EntryRequest entryRequest) {
+      HttpHeaders headers = request.headers();
+      long ttl = Long.parseLong(headers.get(TIME_TO_LIVE_HEADER, "-1").trim());
+      long idleTime = Long.parseLong(headers.get(MAX_IDLE_TIME_HEADER, "-1").trim());
+      String mediaType = headers.get(HttpHeaderNames.CONTENT_TYPE);
+      byte[] data = ByteBufUtil.getBytes(request.content());
+      boolean useAsync = Boolean.parseBoolean(headers.get(PERFORM_ASYNC_HEADER));
+
+      AdvancedCache<String, byte[]> cache = manager.getCache(entryRequest.cacheName);
+      if (HttpMethod.POST.equals(request.method()) && cache.containsKey(entryRequest.key)) {
+         return emptyResponse(HttpResponseStatus.CONFLICT);
+      }
+      Metadata metadata = Server.createMetadata(cache.getCacheConfiguration(), mediaType, ttl, idleTime);
+      CacheEntry<String, V> entry = manager.getInternalEntry(entryRequest.cacheName, entryRequest.key, true);
+      if (entry instanceof InternalCacheEntry && entry.getMetadata() instanceof MimeMetadata) {
+         // The entry already exists, evaluate the preconditions against it and replace it only if it didn't change
+         InternalCacheEntry<String, V> ice = (InternalCacheEntry<String, V>) entry;
+         FullHttpResponse preconditionFailed = evaluatePreconditions(request, Server.lastModified(ice),
+               calcETAG(ice, (MimeMetadata) ice.getMetadata()));
+         if (preconditionFailed != null) {
+            return preconditionFailed;
+         }
+         if (useAsync) {
+            cache.putAsync(entryRequest.key, data, metadata);
+         } else if (!cache.replace(entryRequest.key, (byte[]) ice.getValue(), data, metadata)) {
+            return emptyResponse(HttpResponseStatus.PRECONDITION_FAILED);
+         }
+      } else if (useAsync) {
+         cache.putAsync(entryRequest.key, data, metadata);
+      } else {
+         cache.put(entryRequest.key, data, metadata);
+      }
+      return emptyResponse(HttpResponseStatus.OK);
+   }
+
+   private <V> FullHttpResponse removeEntry(FullHttpRequest request, EntryRequest entryRequest) {
+      CacheEntry<String, V> entry = manager.getInternalEntry(entryRequest.cacheName, entryRequest.key);
+      if (!(entry instanceof InternalCacheEntry)) {
+         return emptyResponse(HttpResponseStatus.NOT_FOUND);
+      }
+      InternalCacheEntry<String, V> ice = (InternalCacheEntry<String, V>) entry;
+      if (ice.getMetadata() instanceof MimeMetadata) {
+         FullHttpResponse preconditionFailed = evaluatePreconditions(request, Server.lastModified(ice),
+               calcETAG(ice, (MimeMetadata) ice.getMetadata()));
+         if (preconditionFailed != null) {
+            return preconditionFailed;
+         }
+      }
+      AdvancedCache<String, byte[]> cache = manager.getCache(entryRequest.cacheName);
+      if (Boolean.parseBoolean(request.headers().get(PERFORM_ASYNC_HEADER))) {
+         cache.removeAsync(entryRequest.key);
+      } else {
+         cache.remove(entryRequest.key);
+      }
+      return emptyResponse(HttpResponseStatus.OK);
+   }
+
+   /**
+    * Evaluates the conditional request headers the same way as {@link javax.ws.rs.core.Request#evaluatePreconditions(Date,
+    * javax.ws.rs.core.EntityTag)}.
+    *
+    * @return the response to send if one of the preconditions failed, or {@code null} if the request can proceed
+    */
+   private FullHttpResponse evaluatePreconditions(FullHttpRequest request, Date lastModified, String etag) {
+      HttpHeaders headers = request.headers();
+      FullHttpResponse dateResponse = null;
+      String ifModifiedSince = headers.get(HttpHeaderNames.IF_MODIFIED_SINCE);
+      String ifUnmodifiedSince = headers.get(HttpHeaderNames.IF_UNMODIFIED_SINCE);
+      if (ifModifiedSince != null && DateUtil.parseDate(ifModifiedSince).getTime() >= lastModified.getTime()) {
+         dateResponse = emptyResponse(HttpResponseStatus.NOT_MODIFIED);
+      } else if (ifUnmodifiedSince != null && DateUtil.parseDate(ifUnmodifiedSince).getTime() < lastModified.getTime()) {
+         dateResponse = emptyResponse(HttpResponseStatus.PRECONDITION_FAILED);
+         dateResponse.headers().set(HttpHeaderNames.LAST_MODIFIED, formatDate(lastModified));
+      }
+
+      FullHttpResponse etagResponse = null;
+      List<String> ifMatch = headers.getAll(HttpHeaderNames.IF_MATCH);
+      List<String> ifNoneMatch = headers.getAll(HttpHeaderNames.IF_NONE_MATCH);
+      if (!ifMatch.isEmpty() && !matches(ifMatch, etag)) {
+         etagResponse = emptyResponse(HttpResponseStatus.PRECONDITION_FAILED);
+      } else if (!ifNoneMatch.isEmpty() && matches(ifNoneMatch, etag)) {
+         HttpMethod method = request.method();
+         etagResponse = emptyResponse(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) ?
+               HttpResponseStatus.NOT_MODIFIED : HttpResponseStatus.PRECONDITION_FAILED);
+      }
+      if (etagResponse != null) {
+         etagResponse.headers().set(HttpHeaderNames.ETAG, etag);
+      }
+
+      if (dateResponse == null) {
+         return etagResponse;
+      }
+      if (etagResponse != null) {
+         dateResponse.headers().set(HttpHeaderNames.ETAG, etag);
+      }
+      return dateResponse;
+   }
+
+   private static boolean matches(List<String> headerValues, String etag) {
+      for (String headerValue : headerValues) {
+         for (String tag : headerValue.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+               return true;
+            }
+            // Weak tags never match the strong tag of an entry
+            if (!tag.startsWith("W/") && tag.equals(etag)) {
+               return true;
+            }
+         }
+      }
+      return false;
+   }
+
+   private String calcETAG(InternalCacheEntry<String, ?> entry, MimeMetadata meta) {
+      return "\"" + meta.contentType + hashFunc.hash(entry.getValue()) + "\"";
+   }
+
+   private static String calcCacheControl(Date expires) {
+      int maxAgeSeconds = Server.calcFreshness(expires);
+      return maxAgeSeconds > 0 ? "no-transform, max-age=" + maxAgeSeconds : "no-cache, no-transform";
+   }
+
+   private static void mortality(HttpHeaders headers, Metadata meta) {
+      if (meta.lifespan() > -1)
+         headers.set(TIME_TO_LIVE_HEADER, TimeUnit.MILLISECONDS.toSeconds(meta.lifespan()));
+      if (meta.maxIdle() > -1)
+         headers.set(MAX_IDLE_TIME_HEADER, TimeUnit.MILLISECONDS.toSeconds(meta.maxIdle()));
+   }
+
+   private void extended(HttpHeaders headers, EntryRequest entryRequest) {
+      headers.set("Cluster-Primary-Owner", manager.getPrimaryOwner(entryRequest.cacheName, entryRequest.key));
+      Object nodeName = manager.getNodeName();
+      if (nodeName != null) {
+         headers.set("Cluster-Node-Name", nodeName);
+      }
+      String serverAddress = manager.getServerAddress();
+      if (serverAddress != null) {
+         headers.set("Cluster-Server-Address", serverAddress);
+      }
+   }
+
+   private boolean wantExtendedHeaders(EntryRequest entryRequest) {
+      switch (configuration.extendedHeaders()) {
+         case NEVER:
+            return false;
+         case ON_DEMAND:
+            return entryRequest.extended;
+         default:
+            throw new IllegalArgumentException("Unsupported header:" + configuration.extendedHeaders());
+      }
+   }
+
+   private static String formatDate(Date date) {
+      return DATE_FORMAT.format(date.toInstant());
+   }
+
+   private static FullHttpResponse errorResponse(Throwable t) {
+      if (t instanceof NumberFormatException) {
+         // Invalid expiration header
+         return emptyResponse(HttpResponseStatus.BAD_REQUEST);
+      }
+      return emptyResponse(HttpResponseStatus.INTERNAL_SERVER_ERROR);
+   }
+
+   private static FullHttpResponse emptyResponse(HttpResponseStatus status) {
+      FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, Unpooled.EMPTY_BUFFER);
+      response.headers().set(HttpHeaderNames.CONTENT_LENGTH, 0);
+      return response;
+   }
+
+   private static FullHttpResponse contentResponse(byte[] content) {
+      ByteBuf buf = Unpooled.wrappedBuffer(content);
+      FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, buf);
+      response.headers().set(HttpHeaderNames.CONTENT_LENGTH, content.length);
+      return response;
+   }
+
+   /**
+    * The requests of a connection, only accessed from its event loop.
+    */
+   private static class ConnectionState {
+      final Queue<FullHttpRequest> pending = new ArrayDeque<>();
+      final EventExecutor executor;
+      boolean busy;
+      boolean forwarded;
+
+      ConnectionState(EventExecutor executor) {
+         this.executor = executor;
+      }
+   }
+
+   /**
+    * A request on a single entry, {@code /rest/{cacheName}/{cacheKey}}.
+    */
+   private static class EntryRequest {
+      final String cacheName;
+      final String key;
+      final boolean extended;
+
+      private EntryRequest(String cacheName, String key, boolean extended) {
+         this.cacheName = cacheName;
+         this.key = key;
+         this.extended = extended;
+      }
+
+      /**
+       * @return the entry request, or {@code null} if the request must be handled by the JAX-RS handlers
+       */
+      static EntryRequest parse(FullHttpRequest request) {
+         HttpMethod method = request.method();
+         if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method) && !HttpMethod.PUT.equals(method)
+               && !HttpMethod.POST.equals(method) && !HttpMethod.DELETE.equals(method)) {
+            return null;
+         }
+         String uri = request.uri();
+         int queryStart = uri.indexOf('?');
+         String path = queryStart < 0 ? uri : uri.substring(0, queryStart);
+         String[] segments = path.split("/", -1);
+         if (segments.length != 4 || !segments[0].isEmpty() || !REST_PATH.equals(segments[1])
+               || segments[2].isEmpty() || segments[3].isEmpty()) {
+            return null;
+         }
+         boolean extended = false;
+         if (queryStart >= 0) {
+            Map<String, List<String>> parameters = new QueryStringDecoder(uri).parameters();
+            extended = parameters.containsKey("extended");
+         }
+         try {
+            return new EntryRequest(decode(segments[2]), decode(segments[3]), extended);
+         } catch (IllegalArgumentException | UnsupportedEncodingException e) {
+            return null;
+         }
+      }
+
+      private static String decode(String segment) throws UnsupportedEncodingException {
+         // Path segments don't use the form encoding, a '+' is not a space
+         return URLDecoder.decode(segment.replace("+", "%2B"), "UTF-8");
+      }
+   }
+}
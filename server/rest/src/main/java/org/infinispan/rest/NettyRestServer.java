@@ -1,6 +1,7 @@
 package org.infinispan.rest;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.function.Consumer;
 
 import javax.ws.rs.container.ContainerRequestFilter;
@@ -20,11 +21,16 @@
 import org.jboss.resteasy.plugins.server.netty.SniConfiguration;
 import org.jboss.resteasy.spi.ResteasyDeployment;
 
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutorGroup;
+
 public final class NettyRestServer extends AbstractCacheIgnoreAware implements Lifecycle {
    final EmbeddedCacheManager cacheManager;
    private final RestServerConfiguration configuration;
    private final NettyJaxrsServer netty;
    private final Consumer<? super EmbeddedCacheManager> onStop;
+   private EventExecutorGroup nativeHandlerExecutor;
 
    private final static Log log = LogFactory.getLog(NettyRestServer.class, Log.class);
 
@@ -98,10 +104,16 @@ private NettyRestServer(EmbeddedCacheManager cacheManager, RestServerConfigurati
 
    @Override
    public void start() {
-      netty.start();
-      ResteasyDeployment deployment = netty.getDeployment();
       configuration.ignoredCaches().forEach(this::ignoreCache);
       RestCacheManager restCacheManager = new RestCacheManager(cacheManager, this::isCacheIgnored);
+      if (configuration.nativeHandler()) {
+         nativeHandlerExecutor = new DefaultEventExecutorGroup(Runtime.getRuntime().availableProcessors() * 2,
+               new DefaultThreadFactory("RestServerHandler"));
+         netty.setHttpChannelHandlers(Collections.singletonList(
+               new NettyRestRequestHandler(configuration, restCacheManager, nativeHandlerExecutor)));
+      }
+      netty.start();
+      ResteasyDeployment deployment = netty.getDeployment();
       Server server = new Server(configuration, restCacheManager);
       deployment.getRegistry().addSingletonResource(server);
       deployment.getProviderFactory().register(new RestAccessLoggingHandler(), ContainerRequestFilter.class,
@@ -112,6 +124,10 @@ public void start() {
    @Override
    public void stop() {
       netty.stop();
+      if (nativeHandlerExecutor != null) {
+         nativeHandlerExecutor.shutdownGracefully();
+         nativeHandlerExecutor = null;
+      }
       onStop.accept(cacheManager);
    }
 }
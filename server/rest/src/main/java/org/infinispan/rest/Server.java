@@ -203,7 +203,7 @@ private Response ensureFreshEnoughEntry(Date expires, OptionalInt minFreshSecond
       }
    }
 
-   private OptionalInt minFresh(String cacheControl) {
+   static OptionalInt minFresh(String cacheControl) {
       Optional<String> minFreshDirective = Arrays.stream(cacheControl.split(",")).filter(s -> s.contains("min-fresh")).findFirst();
       return minFreshDirective.map(s -> {
          String[] equals = s.split("=");
@@ -211,11 +211,11 @@ private OptionalInt minFresh(String cacheControl) {
       }).orElse(OptionalInt.empty());
    }
 
-   private boolean entryFreshEnough(Date entryExpires, OptionalInt minFresh) {
+   static boolean entryFreshEnough(Date entryExpires, OptionalInt minFresh) {
       return !minFresh.isPresent() || minFresh.getAsInt() < calcFreshness(entryExpires);
    }
 
-   private int calcFreshness(Date expires) {
+   static int calcFreshness(Date expires) {
       if (expires == null) {
          return Integer.MAX_VALUE;
       } else {
@@ -504,7 +504,7 @@ Response asyncPutInCache(AdvancedCache<String, byte[]> cache,
       return Response.ok().build();
    }
 
-   Metadata createMetadata(Configuration cfg, String dataType, long ttl, long idleTime) {
+   static Metadata createMetadata(Configuration cfg, String dataType, long ttl, long idleTime) {
       MimeMetadataBuilder metadata = new MimeMetadataBuilder();
       metadata.contentType(dataType);
       if (ttl == 0) {
@@ -605,7 +605,7 @@ private <K, V> EntityTag calcETAG(InternalCacheEntry<K, V> entry, MimeMetadata m
       return new EntityTag(meta.contentType + hashFunc.hash(entry.getValue()));
    }
 
-   private <K, V> Date lastModified(InternalCacheEntry<K, V> ice) {
+   static <K, V> Date lastModified(InternalCacheEntry<K, V> ice) {
       return new Date(ice.getCreated() / 1000 * 1000);
    }
 
@@ -9,16 +9,26 @@
 @BuiltBy(RestServerConfigurationBuilder.class)
 public class RestServerConfiguration extends ProtocolServerConfiguration {
    private final ExtendedHeaders extendedHeaders;
+   private final boolean nativeHandler;
 
-   RestServerConfiguration(ExtendedHeaders extendedHeaders, String host, int port, Set<String> ignoredCaches, SslConfiguration ssl) {
+   RestServerConfiguration(ExtendedHeaders extendedHeaders, boolean nativeHandler, String host, int port,
+                           Set<String> ignoredCaches, SslConfiguration ssl) {
       super(null, null, host, port, -1, -1, -1, ssl, false, -1, ignoredCaches);
       this.extendedHeaders = extendedHeaders;
+      this.nativeHandler = nativeHandler;
    }
 
    public ExtendedHeaders extendedHeaders() {
       return extendedHeaders;
    }
 
+   /**
+    * Whether the requests on single entries are served by a Netty handler instead of the JAX-RS resource.
+    */
+   public boolean nativeHandler() {
+      return nativeHandler;
+   }
+
    /**
     * @deprecated Use {@link #ignoredCaches()} instead.
     */
@@ -19,6 +19,7 @@ public class RestServerConfigurationBuilder extends ProtocolServerConfigurationB
    private static final int DEFAULT_PORT = 8080;
 
    private ExtendedHeaders extendedHeaders = ExtendedHeaders.ON_DEMAND;
+   private boolean nativeHandler = true;
 
    public RestServerConfigurationBuilder() {
       super(DEFAULT_PORT);
@@ -29,6 +30,16 @@ public RestServerConfigurationBuilder extendedHeaders(ExtendedHeaders extendedHe
       return this;
    }
 
+   /**
+    * Serves the GET, HEAD, PUT, POST and DELETE requests on single entries with a Netty handler, supporting HTTP/1.1
+    * pipelining, instead of the JAX-RS resource. The other requests are always served by the JAX-RS resource. Defaults
+    * to {@code true}.
+    */
+   public RestServerConfigurationBuilder nativeHandler(boolean nativeHandler) {
+      this.nativeHandler = nativeHandler;
+      return this;
+   }
+
    @Override
    public void validate() {
       // Nothing to do
@@ -36,12 +47,13 @@ public void validate() {
 
    @Override
    public RestServerConfiguration create() {
-      return new RestServerConfiguration(extendedHeaders, host, port, ignoredCaches, ssl.create());
+      return new RestServerConfiguration(extendedHeaders, nativeHandler, host, port, ignoredCaches, ssl.create());
    }
 
    @Override
    public Builder<?> read(RestServerConfiguration template) {
       this.extendedHeaders = template.extendedHeaders();
+      this.nativeHandler = template.nativeHandler();
       this.host = template.host();
       this.port = template.port();
       return this;
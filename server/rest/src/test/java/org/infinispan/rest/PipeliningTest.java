@@ -0,0 +1,143 @@
+package org.infinispan.rest;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Sends pipelined requests over a single connection, mixing the requests served by the Netty handler and the ones
+ * served by the JAX-RS resource, and checks the responses come back in order.
+ *
+ * @since 9.0
+ */
+@Test(groups = {"functional"}, testName = "rest.PipeliningTest")
+public class PipeliningTest extends RestServerTestBase {
+
+   private static final int PORT = 8892;
+   private static final String PATH = "/rest/___defaultcache";
+
+   @BeforeClass
+   private void setUp() throws Exception {
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createCacheManager();
+      addServer("pipelining", PORT, cm);
+      startServers();
+   }
+
+   @AfterClass(alwaysRun = true)
+   private void tearDown() throws Exception {
+      stopServers();
+      removeServers();
+   }
+
+   public void testPipelinedRequests() throws Exception {
+      try (Socket socket = new Socket("localhost", PORT)) {
+         OutputStream out = socket.getOutputStream();
+         StringBuilder requests = new StringBuilder();
+         requests.append(request("PUT", PATH + "/k1", "v1"));
+         requests.append(request("PUT", PATH + "/k2", "v2"));
+         requests.append(request("GET", PATH + "/k1", null));
+         // Served by the JAX-RS resource, the following requests must see its effects
+         requests.append(request("DELETE", PATH, null));
+         requests.append(request("GET", PATH + "/k1", null));
+         requests.append(request("POST", PATH + "/k1", "v3"));
+         requests.append(request("POST", PATH + "/k1", "v4"));
+         requests.append(request("HEAD", PATH + "/k1", null));
+         requests.append(request("GET", PATH + "/k1", null));
+         requests.append(request("DELETE", PATH + "/k2", null));
+         requests.append(request("DELETE", PATH + "/k2", null));
+         out.write(requests.toString().getBytes(StandardCharsets.UTF_8));
+         out.flush();
+
+         InputStream in = new BufferedInputStream(socket.getInputStream());
+         assertResponse(in, 200, null);
+         assertResponse(in, 200, null);
+         assertResponse(in, 200, "v1");
+         assertResponse(in, 200, null);
+         assertResponse(in, 404, null);
+         assertResponse(in, 200, null);
+         assertResponse(in, 409, null);
+         assertResponse(in, 200, null);
+         assertResponse(in, 200, "v3");
+         assertResponse(in, 404, null);
+         assertResponse(in, 404, null);
+      }
+   }
+
+   private static String request(String method, String path, String body) {
+      StringBuilder sb = new StringBuilder();
+      sb.append(method).append(' ').append(path).append(" HTTP/1.1\r\n");
+      sb.append("Host: localhost\r\n");
+      if (body != null) {
+         sb.append("Content-Type: text/plain\r\n");
+         sb.append("Content-Length: ").append(body.length()).append("\r\n\r\n");
+         sb.append(body);
+      } else {
+         sb.append("\r\n");
+      }
+      return sb.toString();
+   }
+
+   private static void assertResponse(InputStream in, int expectedStatus, String expectedBody) throws IOException {
+      String statusLine = readLine(in);
+      assertEquals(Integer.parseInt(statusLine.split(" ")[1]), expectedStatus, statusLine);
+      Map<String, String> headers = new HashMap<>();
+      String line;
+      while (!(line = readLine(in)).isEmpty()) {
+         int colon = line.indexOf(':');
+         headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ENGLISH), line.substring(colon + 1).trim());
+      }
+      ByteArrayOutputStream body = new ByteArrayOutputStream();
+      if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+         int chunkSize;
+         while ((chunkSize = Integer.parseInt(readLine(in).trim(), 16)) > 0) {
+            readFully(in, body, chunkSize);
+            readLine(in);
+         }
+         readLine(in);
+      } else if (headers.containsKey("content-length")) {
+         readFully(in, body, Integer.parseInt(headers.get("content-length")));
+      }
+      if (expectedBody != null) {
+         assertEquals(new String(body.toByteArray(), StandardCharsets.UTF_8), expectedBody);
+      }
+   }
+
+   private static void readFully(InputStream in, ByteArrayOutputStream out, int length) throws IOException {
+      for (int i = 0; i < length; i++) {
+         int b = in.read();
+         if (b < 0) {
+            throw new IOException("Unexpected end of stream");
+         }
+         out.write(b);
+      }
+   }
+
+   private static String readLine(InputStream in) throws IOException {
+      StringBuilder sb = new StringBuilder();
+      int b;
+      while ((b = in.read()) != '\n') {
+         if (b < 0) {
+            throw new IOException("Unexpected end of stream");
+         }
+         if (b != '\r') {
+            sb.append((char) b);
+         }
+      }
+      return sb.toString();
+   }
+}